@@ -1,5 +1,6 @@
 package org.jmisb.api.common;
 
+import org.jmisb.api.metrics.Metrics;
 import org.slf4j.Logger;
 
 /**
@@ -7,6 +8,9 @@ import org.slf4j.Logger;
  *
  * <p>This is a singleton implementation that allows different strategies to be applied to different
  * kinds of invalid data.
+ *
+ * <p>The strategies apply to all parsing, except within {@link ParseContext#parse}, where the
+ * {@link ParseContext} strategies apply instead.
  */
 public class InvalidDataHandler {
 
@@ -78,6 +82,7 @@ public class InvalidDataHandler {
      * @throws KlvParseException if the handling strategy chooses to throw.
      */
     public void handleInvalidChecksum(Logger logger, String message) throws KlvParseException {
+        Metrics.getRecorder().invalidData(ParseDiagnostic.Kind.InvalidChecksum, logger.getName());
         this.invalidChecksumStrategy.process(logger, message);
     }
 
@@ -95,6 +100,7 @@ public class InvalidDataHandler {
      * @throws KlvParseException if the handling strategy chooses to throw.
      */
     public void handleMissingChecksum(Logger logger, String message) throws KlvParseException {
+        Metrics.getRecorder().invalidData(ParseDiagnostic.Kind.MissingChecksum, logger.getName());
         this.missingChecksumStrategy.process(logger, message);
     }
 
@@ -112,6 +118,7 @@ public class InvalidDataHandler {
      * @throws KlvParseException if the handling strategy chooses to throw.
      */
     public void handleOverrun(Logger logger, String message) throws KlvParseException {
+        Metrics.getRecorder().invalidData(ParseDiagnostic.Kind.Overrun, logger.getName());
         this.dataOverrunStrategy.process(logger, message);
     }
 
@@ -124,6 +131,8 @@ public class InvalidDataHandler {
      * @throws KlvParseException if the handling strategy chooses to throw.
      */
     public void handleInvalidFieldEncoding(Logger logger, String message) throws KlvParseException {
+        Metrics.getRecorder()
+                .invalidData(ParseDiagnostic.Kind.InvalidFieldEncoding, logger.getName());
         this.invalidFieldEncodingStrategy.process(logger, message);
     }
 }
@@ -0,0 +1,286 @@
+package org.jmisb.api.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.jmisb.api.metrics.Metrics;
+import org.slf4j.Logger;
+
+/**
+ * Handling of invalid data for a particular parse.
+ *
+ * <p>This is an alternative to the {@link InvalidDataHandler} singleton, for applications that
+ * parse several feeds with different strictness. Each context has its own strategies for the
+ * different kinds of invalid data. A strategy can also be {@code null}, which means that the
+ * invalid data is recorded as a {@link ParseDiagnostic} in the context, without logging or
+ * constructing an exception.
+ *
+ * <p>A context applies to the parsing done within {@link #parse(ParseAction)}, on the calling
+ * thread. Parsing outside of {@code parse} (or on other threads) uses the {@link
+ * InvalidDataHandler} singleton, as before. Parsers that hand work to other threads, such as {@link
+ * org.jmisb.api.klv.KlvParser#parseAll(byte[])}, capture the {@link #current()} context and parse
+ * within it on those threads. Similarly, a lazily parsed {@link
+ * org.jmisb.api.klv.st0601.UasDatalinkMessage} keeps the context it was parsed in, for values that
+ * are decoded later. For example:
+ *
+ * <pre>{@code
+ * ParseContext context = ParseContext.lenient();
+ * List<IMisbMessage> messages = context.parse(() -> KlvParser.parseBytes(bytes));
+ * for (ParseDiagnostic diagnostic : context.getDiagnostics()) {
+ *     ...
+ * }
+ * }</pre>
+ *
+ * <p>Diagnostics can be recorded from several threads at once, as happens when one parse is spread
+ * over several threads. The strategies should be set before parsing starts, and must themselves be
+ * thread safe if the context is shared in this way.
+ */
+public class ParseContext {
+
+    /** Context used when parsing outside of {@link #parse(ParseAction)}. */
+    private static final ParseContext GLOBAL = new ParseContext();
+
+    private static final ThreadLocal<ParseContext> CURRENT = new ThreadLocal<>();
+
+    private IInvalidDataHandlerStrategy invalidChecksumStrategy;
+    private IInvalidDataHandlerStrategy missingChecksumStrategy;
+    private IInvalidDataHandlerStrategy dataOverrunStrategy;
+    private IInvalidDataHandlerStrategy invalidFieldEncodingStrategy;
+    private final List<ParseDiagnostic> diagnostics = new ArrayList<>();
+
+    /**
+     * An action that parses data.
+     *
+     * @param <T> the type of the parsed result
+     */
+    @FunctionalInterface
+    public interface ParseAction<T> {
+        /**
+         * Perform the parse.
+         *
+         * @return the parsed result
+         * @throws KlvParseException if a parsing error occurs
+         */
+        T run() throws KlvParseException;
+    }
+
+    /**
+     * Construct a strict context.
+     *
+     * <p>All kinds of invalid data are handled with a {@link ThrowOnInvalidDataStrategy}, which is
+     * the same as the {@link InvalidDataHandler} default.
+     */
+    public ParseContext() {
+        this(new ThrowOnInvalidDataStrategy());
+    }
+
+    private ParseContext(IInvalidDataHandlerStrategy strategy) {
+        invalidChecksumStrategy = strategy;
+        missingChecksumStrategy = strategy;
+        dataOverrunStrategy = strategy;
+        invalidFieldEncodingStrategy = strategy;
+    }
+
+    /**
+     * Create a lenient context.
+     *
+     * <p>All kinds of invalid data are recorded as diagnostics, so parsing continues without
+     * exceptions being constructed for the invalid data.
+     *
+     * @return the new context
+     */
+    public static ParseContext lenient() {
+        return new ParseContext(null);
+    }
+
+    /**
+     * Get the context for parsing on the current thread.
+     *
+     * <p>This is intended for use by parsers when they encounter invalid data.
+     *
+     * @return the context of the enclosing {@link #parse(ParseAction)} call, or a context that
+     *     delegates to the {@link InvalidDataHandler} singleton if there is none
+     */
+    public static ParseContext current() {
+        ParseContext context = CURRENT.get();
+        return context == null ? GLOBAL : context;
+    }
+
+    /**
+     * Parse using this context.
+     *
+     * <p>Invalid data found by {@code action} on the calling thread is handled by this context.
+     * Calls can be nested, in which case the innermost context applies.
+     *
+     * @param <T> the type of the parsed result
+     * @param action the parse to perform
+     * @return the result of {@code action}
+     * @throws KlvParseException if {@code action} throws, including if a strategy chooses to throw
+     */
+    public <T> T parse(ParseAction<T> action) throws KlvParseException {
+        ParseContext previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return action.run();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Set the strategy to use in case of an invalid checksum.
+     *
+     * @param strategy the strategy to use, or null to record a diagnostic.
+     */
+    public void setInvalidChecksumStrategy(IInvalidDataHandlerStrategy strategy) {
+        invalidChecksumStrategy = strategy;
+    }
+
+    /**
+     * Set the strategy to use in case of an required, but missing, checksum.
+     *
+     * @param strategy the strategy to use, or null to record a diagnostic.
+     */
+    public void setMissingChecksumStrategy(IInvalidDataHandlerStrategy strategy) {
+        missingChecksumStrategy = strategy;
+    }
+
+    /**
+     * Set the strategy to use in case of a data overrun.
+     *
+     * @param strategy the strategy to use, or null to record a diagnostic.
+     */
+    public void setOverrunStrategy(IInvalidDataHandlerStrategy strategy) {
+        dataOverrunStrategy = strategy;
+    }
+
+    /**
+     * Set the strategy to use in case of invalid field encoding.
+     *
+     * @param strategy the strategy to use, or null to record a diagnostic.
+     */
+    public void setInvalidFieldEncodingStrategy(IInvalidDataHandlerStrategy strategy) {
+        invalidFieldEncodingStrategy = strategy;
+    }
+
+    /**
+     * Get the diagnostics recorded by this context.
+     *
+     * @return the diagnostics, in the order they were recorded
+     */
+    public List<ParseDiagnostic> getDiagnostics() {
+        synchronized (diagnostics) {
+            return Collections.unmodifiableList(new ArrayList<>(diagnostics));
+        }
+    }
+
+    /**
+     * Check whether any diagnostics have been recorded.
+     *
+     * @return true if invalid data has been recorded
+     */
+    public boolean hasDiagnostics() {
+        synchronized (diagnostics) {
+            return !diagnostics.isEmpty();
+        }
+    }
+
+    /** Discard the recorded diagnostics, so that the context can be reused. */
+    public void clearDiagnostics() {
+        synchronized (diagnostics) {
+            diagnostics.clear();
+        }
+    }
+
+    /**
+     * Handle the case where the checksum is invalid.
+     *
+     * @param logger source logger, not null
+     * @param message a message associated with the source event, ideally describing the nature of
+     *     the invalid data
+     * @throws KlvParseException if the handling strategy chooses to throw.
+     * @see InvalidDataHandler#handleInvalidChecksum(Logger, String)
+     */
+    public void handleInvalidChecksum(Logger logger, String message) throws KlvParseException {
+        if (this == GLOBAL) {
+            InvalidDataHandler.getInstance().handleInvalidChecksum(logger, message);
+        } else {
+            handle(invalidChecksumStrategy, ParseDiagnostic.Kind.InvalidChecksum, logger, message);
+        }
+    }
+
+    /**
+     * Handle the case where the checksum is missing.
+     *
+     * @param logger source logger, not null
+     * @param message a message associated with the source event, ideally describing the nature of
+     *     the invalid data
+     * @throws KlvParseException if the handling strategy chooses to throw.
+     * @see InvalidDataHandler#handleMissingChecksum(Logger, String)
+     */
+    public void handleMissingChecksum(Logger logger, String message) throws KlvParseException {
+        if (this == GLOBAL) {
+            InvalidDataHandler.getInstance().handleMissingChecksum(logger, message);
+        } else {
+            handle(missingChecksumStrategy, ParseDiagnostic.Kind.MissingChecksum, logger, message);
+        }
+    }
+
+    /**
+     * Handle the case where the the parsing overruns the available data.
+     *
+     * @param logger source logger, not null
+     * @param message a message associated with the source event, ideally describing the nature of
+     *     the invalid data
+     * @throws KlvParseException if the handling strategy chooses to throw.
+     * @see InvalidDataHandler#handleOverrun(Logger, String)
+     */
+    public void handleOverrun(Logger logger, String message) throws KlvParseException {
+        if (this == GLOBAL) {
+            InvalidDataHandler.getInstance().handleOverrun(logger, message);
+        } else {
+            handle(dataOverrunStrategy, ParseDiagnostic.Kind.Overrun, logger, message);
+        }
+    }
+
+    /**
+     * Handle the case where the field could not be decoded correctly.
+     *
+     * @param logger source logger, not null
+     * @param message a message associated with the source event, ideally describing the nature of
+     *     the invalid data
+     * @throws KlvParseException if the handling strategy chooses to throw.
+     * @see InvalidDataHandler#handleInvalidFieldEncoding(Logger, String)
+     */
+    public void handleInvalidFieldEncoding(Logger logger, String message) throws KlvParseException {
+        if (this == GLOBAL) {
+            InvalidDataHandler.getInstance().handleInvalidFieldEncoding(logger, message);
+        } else {
+            handle(
+                    invalidFieldEncodingStrategy,
+                    ParseDiagnostic.Kind.InvalidFieldEncoding,
+                    logger,
+                    message);
+        }
+    }
+
+    private void handle(
+            IInvalidDataHandlerStrategy strategy,
+            ParseDiagnostic.Kind kind,
+            Logger logger,
+            String message)
+            throws KlvParseException {
+        Metrics.getRecorder().invalidData(kind, logger.getName());
+        if (strategy == null) {
+            synchronized (diagnostics) {
+                diagnostics.add(new ParseDiagnostic(kind, message));
+            }
+        } else {
+            strategy.process(logger, message);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.jmisb.api.common;
+
+/**
+ * Invalid data found during parsing.
+ *
+ * <p>Diagnostics are recorded by a {@link ParseContext} when its strategy for that kind of invalid
+ * data is to record it, rather than to throw or log.
+ */
+public class ParseDiagnostic {
+
+    /** The kinds of invalid data. */
+    public enum Kind {
+        /** The checksum is present, but does not have the expected value. */
+        InvalidChecksum,
+        /** The checksum is required, but is not present. */
+        MissingChecksum,
+        /** The parsing overran the available data. */
+        Overrun,
+        /** A field could not be decoded correctly. */
+        InvalidFieldEncoding
+    }
+
+    private final Kind kind;
+    private final String message;
+
+    /**
+     * Constructor.
+     *
+     * @param kind the kind of invalid data
+     * @param message a message describing the nature of the invalid data
+     */
+    public ParseDiagnostic(Kind kind, String message) {
+        this.kind = kind;
+        this.message = message;
+    }
+
+    /**
+     * Get the kind of invalid data.
+     *
+     * @return the kind
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Get the message describing the invalid data.
+     *
+     * @return the message
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return kind + ": " + message;
+    }
+}
@@ -1,8 +1,6 @@
 package org.jmisb.api.klv;
 
-import java.util.ArrayList;
-import java.util.List;
-import org.jmisb.core.klv.ArrayUtils;
+import java.util.Arrays;
 import org.jmisb.core.klv.PrimitiveConverter;
 
 /**
@@ -12,16 +10,27 @@ import org.jmisb.core.klv.PrimitiveConverter;
  * or from some common KLV types.
  *
  * <p>It supports method chaining to make the code more fluent.
+ *
+ * <p>The bytes are written into a single growable array, which has some space reserved at the start
+ * so that a key and length can be prepended without moving the content.
  */
 public class ArrayBuilder {
-    private final List<byte[]> chunks;
-    private int numBytesInChunks = 0;
+    /** Space reserved for prepending, enough for a Universal Label and a long form length. */
+    private static final int PREPEND_HEADROOM = 32;
+
+    private static final int INITIAL_CAPACITY = 128;
+
+    private byte[] buffer;
+    private int start;
+    private int end;
     private byte bitBuffer = 0;
     private int bitPosition = 0;
 
     /** Constructor. */
     public ArrayBuilder() {
-        this.chunks = new ArrayList<>();
+        this.buffer = new byte[PREPEND_HEADROOM + INITIAL_CAPACITY];
+        this.start = PREPEND_HEADROOM;
+        this.end = PREPEND_HEADROOM;
     }
 
     /**
@@ -32,8 +41,7 @@ public class ArrayBuilder {
      */
     public ArrayBuilder append(byte[] bytes) {
         flushBitBuffer();
-        chunks.add(bytes);
-        numBytesInChunks += bytes.length;
+        put(bytes);
         return this;
     }
 
@@ -44,7 +52,10 @@ public class ArrayBuilder {
      * @return this instance, to support method chaining.
      */
     public ArrayBuilder appendByte(byte b) {
-        return this.append(new byte[] {b});
+        flushBitBuffer();
+        ensureCapacity(Byte.BYTES);
+        buffer[end++] = b;
+        return this;
     }
 
     /**
@@ -80,10 +91,10 @@ public class ArrayBuilder {
         return this;
     }
 
-    /** Append a complete "bit buffer" byte to the chunks and reset position. */
+    /** Append a complete "bit buffer" byte to the array and reset position. */
     private void appendBitBuffer() {
-        chunks.add(new byte[] {(byte) bitBuffer});
-        numBytesInChunks += Byte.BYTES;
+        ensureCapacity(Byte.BYTES);
+        buffer[end++] = bitBuffer;
         bitBuffer = 0x00;
         bitPosition = 0;
     }
@@ -95,9 +106,8 @@ public class ArrayBuilder {
      */
     public ArrayBuilder appendAsOID(int value) {
         flushBitBuffer();
-        byte[] encodedBytes = BerEncoder.encode(value, Ber.OID);
-        numBytesInChunks += encodedBytes.length;
-        chunks.add(encodedBytes);
+        ensureCapacity(BerEncoder.getEncodedLength(value, Ber.OID));
+        end += BerEncoder.encode(value, Ber.OID, buffer, end);
         return this;
     }
 
@@ -113,9 +123,7 @@ public class ArrayBuilder {
      */
     public ArrayBuilder appendAsBerLength(int length) {
         flushBitBuffer();
-        byte[] encodedBytes = BerEncoder.encode(length);
-        numBytesInChunks += encodedBytes.length;
-        chunks.add(encodedBytes);
+        put(BerEncoder.encode(length));
         return this;
     }
 
@@ -128,8 +136,7 @@ public class ArrayBuilder {
     public ArrayBuilder appendAsFloat64Primitive(double value) {
         flushBitBuffer();
         byte[] encodedBytes = PrimitiveConverter.float64ToBytes(value);
-        chunks.add(encodedBytes);
-        numBytesInChunks += encodedBytes.length;
+        put(encodedBytes);
         return this;
     }
 
@@ -142,8 +149,7 @@ public class ArrayBuilder {
     public ArrayBuilder appendAsFloat32Primitive(float value) {
         flushBitBuffer();
         byte[] encodedBytes = PrimitiveConverter.float32ToBytes(value);
-        chunks.add(encodedBytes);
-        numBytesInChunks += encodedBytes.length;
+        put(encodedBytes);
         return this;
     }
 
@@ -156,8 +162,7 @@ public class ArrayBuilder {
     public ArrayBuilder appendAsInt32Primitive(int value) {
         flushBitBuffer();
         byte[] encodedBytes = PrimitiveConverter.int32ToBytes(value);
-        chunks.add(encodedBytes);
-        numBytesInChunks += encodedBytes.length;
+        put(encodedBytes);
         return this;
     }
 
@@ -170,8 +175,7 @@ public class ArrayBuilder {
     public ArrayBuilder appendAsUInt32Primitive(long value) {
         flushBitBuffer();
         byte[] encodedBytes = PrimitiveConverter.uint32ToBytes(value);
-        chunks.add(encodedBytes);
-        numBytesInChunks += encodedBytes.length;
+        put(encodedBytes);
         return this;
     }
 
@@ -184,8 +188,7 @@ public class ArrayBuilder {
     public ArrayBuilder append(UniversalLabel universalLabel) {
         flushBitBuffer();
         byte[] encodedBytes = universalLabel.getBytes();
-        chunks.add(encodedBytes);
-        numBytesInChunks += encodedBytes.length;
+        put(encodedBytes);
         return this;
     }
 
@@ -197,9 +200,7 @@ public class ArrayBuilder {
      */
     public ArrayBuilder prepend(UniversalLabel universalLabel) {
         flushBitBuffer();
-        byte[] encodedBytes = universalLabel.getBytes();
-        chunks.add(0, encodedBytes);
-        numBytesInChunks += encodedBytes.length;
+        putFirst(universalLabel.getBytes());
         return this;
     }
 
@@ -230,9 +231,7 @@ public class ArrayBuilder {
      */
     public ArrayBuilder prependLengthPlus(int additionalLength) {
         flushBitBuffer();
-        byte[] encodedBytes = BerEncoder.encode(numBytesInChunks + additionalLength);
-        numBytesInChunks += encodedBytes.length;
-        chunks.add(0, encodedBytes);
+        putFirst(BerEncoder.encode(end - start + additionalLength));
         return this;
     }
     /**
@@ -242,6 +241,37 @@ public class ArrayBuilder {
      */
     public byte[] toBytes() {
         flushBitBuffer();
-        return ArrayUtils.arrayFromChunks(chunks, numBytesInChunks);
+        return Arrays.copyOfRange(buffer, start, end);
+    }
+
+    /** Copy bytes to the end of the array. */
+    private void put(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, end, bytes.length);
+        end += bytes.length;
+    }
+
+    /** Copy bytes to the start of the array. */
+    private void putFirst(byte[] bytes) {
+        if (start < bytes.length) {
+            // Move the content up to restore the headroom
+            int length = end - start;
+            int newStart = bytes.length + PREPEND_HEADROOM;
+            byte[] newBuffer = new byte[Math.max(buffer.length, newStart + length)];
+            System.arraycopy(buffer, start, newBuffer, newStart, length);
+            buffer = newBuffer;
+            start = newStart;
+            end = newStart + length;
+        }
+        start -= bytes.length;
+        System.arraycopy(bytes, 0, buffer, start, bytes.length);
+    }
+
+    /** Make sure there is space to append the specified number of bytes. */
+    private void ensureCapacity(int additional) {
+        int required = end + additional;
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+        }
     }
 }
@@ -15,6 +15,26 @@ public class BerDecoder {
      */
     public static BerField decode(byte[] data, int offset, boolean isOid)
             throws IllegalArgumentException {
+        long packed = decodePacked(data, offset, isOid);
+        return new BerField(getLength(packed), getValue(packed));
+    }
+
+    /**
+     * Decode a field (length and value) from an encoded byte array, without allocating.
+     *
+     * <p>This is equivalent to {@link #decode(byte[], int, boolean)}, except that the result is
+     * packed into a {@code long} rather than returned as a {@link BerField}. Use {@link
+     * #getLength(long)} and {@link #getValue(long)} to unpack it. This avoids creating objects for
+     * every tag and length when parsing local sets.
+     *
+     * @param data Array holding the BER-encoded data
+     * @param offset Index of the first byte of the array to decode
+     * @param isOid true if the data is encoded using BER-OID
+     * @return the size of the field in bytes and the decoded value, packed into a long
+     * @throws IllegalArgumentException if the encoded data is invalid
+     */
+    public static long decodePacked(byte[] data, int offset, boolean isOid)
+            throws IllegalArgumentException {
         final int length, value;
 
         // logger.debug("First byte of BER: " + String.format("%02X ", data[offset]));
@@ -75,6 +95,26 @@ public class BerDecoder {
             throw new IllegalArgumentException("BER: error decoding value");
         }
 
-        return new BerField(length, value);
+        return ((long) length << 32) | value;
+    }
+
+    /**
+     * Get the size of a field returned by {@link #decodePacked(byte[], int, boolean)}.
+     *
+     * @param packed the packed field
+     * @return Size of the field in bytes
+     */
+    public static int getLength(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    /**
+     * Get the value of a field returned by {@link #decodePacked(byte[], int, boolean)}.
+     *
+     * @param packed the packed field
+     * @return The value as an integer
+     */
+    public static int getValue(long packed) {
+        return (int) packed;
     }
 }
@@ -1,6 +1,6 @@
 package org.jmisb.api.klv;
 
-import java.util.Arrays;
+import java.nio.ByteBuffer;
 
 /** Encode data using Basic Encoding Rules (BER). */
 public class BerEncoder {
@@ -17,62 +17,120 @@ public class BerEncoder {
      * @throws IllegalArgumentException If a negative value is specified
      */
     public static byte[] encode(int value, Ber ber) {
-        if (value < 0) {
-            throw new IllegalArgumentException("Value cannot be negative");
+        byte[] bytes = new byte[getEncodedLength(value, ber)];
+        encode(value, ber, bytes, 0);
+        return bytes;
+    }
+
+    /**
+     * Encode an integer using Basic Encoding Rules (BER) into an existing array.
+     *
+     * @param value The value to encode (must be non-negative)
+     * @param ber Encoding type
+     * @param dest The array to write to
+     * @param offset Index of the first byte to write
+     * @return The number of bytes written
+     * @throws IllegalArgumentException If a negative value is specified
+     */
+    public static int encode(int value, Ber ber, byte[] dest, int offset) {
+        final int length = getEncodedLength(value, ber);
+        for (int i = 0; i < length; i++) {
+            dest[offset + i] = encodedByte(value, ber, length, i);
         }
+        return length;
+    }
 
-        byte[] bytes;
+    /**
+     * Encode an integer using Basic Encoding Rules (BER) into a buffer.
+     *
+     * <p>The encoded bytes are written at the buffer's current position, which is then advanced.
+     *
+     * @param value The value to encode (must be non-negative)
+     * @param ber Encoding type
+     * @param dest The buffer to write to
+     * @throws IllegalArgumentException If a negative value is specified
+     * @throws java.nio.BufferOverflowException If there is not enough space in the buffer
+     */
+    public static void encode(int value, Ber ber, ByteBuffer dest) {
+        final int length = getEncodedLength(value, ber);
+        for (int i = 0; i < length; i++) {
+            dest.put(encodedByte(value, ber, length, i));
+        }
+    }
 
+    /**
+     * Get the number of bytes needed to encode an integer using Basic Encoding Rules (BER).
+     *
+     * @param value The value to encode (must be non-negative)
+     * @param ber Encoding type
+     * @return The length of the encoded value, in bytes
+     * @throws IllegalArgumentException If a negative value is specified, or the value cannot be
+     *     represented by the encoding type
+     */
+    public static int getEncodedLength(int value, Ber ber) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value cannot be negative");
+        }
         if (ber == Ber.SHORT_FORM) {
             if (value > SHORT_FORM_MAX_LENGTH) {
                 throw new IllegalArgumentException(
                         "BER short form can only represent the range [0,127]");
             }
-            bytes = new byte[1];
-            bytes[0] = (byte) value;
+            return 1;
         } else if (ber == Ber.LONG_FORM) {
             if (value <= 255) {
-                // 1 byte
-                bytes = new byte[2];
-                bytes[0] = (byte) 0x81;
-                bytes[1] = (byte) value;
+                return 2;
             } else if (value <= 65535) {
-                // 2 bytes
-                bytes = new byte[3];
-                bytes[0] = (byte) 0x82;
-                bytes[1] = (byte) (value >>> 8);
-                bytes[2] = (byte) (value);
+                return 3;
             } else if (value <= 16777215) {
-                // 3 bytes
-                bytes = new byte[4];
-                bytes[0] = (byte) 0x83;
-                bytes[1] = (byte) (value >>> 16);
-                bytes[2] = (byte) (value >>> 8);
-                bytes[3] = (byte) (value);
+                return 4;
             } else {
-                // 4 bytes
-                bytes = new byte[5];
-                bytes[0] = (byte) 0x84;
-                bytes[1] = (byte) (value >>> 24);
-                bytes[2] = (byte) (value >>> 16);
-                bytes[3] = (byte) (value >>> 8);
-                bytes[4] = (byte) (value);
+                return 5;
             }
         } else {
-            // BER-OID
-            byte[] encoded = new byte[] {0, 0, 0, 0, 0};
-            int i;
-            for (i = 4; i >= 0; i--) {
-                encoded[i] = (byte) (value & 0x7f);
-                if (i != 4) encoded[i] |= 0x80;
-                value >>= 7;
-                if (value == 0) break;
+            // BER-OID uses 7 bits per byte
+            int length = 1;
+            while ((value >>= 7) != 0) {
+                length++;
             }
-
-            bytes = Arrays.copyOfRange(encoded, i, 5);
+            return length;
         }
+    }
 
-        return bytes;
+    /**
+     * Get the number of bytes needed to encode an integer using short or long form, whichever is
+     * more compact.
+     *
+     * @param value The value to encode (must be non-negative)
+     * @return The length of the encoded value, in bytes
+     * @throws IllegalArgumentException If a negative value is specified
+     */
+    public static int getEncodedLength(int value) {
+        return getEncodedLength(value, compactForm(value));
+    }
+
+    /**
+     * Get one byte of an encoded value.
+     *
+     * @param value The value to encode
+     * @param ber Encoding type
+     * @param length The total length of the encoded value
+     * @param index The index of the byte to get
+     * @return The encoded byte
+     */
+    private static byte encodedByte(int value, Ber ber, int length, int index) {
+        if (ber == Ber.SHORT_FORM) {
+            return (byte) value;
+        } else if (ber == Ber.LONG_FORM) {
+            if (index == 0) {
+                return (byte) (0x80 | (length - 1));
+            }
+            return (byte) (value >> (8 * (length - 1 - index)));
+        } else {
+            // BER-OID: high bit set on all but the last byte
+            int bits = (value >>> (7 * (length - 1 - index))) & 0x7f;
+            return (byte) ((index == length - 1) ? bits : (bits | 0x80));
+        }
     }
 
     /**
@@ -83,7 +141,22 @@ public class BerEncoder {
      * @throws IllegalArgumentException If a negative value is specified
      */
     public static byte[] encode(int value) {
-        Ber ber = (value <= SHORT_FORM_MAX_LENGTH) ? Ber.SHORT_FORM : Ber.LONG_FORM;
-        return encode(value, ber);
+        return encode(value, compactForm(value));
+    }
+
+    /**
+     * Encode an integer into a buffer using short or long form, whichever is more compact.
+     *
+     * @param value The value to encode (must be non-negative)
+     * @param dest The buffer to write to
+     * @throws IllegalArgumentException If a negative value is specified
+     * @throws java.nio.BufferOverflowException If there is not enough space in the buffer
+     */
+    public static void encode(int value, ByteBuffer dest) {
+        encode(value, compactForm(value), dest);
+    }
+
+    private static Ber compactForm(int value) {
+        return (value <= SHORT_FORM_MAX_LENGTH) ? Ber.SHORT_FORM : Ber.LONG_FORM;
     }
 }
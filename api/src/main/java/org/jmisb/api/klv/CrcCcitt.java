@@ -1,47 +1,51 @@
 package org.jmisb.api.klv;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 /**
  * CRC-16 CCITT variant implementation.
  *
- * <p>There are many implementations of CRC-16. This version is directly from Appendix D of the
- * Motion Imagery Handbook (October 2019), Appendix D.
+ * <p>There are many implementations of CRC-16. This version produces the same results as the
+ * implementation in Appendix D of the Motion Imagery Handbook (October 2019), which is the variant
+ * sometimes known as CRC-16/AUG-CCITT (polynomial 0x1021, initial value 0x1D0F, no reflection).
  *
- * <p>No copyright is claimed over the code in this source file.
+ * <p>The computation uses slice-by-8 lookup tables, processing eight bytes per step.
  *
  * <p>Note that this is not the same as the ST 0601 Checksum.
  */
 public class CrcCcitt {
 
-    private static final int[] TABLE = createTable(4129, 16, 8);
+    private static final int POLYNOMIAL = 0x1021;
+    private static final int INITIAL_VALUE = 0x1D0F;
+    private static final int NUM_TABLES = 8;
+
+    /**
+     * Lookup tables.
+     *
+     * <p>{@code TABLES[k][b]} is the CRC contribution of byte {@code b} followed by {@code k} zero
+     * bytes.
+     */
+    private static final int[][] TABLES = createTables();
 
-    private int tVal;
-    private int aVal;
-    private int lastBVal;
-    private int lookUp;
-    private int bVal;
+    private int crc = INITIAL_VALUE;
 
-    private static int[] createTable(int poly, int width, int lookUpSize) {
-        int size = (int) Math.pow(2, lookUpSize);
-        int[] table = new int[size];
-        for (int i = 0; i < size; i++) {
-            table[i] = tableElement(i, poly, width, lookUpSize);
+    private static int[][] createTables() {
+        int[][] tables = new int[NUM_TABLES][256];
+        for (int i = 0; i < 256; i++) {
+            int value = i << 8;
+            for (int bit = 0; bit < 8; bit++) {
+                value = ((value & 0x8000) != 0) ? (value << 1) ^ POLYNOMIAL : value << 1;
+            }
+            tables[0][i] = value & 0xFFFF;
         }
-        return table;
-    }
-
-    private static int tableElement(int ival, int poly, int width, int lookUpSize) {
-        int topBit = (int) Math.pow(2, (width - 1));
-        int index = ival * ((int) Math.pow(2, lookUpSize));
-        int mask = (int) Math.pow(2, width) - 1;
-        for (int i = 0; i < lookUpSize; i++) {
-            if ((topBit & index) != 0) {
-                index = (index * 2) ^ poly;
-            } else {
-                index *= 2;
+        for (int k = 1; k < NUM_TABLES; k++) {
+            for (int i = 0; i < 256; i++) {
+                int previous = tables[k - 1][i];
+                tables[k][i] = ((previous << 8) & 0xFFFF) ^ tables[0][previous >>> 8];
             }
-            index &= mask;
         }
-        return index;
+        return tables;
     }
 
     /**
@@ -51,52 +55,111 @@ public class CrcCcitt {
      * @return the two byte checksum.
      */
     public static byte[] getCRC(byte[] key) {
-        CrcCcitt crcCcitt = new CrcCcitt();
-        crcCcitt.addData(key);
-        return crcCcitt.getCrc();
+        return getCRC(key, 0, key.length);
     }
 
-    /** Constructor. */
-    public CrcCcitt() {
-        tVal = TABLE[255];
-        aVal = (tVal >> 8);
-        lastBVal = (tVal & 255);
-        lookUp = (aVal ^ 255);
+    /**
+     * Calculate a CRC-16 from part of a byte array.
+     *
+     * @param bytes the array containing the bytes to compute over.
+     * @param offset the index of the first byte to compute over.
+     * @param length the number of bytes to compute over.
+     * @return the two byte checksum.
+     */
+    public static byte[] getCRC(byte[] bytes, int offset, int length) {
+        return toBytes(compute(bytes, offset, length));
     }
 
+    /**
+     * Calculate a CRC-16 from part of a byte array.
+     *
+     * <p>This is the same as {@link #getCRC(byte[], int, int)}, but returns the value as an
+     * integer, and does not allocate.
+     *
+     * @param bytes the array containing the bytes to compute over.
+     * @param offset the index of the first byte to compute over.
+     * @param length the number of bytes to compute over.
+     * @return the checksum, in the range [0, 0xFFFF].
+     */
+    public static int compute(byte[] bytes, int offset, int length) {
+        return update(INITIAL_VALUE, bytes, offset, length);
+    }
+
+    /**
+     * Calculate a CRC-16 from part of a buffer.
+     *
+     * <p>This uses absolute positions, so the buffer's position and limit are not modified.
+     *
+     * @param buffer the buffer containing the bytes to compute over.
+     * @param offset the index of the first byte to compute over.
+     * @param length the number of bytes to compute over.
+     * @return the checksum, in the range [0, 0xFFFF].
+     */
+    public static int compute(ByteBuffer buffer, int offset, int length) {
+        return update(INITIAL_VALUE, buffer, offset, length);
+    }
+
+    /** Constructor. */
+    public CrcCcitt() {}
+
     /**
      * Add byte array data to the CRC-16 calculation.
      *
      * @param data the bytes to compute over.
      */
     public void addData(byte[] data) {
-        addData(data, data.length);
+        addData(data, 0, data.length);
     }
 
-    private void addData(byte[] data, int length) {
-        for (int i = 0; i < length; i++) {
-            tVal = TABLE[lookUp];
-            aVal = (tVal >> 8);
-            bVal = (tVal & 255);
-            lookUp = aVal ^ lastBVal ^ data[i] & 0xFF;
-            lastBVal = bVal;
-        }
+    /**
+     * Add part of a byte array to the CRC-16 calculation.
+     *
+     * @param data the array containing the bytes to compute over.
+     * @param offset the index of the first byte to compute over.
+     * @param length the number of bytes to compute over.
+     */
+    public void addData(byte[] data, int offset, int length) {
+        crc = update(crc, data, offset, length);
+    }
+
+    /**
+     * Add part of a buffer to the CRC-16 calculation.
+     *
+     * <p>This uses absolute positions, so the buffer's position and limit are not modified.
+     *
+     * @param buffer the buffer containing the bytes to compute over.
+     * @param offset the index of the first byte to compute over.
+     * @param length the number of bytes to compute over.
+     */
+    public void addData(ByteBuffer buffer, int offset, int length) {
+        crc = update(crc, buffer, offset, length);
     }
 
     /**
-     * Finalise the CRC-16 calculation.
+     * Get the CRC-16 of the data added so far.
+     *
+     * <p>More data can be added after calling this method.
      *
      * @return the two byte checksum.
      */
     public byte[] getCrc() {
-        tVal = TABLE[lookUp];
-        aVal = (tVal >> 8);
-        bVal = (tVal & 255);
-        lookUp = (aVal ^ lastBVal);
-        int returnVal = ((lookUp * 256) ^ bVal);
-        byte highByte = (byte) (returnVal >>> 8);
-        byte lowByte = (byte) (returnVal & 0xFF);
-        return new byte[] {highByte, lowByte};
+        return toBytes(crc);
+    }
+
+    /**
+     * Get the CRC-16 of the data added so far, as an integer.
+     *
+     * <p>More data can be added after calling this method.
+     *
+     * @return the checksum, in the range [0, 0xFFFF].
+     */
+    public int getValue() {
+        return crc;
+    }
+
+    /** Reset the calculation, so that the instance can be reused. */
+    public void reset() {
+        crc = INITIAL_VALUE;
     }
 
     /**
@@ -117,10 +180,65 @@ public class CrcCcitt {
         if (expected.length != 2) {
             return false;
         }
-        CrcCcitt crc16 = new CrcCcitt();
-        crc16.addData(fullMessage, fullMessage.length - 2);
-        byte[] result = crc16.getCrc();
-        boolean matches = (result[0] == expected[0]) && (result[1] == expected[1]);
-        return matches;
+        int result = compute(fullMessage, 0, fullMessage.length - 2);
+        return result == (((expected[0] & 0xFF) << 8) | (expected[1] & 0xFF));
+    }
+
+    private static int update(int crc, byte[] data, int offset, int length) {
+        final int[] t0 = TABLES[0];
+        final int[] t1 = TABLES[1];
+        final int[] t2 = TABLES[2];
+        final int[] t3 = TABLES[3];
+        final int[] t4 = TABLES[4];
+        final int[] t5 = TABLES[5];
+        final int[] t6 = TABLES[6];
+        final int[] t7 = TABLES[7];
+        int i = offset;
+        final int end = offset + length;
+        for (; i <= end - NUM_TABLES; i += NUM_TABLES) {
+            crc =
+                    t7[((crc >>> 8) ^ data[i]) & 0xFF]
+                            ^ t6[(crc ^ data[i + 1]) & 0xFF]
+                            ^ t5[data[i + 2] & 0xFF]
+                            ^ t4[data[i + 3] & 0xFF]
+                            ^ t3[data[i + 4] & 0xFF]
+                            ^ t2[data[i + 5] & 0xFF]
+                            ^ t1[data[i + 6] & 0xFF]
+                            ^ t0[data[i + 7] & 0xFF];
+        }
+        for (; i < end; i++) {
+            crc = ((crc << 8) & 0xFFFF) ^ t0[((crc >>> 8) ^ data[i]) & 0xFF];
+        }
+        return crc;
+    }
+
+    private static int update(int crc, ByteBuffer buffer, int offset, int length) {
+        if (buffer.hasArray()) {
+            return update(crc, buffer.array(), buffer.arrayOffset() + offset, length);
+        }
+        int i = offset;
+        final int end = offset + length;
+        if (buffer.order() == ByteOrder.BIG_ENDIAN) {
+            for (; i <= end - NUM_TABLES; i += NUM_TABLES) {
+                long v = buffer.getLong(i);
+                crc =
+                        TABLES[7][((crc >>> 8) ^ (int) (v >>> 56)) & 0xFF]
+                                ^ TABLES[6][(crc ^ (int) (v >>> 48)) & 0xFF]
+                                ^ TABLES[5][(int) (v >>> 40) & 0xFF]
+                                ^ TABLES[4][(int) (v >>> 32) & 0xFF]
+                                ^ TABLES[3][(int) (v >>> 24) & 0xFF]
+                                ^ TABLES[2][(int) (v >>> 16) & 0xFF]
+                                ^ TABLES[1][(int) (v >>> 8) & 0xFF]
+                                ^ TABLES[0][(int) v & 0xFF];
+            }
+        }
+        for (; i < end; i++) {
+            crc = ((crc << 8) & 0xFFFF) ^ TABLES[0][((crc >>> 8) ^ buffer.get(i)) & 0xFF];
+        }
+        return crc;
+    }
+
+    private static byte[] toBytes(int value) {
+        return new byte[] {(byte) (value >> 8), (byte) value};
     }
 }
@@ -1,5 +1,7 @@
 package org.jmisb.api.klv;
 
+import java.nio.ByteBuffer;
+
 /** A packet containing MISB-compliant metadata. */
 public interface IMisbMessage extends INestedKlvValue {
     /**
@@ -18,6 +20,35 @@ public interface IMisbMessage extends INestedKlvValue {
      */
     byte[] frameMessage(boolean isNested);
 
+    /**
+     * Get the length of the framed message.
+     *
+     * <p>This is the number of bytes that {@link #encodeTo(ByteBuffer)} will write, including the
+     * key and length field. The default implementation frames the message to find out; message
+     * types that can compute the length directly should override it.
+     *
+     * @return the length of the framed message, in bytes
+     */
+    default int encodedLength() {
+        return frameMessage(false).length;
+    }
+
+    /**
+     * Frame the message into a buffer.
+     *
+     * <p>The framed message (including key and length field) is written at the buffer's current
+     * position, which is then advanced. This allows messages to be written into a re-used (or
+     * direct) buffer. The default implementation writes the result of {@code frameMessage(false)};
+     * message types that can write directly to the buffer should override it.
+     *
+     * @param buffer the buffer to write to
+     * @throws java.nio.BufferOverflowException if there is not enough space in the buffer, in which
+     *     case nothing is written
+     */
+    default void encodeTo(ByteBuffer buffer) {
+        buffer.put(frameMessage(false));
+    }
+
     /**
      * A display header for the message type.
      *
@@ -1,5 +1,7 @@
 package org.jmisb.api.klv;
 
+import java.util.Arrays;
+import java.util.Set;
 import org.jmisb.api.common.KlvParseException;
 
 /** Interface for IMisbMessage factory creation. */
@@ -15,4 +17,47 @@ public interface IMisbMessageFactory {
      * @throws KlvParseException if the parsing failed.
      */
     IMisbMessage create(byte[] bytes) throws KlvParseException;
+
+    /**
+     * Create a new {@link IMisbMessage} instance from a range of encoded bytes.
+     *
+     * <p>The range must start with the 16-byte {@link UniversalLabel} and contain exactly one
+     * message. Implementations that can parse in place should override this to avoid copying the
+     * message out of {@code bytes}; the default implementation copies the range (if required) and
+     * calls {@link #create(byte[])}.
+     *
+     * @param bytes the array containing the encoded message.
+     * @param offset the index of the first byte of the message.
+     * @param length the length of the message, in bytes.
+     * @return IMisbMessage implementation.
+     * @throws KlvParseException if the parsing failed.
+     */
+    default IMisbMessage create(byte[] bytes, int offset, int length) throws KlvParseException {
+        if ((offset == 0) && (length == bytes.length)) {
+            return create(bytes);
+        }
+        return create(Arrays.copyOfRange(bytes, offset, offset + length));
+    }
+
+    /**
+     * Create a new {@link IMisbMessage} instance from a range of encoded bytes, decoding only
+     * selected values.
+     *
+     * <p>The wanted keys are a hint: implementations that support projection skip the fields that
+     * are not wanted, while the default implementation ignores {@code wantedKeys} and decodes the
+     * whole message using {@link #create(byte[], int, int)}.
+     *
+     * @param bytes the array containing the encoded message.
+     * @param offset the index of the first byte of the message.
+     * @param length the length of the message, in bytes.
+     * @param wantedKeys the keys to decode, or null to decode all keys.
+     * @return IMisbMessage implementation.
+     * @throws KlvParseException if the parsing failed.
+     * @see TagFilter
+     */
+    default IMisbMessage create(
+            byte[] bytes, int offset, int length, Set<? extends IKlvKey> wantedKeys)
+            throws KlvParseException {
+        return create(bytes, offset, length);
+    }
 }
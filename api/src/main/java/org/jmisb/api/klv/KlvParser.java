@@ -1,9 +1,16 @@
 package org.jmisb.api.klv;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -11,6 +18,9 @@ import org.slf4j.LoggerFactory;
 public class KlvParser {
     private static Logger logger = LoggerFactory.getLogger(KlvParser.class);
 
+    /** Number of messages decoded by each task in {@code parseAll}. */
+    private static final int PARSE_ALL_BATCH_SIZE = 32;
+
     private KlvParser() {}
 
     /**
@@ -27,52 +37,365 @@ public class KlvParser {
      * @throws KlvParseException if a parsing exception occurs
      */
     public static List<IMisbMessage> parseBytes(byte[] bytes) throws KlvParseException {
+        return parseBytes(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Parse a byte array containing one or more {@link IMisbMessage}s, using a specific {@link
+     * ParseContext}.
+     *
+     * <p>This is equivalent to {@link #parseBytes(byte[])}, except that invalid data found while
+     * decoding the messages is handled by {@code context} rather than by the {@link
+     * org.jmisb.api.common.InvalidDataHandler} singleton. With {@link ParseContext#lenient()},
+     * invalid data is recorded in the context's diagnostics instead of being thrown.
+     *
+     * @param bytes The byte array
+     * @param context The context for handling invalid data
+     * @return List of {@link IMisbMessage}s
+     * @throws KlvParseException if a parsing exception occurs
+     */
+    public static List<IMisbMessage> parseBytes(byte[] bytes, ParseContext context)
+            throws KlvParseException {
+        return context.parse(() -> parseBytes(bytes, 0, bytes.length));
+    }
+
+    /**
+     * Parse a buffer containing one or more {@link IMisbMessage}s.
+     *
+     * <p>This is equivalent to {@link #parseBytes(byte[])}, operating on the bytes between the
+     * buffer's position and limit. For heap buffers the messages are parsed in place from the
+     * backing array. Direct buffers (e.g. those wrapping native packet data) are copied once into a
+     * single array, since the message decoders operate on arrays.
+     *
+     * <p>The position and limit of {@code buffer} are not modified.
+     *
+     * @param buffer The buffer
+     * @return List of {@link IMisbMessage}s
+     * @throws KlvParseException if a parsing exception occurs
+     */
+    public static List<IMisbMessage> parseBytes(ByteBuffer buffer) throws KlvParseException {
+        if (buffer.hasArray()) {
+            return parseBytes(
+                    buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return parseBytes(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Parse a range of a byte array containing one or more {@link IMisbMessage}s.
+     *
+     * @param bytes The byte array
+     * @param offset Index of the first byte to parse (the start of a UL)
+     * @param length Number of bytes to parse
+     * @return List of {@link IMisbMessage}s
+     * @throws KlvParseException if a parsing exception occurs
+     */
+    public static List<IMisbMessage> parseBytes(byte[] bytes, int offset, int length)
+            throws KlvParseException {
+        return parseBytes(bytes, offset, length, null);
+    }
+
+    /**
+     * Parse a byte array containing one or more {@link IMisbMessage}s, decoding only selected
+     * values.
+     *
+     * <p>Message types that support projection skip the fields whose keys are not in {@code
+     * wantedKeys}, without decoding their values. For example, passing {@code
+     * EnumSet.of(UasDatalinkTag.PrecisionTimeStamp, UasDatalinkTag.SensorLatitude,
+     * UasDatalinkTag.SensorLongitude)} produces ST 0601 messages containing at most those three
+     * values. See {@link TagFilter} for how the keys are interpreted.
+     *
+     * @param bytes The byte array
+     * @param wantedKeys The keys to decode, or null to decode all keys
+     * @return List of {@link IMisbMessage}s
+     * @throws KlvParseException if a parsing exception occurs
+     */
+    public static List<IMisbMessage> parseBytes(byte[] bytes, Set<? extends IKlvKey> wantedKeys)
+            throws KlvParseException {
+        return parseBytes(bytes, 0, bytes.length, wantedKeys);
+    }
+
+    /**
+     * Parse a range of a byte array containing one or more {@link IMisbMessage}s, decoding only
+     * selected values.
+     *
+     * @param bytes The byte array
+     * @param offset Index of the first byte to parse (the start of a UL)
+     * @param length Number of bytes to parse
+     * @param wantedKeys The keys to decode, or null to decode all keys
+     * @return List of {@link IMisbMessage}s
+     * @throws KlvParseException if a parsing exception occurs
+     * @see #parseBytes(byte[], Set)
+     */
+    public static List<IMisbMessage> parseBytes(
+            byte[] bytes, int offset, int length, Set<? extends IKlvKey> wantedKeys)
+            throws KlvParseException {
         List<IMisbMessage> messages = new ArrayList<>();
 
-        if (logger.isDebugEnabled()) logger.debug("len: " + bytes.length);
+        if (logger.isDebugEnabled()) logger.debug("len: " + length);
 
-        int pos = 0;
+        final int end = offset + length;
+        int pos = offset;
 
-        while (pos < bytes.length) {
-            // Get the next full message including UL (key), length, and value
-            byte[] nextMessage = getNextMessage(bytes, pos);
-            pos += nextMessage.length;
+        while (pos < end) {
+            // Get the length of the next full message including UL (key), length, and value
+            int messageLength = getNextMessageLength(bytes, pos, end);
 
+            messages.add(decodeMessage(bytes, pos, messageLength, wantedKeys));
+            pos += messageLength;
+        }
+
+        return messages;
+    }
+
+    /**
+     * Parse a large byte array containing many {@link IMisbMessage}s, in parallel.
+     *
+     * <p>This is intended for batch processing of archived KLV, such as a {@code .klv} dump of a
+     * metadata stream. The message boundaries are found first, and then the messages are decoded in
+     * batches on the common {@link ForkJoinPool}. The result is the same as {@link
+     * #parseBytes(byte[])}, including the order of the messages and the exceptions thrown. If the
+     * boundaries can't be found past some point, the messages before it are still decoded, so that
+     * an earlier decoding error is reported in preference to the later framing error.
+     *
+     * <p>Invalid data is handled by the {@link ParseContext} of the calling thread, which is
+     * applied on the worker threads too. Diagnostics recorded by a lenient context may not be in
+     * message order, since batches are decoded concurrently.
+     *
+     * @param bytes The byte array
+     * @return List of {@link IMisbMessage}s, in the same order as in {@code bytes}
+     * @throws KlvParseException if a parsing exception occurs
+     */
+    public static List<IMisbMessage> parseAll(byte[] bytes) throws KlvParseException {
+        return parseAll(bytes, 0, bytes.length, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parse a range of a byte array containing many {@link IMisbMessage}s, in parallel.
+     *
+     * @param bytes The byte array
+     * @param offset Index of the first byte to parse (the start of a UL)
+     * @param length Number of bytes to parse
+     * @param wantedKeys The keys to decode, or null to decode all keys
+     * @param executor The executor to decode on
+     * @return List of {@link IMisbMessage}s, in the same order as in {@code bytes}
+     * @throws KlvParseException if a parsing exception occurs. If more than one message fails to
+     *     parse, the exception is for the first of them.
+     * @see #parseAll(byte[])
+     */
+    public static List<IMisbMessage> parseAll(
+            byte[] bytes,
+            int offset,
+            int length,
+            Set<? extends IKlvKey> wantedKeys,
+            Executor executor)
+            throws KlvParseException {
+        List<MessageRange> ranges = new ArrayList<>();
+        Exception framingError = addMessageRanges(ranges, bytes, offset, length);
+        return decodeAll(ranges, wantedKeys, executor, framingError);
+    }
+
+    /**
+     * Parse a buffer containing many {@link IMisbMessage}s, in parallel.
+     *
+     * <p>This operates on the bytes between the buffer's position and limit, which are not
+     * modified. Direct buffers are copied once into a single array, as for {@link
+     * #parseBytes(ByteBuffer)}.
+     *
+     * @param buffer The buffer
+     * @param wantedKeys The keys to decode, or null to decode all keys
+     * @param executor The executor to decode on
+     * @return List of {@link IMisbMessage}s, in the same order as in {@code buffer}
+     * @throws KlvParseException if a parsing exception occurs
+     * @see #parseAll(byte[])
+     */
+    public static List<IMisbMessage> parseAll(
+            ByteBuffer buffer, Set<? extends IKlvKey> wantedKeys, Executor executor)
+            throws KlvParseException {
+        if (buffer.hasArray()) {
+            return parseAll(
+                    buffer.array(),
+                    buffer.arrayOffset() + buffer.position(),
+                    buffer.remaining(),
+                    wantedKeys,
+                    executor);
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return parseAll(bytes, 0, bytes.length, wantedKeys, executor);
+    }
+
+    /**
+     * Parse a list of packets, each containing one or more {@link IMisbMessage}s, in parallel.
+     *
+     * @param packets The packets, such as the payloads of a KLV elementary stream
+     * @param wantedKeys The keys to decode, or null to decode all keys
+     * @param executor The executor to decode on
+     * @return List of {@link IMisbMessage}s, in packet order, and then in order within each packet
+     * @throws KlvParseException if a parsing exception occurs
+     * @see #parseAll(byte[])
+     */
+    public static List<IMisbMessage> parseAll(
+            List<byte[]> packets, Set<? extends IKlvKey> wantedKeys, Executor executor)
+            throws KlvParseException {
+        List<MessageRange> ranges = new ArrayList<>();
+        Exception framingError = null;
+        for (byte[] packet : packets) {
+            framingError = addMessageRanges(ranges, packet, 0, packet.length);
+            if (framingError != null) {
+                break;
+            }
+        }
+        return decodeAll(ranges, wantedKeys, executor, framingError);
+    }
+
+    /**
+     * Decode a single top-level message.
+     *
+     * @param bytes The byte array
+     * @param pos Index of the start of the message (UL)
+     * @param messageLength Length of the full message
+     * @param wantedKeys The keys to decode, or null to decode all keys
+     * @return the message
+     * @throws KlvParseException if a parsing exception occurs
+     */
+    private static IMisbMessage decodeMessage(
+            byte[] bytes, int pos, int messageLength, Set<? extends IKlvKey> wantedKeys)
+            throws KlvParseException {
+        try {
+            IMisbMessage message =
+                    MisbMessageFactory.getInstance()
+                            .handleMessage(bytes, pos, messageLength, wantedKeys);
+            if (logger.isDebugEnabled()) logger.debug("Parsed as " + message.displayHeader());
+            return message;
+        } catch (IllegalArgumentException ex) {
+            logger.error("Exception thrown by parser", ex);
+            throw new KlvParseException(ex.getMessage());
+        }
+    }
+
+    /**
+     * Find the message boundaries in a range of bytes.
+     *
+     * @param ranges The list to add the location of each message to
+     * @param bytes The byte array
+     * @param offset Index of the first byte (the start of a UL)
+     * @param length Number of bytes
+     * @return the exception that stopped the framing, or null if all of the bytes were framed
+     */
+    private static Exception addMessageRanges(
+            List<MessageRange> ranges, byte[] bytes, int offset, int length) {
+        final int end = offset + length;
+        int pos = offset;
+        while (pos < end) {
+            int messageLength;
             try {
-                IMisbMessage message = MisbMessageFactory.getInstance().handleMessage(nextMessage);
-                if (logger.isDebugEnabled()) logger.debug("Parsed as " + message.displayHeader());
-                messages.add(message);
-            } catch (IllegalArgumentException ex) {
-                logger.error("Exception thrown by parser", ex);
-                throw new KlvParseException(ex.getMessage());
+                messageLength = getNextMessageLength(bytes, pos, end);
+            } catch (KlvParseException | RuntimeException ex) {
+                return ex;
             }
+            ranges.add(new MessageRange(bytes, pos, messageLength));
+            pos += messageLength;
         }
+        return null;
+    }
 
+    private static List<IMisbMessage> decodeAll(
+            List<MessageRange> ranges,
+            Set<? extends IKlvKey> wantedKeys,
+            Executor executor,
+            Exception framingError)
+            throws KlvParseException {
+        // Invalid data found on the workers is handled as it would be on the calling thread
+        final ParseContext context = ParseContext.current();
+        List<CompletableFuture<IMisbMessage[]>> batches = new ArrayList<>();
+        for (int start = 0; start < ranges.size(); start += PARSE_ALL_BATCH_SIZE) {
+            List<MessageRange> batch =
+                    ranges.subList(start, Math.min(start + PARSE_ALL_BATCH_SIZE, ranges.size()));
+            batches.add(
+                    CompletableFuture.supplyAsync(
+                            () -> decodeBatch(batch, wantedKeys, context), executor));
+        }
+        List<IMisbMessage> messages = new ArrayList<>(ranges.size());
+        try {
+            for (CompletableFuture<IMisbMessage[]> batch : batches) {
+                messages.addAll(Arrays.asList(batch.join()));
+            }
+        } catch (CompletionException ex) {
+            batches.forEach(batch -> batch.cancel(false));
+            if (ex.getCause() instanceof KlvParseException) {
+                throw (KlvParseException) ex.getCause();
+            }
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+        // The messages before the framing error decoded, so it is the first failure
+        if (framingError instanceof KlvParseException) {
+            throw (KlvParseException) framingError;
+        }
+        if (framingError != null) {
+            throw (RuntimeException) framingError;
+        }
         return messages;
     }
 
+    private static IMisbMessage[] decodeBatch(
+            List<MessageRange> batch, Set<? extends IKlvKey> wantedKeys, ParseContext context) {
+        try {
+            return context.parse(
+                    () -> {
+                        IMisbMessage[] messages = new IMisbMessage[batch.size()];
+                        for (int i = 0; i < messages.length; i++) {
+                            MessageRange range = batch.get(i);
+                            messages[i] =
+                                    decodeMessage(
+                                            range.bytes, range.offset, range.length, wantedKeys);
+                        }
+                        return messages;
+                    });
+        } catch (KlvParseException ex) {
+            throw new CompletionException(ex);
+        }
+    }
+
     /**
-     * Extract the next top-level message.
+     * Determine the length of the next top-level message.
      *
-     * @param bytes The original byte array, assumed to begin with 16-byte UL
-     * @param pos the offset into the byte array to start parsing from
-     * @return Byte array containing the full top-level message, including UL key, length, and value
+     * @param bytes The original byte array
+     * @param pos the offset into the byte array to start parsing from, assumed to be the start of a
+     *     16-byte UL
+     * @param end the index one past the last byte available for parsing
+     * @return the length of the full top-level message, including UL key, length, and value
      * @throws KlvParseException if a parsing error occurs
      */
-    private static byte[] getNextMessage(byte[] bytes, int pos) throws KlvParseException {
+    private static int getNextMessageLength(byte[] bytes, int pos, int end)
+            throws KlvParseException {
         // Length of the key field (UL)
         final int keyLength = UniversalLabel.LENGTH;
-        BerField lengthField = BerDecoder.decode(bytes, pos + keyLength, false);
-        final int totalLength = keyLength + lengthField.getLength() + lengthField.getValue();
+        long lengthField = BerDecoder.decodePacked(bytes, pos + keyLength, false);
+        final int totalLength =
+                keyLength + BerDecoder.getLength(lengthField) + BerDecoder.getValue(lengthField);
 
-        if (pos + totalLength > bytes.length) {
+        if (pos + totalLength > end) {
             throw new KlvParseException("Length exceeds available bytes");
         }
-        // If the lengths are equal, just return the original array; otherwise copy a subrange.
-        if ((pos == 0) && (totalLength == bytes.length)) {
-            return bytes;
-        } else {
-            return Arrays.copyOfRange(bytes, pos, pos + totalLength);
+        return totalLength;
+    }
+
+    /** Location of a framed message, for decoding. */
+    private static final class MessageRange {
+        private final byte[] bytes;
+        private final int offset;
+        private final int length;
+
+        MessageRange(byte[] bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
         }
     }
 }
@@ -0,0 +1,366 @@
+package org.jmisb.api.klv;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import org.jmisb.api.common.KlvParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Incremental parser for a stream of KLV bytes.
+ *
+ * <p>Unlike {@link KlvParser}, which requires each call to contain only complete messages, this
+ * parser accepts data in arbitrary pieces. Partial messages are buffered until the rest of the
+ * message arrives in a later call to {@link #feed(ByteBuffer)}, and bytes that do not start with a
+ * Universal Label (for example, the remains of a message that was lost in transit, or a metadata
+ * access unit header) are skipped until the next Universal Label is found. This suits asynchronous
+ * KLV carried over lossy transport, where messages are often split across, or combined within,
+ * packets.
+ *
+ * <p>Each complete message is decoded using the {@link MisbMessageFactory} and passed to the
+ * message handler. Messages that fail to decode are logged and discarded, and the parser resumes
+ * searching at the following byte. An exception thrown by the message handler is logged, and
+ * parsing continues with the next message.
+ *
+ * <p>A corrupt length field can make a message appear longer than it really is. Rather than wait
+ * for all of the claimed bytes (holding back the messages that follow), the parser abandons an
+ * incomplete message as soon as the Universal Label of a registered message type appears within it,
+ * and resumes from that label.
+ *
+ * <p>Alternatively, a parser created with {@link #forFrames(Consumer, int)} only does the framing,
+ * and passes a copy of each complete message to a frame handler without decoding it. This allows
+ * the decoding to be done elsewhere, for example on a pool of worker threads. Since the message is
+ * not decoded, a message that fails to decode can't cause the parser to resynchronise within it.
+ *
+ * <p>This class is not thread safe.
+ */
+public class KlvStreamParser {
+    private static final Logger logger = LoggerFactory.getLogger(KlvStreamParser.class);
+
+    /** Default maximum length of a single top-level message, in bytes. */
+    public static final int DEFAULT_MAX_MESSAGE_LENGTH = 1024 * 1024;
+
+    /** The bytes every SMPTE Universal Label starts with. */
+    private static final byte[] UL_PREFIX = {0x06, 0x0e, 0x2b, 0x34};
+
+    private static final int INITIAL_CAPACITY = 4096;
+
+    private final Consumer<IMisbMessage> messageHandler;
+    private final Consumer<byte[]> frameHandler;
+    private final int maxMessageLength;
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int start = 0;
+    private int end = 0;
+    private long messageCount = 0;
+    private long failedMessageCount = 0;
+    private long discardedByteCount = 0;
+
+    /** Number of bytes after {@code start} already searched for the start of another message. */
+    private int scannedLength = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param messageHandler the handler to pass each parsed message to
+     */
+    public KlvStreamParser(Consumer<IMisbMessage> messageHandler) {
+        this(messageHandler, DEFAULT_MAX_MESSAGE_LENGTH);
+    }
+
+    /**
+     * Constructor specifying the maximum message length.
+     *
+     * <p>A message that claims to be longer than {@code maxMessageLength} is treated as corrupt and
+     * skipped. This bounds the amount of data that will be buffered while waiting for the rest of a
+     * message.
+     *
+     * @param messageHandler the handler to pass each parsed message to
+     * @param maxMessageLength the maximum length of a top-level message (including the Universal
+     *     Label and length field), in bytes
+     */
+    public KlvStreamParser(Consumer<IMisbMessage> messageHandler, int maxMessageLength) {
+        this(messageHandler, null, maxMessageLength);
+    }
+
+    private KlvStreamParser(
+            Consumer<IMisbMessage> messageHandler,
+            Consumer<byte[]> frameHandler,
+            int maxMessageLength) {
+        if (maxMessageLength <= UniversalLabel.LENGTH) {
+            throw new IllegalArgumentException("Maximum message length is too small");
+        }
+        this.messageHandler = messageHandler;
+        this.frameHandler = frameHandler;
+        this.maxMessageLength = maxMessageLength;
+    }
+
+    /**
+     * Create a parser that frames messages without decoding them.
+     *
+     * <p>Each complete top-level message (including the Universal Label and length field) is copied
+     * into a new array and passed to {@code frameHandler}. The array can be decoded using {@link
+     * MisbMessageFactory#handleMessage(byte[])}.
+     *
+     * @param frameHandler the handler to pass each framed message to
+     * @param maxMessageLength the maximum length of a top-level message (including the Universal
+     *     Label and length field), in bytes
+     * @return the parser
+     */
+    public static KlvStreamParser forFrames(Consumer<byte[]> frameHandler, int maxMessageLength) {
+        return new KlvStreamParser(null, frameHandler, maxMessageLength);
+    }
+
+    /**
+     * Add data to the stream, and emit any messages that are now complete.
+     *
+     * <p>The bytes between the buffer's position and limit are consumed, leaving the position equal
+     * to the limit.
+     *
+     * @param data the next piece of the stream
+     */
+    public void feed(ByteBuffer data) {
+        int count = data.remaining();
+        ensureCapacity(count);
+        data.get(buffer, end, count);
+        end += count;
+        processBuffer();
+    }
+
+    /**
+     * Add data to the stream, and emit any messages that are now complete.
+     *
+     * @param bytes the next piece of the stream
+     */
+    public void feed(byte[] bytes) {
+        feed(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Discard any partially received data.
+     *
+     * <p>This is useful when the stream is known to be discontinuous, for example after seeking.
+     */
+    public void reset() {
+        start = 0;
+        end = 0;
+        scannedLength = 0;
+    }
+
+    /**
+     * Get the number of bytes currently buffered while waiting for the rest of a message.
+     *
+     * @return the number of buffered bytes
+     */
+    public int getBufferedByteCount() {
+        return end - start;
+    }
+
+    /**
+     * Get the number of messages successfully parsed since this parser was created.
+     *
+     * @return the number of messages passed to the message (or frame) handler
+     */
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    /**
+     * Get the number of complete messages that could not be decoded.
+     *
+     * @return the number of failed messages
+     */
+    public long getFailedMessageCount() {
+        return failedMessageCount;
+    }
+
+    /**
+     * Get the number of bytes skipped while searching for the start of a message.
+     *
+     * @return the number of discarded bytes
+     */
+    public long getDiscardedByteCount() {
+        return discardedByteCount;
+    }
+
+    private void processBuffer() {
+        while (true) {
+            int ulStart = findUniversalLabel();
+            if (ulStart < 0) {
+                // Keep enough of the tail that a UL prefix split across calls is not lost
+                int keep = Math.min(end - start, UL_PREFIX.length - 1);
+                discard(end - keep - start);
+                break;
+            }
+            if (ulStart > start) {
+                discard(ulStart - start);
+            }
+
+            int messageLength = getMessageLength();
+            if (messageLength == 0) {
+                // Need more data to determine the length
+                break;
+            }
+            if (messageLength < 0) {
+                // Not a valid message; skip this UL and resync on the next one
+                discard(1);
+                continue;
+            }
+            if (end - start < messageLength) {
+                int next = findRegisteredMessage();
+                if (next > 0) {
+                    logger.warn(
+                            "Incomplete KLV message overruns the next message; resynchronising");
+                    failedMessageCount++;
+                    discard(next - start);
+                    continue;
+                }
+                // Wait for the rest of the message
+                break;
+            }
+
+            if (frameHandler != null) {
+                byte[] frame = Arrays.copyOfRange(buffer, start, start + messageLength);
+                consume(messageLength);
+                frameHandler.accept(frame);
+                continue;
+            }
+            IMisbMessage message;
+            try {
+                message =
+                        MisbMessageFactory.getInstance()
+                                .handleMessage(buffer, start, messageLength);
+            } catch (KlvParseException | IllegalArgumentException ex) {
+                logger.error("KLV parse exception", ex);
+                failedMessageCount++;
+                // The length may have been corrupt too, so look for another UL inside this one
+                discard(1);
+                continue;
+            }
+            consume(messageLength);
+            try {
+                messageHandler.accept(message);
+            } catch (RuntimeException ex) {
+                // The message itself was fine, so carry on with the next one
+                logger.error("KLV message handler threw an exception", ex);
+            }
+        }
+        if (start == end) {
+            start = 0;
+            end = 0;
+        }
+    }
+
+    /**
+     * Find the next possible Universal Label.
+     *
+     * @return the index of the first byte of the UL, or -1 if none was found
+     */
+    private int findUniversalLabel() {
+        final int last = end - UL_PREFIX.length;
+        for (int i = start; i <= last; i++) {
+            if (buffer[i] == UL_PREFIX[0]
+                    && buffer[i + 1] == UL_PREFIX[1]
+                    && buffer[i + 2] == UL_PREFIX[2]
+                    && buffer[i + 3] == UL_PREFIX[3]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Search the incomplete message at {@code start} for the start of another message.
+     *
+     * <p>Only labels with a registered handler are considered, since a valid message may contain
+     * other labels (such as the keys of a universal set). Each byte is only searched once while
+     * waiting for the rest of the message.
+     *
+     * @return the index of the first byte of the other message, or -1 if none was found
+     */
+    private int findRegisteredMessage() {
+        final int last = end - UniversalLabel.LENGTH;
+        int i = start + Math.max(1, scannedLength);
+        for (; i <= last; i++) {
+            if (buffer[i] == UL_PREFIX[0]
+                    && buffer[i + 1] == UL_PREFIX[1]
+                    && buffer[i + 2] == UL_PREFIX[2]
+                    && buffer[i + 3] == UL_PREFIX[3]
+                    && MisbMessageFactory.getInstance().isRegistered(buffer, i)) {
+                return i;
+            }
+        }
+        scannedLength = i - start;
+        return -1;
+    }
+
+    /**
+     * Determine the total length of the message starting at {@code start}.
+     *
+     * @return the length of the message including key and length field, 0 if more data is needed to
+     *     determine it, or -1 if the length field is invalid
+     */
+    private int getMessageLength() {
+        final int lengthOffset = start + UniversalLabel.LENGTH;
+        if (lengthOffset >= end) {
+            return 0;
+        }
+        int first = buffer[lengthOffset] & 0xFF;
+        int lengthLength;
+        long valueLength;
+        if ((first & 0x80) == 0) {
+            lengthLength = 1;
+            valueLength = first;
+        } else {
+            int numBytes = first & 0x7f;
+            if (numBytes == 0 || numBytes > 4) {
+                return -1;
+            }
+            if (lengthOffset + numBytes >= end) {
+                return 0;
+            }
+            lengthLength = numBytes + 1;
+            valueLength = 0;
+            for (int i = 1; i <= numBytes; i++) {
+                valueLength = (valueLength << 8) | (buffer[lengthOffset + i] & 0xFF);
+            }
+        }
+        long messageLength = UniversalLabel.LENGTH + lengthLength + valueLength;
+        if (messageLength > maxMessageLength) {
+            return -1;
+        }
+        return (int) messageLength;
+    }
+
+    private void discard(int count) {
+        if (count <= 0) {
+            return;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Discarding " + count + " bytes while searching for Universal Label");
+        }
+        start += count;
+        scannedLength = 0;
+        discardedByteCount += count;
+    }
+
+    private void consume(int count) {
+        start += count;
+        scannedLength = 0;
+        messageCount++;
+    }
+
+    private void ensureCapacity(int additional) {
+        int buffered = end - start;
+        if (start > 0) {
+            // Move partial data to the front of the buffer
+            System.arraycopy(buffer, start, buffer, 0, buffered);
+            start = 0;
+            end = buffered;
+        }
+        if (end + additional > buffer.length) {
+            int newCapacity = Math.max(buffer.length * 2, end + additional);
+            buffer = Arrays.copyOf(buffer, newCapacity);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package org.jmisb.api.klv;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
+import org.jmisb.api.klv.st1201.FpEncoder;
+import org.jmisb.core.klv.PrimitiveConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cursor for iterating over the fields of a Local Data Set (LDS) in place.
+ *
+ * <p>This is a lower level alternative to {@link LdsParser}. Instead of building a list of {@link
+ * LdsField}s and then decoding each value into an object, the cursor steps through the encoded
+ * bytes one field at a time, and the caller reads the values it needs directly from the array. No
+ * objects are created while iterating, which suits high-rate consumers that only need a few numbers
+ * from each local set.
+ *
+ * <pre>{@code
+ * LdsCursor cursor = new LdsCursor(bytes, offset, length);
+ * while (cursor.next()) {
+ *     if (cursor.getTag() == UasDatalinkTag.PlatformHeadingAngle.getCode()) {
+ *         long heading = cursor.readUInt();
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>The cursor reads directly from the supplied array, so the array must not be modified while the
+ * cursor is in use. This class is not thread safe.
+ */
+public class LdsCursor {
+    private static final Logger logger = LoggerFactory.getLogger(LdsCursor.class);
+
+    private final byte[] bytes;
+    private final int last;
+    private int offset;
+    private int tag = -1;
+    private int valueOffset;
+    private int valueLength;
+
+    /**
+     * Constructor.
+     *
+     * @param bytes Byte array containing the local set
+     * @param start Index of the first byte of the first field
+     * @param length Number of bytes in the local set
+     */
+    public LdsCursor(byte[] bytes, int start, int length) {
+        this.bytes = bytes;
+        this.offset = start;
+        this.last = start + length;
+    }
+
+    /**
+     * Advance to the next field.
+     *
+     * <p>If the value of the field extends beyond the end of the array, the overrun is reported to
+     * the current {@link ParseContext}. If the handler does not throw, the cursor is still
+     * positioned on the field, and {@link #isOverrun()} returns true.
+     *
+     * @return true if the cursor is positioned on a field, or false if there are no more fields
+     * @throws KlvParseException if a parsing error occurs
+     */
+    public boolean next() throws KlvParseException {
+        if (offset >= last) {
+            tag = -1;
+            return false;
+        }
+        // Get the BER-OID encoded Key (tag)
+        long tagField = BerDecoder.decodePacked(bytes, offset, true);
+        tag = BerDecoder.getValue(tagField);
+        offset += BerDecoder.getLength(tagField);
+
+        // Get the Length (BER short or long form-encoded)
+        long lengthField = BerDecoder.decodePacked(bytes, offset, false);
+        valueOffset = offset + BerDecoder.getLength(lengthField);
+        valueLength = BerDecoder.getValue(lengthField);
+        offset = valueOffset + valueLength;
+        if (isOverrun()) {
+            ParseContext.current()
+                    .handleOverrun(logger, "Overrun encountered while parsing LDS fields");
+        }
+        return true;
+    }
+
+    /**
+     * Get the tag of the current field.
+     *
+     * @return The integer tag, or -1 if the cursor is not positioned on a field
+     */
+    public int getTag() {
+        return tag;
+    }
+
+    /**
+     * Get the position of the value of the current field.
+     *
+     * @return Index of the first byte of the value in the array
+     */
+    public int getValueOffset() {
+        return valueOffset;
+    }
+
+    /**
+     * Get the length of the value of the current field.
+     *
+     * @return Number of bytes in the value
+     */
+    public int getValueLength() {
+        return valueLength;
+    }
+
+    /**
+     * Check whether the value of the current field extends beyond the end of the array.
+     *
+     * @return true if the value is truncated
+     */
+    public boolean isOverrun() {
+        return valueOffset + valueLength > bytes.length;
+    }
+
+    /**
+     * Get the array that the cursor is reading from.
+     *
+     * @return the array, which is not copied
+     */
+    public byte[] getArray() {
+        return bytes;
+    }
+
+    /**
+     * Read the value of the current field as an unsigned integer.
+     *
+     * @return The value
+     * @throws IllegalArgumentException if the value is not 1 to 8 bytes long, or is truncated
+     */
+    public long readUInt() {
+        checkAvailable();
+        return PrimitiveConverter.variableBytesToUint64(bytes, valueOffset, valueLength);
+    }
+
+    /**
+     * Read the value of the current field as a signed (two's complement) integer.
+     *
+     * @return The value
+     * @throws IllegalArgumentException if the value is not 1 to 8 bytes long, or is truncated
+     */
+    public long readInt() {
+        checkAvailable();
+        return PrimitiveConverter.variableBytesToInt64(bytes, valueOffset, valueLength);
+    }
+
+    /**
+     * Read the value of the current field as an ST 1201 floating point value.
+     *
+     * @param encoder The encoder for the field, which determines the range and length
+     * @return The value
+     * @throws IllegalArgumentException if the value length does not match the encoder, or is
+     *     truncated
+     */
+    public double readFp(FpEncoder encoder) {
+        if (valueLength != encoder.getFieldLength()) {
+            throw new IllegalArgumentException("Array length does not match expected field length");
+        }
+        checkAvailable();
+        return encoder.decode(bytes, valueOffset);
+    }
+
+    /**
+     * Read the value of the current field as a UTF-8 string.
+     *
+     * @return The value
+     * @throws IllegalArgumentException if the value is truncated
+     */
+    public String readString() {
+        checkAvailable();
+        return new String(bytes, valueOffset, valueLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copy the value of the current field.
+     *
+     * <p>If the value is truncated, the copy is padded with zeros.
+     *
+     * @return The value stored as a new byte array
+     */
+    public byte[] readBytes() {
+        return Arrays.copyOfRange(bytes, valueOffset, valueOffset + valueLength);
+    }
+
+    /**
+     * Create an {@link LdsField} for the current field.
+     *
+     * <p>The field is a view onto the array, unless the value is truncated, in which case it holds
+     * a zero-padded copy.
+     *
+     * @return The field
+     */
+    public LdsField toField() {
+        if (isOverrun()) {
+            return new LdsField(tag, readBytes());
+        }
+        return new LdsField(tag, bytes, valueOffset, valueLength);
+    }
+
+    private void checkAvailable() {
+        if (tag < 0) {
+            throw new IllegalStateException("Cursor is not positioned on a field");
+        }
+        if (isOverrun()) {
+            throw new IllegalArgumentException("Value extends beyond the end of the array");
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package org.jmisb.api.klv;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 /** Local Data Set field, comprised of a tag (the key) and its value. */
 public class LdsField {
     private final int tag;
 
     private final byte[] data;
 
+    private final int offset;
+
+    private final int length;
+
     /**
      * Create an LDS field.
      *
@@ -15,6 +22,26 @@ public class LdsField {
     public LdsField(int tag, byte[] data) {
         this.tag = tag;
         this.data = data.clone();
+        this.offset = 0;
+        this.length = this.data.length;
+    }
+
+    /**
+     * Create an LDS field that is a view onto a range of an existing array.
+     *
+     * <p>The value bytes are not copied. The caller must not modify the range of {@code bytes}
+     * while the field is in use.
+     *
+     * @param tag The integer tag
+     * @param bytes Byte array containing the value
+     * @param offset Index of the first byte of the value
+     * @param length Number of bytes in the value
+     */
+    public LdsField(int tag, byte[] bytes, int offset, int length) {
+        this.tag = tag;
+        this.data = bytes;
+        this.offset = offset;
+        this.length = length;
     }
 
     /**
@@ -32,6 +59,24 @@ public class LdsField {
      * @return The value stored as a byte array
      */
     public byte[] getData() {
-        return data.clone();
+        return Arrays.copyOfRange(data, offset, offset + length);
+    }
+
+    /**
+     * Get the value as a read-only view, without copying.
+     *
+     * @return The value, as a read-only buffer positioned at the first value byte
+     */
+    public ByteBuffer getDataBuffer() {
+        return ByteBuffer.wrap(data, offset, length).slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Get the length of the value.
+     *
+     * @return The number of bytes in the value
+     */
+    public int getDataLength() {
+        return length;
     }
 }
@@ -1,14 +1,17 @@
 package org.jmisb.api.klv;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import org.jmisb.api.common.InvalidDataHandler;
+import java.util.function.IntPredicate;
 import org.jmisb.api.common.KlvParseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Parse fields from a Local Data Set (LDS). */
+/**
+ * Parse fields from a Local Data Set (LDS).
+ *
+ * <p>See {@link LdsCursor} for iterating over the fields without building a list.
+ */
 public class LdsParser {
     private static Logger logger = LoggerFactory.getLogger(LdsParser.class);
 
@@ -17,6 +20,9 @@ public class LdsParser {
     /**
      * Parse {@link LdsField}s from a byte array.
      *
+     * <p>The returned fields are views onto {@code bytes}, so the array must not be modified while
+     * they are in use.
+     *
      * @param bytes Byte array to parse
      * @param start Index of the first byte to parse
      * @param length Number of bytes to parse
@@ -25,34 +31,39 @@ public class LdsParser {
      */
     public static List<LdsField> parseFields(byte[] bytes, int start, int length)
             throws KlvParseException {
+        return parseFields(bytes, start, length, null);
+    }
+
+    /**
+     * Parse selected {@link LdsField}s from a byte array.
+     *
+     * <p>Fields with tags that do not match {@code tagFilter} are skipped, and are not included in
+     * the returned list.
+     *
+     * @param bytes Byte array to parse
+     * @param start Index of the first byte to parse
+     * @param length Number of bytes to parse
+     * @param tagFilter Test for the tags to return, or null to return all fields
+     * @return List of parsed fields
+     * @throws KlvParseException If a parsing error occurs
+     * @see TagFilter
+     */
+    public static List<LdsField> parseFields(
+            byte[] bytes, int start, int length, IntPredicate tagFilter) throws KlvParseException {
         StringBuilder debugMessageStringBuilder = new StringBuilder();
         if (logger.isDebugEnabled()) {
             debugMessageStringBuilder.append("Tags: ");
         }
 
         List<LdsField> fields = new ArrayList<>();
-        final int last = start + length;
-        int offset = start;
-        while (offset < last) {
-            // Get the BER-OID encoded Key (tag)
-            BerField tagField = BerDecoder.decode(bytes, offset, true);
-            int tag = tagField.getValue();
-            offset += tagField.getLength();
-
-            // Get the Length (BER short or long form-encoded)
-            int lengthFieldOffset = offset;
-            BerField lengthField = BerDecoder.decode(bytes, lengthFieldOffset, false);
-            // Get the Value
-            int begin = lengthFieldOffset + lengthField.getLength();
-            int end = begin + lengthField.getValue();
-            if (end > bytes.length) {
-                InvalidDataHandler.getInstance()
-                        .handleOverrun(logger, "Overrun encountered while parsing LDS fields");
+        LdsCursor cursor = new LdsCursor(bytes, start, length);
+        while (cursor.next()) {
+            int tag = cursor.getTag();
+            if ((tagFilter != null) && !tagFilter.test(tag)) {
+                continue;
             }
-
-            byte[] value = Arrays.copyOfRange(bytes, begin, end);
-            fields.add(new LdsField(tag, value));
-            offset = end;
+            // If the value overran, this is a zero-padded copy, so the field is still usable
+            fields.add(cursor.toField());
             if (logger.isDebugEnabled()) {
                 debugMessageStringBuilder.append(tag);
                 debugMessageStringBuilder.append(" ");
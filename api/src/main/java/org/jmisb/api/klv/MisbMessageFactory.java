@@ -3,6 +3,7 @@ package org.jmisb.api.klv;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.eg0104.PredatorUavMessageFactory;
 import org.jmisb.api.klv.st0102.localset.SecurityMetadataLocalSetFactory;
@@ -12,6 +13,7 @@ import org.jmisb.api.klv.st0808.AncillaryTextLocalSetFactory;
 import org.jmisb.api.klv.st0903.vtrack.VTrackLocalSetFactory;
 import org.jmisb.api.klv.st1108.InterpretabilityQualityLocalSetFactory;
 import org.jmisb.api.klv.st1902.MimdLocalSetFactory;
+import org.jmisb.api.metrics.Metrics;
 
 /**
  * Factory class for {@link IMisbMessage} instances.
@@ -59,6 +61,17 @@ public class MisbMessageFactory {
         MESSAGE_HANDLERS.put(universalLabel, factory);
     }
 
+    /**
+     * Check whether a Universal Label has a registered message handler.
+     *
+     * @param bytes the array containing the universal label
+     * @param offset the index of the first byte of the universal label
+     * @return true if a handler is registered for the label
+     */
+    boolean isRegistered(byte[] bytes, int offset) {
+        return MESSAGE_HANDLERS.containsKey(new UniversalLabel(bytes, offset));
+    }
+
     /**
      * Lookup the appropriate message handler for this message, and process it.
      *
@@ -70,13 +83,84 @@ public class MisbMessageFactory {
      * @throws KlvParseException if the message handler throws.
      */
     public IMisbMessage handleMessage(byte[] messageData) throws KlvParseException {
-        UniversalLabel ul =
-                new UniversalLabel(Arrays.copyOfRange(messageData, 0, UniversalLabel.LENGTH));
-        if (MESSAGE_HANDLERS.containsKey(ul)) {
-            IMisbMessageFactory factory = MESSAGE_HANDLERS.get(ul);
-            return factory.create(messageData);
+        return handleMessage(messageData, 0, messageData.length);
+    }
+
+    /**
+     * Lookup the appropriate message handler for a message within a larger array, and process it.
+     *
+     * <p>If no matching message handler is available, the data will be returned as a {@link
+     * RawMisbMessage}.
+     *
+     * @param bytes the array containing the message data
+     * @param offset the index of the first byte of the message (the start of the universal label)
+     * @param length the length of the message, in bytes
+     * @return the message instance
+     * @throws KlvParseException if the message handler throws.
+     */
+    public IMisbMessage handleMessage(byte[] bytes, int offset, int length)
+            throws KlvParseException {
+        return handleMessage(bytes, offset, length, null);
+    }
+
+    /**
+     * Lookup the appropriate message handler for a message within a larger array, and process
+     * selected values.
+     *
+     * <p>This is equivalent to {@link #handleMessage(byte[], int, int)}, except that message
+     * handlers that support it will skip fields whose keys are not in {@code wantedKeys}. See
+     * {@link TagFilter} for how the keys are interpreted.
+     *
+     * @param bytes the array containing the message data
+     * @param offset the index of the first byte of the message (the start of the universal label)
+     * @param length the length of the message, in bytes
+     * @param wantedKeys the keys to decode, or null to decode all keys
+     * @return the message instance
+     * @throws KlvParseException if the message handler throws.
+     */
+    public IMisbMessage handleMessage(
+            byte[] bytes, int offset, int length, Set<? extends IKlvKey> wantedKeys)
+            throws KlvParseException {
+        UniversalLabel ul = new UniversalLabel(bytes, offset);
+        if (Metrics.isEnabled()) {
+            return handleMessageWithMetrics(ul, bytes, offset, length, wantedKeys);
+        }
+        return createMessage(ul, bytes, offset, length, wantedKeys);
+    }
+
+    private IMisbMessage handleMessageWithMetrics(
+            UniversalLabel ul,
+            byte[] bytes,
+            int offset,
+            int length,
+            Set<? extends IKlvKey> wantedKeys)
+            throws KlvParseException {
+        long start = System.nanoTime();
+        try {
+            IMisbMessage message = createMessage(ul, bytes, offset, length, wantedKeys);
+            Metrics.getRecorder().messageParsed(ul, length, System.nanoTime() - start);
+            return message;
+        } catch (KlvParseException | RuntimeException ex) {
+            Metrics.getRecorder().messageFailed(ul, length, System.nanoTime() - start);
+            throw ex;
+        }
+    }
+
+    private IMisbMessage createMessage(
+            UniversalLabel ul,
+            byte[] bytes,
+            int offset,
+            int length,
+            Set<? extends IKlvKey> wantedKeys)
+            throws KlvParseException {
+        IMisbMessageFactory factory = MESSAGE_HANDLERS.get(ul);
+        if (factory != null) {
+            if (wantedKeys == null) {
+                return factory.create(bytes, offset, length);
+            }
+            return factory.create(bytes, offset, length, wantedKeys);
         }
-        return new RawMisbMessage(ul, messageData);
+        return new RawMisbMessage(ul, Arrays.copyOfRange(bytes, offset, offset + length));
     }
 
     private static class MisbFactoryHolder {
@@ -0,0 +1,66 @@
+package org.jmisb.api.klv;
+
+import java.util.BitSet;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * Selection of the tags to decode from a local set.
+ *
+ * <p>Callers that only need a few values from each message can pass a set of wanted keys to {@link
+ * KlvParser} or {@link MisbMessageFactory}. The set may contain keys from several standards (for
+ * example, both {@code UasDatalinkTag} and {@code VmtiMetadataKey} values). Each local set parser
+ * uses this class to select the keys of its own type, and the remaining fields are skipped without
+ * decoding their values.
+ */
+public final class TagFilter implements IntPredicate {
+    private final BitSet tags = new BitSet();
+
+    private TagFilter() {}
+
+    /**
+     * Create a filter for one kind of local set.
+     *
+     * <p>If {@code wantedKeys} does not contain any keys of the given type, then no projection
+     * applies to that kind of local set, and null is returned to indicate that every tag should be
+     * decoded.
+     *
+     * @param wantedKeys the keys the caller wants, or null for all keys
+     * @param keyType the key type used by the local set
+     * @param requiredKeys keys that the local set needs to parse correctly (e.g. the checksum), and
+     *     are therefore included whenever a projection applies
+     * @return the filter, or null if all tags should be decoded
+     */
+    public static TagFilter forKeys(
+            Set<? extends IKlvKey> wantedKeys,
+            Class<? extends IKlvKey> keyType,
+            IKlvKey... requiredKeys) {
+        if (wantedKeys == null) {
+            return null;
+        }
+        TagFilter filter = new TagFilter();
+        for (IKlvKey key : wantedKeys) {
+            if (keyType.isInstance(key)) {
+                filter.tags.set(key.getIdentifier());
+            }
+        }
+        if (filter.tags.isEmpty()) {
+            return null;
+        }
+        for (IKlvKey key : requiredKeys) {
+            filter.tags.set(key.getIdentifier());
+        }
+        return filter;
+    }
+
+    /**
+     * Check whether a tag should be decoded.
+     *
+     * @param tag the tag number
+     * @return true if the field with this tag should be decoded
+     */
+    @Override
+    public boolean test(int tag) {
+        return tag >= 0 && tags.get(tag);
+    }
+}
@@ -1,11 +1,17 @@
 package org.jmisb.api.klv;
 
+import java.util.Arrays;
+
 /** Universal Data Set field, comprised of its Universal Label (key) and its value. */
 public class UdsField {
     private final UniversalLabel key;
 
     private final byte[] value;
 
+    private final int offset;
+
+    private final int length;
+
     /**
      * Constructor.
      *
@@ -15,6 +21,26 @@ public class UdsField {
     public UdsField(UniversalLabel key, byte[] value) {
         this.key = key;
         this.value = value.clone();
+        this.offset = 0;
+        this.length = this.value.length;
+    }
+
+    /**
+     * Create a UDS field that is a view onto a range of an existing array.
+     *
+     * <p>The value bytes are not copied. The caller must not modify the range of {@code bytes}
+     * while the field is in use.
+     *
+     * @param key the Universal Label for the Universal Data Set
+     * @param bytes byte array containing the value
+     * @param offset index of the first byte of the value
+     * @param length number of bytes in the value
+     */
+    public UdsField(UniversalLabel key, byte[] bytes, int offset, int length) {
+        this.key = key;
+        this.value = bytes;
+        this.offset = offset;
+        this.length = length;
     }
 
     /**
@@ -32,6 +58,6 @@ public class UdsField {
      * @return value of the metadata item
      */
     public byte[] getValue() {
-        return value.clone();
+        return Arrays.copyOfRange(value, offset, offset + length);
     }
 }
@@ -1,7 +1,6 @@
 package org.jmisb.api.klv;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import org.jmisb.api.common.KlvParseException;
 
@@ -12,6 +11,9 @@ public class UdsParser {
     /**
      * Parse {@link UdsField}s from a byte array.
      *
+     * <p>The returned fields are views onto {@code bytes}, so the array must not be modified while
+     * they are in use.
+     *
      * @param bytes Array representing encoded UDS bytes
      * @param start Offset location to start parsing (must be at the start of a 16-byte UL)
      * @param length Number of bytes to parse
@@ -25,9 +27,7 @@ public class UdsParser {
         int offset = start;
         while (offset < start + length) {
             // Get the Key (UL)
-            UniversalLabel key =
-                    new UniversalLabel(
-                            Arrays.copyOfRange(bytes, offset, offset + UniversalLabel.LENGTH));
+            UniversalLabel key = new UniversalLabel(bytes, offset);
             // increment offset by the number of bytes in the UL key.
             offset += UniversalLabel.LENGTH;
 
@@ -37,13 +37,12 @@ public class UdsParser {
                 // actually parsed
                 throw new KlvParseException("Overrun encountered while parsing UDS fields");
             }
-            BerField lengthField = BerDecoder.decode(bytes, offset, false);
+            long lengthField = BerDecoder.decodePacked(bytes, offset, false);
             // increment offset by the number of bytes in the length
-            offset += lengthField.getLength();
+            offset += BerDecoder.getLength(lengthField);
 
             // Get the value
-            int end = offset + lengthField.getValue();
-            byte[] value = Arrays.copyOfRange(bytes, offset, end);
+            int end = offset + BerDecoder.getValue(lengthField);
             if (end > bytes.length) {
                 // TODO: we will probably need a non-strict option to return the fields that were
                 // actually parsed
@@ -51,9 +50,9 @@ public class UdsParser {
             }
 
             // Add to fields
-            fields.add(new UdsField(key, value));
+            fields.add(new UdsField(key, bytes, offset, end - offset));
             // Increment offset by the number of bytes in the value.
-            offset += value.length;
+            offset = end;
         }
 
         return fields;
@@ -22,6 +22,22 @@ public class UniversalLabel {
         this.bytes = bytes.clone();
     }
 
+    /**
+     * Construct a UL from a range of a byte array.
+     *
+     * @param bytes The array containing the UL
+     * @param offset Index of the first byte of the UL within {@code bytes}
+     * @throws IllegalArgumentException if the range does not contain a valid UL
+     */
+    public UniversalLabel(byte[] bytes, int offset) {
+        if (offset < 0 || offset + LENGTH > bytes.length) {
+            throw new IllegalArgumentException(
+                    "Invalid UL length (expected 16; got " + (bytes.length - offset) + ")");
+        }
+        this.bytes = Arrays.copyOfRange(bytes, offset, offset + LENGTH);
+        testValidity(this.bytes);
+    }
+
     /**
      * Get the byte array.
      *
@@ -1,12 +1,11 @@
 package org.jmisb.api.klv.eg0104;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.BerDecoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.IMisbMessage;
 import org.jmisb.api.klv.KlvConstants;
@@ -17,7 +16,8 @@ import org.jmisb.api.klv.UniversalLabel;
 /** Represents a Predator UAV Metadata Message (EG0104.5). */
 public class PredatorUavMessage implements IMisbMessage {
     /** Map containing all data elements in the message. */
-    protected SortedMap<PredatorMetadataKey, IPredatorMetadataValue> map = new TreeMap<>();
+    protected Map<PredatorMetadataKey, IPredatorMetadataValue> map =
+            new EnumMap<>(PredatorMetadataKey.class);
 
     /**
      * Create from encoded bytes.
@@ -28,11 +28,12 @@ public class PredatorUavMessage implements IMisbMessage {
     public PredatorUavMessage(byte[] bytes) throws KlvParseException {
         // Parse the length field
         int offset = UniversalLabel.LENGTH;
-        BerField messageLength = BerDecoder.decode(bytes, offset, false);
-        offset += messageLength.getLength();
+        long messageLength = BerDecoder.decodePacked(bytes, offset, false);
+        offset += BerDecoder.getLength(messageLength);
 
         // Parse fields out of the array
-        List<UdsField> fields = UdsParser.parseFields(bytes, offset, messageLength.getValue());
+        List<UdsField> fields =
+                UdsParser.parseFields(bytes, offset, BerDecoder.getValue(messageLength));
 
         // Convert field data based on ST 0104
         for (UdsField field : fields) {
@@ -1,16 +1,17 @@
 package org.jmisb.api.klv.st0102;
 
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.IMisbMessage;
 
 /** Abstract base class for Security Metadata Local and Universal sets. */
 public abstract class SecurityMetadataMessage implements IMisbMessage {
     /** Map containing all data elements in the message. */
-    protected SortedMap<SecurityMetadataKey, ISecurityMetadataValue> map = new TreeMap<>();
+    protected Map<SecurityMetadataKey, ISecurityMetadataValue> map =
+            new EnumMap<>(SecurityMetadataKey.class);
 
     /**
      * Set a message field.
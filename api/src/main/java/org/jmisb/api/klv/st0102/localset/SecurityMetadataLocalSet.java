@@ -5,10 +5,11 @@ import static org.jmisb.core.klv.ArrayUtils.arrayFromChunks;
 
 import java.time.LocalDate;
 import java.util.*;
-import org.jmisb.api.common.InvalidDataHandler;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
 import org.jmisb.api.klv.*;
 import org.jmisb.api.klv.st0102.*;
+import org.jmisb.api.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,10 +45,10 @@ public class SecurityMetadataLocalSet extends SecurityMetadataMessage {
 
         if (hasKeyAndLength) {
             // Parse the length field
-            BerField lengthField = BerDecoder.decode(bytes, UniversalLabel.LENGTH, false);
-            int lengthLength = lengthField.getLength();
+            long lengthField = BerDecoder.decodePacked(bytes, UniversalLabel.LENGTH, false);
+            int lengthLength = BerDecoder.getLength(lengthField);
             offset = UniversalLabel.LENGTH + lengthLength;
-            valueLength = lengthField.getValue();
+            valueLength = BerDecoder.getValue(lengthField);
         }
 
         // Parse fields out of the array
@@ -59,14 +60,14 @@ public class SecurityMetadataLocalSet extends SecurityMetadataMessage {
 
             if (key == SecurityMetadataKey.Undefined) {
                 logger.info("Unknown Security Metadata tag: {}", field.getTag());
+                Metrics.getRecorder().unknownTag(logger.getName(), field.getTag());
             } else {
                 try {
                     ISecurityMetadataValue value =
                             LocalSetFactory.createValue(key, field.getData());
                     setField(key, value);
                 } catch (IllegalArgumentException ex) {
-                    InvalidDataHandler.getInstance()
-                            .handleInvalidFieldEncoding(logger, ex.getMessage());
+                    ParseContext.current().handleInvalidFieldEncoding(logger, ex.getMessage());
                 }
             }
         }
@@ -4,8 +4,8 @@ import static org.jmisb.core.klv.ArrayUtils.arrayFromChunks;
 
 import java.time.LocalDate;
 import java.util.*;
-import org.jmisb.api.common.InvalidDataHandler;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
 import org.jmisb.api.klv.*;
 import org.jmisb.api.klv.st0102.*;
 import org.slf4j.Logger;
@@ -34,10 +34,10 @@ public class SecurityMetadataUniversalSet extends SecurityMetadataMessage {
      */
     public SecurityMetadataUniversalSet(byte[] bytes) throws KlvParseException {
         // Parse the length field
-        BerField lengthField = BerDecoder.decode(bytes, UniversalLabel.LENGTH, false);
-        int lengthLength = lengthField.getLength();
+        long lengthField = BerDecoder.decodePacked(bytes, UniversalLabel.LENGTH, false);
+        int lengthLength = BerDecoder.getLength(lengthField);
         int offset = UniversalLabel.LENGTH + lengthLength;
-        int valueLength = lengthField.getValue();
+        int valueLength = BerDecoder.getValue(lengthField);
 
         // Parse fields out of the array
         List<UdsField> fields = UdsParser.parseFields(bytes, offset, valueLength);
@@ -51,8 +51,7 @@ public class SecurityMetadataUniversalSet extends SecurityMetadataMessage {
                                 SecurityMetadataKey.getKey(field.getKey()), field.getValue());
                 setField(key, value);
             } catch (IllegalArgumentException ex) {
-                InvalidDataHandler.getInstance()
-                        .handleInvalidFieldEncoding(logger, ex.getMessage());
+                ParseContext.current().handleInvalidFieldEncoding(logger, ex.getMessage());
             }
         }
     }
@@ -5,7 +5,6 @@ import java.util.ArrayList;
 import java.util.List;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 
 /**
  * Active Wavelength List (Item 121).
@@ -51,9 +50,9 @@ public class ActiveWavelengthList implements IUasDatalinkValue {
     public ActiveWavelengthList(byte[] bytes) {
         int offset = 0;
         while (offset < bytes.length) {
-            BerField wavelengthIdentifierField = BerDecoder.decode(bytes, offset, true);
-            offset += wavelengthIdentifierField.getLength();
-            int wavelengthIdentifier = wavelengthIdentifierField.getValue();
+            long wavelengthIdentifierField = BerDecoder.decodePacked(bytes, offset, true);
+            offset += BerDecoder.getLength(wavelengthIdentifierField);
+            int wavelengthIdentifier = BerDecoder.getValue(wavelengthIdentifierField);
             wavelengthIdentifiers.add(wavelengthIdentifier);
         }
     }
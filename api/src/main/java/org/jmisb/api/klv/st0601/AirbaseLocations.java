@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.List;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.st0601.dto.Location;
 import org.jmisb.api.klv.st1201.FpEncoder;
 import org.jmisb.api.klv.st1201.OutOfRangeBehaviour;
@@ -36,9 +35,12 @@ public class AirbaseLocations implements IUasDatalinkValue {
     private boolean takeoffLocationIsUnknown;
     private boolean recoveryLocationIsUnknown;
 
-    private final FpEncoder latDecoder = new FpEncoder(-90, 90, 4, OutOfRangeBehaviour.Default);
-    private final FpEncoder lonDecoder = new FpEncoder(-180, 180, 4, OutOfRangeBehaviour.Default);
-    private final FpEncoder haeDecoder = new FpEncoder(-900, 9000, 3, OutOfRangeBehaviour.Default);
+    private final FpEncoder latDecoder =
+            FpEncoder.getInstance(-90, 90, 4, OutOfRangeBehaviour.Default);
+    private final FpEncoder lonDecoder =
+            FpEncoder.getInstance(-180, 180, 4, OutOfRangeBehaviour.Default);
+    private final FpEncoder haeDecoder =
+            FpEncoder.getInstance(-900, 9000, 3, OutOfRangeBehaviour.Default);
 
     /**
      * Create from values.
@@ -94,9 +96,9 @@ public class AirbaseLocations implements IUasDatalinkValue {
      */
     public AirbaseLocations(byte[] bytes) {
         int idx = 0;
-        BerField takeoffLenField = BerDecoder.decode(bytes, idx, false);
-        idx += takeoffLenField.getLength();
-        switch (takeoffLenField.getValue()) {
+        long takeoffLenField = BerDecoder.decodePacked(bytes, idx, false);
+        idx += BerDecoder.getLength(takeoffLenField);
+        switch (BerDecoder.getValue(takeoffLenField)) {
             case 11:
                 takeoffLocationIsUnknown = false;
                 takeoffLocation = new Location();
@@ -139,9 +141,9 @@ public class AirbaseLocations implements IUasDatalinkValue {
                 recoveryLocation.setHAE(takeoffLocation.getHAE());
             }
         } else {
-            BerField recoveryLenField = BerDecoder.decode(bytes, idx, false);
-            idx += recoveryLenField.getLength();
-            switch (recoveryLenField.getValue()) {
+            long recoveryLenField = BerDecoder.decodePacked(bytes, idx, false);
+            idx += BerDecoder.getLength(recoveryLenField);
+            switch (BerDecoder.getValue(recoveryLenField)) {
                 case 11:
                     recoveryLocationIsUnknown = false;
                     recoveryLocation = new Location();
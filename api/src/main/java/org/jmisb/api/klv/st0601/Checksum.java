@@ -1,6 +1,7 @@
 package org.jmisb.api.klv.st0601;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 /** Compute checksum for ST 0601 packet. */
 public class Checksum {
@@ -19,25 +20,163 @@ public class Checksum {
      * @return 2-byte checksum
      */
     public static byte[] compute(byte[] fullMessage, boolean insert) {
-        int sum = 0;
-        final int lastShortIndex = fullMessage.length - 4;
+        return compute(fullMessage, 0, fullMessage.length, insert);
+    }
 
-        // TODO: optimize
-        for (int i = 0; i <= lastShortIndex; i += 2) {
-            sum += Short.toUnsignedInt(ByteBuffer.wrap(fullMessage, i, 2).getShort());
+    /**
+     * Compute checksum over a message contained within a larger array.
+     *
+     * <p>This is the same as {@link #compute(byte[], boolean)}, but avoids the need to copy the
+     * message out of a larger buffer first.
+     *
+     * @param bytes Byte array containing the full message packet
+     * @param offset Index of the first byte of the message
+     * @param length Length of the message, in bytes
+     * @param insert True to insert the computed checksum into the last two bytes of the message
+     * @return 2-byte checksum
+     */
+    public static byte[] compute(byte[] bytes, int offset, int length, boolean insert) {
+        int sum = sum(bytes, offset, length - 2);
+        if (insert) {
+            bytes[offset + length - 2] = (byte) (sum >> 8);
+            bytes[offset + length - 1] = (byte) sum;
         }
+        return new byte[] {(byte) (sum >> 8), (byte) sum};
+    }
 
-        // Add final byte if there's an odd number of bytes
-        if (fullMessage.length % 2 == 1) {
-            int last = Short.toUnsignedInt(fullMessage[fullMessage.length - 3]);
-            sum += (last << 8);
-        }
+    /**
+     * Compute the checksum of a message contained within a larger array, and write it in place.
+     *
+     * <p>This is the same as {@link #compute(byte[], int, int, boolean)} with {@code insert} set,
+     * but does not allocate.
+     *
+     * @param bytes Byte array containing the full message packet
+     * @param offset Index of the first byte of the message
+     * @param length Length of the message, in bytes
+     */
+    public static void insert(byte[] bytes, int offset, int length) {
+        int sum = sum(bytes, offset, length - 2);
+        bytes[offset + length - 2] = (byte) (sum >> 8);
+        bytes[offset + length - 1] = (byte) sum;
+    }
 
+    /**
+     * Compute checksum over a message contained within a buffer.
+     *
+     * <p>This uses absolute positions, so the buffer's position and limit are not modified.
+     *
+     * @param buffer Buffer containing the full message packet
+     * @param offset Index of the first byte of the message
+     * @param length Length of the message, in bytes
+     * @param insert True to insert the computed checksum into the last two bytes of the message
+     * @return 2-byte checksum
+     */
+    public static byte[] compute(ByteBuffer buffer, int offset, int length, boolean insert) {
+        int sum = sum(buffer, offset, length - 2);
         if (insert) {
-            fullMessage[fullMessage.length - 2] = (byte) (sum >>> 8);
-            fullMessage[fullMessage.length - 1] = (byte) sum;
+            buffer.put(offset + length - 2, (byte) (sum >> 8));
+            buffer.put(offset + length - 1, (byte) sum);
         }
+        return new byte[] {(byte) (sum >> 8), (byte) sum};
+    }
 
-        return new byte[] {(byte) (sum >>> 8), (byte) sum};
+    /**
+     * Verify the checksum of a message contained within a larger array.
+     *
+     * <p>This compares the computed checksum with the last two bytes of the message, without
+     * allocating.
+     *
+     * @param bytes Byte array containing the full message packet
+     * @param offset Index of the first byte of the message
+     * @param length Length of the message, in bytes
+     * @return true if the checksum in the message is correct
+     */
+    public static boolean verify(byte[] bytes, int offset, int length) {
+        if (length < 2) {
+            return false;
+        }
+        int sum = sum(bytes, offset, length - 2);
+        int actual =
+                ((bytes[offset + length - 2] & 0xFF) << 8) | (bytes[offset + length - 1] & 0xFF);
+        return sum == actual;
+    }
+
+    /**
+     * Verify the checksum of a message contained within a buffer.
+     *
+     * <p>This uses absolute positions, so the buffer's position and limit are not modified.
+     *
+     * @param buffer Buffer containing the full message packet
+     * @param offset Index of the first byte of the message
+     * @param length Length of the message, in bytes
+     * @return true if the checksum in the message is correct
+     */
+    public static boolean verify(ByteBuffer buffer, int offset, int length) {
+        if (length < 2) {
+            return false;
+        }
+        int sum = sum(buffer, offset, length - 2);
+        int actual =
+                ((buffer.get(offset + length - 2) & 0xFF) << 8)
+                        | (buffer.get(offset + length - 1) & 0xFF);
+        return sum == actual;
+    }
+
+    /**
+     * Sum a range of bytes as big-endian uint16 values.
+     *
+     * <p>If the range has an odd length, the final byte is treated as the high byte of a value. The
+     * high (even index) and low (odd index) bytes are accumulated separately, which avoids
+     * combining each pair of bytes before adding it.
+     *
+     * @param bytes the array to sum over
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @return the sum, in the range [0, 0xFFFF]
+     */
+    private static int sum(byte[] bytes, int offset, int length) {
+        int high = 0;
+        int low = 0;
+        int i = offset;
+        final int end = offset + length;
+        for (; i <= end - 8; i += 8) {
+            high += (bytes[i] & 0xFF) + (bytes[i + 2] & 0xFF) + (bytes[i + 4] & 0xFF);
+            high += bytes[i + 6] & 0xFF;
+            low += (bytes[i + 1] & 0xFF) + (bytes[i + 3] & 0xFF) + (bytes[i + 5] & 0xFF);
+            low += bytes[i + 7] & 0xFF;
+        }
+        for (; i <= end - 2; i += 2) {
+            high += bytes[i] & 0xFF;
+            low += bytes[i + 1] & 0xFF;
+        }
+        if (i < end) {
+            high += bytes[i] & 0xFF;
+        }
+        return ((high << 8) + low) & 0xFFFF;
+    }
+
+    private static int sum(ByteBuffer buffer, int offset, int length) {
+        if (buffer.hasArray()) {
+            return sum(buffer.array(), buffer.arrayOffset() + offset, length);
+        }
+        long words = 0;
+        int i = offset;
+        final int end = offset + length;
+        if (buffer.order() == ByteOrder.BIG_ENDIAN) {
+            for (; i <= end - 8; i += 8) {
+                long v = buffer.getLong(i);
+                words += (v >>> 48) + ((v >>> 32) & 0xFFFF) + ((v >>> 16) & 0xFFFF) + (v & 0xFFFF);
+            }
+        }
+        int high = 0;
+        int low = 0;
+        for (; i <= end - 2; i += 2) {
+            high += buffer.get(i) & 0xFF;
+            low += buffer.get(i + 1) & 0xFF;
+        }
+        if (i < end) {
+            high += buffer.get(i) & 0xFF;
+        }
+        return (int) ((words + (high << 8) + low) & 0xFFFF);
     }
 }
@@ -7,7 +7,6 @@ import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.Ber;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.core.klv.ArrayUtils;
 import org.jmisb.core.klv.PrimitiveConverter;
 
@@ -90,17 +89,17 @@ public class ControlCommand implements IUasDatalinkValue {
      */
     public ControlCommand(byte[] bytes) throws KlvParseException {
         int idx = 0;
-        BerField idField = BerDecoder.decode(bytes, idx, true);
-        idx += idField.getLength();
-        id = idField.getValue();
-        BerField commandLengthField = BerDecoder.decode(bytes, idx, false);
-        idx += commandLengthField.getLength();
-        int stringLength = commandLengthField.getValue();
+        long idField = BerDecoder.decodePacked(bytes, idx, true);
+        idx += BerDecoder.getLength(idField);
+        id = BerDecoder.getValue(idField);
+        long commandLengthField = BerDecoder.decodePacked(bytes, idx, false);
+        idx += BerDecoder.getLength(commandLengthField);
+        int stringLength = BerDecoder.getValue(commandLengthField);
         if (idx + stringLength > bytes.length) {
             throw new KlvParseException("Insufficient bytes available for specified string length");
         }
         commandText = new String(bytes, idx, stringLength, StandardCharsets.UTF_8);
-        idx += commandLengthField.getValue();
+        idx += BerDecoder.getValue(commandLengthField);
         if (bytes.length > idx) {
             timestamp = PrimitiveConverter.toInt64(bytes, idx);
             timestampIsValid = true;
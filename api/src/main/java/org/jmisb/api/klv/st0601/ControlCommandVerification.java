@@ -5,7 +5,6 @@ import java.util.List;
 import org.jmisb.api.klv.Ber;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.core.klv.ArrayUtils;
 
 /**
@@ -44,9 +43,9 @@ public class ControlCommandVerification implements IUasDatalinkValue {
     public ControlCommandVerification(byte[] bytes) {
         int idx = 0;
         while (idx < bytes.length) {
-            BerField idField = BerDecoder.decode(bytes, idx, true);
-            this.commands.add(idField.getValue());
-            idx += idField.getLength();
+            long idField = BerDecoder.decodePacked(bytes, idx, true);
+            this.commands.add(BerDecoder.getValue(idField));
+            idx += BerDecoder.getLength(idField);
         }
     }
 
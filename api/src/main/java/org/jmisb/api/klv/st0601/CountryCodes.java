@@ -8,7 +8,6 @@ import java.util.Set;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.IKlvValue;
 import org.jmisb.api.klv.INestedKlvValue;
@@ -95,8 +94,8 @@ public class CountryCodes implements IUasDatalinkValue, INestedKlvValue {
     public CountryCodes(byte[] bytes) throws KlvParseException {
         int idx = 0;
 
-        BerField codingMethodLengthField = BerDecoder.decode(bytes, idx, false);
-        idx += codingMethodLengthField.getLength();
+        long codingMethodLengthField = BerDecoder.decodePacked(bytes, idx, false);
+        idx += BerDecoder.getLength(codingMethodLengthField);
         if (idx > bytes.length - 1) {
             throw new KlvParseException(
                     "Insufficient bytes available to extract country coding method");
@@ -104,20 +103,20 @@ public class CountryCodes implements IUasDatalinkValue, INestedKlvValue {
         codingMethod =
                 CountryCodingMethodUtilities.getMethodForValue(
                         bytes[idx]); // This assumes codingMethod is the next byte
-        idx += codingMethodLengthField.getValue();
+        idx += BerDecoder.getValue(codingMethodLengthField);
 
-        BerField overflightCountryLengthField = BerDecoder.decode(bytes, idx, false);
-        idx += overflightCountryLengthField.getLength();
-        if ((idx + overflightCountryLengthField.getValue()) > bytes.length) {
+        long overflightCountryLengthField = BerDecoder.decodePacked(bytes, idx, false);
+        idx += BerDecoder.getLength(overflightCountryLengthField);
+        if ((idx + BerDecoder.getValue(overflightCountryLengthField)) > bytes.length) {
             throw new KlvParseException("Insufficient bytes available for specified string length");
         }
         overflightCountry =
                 new String(
                         bytes,
                         idx,
-                        overflightCountryLengthField.getValue(),
+                        BerDecoder.getValue(overflightCountryLengthField),
                         StandardCharsets.UTF_8);
-        idx += overflightCountryLengthField.getValue();
+        idx += BerDecoder.getValue(overflightCountryLengthField);
 
         if (idx == bytes.length) {
             operatorCountry = "";
@@ -125,33 +124,36 @@ public class CountryCodes implements IUasDatalinkValue, INestedKlvValue {
             return;
         }
 
-        BerField operatorCountryLengthField = BerDecoder.decode(bytes, idx, false);
-        idx += operatorCountryLengthField.getLength();
-        if ((idx + operatorCountryLengthField.getValue()) > bytes.length) {
+        long operatorCountryLengthField = BerDecoder.decodePacked(bytes, idx, false);
+        idx += BerDecoder.getLength(operatorCountryLengthField);
+        if ((idx + BerDecoder.getValue(operatorCountryLengthField)) > bytes.length) {
             throw new KlvParseException("Insufficient bytes available for specified string length");
         }
         operatorCountry =
                 new String(
-                        bytes, idx, operatorCountryLengthField.getValue(), StandardCharsets.UTF_8);
-        idx += operatorCountryLengthField.getValue();
+                        bytes,
+                        idx,
+                        BerDecoder.getValue(operatorCountryLengthField),
+                        StandardCharsets.UTF_8);
+        idx += BerDecoder.getValue(operatorCountryLengthField);
 
         if (idx == bytes.length) {
             countryOfManufacture = "";
             return;
         }
 
-        BerField countryOfManufactureLengthField = BerDecoder.decode(bytes, idx, false);
-        idx += countryOfManufactureLengthField.getLength();
-        if ((idx + countryOfManufactureLengthField.getValue()) > bytes.length) {
+        long countryOfManufactureLengthField = BerDecoder.decodePacked(bytes, idx, false);
+        idx += BerDecoder.getLength(countryOfManufactureLengthField);
+        if ((idx + BerDecoder.getValue(countryOfManufactureLengthField)) > bytes.length) {
             throw new KlvParseException("Insufficient bytes available for specified string length");
         }
         countryOfManufacture =
                 new String(
                         bytes,
                         idx,
-                        countryOfManufactureLengthField.getValue(),
+                        BerDecoder.getValue(countryOfManufactureLengthField),
                         StandardCharsets.UTF_8);
-        idx += countryOfManufactureLengthField.getValue();
+        idx += BerDecoder.getValue(countryOfManufactureLengthField);
     }
 
     @Override
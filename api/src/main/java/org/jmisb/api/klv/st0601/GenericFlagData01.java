@@ -1,9 +1,9 @@
 package org.jmisb.api.klv.st0601;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.INestedKlvValue;
@@ -53,7 +53,7 @@ public class GenericFlagData01 implements IUasDatalinkValue, INestedKlvValue {
     protected static final String IMAGE_INVALID = "Image Invalid";
     protected static final String IMAGE_VALID = "Image Valid";
 
-    private final SortedMap<FlagDataKey, UasDatalinkString> map = new TreeMap<>();
+    private final Map<FlagDataKey, UasDatalinkString> map = new EnumMap<>(FlagDataKey.class);
 
     /**
      * Create from value.
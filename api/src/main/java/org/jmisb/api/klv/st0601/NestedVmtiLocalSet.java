@@ -49,6 +49,19 @@ public class NestedVmtiLocalSet implements IUasDatalinkValue, INestedKlvValue {
         this.vmtiLocalSet = new VmtiLocalSet(bytes);
     }
 
+    /**
+     * Create from encoded bytes, decoding only selected values.
+     *
+     * @param bytes The byte array
+     * @param wantedKeys The keys to decode, or null to decode all keys
+     * @throws KlvParseException if the input is invalid
+     * @see VmtiLocalSet#VmtiLocalSet(byte[], Set)
+     */
+    public NestedVmtiLocalSet(byte[] bytes, Set<? extends IKlvKey> wantedKeys)
+            throws KlvParseException {
+        this.vmtiLocalSet = new VmtiLocalSet(bytes, wantedKeys);
+    }
+
     @Override
     public byte[] getBytes() {
         return this.vmtiLocalSet.frameMessage(true);
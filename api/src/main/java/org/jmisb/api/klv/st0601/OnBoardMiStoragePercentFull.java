@@ -23,6 +23,8 @@ public class OnBoardMiStoragePercentFull implements IUasDatalinkValue {
     private static double MIN_VAL = 0.0;
     private static double MAX_VAL = 100.0;
     private static int RECOMMENDED_BYTES = 2;
+    private static final FpEncoder ENCODER =
+            FpEncoder.getInstance(MIN_VAL, MAX_VAL, RECOMMENDED_BYTES, OutOfRangeBehaviour.Default);
     private static int MAX_BYTES = 3;
     private double percentage;
 
@@ -49,7 +51,10 @@ public class OnBoardMiStoragePercentFull implements IUasDatalinkValue {
                     this.getDisplayName() + " cannot be longer than " + MAX_BYTES + " bytes");
         }
         FpEncoder decoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
+                (bytes.length == RECOMMENDED_BYTES)
+                        ? ENCODER
+                        : FpEncoder.getInstance(
+                                MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
         this.percentage = decoder.decode(bytes);
     }
 
@@ -64,9 +69,7 @@ public class OnBoardMiStoragePercentFull implements IUasDatalinkValue {
 
     @Override
     public byte[] getBytes() {
-        FpEncoder encoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, RECOMMENDED_BYTES, OutOfRangeBehaviour.Default);
-        return encoder.encode(this.percentage);
+        return ENCODER.encode(this.percentage);
     }
 
     @Override
@@ -9,7 +9,6 @@ import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.Ber;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.IKlvValue;
 import org.jmisb.api.klv.INestedKlvValue;
@@ -68,25 +67,30 @@ public class PayloadList implements IUasDatalinkValue, INestedKlvValue {
      */
     public PayloadList(byte[] bytes) throws KlvParseException {
         int offset = 0;
-        BerField payloadCountField = BerDecoder.decode(bytes, offset, true);
-        offset += payloadCountField.getLength();
+        long payloadCountField = BerDecoder.decodePacked(bytes, offset, true);
+        offset += BerDecoder.getLength(payloadCountField);
         while (offset < bytes.length) {
-            BerField payloadLengthField = BerDecoder.decode(bytes, offset, false);
-            offset += payloadLengthField.getLength();
-            BerField idField = BerDecoder.decode(bytes, offset, true);
-            offset += idField.getLength();
-            BerField typeField = BerDecoder.decode(bytes, offset, true);
-            offset += typeField.getLength();
-            BerField nameLengthField = BerDecoder.decode(bytes, offset, false);
-            offset += nameLengthField.getLength();
-            if ((offset + nameLengthField.getValue()) > bytes.length) {
+            long payloadLengthField = BerDecoder.decodePacked(bytes, offset, false);
+            offset += BerDecoder.getLength(payloadLengthField);
+            long idField = BerDecoder.decodePacked(bytes, offset, true);
+            offset += BerDecoder.getLength(idField);
+            long typeField = BerDecoder.decodePacked(bytes, offset, true);
+            offset += BerDecoder.getLength(typeField);
+            long nameLengthField = BerDecoder.decodePacked(bytes, offset, false);
+            offset += BerDecoder.getLength(nameLengthField);
+            if ((offset + BerDecoder.getValue(nameLengthField)) > bytes.length) {
                 throw new KlvParseException(
                         "Insufficient bytes available for specified string length");
             }
             String name =
-                    new String(bytes, offset, nameLengthField.getValue(), StandardCharsets.UTF_8);
-            Payload payload = new Payload(idField.getValue(), typeField.getValue(), name);
-            offset += nameLengthField.getValue();
+                    new String(
+                            bytes,
+                            offset,
+                            BerDecoder.getValue(nameLengthField),
+                            StandardCharsets.UTF_8);
+            Payload payload =
+                    new Payload(BerDecoder.getValue(idField), BerDecoder.getValue(typeField), name);
+            offset += BerDecoder.getValue(nameLengthField);
             payloadList.add(payload);
         }
     }
@@ -31,6 +31,8 @@ public class PlatformCourseAngle implements IUasDatalinkValue {
     private static double MIN_VAL = 0.0;
     private static double MAX_VAL = 360.0;
     private static int RECOMMENDED_BYTES = 2;
+    private static final FpEncoder ENCODER =
+            FpEncoder.getInstance(MIN_VAL, MAX_VAL, RECOMMENDED_BYTES, OutOfRangeBehaviour.Default);
     private static int MAX_BYTES = 8;
     private double angle;
 
@@ -57,7 +59,10 @@ public class PlatformCourseAngle implements IUasDatalinkValue {
                     this.getDisplayName() + " cannot be longer than " + MAX_BYTES + " bytes");
         }
         FpEncoder decoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
+                (bytes.length == RECOMMENDED_BYTES)
+                        ? ENCODER
+                        : FpEncoder.getInstance(
+                                MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
         this.angle = decoder.decode(bytes);
     }
 
@@ -72,9 +77,7 @@ public class PlatformCourseAngle implements IUasDatalinkValue {
 
     @Override
     public byte[] getBytes() {
-        FpEncoder encoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, RECOMMENDED_BYTES, OutOfRangeBehaviour.Default);
-        return encoder.encode(this.angle);
+        return ENCODER.encode(this.angle);
     }
 
     @Override
@@ -26,6 +26,8 @@ public class RangeToRecoveryLocation implements IUasDatalinkValue {
     private static double MIN_VAL = 0.0;
     private static double MAX_VAL = 21000.0;
     private static int RECOMMENDED_BYTES = 3;
+    private static final FpEncoder ENCODER =
+            FpEncoder.getInstance(MIN_VAL, MAX_VAL, RECOMMENDED_BYTES, OutOfRangeBehaviour.Default);
     private static int MAX_BYTES = 4;
     private double range;
 
@@ -53,7 +55,10 @@ public class RangeToRecoveryLocation implements IUasDatalinkValue {
                     this.getDisplayName() + " cannot be longer than " + MAX_BYTES + " bytes");
         }
         FpEncoder decoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
+                (bytes.length == RECOMMENDED_BYTES)
+                        ? ENCODER
+                        : FpEncoder.getInstance(
+                                MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
         this.range = decoder.decode(bytes);
     }
 
@@ -68,9 +73,7 @@ public class RangeToRecoveryLocation implements IUasDatalinkValue {
 
     @Override
     public byte[] getBytes() {
-        FpEncoder encoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, RECOMMENDED_BYTES, OutOfRangeBehaviour.Default);
-        return encoder.encode(this.range);
+        return ENCODER.encode(this.range);
     }
 
     @Override
@@ -13,6 +13,8 @@ public abstract class SensorAngleRate implements IUasDatalinkValue {
     private static double MIN_VAL = -1000.0;
     private static double MAX_VAL = 1000.0;
     private static int RECOMMENDED_BYTES = 3;
+    private static final FpEncoder ENCODER =
+            FpEncoder.getInstance(MIN_VAL, MAX_VAL, RECOMMENDED_BYTES, OutOfRangeBehaviour.Default);
     private static int MAX_BYTES = 4;
     private double angleRate;
 
@@ -40,7 +42,10 @@ public abstract class SensorAngleRate implements IUasDatalinkValue {
                     this.getDisplayName() + " cannot be longer than " + MAX_BYTES + " bytes");
         }
         FpEncoder decoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
+                (bytes.length == RECOMMENDED_BYTES)
+                        ? ENCODER
+                        : FpEncoder.getInstance(
+                                MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
         this.angleRate = decoder.decode(bytes);
     }
 
@@ -55,9 +60,7 @@ public abstract class SensorAngleRate implements IUasDatalinkValue {
 
     @Override
     public byte[] getBytes() {
-        FpEncoder encoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, RECOMMENDED_BYTES, OutOfRangeBehaviour.Default);
-        return encoder.encode(this.angleRate);
+        return ENCODER.encode(this.angleRate);
     }
 
     @Override
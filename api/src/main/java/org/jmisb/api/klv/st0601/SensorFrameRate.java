@@ -5,7 +5,6 @@ import java.util.List;
 import org.jmisb.api.klv.Ber;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.core.klv.ArrayUtils;
 
 /**
@@ -57,11 +56,12 @@ public class SensorFrameRate implements IUasDatalinkValue {
      * @param bytes encoded value
      */
     public SensorFrameRate(byte[] bytes) {
-        BerField numeratorField = BerDecoder.decode(bytes, 0, true);
-        numerator = numeratorField.getValue();
-        if (bytes.length > numeratorField.getLength()) {
-            BerField denominatorField = BerDecoder.decode(bytes, numeratorField.getLength(), true);
-            denominator = denominatorField.getValue();
+        long numeratorField = BerDecoder.decodePacked(bytes, 0, true);
+        numerator = BerDecoder.getValue(numeratorField);
+        if (bytes.length > BerDecoder.getLength(numeratorField)) {
+            long denominatorField =
+                    BerDecoder.decodePacked(bytes, BerDecoder.getLength(numeratorField), true);
+            denominator = BerDecoder.getValue(denominatorField);
         } else {
             denominator = 1;
         }
@@ -24,6 +24,8 @@ public class TargetWidthExtended implements IUasDatalinkValue {
     private static double MIN_VAL = 0.0;
     private static double MAX_VAL = 1500000.0;
     private static int RECOMMENDED_BYTES = 3;
+    private static final FpEncoder ENCODER =
+            FpEncoder.getInstance(MIN_VAL, MAX_VAL, RECOMMENDED_BYTES, OutOfRangeBehaviour.Default);
     private static int MAX_BYTES = 8;
 
     /**
@@ -50,7 +52,10 @@ public class TargetWidthExtended implements IUasDatalinkValue {
                     this.getDisplayName() + " cannot be longer than " + MAX_BYTES + " bytes");
         }
         FpEncoder decoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
+                (bytes.length == RECOMMENDED_BYTES)
+                        ? ENCODER
+                        : FpEncoder.getInstance(
+                                MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
         metres = decoder.decode(bytes);
     }
 
@@ -65,9 +70,7 @@ public class TargetWidthExtended implements IUasDatalinkValue {
 
     @Override
     public byte[] getBytes() {
-        FpEncoder encoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, RECOMMENDED_BYTES, OutOfRangeBehaviour.Default);
-        return encoder.encode(metres);
+        return ENCODER.encode(metres);
     }
 
     @Override
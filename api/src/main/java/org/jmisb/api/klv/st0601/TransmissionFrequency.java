@@ -23,6 +23,8 @@ public class TransmissionFrequency implements IUasDatalinkValue {
     private static double MIN_VAL = 1.0;
     private static double MAX_VAL = 99999.0;
     private static int RECOMMENDED_BYTES = 3;
+    private static final FpEncoder ENCODER =
+            FpEncoder.getInstance(MIN_VAL, MAX_VAL, RECOMMENDED_BYTES, OutOfRangeBehaviour.Default);
     private static int MAX_BYTES = 4;
     private double frequency;
 
@@ -50,7 +52,10 @@ public class TransmissionFrequency implements IUasDatalinkValue {
                     this.getDisplayName() + " cannot be longer than " + MAX_BYTES + " bytes");
         }
         FpEncoder decoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
+                (bytes.length == RECOMMENDED_BYTES)
+                        ? ENCODER
+                        : FpEncoder.getInstance(
+                                MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
         this.frequency = decoder.decode(bytes);
     }
 
@@ -65,9 +70,7 @@ public class TransmissionFrequency implements IUasDatalinkValue {
 
     @Override
     public byte[] getBytes() {
-        FpEncoder encoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, RECOMMENDED_BYTES, OutOfRangeBehaviour.Default);
-        return encoder.encode(this.frequency);
+        return ENCODER.encode(this.frequency);
     }
 
     @Override
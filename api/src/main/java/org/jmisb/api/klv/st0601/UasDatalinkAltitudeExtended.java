@@ -14,6 +14,8 @@ public abstract class UasDatalinkAltitudeExtended implements IUasDatalinkValue {
     protected static final double MIN_VAL = -900.0;
     protected static final double MAX_VAL = 40000.0;
     protected static final int RECOMMENDED_BYTES = 3;
+    private static final FpEncoder ENCODER =
+            FpEncoder.getInstance(MIN_VAL, MAX_VAL, RECOMMENDED_BYTES, OutOfRangeBehaviour.Default);
     private double metres;
 
     /**
@@ -41,7 +43,10 @@ public abstract class UasDatalinkAltitudeExtended implements IUasDatalinkValue {
                     this.getDisplayName() + " cannot be longer than " + maxBytes + " bytes");
         }
         FpEncoder decoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
+                (bytes.length == RECOMMENDED_BYTES)
+                        ? ENCODER
+                        : FpEncoder.getInstance(
+                                MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
         metres = decoder.decode(bytes);
     }
 
@@ -56,9 +61,7 @@ public abstract class UasDatalinkAltitudeExtended implements IUasDatalinkValue {
 
     @Override
     public byte[] getBytes() {
-        FpEncoder encoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, RECOMMENDED_BYTES, OutOfRangeBehaviour.Default);
-        return encoder.encode(metres);
+        return ENCODER.encode(metres);
     }
 
     @Override
@@ -1,12 +1,14 @@
 package org.jmisb.api.klv.st0601;
 
 import static org.jmisb.api.klv.KlvConstants.UasDatalinkLocalUl;
-import static org.jmisb.core.klv.ArrayUtils.arrayFromChunks;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.*;
-import org.jmisb.api.common.InvalidDataHandler;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
 import org.jmisb.api.klv.*;
+import org.jmisb.api.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,12 +24,41 @@ public class UasDatalinkMessage implements IMisbMessage {
     // TODO: should we make this class immutable? May have benefits for stability in multi-threaded
     // environments.
 
-    /** Map containing all data elements in the message (except, normally, the checksum). */
-    private SortedMap<UasDatalinkTag, IUasDatalinkValue> map = new TreeMap<>();
+    private static final UasDatalinkTag[] TAGS = UasDatalinkTag.values();
+    private static final int NUM_TAGS = TAGS.length;
+
+    /** Length of the checksum field, including key and length. */
+    private static final int CHECKSUM_FIELD_LENGTH = 4;
+
+    /**
+     * Map containing all data elements in the message (except, normally, the checksum).
+     *
+     * <p>Parsed messages use an {@link EnumMap}, which is an array indexed by tag code. Iteration
+     * is in tag order, the same as for a sorted map.
+     */
+    private Map<UasDatalinkTag, IUasDatalinkValue> map = new EnumMap<>(UasDatalinkTag.class);
+
+    /**
+     * Fields that have not been decoded yet, indexed by tag code.
+     *
+     * <p>This is only used for messages parsed in lazy mode, and is null otherwise.
+     */
+    private LdsField[] pendingFields;
+
+    /**
+     * Context that was current when a lazy message was parsed, which handles invalid values found
+     * when they are decoded later. Null if the message is not lazy.
+     */
+    private ParseContext parseContext;
+
+    /** Keys to pass on to nested local sets, or null to decode all values. */
+    private Set<? extends IKlvKey> nestedKeys;
 
     /**
      * Create the message from the given key/value pairs.
      *
+     * <p>The message uses {@code values} directly, rather than a copy.
+     *
      * @param values Tag/value pairs to be included in the message
      */
     public UasDatalinkMessage(SortedMap<UasDatalinkTag, IUasDatalinkValue> values) {
@@ -41,44 +72,130 @@ public class UasDatalinkMessage implements IMisbMessage {
      * @throws KlvParseException if a parsing error occurs, or checksum is missing/invalid
      */
     public UasDatalinkMessage(byte[] bytes) throws KlvParseException {
+        this(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Create the message by parsing a range of the given byte array.
+     *
+     * <p>The message is parsed in place, without first copying it out of {@code bytes}.
+     *
+     * @param bytes Byte array containing a UAS Datalink message
+     * @param offset Index of the first byte of the message (the start of the universal label)
+     * @param length Length of the message, in bytes
+     * @throws KlvParseException if a parsing error occurs, or checksum is missing/invalid
+     */
+    public UasDatalinkMessage(byte[] bytes, int offset, int length) throws KlvParseException {
+        this(bytes, offset, length, false);
+    }
+
+    /**
+     * Create the message by parsing a range of the given byte array, optionally deferring value
+     * decoding.
+     *
+     * <p>In lazy mode, the message is copied once and indexed, and each value is decoded the first
+     * time it is requested with {@link #getField(UasDatalinkTag)}. This means the decoding cost
+     * depends on the tags that are read, rather than the tags that are present. The checksum is
+     * still verified during construction. A value that turns out to be invalid when it is decoded
+     * is passed to the {@link ParseContext} that was current during construction, even if {@code
+     * getField} is called outside of it, and is then treated as absent.
+     *
+     * <p>Decoding a value updates the message, so reading and encoding a lazy message are
+     * synchronized. A lazy message can be shared between threads in the same way as a fully decoded
+     * one.
+     *
+     * @param bytes Byte array containing a UAS Datalink message
+     * @param offset Index of the first byte of the message (the start of the universal label)
+     * @param length Length of the message, in bytes
+     * @param lazy true to defer decoding each value until it is requested
+     * @throws KlvParseException if a parsing error occurs, or checksum is missing/invalid
+     */
+    public UasDatalinkMessage(byte[] bytes, int offset, int length, boolean lazy)
+            throws KlvParseException {
+        this(bytes, offset, length, lazy, null);
+    }
+
+    /**
+     * Create the message by parsing a range of the given byte array, decoding only selected values.
+     *
+     * <p>Only the {@link UasDatalinkTag} values in {@code wantedKeys} are decoded, and other fields
+     * are skipped without decoding their values. If {@code wantedKeys} does not contain any {@link
+     * UasDatalinkTag} values, all values are decoded. The checksum is always verified. Keys for
+     * nested local sets that support projection (such as {@code VmtiMetadataKey} values for the
+     * VMTI local set) are passed on to the nested parser.
+     *
+     * @param bytes Byte array containing a UAS Datalink message
+     * @param offset Index of the first byte of the message (the start of the universal label)
+     * @param length Length of the message, in bytes
+     * @param lazy true to defer decoding each value until it is requested
+     * @param wantedKeys the keys to decode, or null to decode all keys
+     * @throws KlvParseException if a parsing error occurs, or checksum is missing/invalid
+     * @see #UasDatalinkMessage(byte[], int, int, boolean)
+     */
+    public UasDatalinkMessage(
+            byte[] bytes, int offset, int length, boolean lazy, Set<? extends IKlvKey> wantedKeys)
+            throws KlvParseException {
+        this.nestedKeys = wantedKeys;
+        if (lazy) {
+            // The caller may re-use the array, so keep our own copy to decode from later
+            bytes = Arrays.copyOfRange(bytes, offset, offset + length);
+            offset = 0;
+            pendingFields = new LdsField[NUM_TAGS];
+            parseContext = ParseContext.current();
+        }
+
         // Parse the length field
-        BerField lengthField = BerDecoder.decode(bytes, UniversalLabel.LENGTH, false);
-        int lengthLength = lengthField.getLength();
-        int valueLength = lengthField.getValue();
+        long lengthField = BerDecoder.decodePacked(bytes, offset + UniversalLabel.LENGTH, false);
+        int lengthLength = BerDecoder.getLength(lengthField);
+        int valueLength = BerDecoder.getValue(lengthField);
 
         // Parse fields out of the array
+        TagFilter tagFilter =
+                TagFilter.forKeys(wantedKeys, UasDatalinkTag.class, UasDatalinkTag.Checksum);
         List<LdsField> fields =
-                LdsParser.parseFields(bytes, UniversalLabel.LENGTH + lengthLength, valueLength);
+                LdsParser.parseFields(
+                        bytes,
+                        offset + UniversalLabel.LENGTH + lengthLength,
+                        valueLength,
+                        tagFilter);
 
         boolean checksumFound = false;
         for (LdsField field : fields) {
             UasDatalinkTag tag = UasDatalinkTag.getTag(field.getTag());
             if (tag == UasDatalinkTag.Undefined) {
                 logger.info("Unknown UAS Datalink tag: " + field.getTag());
+                Metrics.getRecorder().unknownTag(logger.getName(), field.getTag());
             } else if (tag == UasDatalinkTag.ControlCommand) {
                 processControlCommand(tag, field.getData());
             } else if (tag == UasDatalinkTag.Checksum) {
                 checksumFound = true;
-                byte[] expected = Checksum.compute(bytes, false);
-                byte[] actual = Arrays.copyOfRange(bytes, bytes.length - 2, bytes.length);
-                if (!Arrays.equals(expected, actual)) {
-                    InvalidDataHandler.getInstance().handleInvalidChecksum(logger, "Bad checksum");
+                if (!Checksum.verify(bytes, offset, length)) {
+                    ParseContext.current().handleInvalidChecksum(logger, "Bad checksum");
                 }
+            } else if (lazy) {
+                pendingFields[tag.getCode()] = field;
             } else {
                 try {
-                    IUasDatalinkValue value = UasDatalinkFactory.createValue(tag, field.getData());
+                    IUasDatalinkValue value = createValue(tag, field.getData());
                     setField(tag, value);
                 } catch (KlvParseException | IllegalArgumentException ex) {
-                    InvalidDataHandler.getInstance()
-                            .handleInvalidFieldEncoding(logger, ex.getMessage());
+                    ParseContext.current().handleInvalidFieldEncoding(logger, ex.getMessage());
                 }
             }
         }
 
         // Handle the case where the mandatory checksum is missing
         if (!checksumFound) {
-            InvalidDataHandler.getInstance().handleMissingChecksum(logger, "Missing checksum");
+            ParseContext.current().handleMissingChecksum(logger, "Missing checksum");
+        }
+    }
+
+    private IUasDatalinkValue createValue(UasDatalinkTag tag, byte[] fieldBytes)
+            throws KlvParseException {
+        if ((tag == UasDatalinkTag.VmtiLocalDataSet) && (nestedKeys != null)) {
+            return new NestedVmtiLocalSet(fieldBytes, nestedKeys);
         }
+        return UasDatalinkFactory.createValue(tag, fieldBytes);
     }
 
     private void processControlCommand(UasDatalinkTag tag, byte[] fieldBytes)
@@ -94,18 +211,52 @@ public class UasDatalinkMessage implements IMisbMessage {
         }
     }
 
+    /** Set a value while parsing, before the message is visible to other threads. */
     private void setField(UasDatalinkTag tag, IUasDatalinkValue value) {
+        if (pendingFields != null) {
+            pendingFields[tag.getCode()] = null;
+        }
         map.put(tag, value);
     }
 
     /**
      * Get the value of a given tag.
      *
+     * <p>For a lazy message, an invalid value is handled by the {@link ParseContext} that was
+     * current when the message was parsed. If that context chooses to throw, the {@link
+     * KlvParseException} is wrapped in an {@link IllegalArgumentException}, since this method
+     * cannot throw a checked exception. Either way, the value is treated as absent afterwards.
+     *
      * @param tag Tag of the value to retrieve
      * @return The value, or null if no value was set
+     * @throws IllegalArgumentException if the value of a lazy message is invalid, and the parse
+     *     context chooses to throw
      */
     public IUasDatalinkValue getField(UasDatalinkTag tag) {
-        return map.get(tag);
+        if (pendingFields == null) {
+            return map.get(tag);
+        }
+        synchronized (this) {
+            LdsField pending = pendingFields[tag.getCode()];
+            if (pending != null) {
+                pendingFields[tag.getCode()] = null;
+                try {
+                    map.put(tag, createValue(tag, pending.getData()));
+                } catch (KlvParseException | IllegalArgumentException ex) {
+                    handleInvalidValue(tag, ex);
+                }
+            }
+            return map.get(tag);
+        }
+    }
+
+    private void handleInvalidValue(UasDatalinkTag tag, Exception ex) {
+        try {
+            parseContext.handleInvalidFieldEncoding(
+                    logger, "Invalid encoding for " + tag + ": " + ex.getMessage());
+        } catch (KlvParseException strict) {
+            throw new IllegalArgumentException(strict.getMessage(), strict);
+        }
     }
 
     @Override
@@ -124,7 +275,19 @@ public class UasDatalinkMessage implements IMisbMessage {
 
     @Override
     public Set<UasDatalinkTag> getIdentifiers() {
-        return map.keySet();
+        if (pendingFields == null) {
+            return map.keySet();
+        }
+        synchronized (this) {
+            Set<UasDatalinkTag> identifiers = EnumSet.noneOf(UasDatalinkTag.class);
+            identifiers.addAll(map.keySet());
+            for (LdsField pending : pendingFields) {
+                if (pending != null) {
+                    identifiers.add(UasDatalinkTag.getTag(pending.getTag()));
+                }
+            }
+            return identifiers;
+        }
     }
 
     @Override
@@ -132,77 +295,129 @@ public class UasDatalinkMessage implements IMisbMessage {
         return UasDatalinkLocalUl;
     }
 
+    // Encoding is synchronized so that getField() can't decode a pending field (moving it from
+    // pendingFields to map) between prepareValues() and writeTo()
+
     @Override
-    public byte[] frameMessage(boolean isNested) {
-        // List representing all tags and values as primitive byte arrays. Avoids boxing/unboxing
-        // individual bytes for efficiency.
-        List<byte[]> chunks = new ArrayList<>();
+    public synchronized byte[] frameMessage(boolean isNested) {
+        byte[][] values = new byte[NUM_TAGS][];
+        int valueLength = prepareValues(values);
+        int totalLength = isNested ? valueLength : getFramedLength(valueLength);
+        byte[] array = new byte[totalLength];
+        writeTo(ByteBuffer.wrap(array), values, valueLength, isNested);
+        return array;
+    }
 
-        // Note: we will insert key/length fields into chunks after all value fields have been added
+    @Override
+    public synchronized int encodedLength() {
+        return getFramedLength(prepareValues(null));
+    }
 
-        // Add all values from map
-        for (Map.Entry<UasDatalinkTag, IUasDatalinkValue> entry : map.entrySet()) {
-            UasDatalinkTag tag = entry.getKey();
+    @Override
+    public synchronized void encodeTo(ByteBuffer buffer) {
+        byte[][] values = new byte[NUM_TAGS][];
+        int valueLength = prepareValues(values);
+        if (buffer.remaining() < getFramedLength(valueLength)) {
+            throw new BufferOverflowException();
+        }
+        writeTo(buffer, values, valueLength, false);
+    }
 
+    /**
+     * Get the encoded value of each field, and the total length of the fields.
+     *
+     * @param values array to hold the encoded value for each tag code, or null if only the length
+     *     is required
+     * @return the length of the value of the message, including the checksum field
+     */
+    private int prepareValues(byte[][] values) {
+        int valueLength = CHECKSUM_FIELD_LENGTH;
+        for (UasDatalinkTag tag : getIdentifiers()) {
             // Ignore checksum if present in the map (should not be), it will be calculated and
             // appended at the very end
             if (tag == UasDatalinkTag.Checksum) {
                 continue;
             }
 
-            IUasDatalinkValue value = entry.getValue();
+            LdsField pending = (pendingFields == null) ? null : pendingFields[tag.getCode()];
+            if (pending != null) {
+                // Not decoded yet, so re-use the original encoding
+                valueLength += getFieldLength(tag, pending.getDataLength());
+                if (values != null) {
+                    values[tag.getCode()] = pending.getData();
+                }
+                continue;
+            }
+
+            IUasDatalinkValue value = map.get(tag);
+            if (value == null) {
+                continue;
+            }
+            byte[] bytes;
             if (value instanceof ISpecialFraming) {
-                ISpecialFraming specialFramingEntry = (ISpecialFraming) value;
-                chunks.add(specialFramingEntry.getEncodedValue());
+                // Already includes the key and length
+                bytes = ((ISpecialFraming) value).getEncodedValue();
+                valueLength += bytes.length;
             } else {
-                byte[] bytes = value.getBytes();
-                if (bytes != null && bytes.length > 0) {
-                    // Add key, length, value to chunks
-                    chunks.add(BerEncoder.encode(tag.getCode(), Ber.OID));
-                    chunks.add(BerEncoder.encode(bytes.length));
-                    chunks.add(bytes.clone());
+                bytes = value.getBytes();
+                if (bytes == null || bytes.length == 0) {
+                    continue;
                 }
+                valueLength += getFieldLength(tag, bytes.length);
+            }
+            if (values != null) {
+                values[tag.getCode()] = bytes;
             }
         }
+        return valueLength;
+    }
 
-        // Add Key and Length of checksum with placeholder for value - Checksum must be final
-        // element
-        byte[] checksum = new byte[2];
-        chunks.add(new byte[] {(byte) UasDatalinkTag.Checksum.getCode()});
-        chunks.add(BerEncoder.encode(checksum.length, Ber.SHORT_FORM));
-        chunks.add(checksum);
-
-        // Figure out value length
-        final int keyLength = UniversalLabel.LENGTH;
-        int valueLength = 0;
-        for (byte[] chunk : chunks) {
-            valueLength += chunk.length;
+    /**
+     * Write the message.
+     *
+     * @param buffer the buffer to write to, which must have enough space remaining
+     * @param values the encoded value for each tag code, from {@link #prepareValues(byte[][])}
+     * @param valueLength the length of the value of the message
+     * @param isNested If true, the key and length field are omitted
+     */
+    private void writeTo(ByteBuffer buffer, byte[][] values, int valueLength, boolean isNested) {
+        final int start = buffer.position();
+        if (!isNested) {
+            buffer.put(UasDatalinkLocalUl.getBytes());
+            BerEncoder.encode(valueLength, buffer);
         }
-
-        // Determine total length
-        int totalLength;
-        if (isNested) {
-            // NOTE: nesting ST 0601 seems unlikely, but we'll support it anyway
-            totalLength = valueLength;
-        } else {
-            // Prepend length field into front of the list
-            byte[] lengthField = BerEncoder.encode(valueLength);
-            chunks.add(0, lengthField);
-
-            // Prepend key field (UL) into front of the list
-            chunks.add(0, UasDatalinkLocalUl.getBytes());
-
-            // Compute full message length
-            totalLength = keyLength + lengthField.length + valueLength;
+        for (int code = 0; code < NUM_TAGS; code++) {
+            byte[] bytes = values[code];
+            if (bytes == null) {
+                continue;
+            }
+            if (!(map.get(TAGS[code]) instanceof ISpecialFraming)
+                    || ((pendingFields != null) && (pendingFields[code] != null))) {
+                BerEncoder.encode(code, Ber.OID, buffer);
+                BerEncoder.encode(bytes.length, buffer);
+            }
+            buffer.put(bytes);
         }
 
-        // Allocate array and write all chunks
-        byte[] array = arrayFromChunks(chunks, totalLength);
+        // Add Key and Length of checksum with placeholder for value - Checksum must be final
+        // element
+        buffer.put((byte) UasDatalinkTag.Checksum.getCode());
+        buffer.put((byte) 2);
+        buffer.put((byte) 0);
+        buffer.put((byte) 0);
+
+        // Compute the checksum and replace the last two bytes
+        Checksum.compute(buffer, start, buffer.position() - start, true);
+    }
 
-        // Compute the checksum and replace the last two bytes of array
-        Checksum.compute(array, true);
+    private static int getFieldLength(UasDatalinkTag tag, int valueLength) {
+        return BerEncoder.getEncodedLength(tag.getCode(), Ber.OID)
+                + BerEncoder.getEncodedLength(valueLength)
+                + valueLength;
+    }
 
-        return array;
+    private static int getFramedLength(int valueLength) {
+        return UniversalLabel.LENGTH + BerEncoder.getEncodedLength(valueLength) + valueLength;
     }
 
     @Override
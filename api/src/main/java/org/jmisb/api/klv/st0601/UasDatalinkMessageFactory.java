@@ -1,12 +1,55 @@
 package org.jmisb.api.klv.st0601;
 
+import java.util.Set;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.IMisbMessageFactory;
 
-/** Factory method for UasDatalinkMessages. */
+/**
+ * Factory method for UasDatalinkMessages.
+ *
+ * <p>By default, every value is decoded when the message is parsed. Applications that only read a
+ * few tags from each message can instead register a lazy factory, so values are decoded when they
+ * are first requested:
+ *
+ * <pre>{@code
+ * MisbMessageFactory.getInstance()
+ *         .registerHandler(KlvConstants.UasDatalinkLocalUl, new UasDatalinkMessageFactory(true));
+ * }</pre>
+ */
 public class UasDatalinkMessageFactory implements IMisbMessageFactory {
+    private final boolean lazy;
+
+    /** Constructor for a factory that decodes all values during parsing. */
+    public UasDatalinkMessageFactory() {
+        this(false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param lazy true to defer decoding each value until it is requested
+     * @see UasDatalinkMessage#UasDatalinkMessage(byte[], int, int, boolean)
+     */
+    public UasDatalinkMessageFactory(boolean lazy) {
+        this.lazy = lazy;
+    }
+
     @Override
     public UasDatalinkMessage create(byte[] bytes) throws KlvParseException {
-        return new UasDatalinkMessage(bytes);
+        return new UasDatalinkMessage(bytes, 0, bytes.length, lazy);
+    }
+
+    @Override
+    public UasDatalinkMessage create(byte[] bytes, int offset, int length)
+            throws KlvParseException {
+        return new UasDatalinkMessage(bytes, offset, length, lazy);
+    }
+
+    @Override
+    public UasDatalinkMessage create(
+            byte[] bytes, int offset, int length, Set<? extends IKlvKey> wantedKeys)
+            throws KlvParseException {
+        return new UasDatalinkMessage(bytes, offset, length, lazy, wantedKeys);
     }
 }
@@ -0,0 +1,229 @@
+package org.jmisb.api.klv.st0601;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.klv.BerDecoder;
+import org.jmisb.api.klv.LdsCursor;
+import org.jmisb.api.klv.UniversalLabel;
+
+/**
+ * Fixed layout encoder for ST 0601 messages.
+ *
+ * <p>Producers often send the same set of tags in every message, and only the values change. This
+ * class encodes a prototype message once, which fixes the byte layout (including all the keys and
+ * BER lengths). Each new message is then produced by overwriting the values in place, and updating
+ * the checksum.
+ *
+ * <pre>{@code
+ * UasDatalinkTemplate template = new UasDatalinkTemplate(prototype);
+ * // For each frame
+ * template.setUnsigned(UasDatalinkTag.PrecisionTimeStamp, timestamp);
+ * template.setValue(UasDatalinkTag.SensorLatitude, new SensorLatitude(lat));
+ * byte[] bytes = template.encode();
+ * }</pre>
+ *
+ * <p>The {@code setBytes}, {@code setUnsigned} and {@code setSigned} methods do not allocate, so
+ * encoding a message is allocation-free when they are used. Each value must have the same encoded
+ * length as the corresponding value in the prototype. Values with special framing (such as {@link
+ * ControlCommands}) are copied from the prototype, and cannot be changed.
+ *
+ * <p>This class is not thread safe.
+ */
+public class UasDatalinkTemplate {
+    private static final int NUM_TAGS = UasDatalinkTag.values().length;
+
+    /** Value offset of a tag that is not in the template. */
+    private static final int ABSENT = -1;
+
+    /** Value offset of a tag that occurs more than once, so can't be set. */
+    private static final int REPEATED = Integer.MIN_VALUE;
+
+    private final byte[] buffer;
+    private final int[] valueOffsets = new int[NUM_TAGS];
+    private final int[] valueLengths = new int[NUM_TAGS];
+
+    /**
+     * Create a template.
+     *
+     * @param prototype the message that determines the tags and the length of each value. The
+     *     values are used as the initial content of the template.
+     */
+    public UasDatalinkTemplate(UasDatalinkMessage prototype) {
+        buffer = prototype.frameMessage(false);
+        Arrays.fill(valueOffsets, ABSENT);
+
+        long lengthField = BerDecoder.decodePacked(buffer, UniversalLabel.LENGTH, false);
+        int start = UniversalLabel.LENGTH + BerDecoder.getLength(lengthField);
+        LdsCursor cursor = new LdsCursor(buffer, start, buffer.length - start);
+        try {
+            while (cursor.next()) {
+                int tag = cursor.getTag();
+                if (tag >= NUM_TAGS || tag == UasDatalinkTag.Checksum.getCode()) {
+                    continue;
+                }
+                if (valueOffsets[tag] != ABSENT) {
+                    // Repeated tag (special framing), so it can't be patched
+                    valueOffsets[tag] = REPEATED;
+                    continue;
+                }
+                valueOffsets[tag] = cursor.getValueOffset();
+                valueLengths[tag] = cursor.getValueLength();
+            }
+        } catch (KlvParseException e) {
+            throw new IllegalArgumentException("Could not determine message layout", e);
+        }
+    }
+
+    /**
+     * Check whether a value can be set in the template.
+     *
+     * @param tag the tag to check
+     * @return true if the template contains the tag, and its value can be set
+     */
+    public boolean hasTag(UasDatalinkTag tag) {
+        return valueOffsets[tag.getCode()] >= 0;
+    }
+
+    /**
+     * Get the encoded length of a value.
+     *
+     * @param tag the tag
+     * @return the number of bytes in the value
+     * @throws IllegalArgumentException if the value can't be set in this template
+     */
+    public int getValueLength(UasDatalinkTag tag) {
+        checkTag(tag);
+        return valueLengths[tag.getCode()];
+    }
+
+    /**
+     * Get the length of the encoded message.
+     *
+     * @return the length in bytes, including the key and length fields
+     */
+    public int getLength() {
+        return buffer.length;
+    }
+
+    /**
+     * Set a value.
+     *
+     * @param tag the tag
+     * @param value the value, which must have the same encoded length as the prototype value
+     * @throws IllegalArgumentException if the value can't be set in this template, or has the wrong
+     *     length
+     */
+    public void setValue(UasDatalinkTag tag, IUasDatalinkValue value) {
+        if (value instanceof ISpecialFraming) {
+            throw new IllegalArgumentException(
+                    "Values with special framing can't be set in a template");
+        }
+        byte[] bytes = value.getBytes();
+        if (bytes.length != getValueLength(tag)) {
+            throw new IllegalArgumentException(
+                    value.getDisplayName()
+                            + " encoding length "
+                            + bytes.length
+                            + " does not match template length "
+                            + getValueLength(tag));
+        }
+        setBytes(tag, bytes, 0);
+    }
+
+    /**
+     * Set a value from its encoded bytes.
+     *
+     * @param tag the tag
+     * @param src array containing the encoded value
+     * @param offset index of the first byte of the value in {@code src}. The number of bytes copied
+     *     is the value length in the template.
+     * @throws IllegalArgumentException if the value can't be set in this template
+     */
+    public void setBytes(UasDatalinkTag tag, byte[] src, int offset) {
+        int length = getValueLength(tag);
+        System.arraycopy(src, offset, buffer, valueOffsets[tag.getCode()], length);
+    }
+
+    /**
+     * Set an unsigned integer value.
+     *
+     * <p>The value is written in big-endian order, using the value length in the template.
+     *
+     * @param tag the tag
+     * @param value the integer value, or raw (mapped) integer value for fields using a mapping
+     * @throws IllegalArgumentException if the value can't be set in this template, or does not fit
+     *     in the value length (which must be 1 to 8 bytes)
+     */
+    public void setUnsigned(UasDatalinkTag tag, long value) {
+        int length = getValueLength(tag);
+        if (length < Long.BYTES && (value >>> (length * Byte.SIZE)) != 0) {
+            throw new IllegalArgumentException(
+                    tag + " value " + value + " does not fit in " + length + " bytes");
+        }
+        writeInteger(tag, value, length);
+    }
+
+    /**
+     * Set a signed (two's complement) integer value.
+     *
+     * <p>The value is written in big-endian order, using the value length in the template.
+     *
+     * @param tag the tag
+     * @param value the integer value, or raw (mapped) integer value for fields using a mapping
+     * @throws IllegalArgumentException if the value can't be set in this template, or does not fit
+     *     in the value length (which must be 1 to 8 bytes)
+     */
+    public void setSigned(UasDatalinkTag tag, long value) {
+        int length = getValueLength(tag);
+        if (length < Long.BYTES) {
+            int shift = Long.SIZE - length * Byte.SIZE;
+            if (((value << shift) >> shift) != value) {
+                throw new IllegalArgumentException(
+                        tag + " value " + value + " does not fit in " + length + " bytes");
+            }
+        }
+        writeInteger(tag, value, length);
+    }
+
+    /**
+     * Encode the message.
+     *
+     * <p>This updates the checksum and returns the template's own array, which is overwritten by
+     * subsequent calls. Copy it if the bytes need to be kept.
+     *
+     * @return the encoded message, including key and length fields
+     */
+    public byte[] encode() {
+        Checksum.insert(buffer, 0, buffer.length);
+        return buffer;
+    }
+
+    /**
+     * Encode the message into a buffer.
+     *
+     * @param dest the buffer to write to. The message is written at the current position, which is
+     *     then advanced.
+     * @throws java.nio.BufferOverflowException if there is not enough space in the buffer
+     */
+    public void encodeTo(ByteBuffer dest) {
+        dest.put(encode());
+    }
+
+    private void writeInteger(UasDatalinkTag tag, long value, int length) {
+        if (length > Long.BYTES) {
+            throw new IllegalArgumentException(tag + " is not an integer value");
+        }
+        int offset = valueOffsets[tag.getCode()];
+        for (int i = length - 1; i >= 0; i--) {
+            buffer[offset + i] = (byte) value;
+            value >>>= Byte.SIZE;
+        }
+    }
+
+    private void checkTag(UasDatalinkTag tag) {
+        if (!hasTag(tag)) {
+            throw new IllegalArgumentException(tag + " can't be set in this template");
+        }
+    }
+}
@@ -7,7 +7,6 @@ import java.util.List;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.st0601.dto.Wavelengths;
 import org.jmisb.api.klv.st1201.FpEncoder;
 import org.jmisb.api.klv.st1201.OutOfRangeBehaviour;
@@ -61,7 +60,7 @@ public class WavelengthsList implements IUasDatalinkValue {
     private static final double MAX_VAL = 1e9;
     private static final int IMAPB_BYTES = 4;
     private static final FpEncoder decoder =
-            new FpEncoder(MIN_VAL, MAX_VAL, IMAPB_BYTES, OutOfRangeBehaviour.Default);
+            FpEncoder.getInstance(MIN_VAL, MAX_VAL, IMAPB_BYTES, OutOfRangeBehaviour.Default);
 
     /**
      * Create from value.
@@ -82,19 +81,19 @@ public class WavelengthsList implements IUasDatalinkValue {
         int offset = 0;
         while (offset < bytes.length) {
             Wavelengths wavelengths = new Wavelengths();
-            BerField packLengthField = BerDecoder.decode(bytes, offset, false);
-            offset += packLengthField.getLength();
-            int packLength = packLengthField.getValue();
-            BerField idField = BerDecoder.decode(bytes, offset, true);
-            offset += idField.getLength();
-            wavelengths.setId(idField.getValue());
+            long packLengthField = BerDecoder.decodePacked(bytes, offset, false);
+            offset += BerDecoder.getLength(packLengthField);
+            int packLength = BerDecoder.getValue(packLengthField);
+            long idField = BerDecoder.decodePacked(bytes, offset, true);
+            offset += BerDecoder.getLength(idField);
+            wavelengths.setId(BerDecoder.getValue(idField));
             double min = decoder.decode(bytes, offset);
             offset += IMAPB_BYTES;
             wavelengths.setMin(min);
             double max = decoder.decode(bytes, offset);
             offset += IMAPB_BYTES;
             wavelengths.setMax(max);
-            int nameLength = packLength - (2 * IMAPB_BYTES + idField.getLength());
+            int nameLength = packLength - (2 * IMAPB_BYTES + BerDecoder.getLength(idField));
             if (nameLength < 0) {
                 throw new KlvParseException("Wavelengths Name length cannot be negative");
             }
@@ -7,7 +7,6 @@ import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.Ber;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.st0601.dto.Location;
 import org.jmisb.api.klv.st0601.dto.Waypoint;
 import org.jmisb.api.klv.st1201.FpEncoder;
@@ -44,9 +43,12 @@ public class WaypointList implements IUasDatalinkValue {
     private static byte MANUAL_MODE = 0x01;
     private static byte ADHOC_SOURCE = 0x02;
 
-    private final FpEncoder latDecoder = new FpEncoder(-90, 90, 4, OutOfRangeBehaviour.Default);
-    private final FpEncoder lonDecoder = new FpEncoder(-180, 180, 4, OutOfRangeBehaviour.Default);
-    private final FpEncoder haeDecoder = new FpEncoder(-900, 9000, 3, OutOfRangeBehaviour.Default);
+    private final FpEncoder latDecoder =
+            FpEncoder.getInstance(-90, 90, 4, OutOfRangeBehaviour.Default);
+    private final FpEncoder lonDecoder =
+            FpEncoder.getInstance(-180, 180, 4, OutOfRangeBehaviour.Default);
+    private final FpEncoder haeDecoder =
+            FpEncoder.getInstance(-900, 9000, 3, OutOfRangeBehaviour.Default);
 
     /**
      * Create from value.
@@ -67,14 +69,15 @@ public class WaypointList implements IUasDatalinkValue {
     public WaypointList(byte[] bytes) throws KlvParseException {
         int idx = 0;
         while (idx < bytes.length) {
-            BerField wpLengthField = BerDecoder.decode(bytes, idx, false);
-            idx += wpLengthField.getLength();
-            if ((idx + wpLengthField.getValue()) > bytes.length) {
+            long wpLengthField = BerDecoder.decodePacked(bytes, idx, false);
+            idx += BerDecoder.getLength(wpLengthField);
+            if ((idx + BerDecoder.getValue(wpLengthField)) > bytes.length) {
                 throw new KlvParseException("Insufficient bytes for Waypoint");
             }
-            byte[] waypointBytes = Arrays.copyOfRange(bytes, idx, idx + wpLengthField.getValue());
+            byte[] waypointBytes =
+                    Arrays.copyOfRange(bytes, idx, idx + BerDecoder.getValue(wpLengthField));
             // Skip over length we just consumed
-            idx += wpLengthField.getValue();
+            idx += BerDecoder.getValue(wpLengthField);
             Waypoint wp = parseWaypoint(waypointBytes);
             this.waypoints.add(wp);
         }
@@ -83,17 +86,19 @@ public class WaypointList implements IUasDatalinkValue {
     private Waypoint parseWaypoint(byte[] waypointBytes) {
         int idx = 0; // index into waypointBytes where we'll read the next field
         Waypoint waypoint = new Waypoint();
-        BerField waypointIdField = BerDecoder.decode(waypointBytes, 0, false);
-        waypoint.setWaypointID(waypointIdField.getValue());
-        idx += waypointIdField.getLength();
+        long waypointIdField = BerDecoder.decodePacked(waypointBytes, 0, false);
+        waypoint.setWaypointID(BerDecoder.getValue(waypointIdField));
+        idx += BerDecoder.getLength(waypointIdField);
         waypoint.setProsecutionOrder(PrimitiveConverter.toInt16(waypointBytes, idx));
         idx += Short.BYTES;
-        BerField waypointInfoField = BerDecoder.decode(waypointBytes, idx, false);
-        boolean infoManual = ((waypointInfoField.getValue() & MANUAL_MODE) == MANUAL_MODE);
+        long waypointInfoField = BerDecoder.decodePacked(waypointBytes, idx, false);
+        boolean infoManual =
+                ((BerDecoder.getValue(waypointInfoField) & MANUAL_MODE) == MANUAL_MODE);
         waypoint.setManualMode(infoManual);
-        boolean adhocSource = ((waypointInfoField.getValue() & ADHOC_SOURCE) == ADHOC_SOURCE);
+        boolean adhocSource =
+                ((BerDecoder.getValue(waypointInfoField) & ADHOC_SOURCE) == ADHOC_SOURCE);
         waypoint.setAdhocSource(adhocSource);
-        idx += waypointInfoField.getLength();
+        idx += BerDecoder.getLength(waypointInfoField);
         Location location = new Location();
         location.setLatitude(latDecoder.decode(waypointBytes, idx));
         idx += Integer.BYTES;
@@ -7,7 +7,6 @@ import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.Ber;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.st0601.dto.WeaponStore;
 import org.jmisb.api.klv.st0601.dto.WeaponStoreStatus;
 import org.jmisb.core.klv.ArrayUtils;
@@ -53,24 +52,24 @@ public class WeaponsStores implements IUasDatalinkValue {
     public WeaponsStores(byte[] bytes) throws KlvParseException {
         int idx = 0;
         while (idx < bytes.length) {
-            BerField lengthField = BerDecoder.decode(bytes, idx, false);
-            idx += lengthField.getLength();
+            long lengthField = BerDecoder.decodePacked(bytes, idx, false);
+            idx += BerDecoder.getLength(lengthField);
             WeaponStore weaponStore = new WeaponStore();
-            BerField stationIdField = BerDecoder.decode(bytes, idx, true);
-            idx += stationIdField.getLength();
-            weaponStore.setStationId(stationIdField.getValue());
-            BerField hardpointIdField = BerDecoder.decode(bytes, idx, true);
-            idx += hardpointIdField.getLength();
-            weaponStore.setHardpointId(hardpointIdField.getValue());
-            BerField carriageIdField = BerDecoder.decode(bytes, idx, true);
-            idx += carriageIdField.getLength();
-            weaponStore.setCarriageId(carriageIdField.getValue());
-            BerField storeIdField = BerDecoder.decode(bytes, idx, true);
-            idx += storeIdField.getLength();
-            weaponStore.setStoreId(storeIdField.getValue());
-            BerField statusField = BerDecoder.decode(bytes, idx, true);
-            idx += statusField.getLength();
-            int statusValue = statusField.getValue();
+            long stationIdField = BerDecoder.decodePacked(bytes, idx, true);
+            idx += BerDecoder.getLength(stationIdField);
+            weaponStore.setStationId(BerDecoder.getValue(stationIdField));
+            long hardpointIdField = BerDecoder.decodePacked(bytes, idx, true);
+            idx += BerDecoder.getLength(hardpointIdField);
+            weaponStore.setHardpointId(BerDecoder.getValue(hardpointIdField));
+            long carriageIdField = BerDecoder.decodePacked(bytes, idx, true);
+            idx += BerDecoder.getLength(carriageIdField);
+            weaponStore.setCarriageId(BerDecoder.getValue(carriageIdField));
+            long storeIdField = BerDecoder.decodePacked(bytes, idx, true);
+            idx += BerDecoder.getLength(storeIdField);
+            weaponStore.setStoreId(BerDecoder.getValue(storeIdField));
+            long statusField = BerDecoder.decodePacked(bytes, idx, true);
+            idx += BerDecoder.getLength(statusField);
+            int statusValue = BerDecoder.getValue(statusField);
             byte generalStatus = (byte) (statusValue & 0x7F);
             WeaponStoreStatus status = WeaponStoreStatus.getStatus(generalStatus);
             weaponStore.setStatus(status);
@@ -78,9 +77,9 @@ public class WeaponsStores implements IUasDatalinkValue {
             weaponStore.setLaserEnabled((statusValue & 0x0200) == 0x0200);
             weaponStore.setTargetEnabled((statusValue & 0x0400) == 0x0400);
             weaponStore.setWeaponArmed((statusValue & 0x0800) == 0x0800);
-            BerField typeLengthField = BerDecoder.decode(bytes, idx, false);
-            idx += typeLengthField.getLength();
-            int typeLength = typeLengthField.getValue();
+            long typeLengthField = BerDecoder.decodePacked(bytes, idx, false);
+            idx += BerDecoder.getLength(typeLengthField);
+            int typeLength = BerDecoder.getValue(typeLengthField);
             if ((idx + typeLength) > bytes.length) {
                 throw new KlvParseException(
                         "Insufficient bytes available for specified string length");
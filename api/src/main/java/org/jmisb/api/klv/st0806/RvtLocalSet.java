@@ -3,19 +3,18 @@ package org.jmisb.api.klv.st0806;
 import static org.jmisb.api.klv.KlvConstants.RvtLocalSetUl;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.TreeSet;
-import org.jmisb.api.common.InvalidDataHandler;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
 import org.jmisb.api.klv.ArrayBuilder;
 import org.jmisb.api.klv.Ber;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.IMisbMessage;
 import org.jmisb.api.klv.LdsField;
@@ -30,6 +29,7 @@ import org.jmisb.api.klv.st0806.poiaoi.RvtPoiMetadataKey;
 import org.jmisb.api.klv.st0806.userdefined.RvtNumericId;
 import org.jmisb.api.klv.st0806.userdefined.RvtUserDefinedLocalSet;
 import org.jmisb.api.klv.st0806.userdefined.RvtUserDefinedMetadataKey;
+import org.jmisb.api.metrics.Metrics;
 import org.jmisb.core.klv.ArrayUtils;
 import org.jmisb.core.klv.CRC32MPEG2;
 import org.slf4j.Logger;
@@ -99,7 +99,7 @@ public class RvtLocalSet implements IMisbMessage {
     }
 
     /** Map containing all non-repeating elements in the message. */
-    private final SortedMap<RvtMetadataKey, IRvtMetadataValue> map = new TreeMap<>();
+    private final Map<RvtMetadataKey, IRvtMetadataValue> map = new EnumMap<>(RvtMetadataKey.class);
 
     /** Map containing User Defined Local sets. */
     private final Map<Integer, RvtUserDefinedLocalSet> userDefined = new TreeMap<>();
@@ -132,9 +132,9 @@ public class RvtLocalSet implements IMisbMessage {
         if (!was0601Nested) {
             // advance over UL and length.
             offset = UniversalLabel.LENGTH;
-            BerField len = BerDecoder.decode(bytes, offset, false);
-            offset += len.getLength();
-            dataLength = len.getValue();
+            long len = BerDecoder.decodePacked(bytes, offset, false);
+            offset += BerDecoder.getLength(len);
+            dataLength = BerDecoder.getValue(len);
         }
         List<LdsField> fields = LdsParser.parseFields(bytes, offset, dataLength);
         for (LdsField field : fields) {
@@ -142,6 +142,7 @@ public class RvtLocalSet implements IMisbMessage {
             switch (key) {
                 case Undefined:
                     LOGGER.info("Unknown RVT Metadata tag: {}", field.getTag());
+                    Metrics.getRecorder().unknownTag(LOGGER.getName(), field.getTag());
                     break;
                 case CRC32:
                     if (was0601Nested) {
@@ -152,12 +153,12 @@ public class RvtLocalSet implements IMisbMessage {
                                         .appendAsBerLength(bytes.length)
                                         .append(bytes);
                         if (!CRC32MPEG2.verify(builder.toBytes(), field.getData())) {
-                            InvalidDataHandler handler = InvalidDataHandler.getInstance();
+                            ParseContext handler = ParseContext.current();
                             handler.handleInvalidChecksum(LOGGER, "Bad checksum");
                         }
                     } else {
                         if (!CRC32MPEG2.verify(bytes, field.getData())) {
-                            InvalidDataHandler handler = InvalidDataHandler.getInstance();
+                            ParseContext handler = ParseContext.current();
                             handler.handleInvalidChecksum(LOGGER, "Bad checksum");
                         }
                     }
@@ -1,11 +1,10 @@
 package org.jmisb.api.klv.st0806.poiaoi;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.BerEncoder;
 import org.jmisb.api.klv.IKlvKey;
@@ -14,6 +13,7 @@ import org.jmisb.api.klv.INestedKlvValue;
 import org.jmisb.api.klv.LdsField;
 import org.jmisb.api.klv.LdsParser;
 import org.jmisb.api.klv.st0806.IRvtMetadataValue;
+import org.jmisb.api.metrics.Metrics;
 import org.jmisb.core.klv.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,7 +29,8 @@ public class RvtPoiLocalSet implements IRvtMetadataValue, INestedKlvValue {
     private static final Logger LOGGER = LoggerFactory.getLogger(RvtPoiLocalSet.class);
 
     /** Map containing all data elements in the message. */
-    private final SortedMap<RvtPoiMetadataKey, IRvtPoiAoiMetadataValue> map = new TreeMap<>();
+    private final Map<RvtPoiMetadataKey, IRvtPoiAoiMetadataValue> map =
+            new EnumMap<>(RvtPoiMetadataKey.class);
 
     /**
      * Create the message from the given key/value pairs.
@@ -54,6 +55,7 @@ public class RvtPoiLocalSet implements IRvtMetadataValue, INestedKlvValue {
             RvtPoiMetadataKey key = RvtPoiMetadataKey.getKey(field.getTag());
             if (key == RvtPoiMetadataKey.Undefined) {
                 LOGGER.info("Unknown RVT POI Metadata tag: {}", field.getTag());
+                Metrics.getRecorder().unknownTag(LOGGER.getName(), field.getTag());
             } else {
                 IRvtPoiAoiMetadataValue value = createValue(key, field.getData());
                 map.put(key, value);
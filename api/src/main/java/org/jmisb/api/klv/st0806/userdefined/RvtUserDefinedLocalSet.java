@@ -1,11 +1,10 @@
 package org.jmisb.api.klv.st0806.userdefined;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.BerEncoder;
 import org.jmisb.api.klv.IKlvKey;
@@ -14,6 +13,7 @@ import org.jmisb.api.klv.INestedKlvValue;
 import org.jmisb.api.klv.LdsField;
 import org.jmisb.api.klv.LdsParser;
 import org.jmisb.api.klv.st0806.IRvtMetadataValue;
+import org.jmisb.api.metrics.Metrics;
 import org.jmisb.core.klv.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,8 +29,8 @@ public class RvtUserDefinedLocalSet implements IRvtMetadataValue, INestedKlvValu
     private static final Logger LOGGER = LoggerFactory.getLogger(RvtUserDefinedLocalSet.class);
 
     /** Map containing all data elements in the message. */
-    private final SortedMap<RvtUserDefinedMetadataKey, IRvtUserDefinedMetadataValue> map =
-            new TreeMap<>();
+    private final Map<RvtUserDefinedMetadataKey, IRvtUserDefinedMetadataValue> map =
+            new EnumMap<>(RvtUserDefinedMetadataKey.class);
 
     /**
      * Create the message from the given key/value pairs.
@@ -56,6 +56,7 @@ public class RvtUserDefinedLocalSet implements IRvtMetadataValue, INestedKlvValu
             RvtUserDefinedMetadataKey key = RvtUserDefinedMetadataKey.getKey(field.getTag());
             if (key == RvtUserDefinedMetadataKey.Undefined) {
                 LOGGER.info("Unknown RVT User Defined Metadata tag: {}", field.getTag());
+                Metrics.getRecorder().unknownTag(LOGGER.getName(), field.getTag());
             } else {
                 IRvtUserDefinedMetadataValue value = createValue(key, field.getData());
                 map.put(key, value);
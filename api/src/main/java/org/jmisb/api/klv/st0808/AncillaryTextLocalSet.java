@@ -2,20 +2,19 @@ package org.jmisb.api.klv.st0808;
 
 import static org.jmisb.api.klv.KlvConstants.AncillaryTextLocalSetUl;
 
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.ArrayBuilder;
 import org.jmisb.api.klv.BerDecoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.IMisbMessage;
 import org.jmisb.api.klv.LdsField;
 import org.jmisb.api.klv.LdsParser;
 import org.jmisb.api.klv.UniversalLabel;
+import org.jmisb.api.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,8 +51,8 @@ public class AncillaryTextLocalSet implements IMisbMessage {
     }
 
     /** Map containing all elements in the message. */
-    private final SortedMap<AncillaryTextMetadataKey, IAncillaryTextMetadataValue> map =
-            new TreeMap<>();
+    private final Map<AncillaryTextMetadataKey, IAncillaryTextMetadataValue> map =
+            new EnumMap<>(AncillaryTextMetadataKey.class);
 
     /**
      * Create the local set from the given key/value pairs.
@@ -73,14 +72,15 @@ public class AncillaryTextLocalSet implements IMisbMessage {
      */
     public AncillaryTextLocalSet(final byte[] bytes) throws KlvParseException {
         int offset = UniversalLabel.LENGTH;
-        BerField len = BerDecoder.decode(bytes, offset, false);
-        offset += len.getLength();
-        List<LdsField> fields = LdsParser.parseFields(bytes, offset, len.getValue());
+        long len = BerDecoder.decodePacked(bytes, offset, false);
+        offset += BerDecoder.getLength(len);
+        List<LdsField> fields = LdsParser.parseFields(bytes, offset, BerDecoder.getValue(len));
         for (LdsField field : fields) {
             AncillaryTextMetadataKey key = AncillaryTextMetadataKey.getKey(field.getTag());
             switch (key) {
                 case Undefined:
                     LOGGER.info("Unknown Ancillary Text Metadata tag: {}", field.getTag());
+                    Metrics.getRecorder().unknownTag(LOGGER.getName(), field.getTag());
                     break;
                 default:
                     IAncillaryTextMetadataValue value = createValue(key, field.getData());
@@ -7,7 +7,6 @@ import java.util.TreeSet;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.IKlvValue;
 import org.jmisb.api.klv.INestedKlvValue;
@@ -59,11 +58,11 @@ public class OntologySeries implements IVmtiMetadataValue, IVTrackMetadataValue,
     public OntologySeries(byte[] bytes) throws KlvParseException {
         int index = 0;
         while (index < bytes.length - 1) {
-            BerField lengthField = BerDecoder.decode(bytes, index, false);
-            index += lengthField.getLength();
-            OntologyLS vobjectLS = new OntologyLS(bytes, index, lengthField.getValue());
+            long lengthField = BerDecoder.decodePacked(bytes, index, false);
+            index += BerDecoder.getLength(lengthField);
+            OntologyLS vobjectLS = new OntologyLS(bytes, index, BerDecoder.getValue(lengthField));
             localSets.add(vobjectLS);
-            index += lengthField.getValue();
+            index += BerDecoder.getValue(lengthField);
         }
     }
 
@@ -9,7 +9,6 @@ import java.util.TreeSet;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.IKlvValue;
 import org.jmisb.api.klv.INestedKlvValue;
@@ -73,12 +72,12 @@ public class VTargetSeries implements IVmtiMetadataValue, INestedKlvValue {
     public VTargetSeries(byte[] bytes, EncodingMode encodingMode) throws KlvParseException {
         int index = 0;
         while (index < bytes.length - 1) {
-            BerField lengthField = BerDecoder.decode(bytes, index, false);
-            index += lengthField.getLength();
+            long lengthField = BerDecoder.decodePacked(bytes, index, false);
+            index += BerDecoder.getLength(lengthField);
             VTargetPack targetPack =
-                    new VTargetPack(bytes, index, lengthField.getValue(), encodingMode);
+                    new VTargetPack(bytes, index, BerDecoder.getValue(lengthField), encodingMode);
             targetPacks.put(targetPack.getTargetIdentifier(), targetPack);
-            index += lengthField.getValue();
+            index += BerDecoder.getValue(lengthField);
         }
     }
 
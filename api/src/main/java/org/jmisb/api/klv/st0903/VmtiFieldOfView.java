@@ -11,6 +11,8 @@ public abstract class VmtiFieldOfView implements IVmtiMetadataValue {
     private static double MAX_VAL = 180;
     protected static final double LEGACY_INT_RANGE = 65535.0; // 2^16-1
     private static int NUM_BYTES = 2;
+    private static final FpEncoder ENCODER =
+            FpEncoder.getInstance(MIN_VAL, MAX_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
     private double value;
 
     /**
@@ -71,15 +73,12 @@ public abstract class VmtiFieldOfView implements IVmtiMetadataValue {
             throw new IllegalArgumentException(
                     this.getDisplayName() + " encoding is two byte IMAPB as of ST0903.4");
         }
-        FpEncoder decoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
-        this.value = decoder.decode(bytes);
+        this.value = ENCODER.decode(bytes);
     }
 
     @Override
     public byte[] getBytes() {
-        FpEncoder encoder = new FpEncoder(MIN_VAL, MAX_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
-        return encoder.encode(this.value);
+        return ENCODER.encode(this.value);
     }
 
     @Override
@@ -2,32 +2,34 @@ package org.jmisb.api.klv.st0903;
 
 import static org.jmisb.api.klv.KlvConstants.VmtiLocalSetUl;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
-import org.jmisb.api.common.InvalidDataHandler;
 import org.jmisb.api.common.KlvParseException;
-import org.jmisb.api.klv.Ber;
+import org.jmisb.api.common.ParseContext;
 import org.jmisb.api.klv.BerEncoder;
 import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.IMisbMessage;
 import org.jmisb.api.klv.LdsField;
 import org.jmisb.api.klv.LdsParser;
+import org.jmisb.api.klv.TagFilter;
 import org.jmisb.api.klv.UniversalLabel;
 import org.jmisb.api.klv.st0601.Checksum;
 import org.jmisb.api.klv.st0903.shared.EncodingMode;
 import org.jmisb.api.klv.st0903.shared.VmtiTextString;
-import org.jmisb.core.klv.ArrayUtils;
+import org.jmisb.api.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class VmtiLocalSet implements IMisbMessage {
     private static final Logger LOGGER = LoggerFactory.getLogger(VmtiLocalSet.class);
 
+    /** Length of the checksum field, including key and length. */
+    private static final int CHECKSUM_FIELD_LENGTH = 4;
+
     /**
      * Create a {@link IVmtiMetadataValue} instance from encoded bytes.
      *
@@ -101,7 +103,8 @@ public class VmtiLocalSet implements IMisbMessage {
     }
 
     /** Map containing all data elements in the message. */
-    private final SortedMap<VmtiMetadataKey, IVmtiMetadataValue> map = new TreeMap<>();
+    private final Map<VmtiMetadataKey, IVmtiMetadataValue> map =
+            new EnumMap<>(VmtiMetadataKey.class);
 
     /**
      * Create the local set from the given key/value pairs.
@@ -119,9 +122,30 @@ public class VmtiLocalSet implements IMisbMessage {
      * @throws KlvParseException if parsing fails
      */
     public VmtiLocalSet(byte[] bytes) throws KlvParseException {
+        this(bytes, null);
+    }
+
+    /**
+     * Build a VMTI Local Set from encoded bytes, decoding only selected values.
+     *
+     * <p>Only the {@link VmtiMetadataKey} values in {@code wantedKeys} are decoded, except that the
+     * version number is always decoded since it determines the encoding of other values. If {@code
+     * wantedKeys} does not contain any {@link VmtiMetadataKey} values, all values are decoded.
+     *
+     * @param bytes the bytes to build from
+     * @param wantedKeys the keys to decode, or null to decode all keys
+     * @throws KlvParseException if parsing fails
+     */
+    public VmtiLocalSet(byte[] bytes, Set<? extends IKlvKey> wantedKeys) throws KlvParseException {
         int offset = 0;
         EncodingMode encodingMode = EncodingMode.IMAPB;
-        List<LdsField> fields = LdsParser.parseFields(bytes, offset, bytes.length);
+        TagFilter tagFilter =
+                TagFilter.forKeys(
+                        wantedKeys,
+                        VmtiMetadataKey.class,
+                        VmtiMetadataKey.VersionNumber,
+                        VmtiMetadataKey.Checksum);
+        List<LdsField> fields = LdsParser.parseFields(bytes, offset, bytes.length, tagFilter);
         for (LdsField field : fields) {
             VmtiMetadataKey key = VmtiMetadataKey.getKey(field.getTag());
             if (key.equals(VmtiMetadataKey.VersionNumber)) {
@@ -137,13 +161,11 @@ public class VmtiLocalSet implements IMisbMessage {
             switch (key) {
                 case Undefined:
                     LOGGER.info("Unknown VMTI Metadata tag: {}", field.getTag());
+                    Metrics.getRecorder().unknownTag(LOGGER.getName(), field.getTag());
                     break;
                 case Checksum:
-                    byte[] expected = Checksum.compute(bytes, false);
-                    byte[] actual = Arrays.copyOfRange(bytes, bytes.length - 2, bytes.length);
-                    if (!Arrays.equals(expected, actual)) {
-                        InvalidDataHandler.getInstance()
-                                .handleInvalidChecksum(LOGGER, "Bad checksum");
+                    if (!Checksum.verify(bytes, 0, bytes.length)) {
+                        ParseContext.current().handleInvalidChecksum(LOGGER, "Bad checksum");
                     }
                     break;
                 default:
@@ -151,8 +173,7 @@ public class VmtiLocalSet implements IMisbMessage {
                         IVmtiMetadataValue value = createValue(key, field.getData(), encodingMode);
                         map.put(key, value);
                     } catch (KlvParseException | IllegalArgumentException ex) {
-                        InvalidDataHandler.getInstance()
-                                .handleInvalidFieldEncoding(LOGGER, ex.getMessage());
+                        ParseContext.current().handleInvalidFieldEncoding(LOGGER, ex.getMessage());
                     }
                     break;
             }
@@ -162,56 +183,93 @@ public class VmtiLocalSet implements IMisbMessage {
     @Override
     public byte[] frameMessage(boolean isNested) {
         updateVersion();
-        int len = 0;
-        List<byte[]> chunks = new ArrayList<>();
-        for (VmtiMetadataKey tag : getIdentifiers()) {
-            if (tag == VmtiMetadataKey.Checksum) {
-                continue;
-            }
-            chunks.add(new byte[] {(byte) tag.getIdentifier()});
-            len += 1;
-            IVmtiMetadataValue value = getField(tag);
-            byte[] bytes = value.getBytes();
-            byte[] lengthBytes = BerEncoder.encode(bytes.length);
-            chunks.add(lengthBytes);
-            len += lengthBytes.length;
-            chunks.add(bytes);
-            len += bytes.length;
+        byte[][] values = new byte[map.size()][];
+        int valueLength = prepareValues(values);
+        int totalLength = isNested ? valueLength : getFramedLength(valueLength);
+        byte[] array = new byte[totalLength];
+        writeTo(ByteBuffer.wrap(array), values, valueLength, isNested);
+        return array;
+    }
+
+    @Override
+    public int encodedLength() {
+        updateVersion();
+        return getFramedLength(prepareValues(new byte[map.size()][]));
+    }
+
+    @Override
+    public void encodeTo(ByteBuffer buffer) {
+        updateVersion();
+        byte[][] values = new byte[map.size()][];
+        int valueLength = prepareValues(values);
+        if (buffer.remaining() < getFramedLength(valueLength)) {
+            throw new BufferOverflowException();
         }
+        writeTo(buffer, values, valueLength, false);
+    }
 
-        // Figure out value length
-        final int keyLength = UniversalLabel.LENGTH;
+    /**
+     * Get the encoded value of each field, and the total length of the fields.
+     *
+     * @param values array to hold the encoded value for each field, in identifier order
+     * @return the length of the fields, excluding the checksum
+     */
+    private int prepareValues(byte[][] values) {
         int valueLength = 0;
-        valueLength =
-                chunks.stream().map((chunk) -> chunk.length).reduce(valueLength, Integer::sum);
+        int i = 0;
+        for (Map.Entry<VmtiMetadataKey, IVmtiMetadataValue> entry : map.entrySet()) {
+            if (entry.getKey() != VmtiMetadataKey.Checksum) {
+                byte[] bytes = entry.getValue().getBytes();
+                valueLength += 1 + BerEncoder.getEncodedLength(bytes.length) + bytes.length;
+                values[i] = bytes;
+            }
+            i++;
+        }
+        return valueLength;
+    }
 
-        if (isNested) {
-            return ArrayUtils.arrayFromChunks(chunks, valueLength);
-        } else {
+    /**
+     * Write the local set.
+     *
+     * @param buffer the buffer to write to, which must have enough space remaining
+     * @param values the encoded value for each field, from {@link #prepareValues(byte[][])}
+     * @param valueLength the length of the fields, excluding the checksum
+     * @param isNested If true, the key, length and checksum fields are omitted
+     */
+    private void writeTo(ByteBuffer buffer, byte[][] values, int valueLength, boolean isNested) {
+        final int start = buffer.position();
+        if (!isNested) {
+            buffer.put(VmtiLocalSetUl.getBytes());
+            BerEncoder.encode(valueLength + CHECKSUM_FIELD_LENGTH, buffer);
+        }
+        int i = 0;
+        for (VmtiMetadataKey tag : map.keySet()) {
+            byte[] bytes = values[i++];
+            if (bytes == null) {
+                continue;
+            }
+            buffer.put((byte) tag.getIdentifier());
+            BerEncoder.encode(bytes.length, buffer);
+            buffer.put(bytes);
+        }
+        if (!isNested) {
             // Add Key and Length of checksum with placeholder for value - Checksum must be final
             // element
-            byte[] checksum = new byte[2];
-            chunks.add(new byte[] {(byte) VmtiMetadataKey.Checksum.getIdentifier()});
-            chunks.add(BerEncoder.encode(checksum.length, Ber.SHORT_FORM));
-            chunks.add(checksum);
-            valueLength += 4;
+            buffer.put((byte) VmtiMetadataKey.Checksum.getIdentifier());
+            buffer.put((byte) 2);
+            buffer.put((byte) 0);
+            buffer.put((byte) 0);
 
-            // Prepend length field into front of the list
-            byte[] lengthField = BerEncoder.encode(valueLength);
-            chunks.add(0, lengthField);
-
-            // Prepend UL since this is standalone message
-            chunks.add(0, VmtiLocalSetUl.getBytes());
-
-            byte[] array =
-                    ArrayUtils.arrayFromChunks(
-                            chunks, keyLength + lengthField.length + valueLength);
-            // Compute the checksum and replace the last two bytes of array
-            Checksum.compute(array, true);
-            return array;
+            // Compute the checksum and replace the last two bytes
+            Checksum.compute(buffer, start, buffer.position() - start, true);
         }
     }
 
+    private static int getFramedLength(int valueLength) {
+        int length = valueLength + CHECKSUM_FIELD_LENGTH;
+        return UniversalLabel.LENGTH + BerEncoder.getEncodedLength(length) + length;
+    }
+
     /**
      * Get the set of tags with populated values.
      *
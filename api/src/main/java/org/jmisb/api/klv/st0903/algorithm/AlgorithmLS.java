@@ -1,13 +1,12 @@
 package org.jmisb.api.klv.st0903.algorithm;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
-import org.jmisb.api.common.InvalidDataHandler;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
 import org.jmisb.api.klv.BerEncoder;
 import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.IKlvValue;
@@ -17,6 +16,7 @@ import org.jmisb.api.klv.LdsParser;
 import org.jmisb.api.klv.st0903.IVmtiMetadataValue;
 import org.jmisb.api.klv.st0903.shared.AlgorithmId;
 import org.jmisb.api.klv.st0903.shared.VmtiTextString;
+import org.jmisb.api.metrics.Metrics;
 import org.jmisb.core.klv.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,7 +32,8 @@ public class AlgorithmLS implements IKlvValue, INestedKlvValue {
     private static final Logger LOGGER = LoggerFactory.getLogger(AlgorithmLS.class);
 
     /** Map containing all data elements in the message. */
-    private final SortedMap<AlgorithmMetadataKey, IVmtiMetadataValue> map = new TreeMap<>();
+    private final Map<AlgorithmMetadataKey, IVmtiMetadataValue> map =
+            new EnumMap<>(AlgorithmMetadataKey.class);
 
     /**
      * Create the message from the given key/value pairs.
@@ -60,13 +61,13 @@ public class AlgorithmLS implements IKlvValue, INestedKlvValue {
             AlgorithmMetadataKey key = AlgorithmMetadataKey.getKey(field.getTag());
             if (key == AlgorithmMetadataKey.Undefined) {
                 LOGGER.info("Unknown VMTI Algorithm Metadata tag: {}", field.getTag());
+                Metrics.getRecorder().unknownTag(LOGGER.getName(), field.getTag());
             } else {
                 try {
                     IVmtiMetadataValue value = createValue(key, field.getData());
                     map.put(key, value);
                 } catch (KlvParseException | IllegalArgumentException ex) {
-                    InvalidDataHandler.getInstance()
-                            .handleInvalidFieldEncoding(LOGGER, ex.getMessage());
+                    ParseContext.current().handleInvalidFieldEncoding(LOGGER, ex.getMessage());
                 }
             }
         }
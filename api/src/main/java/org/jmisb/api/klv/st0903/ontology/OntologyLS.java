@@ -1,13 +1,12 @@
 package org.jmisb.api.klv.st0903.ontology;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
-import org.jmisb.api.common.InvalidDataHandler;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
 import org.jmisb.api.klv.BerEncoder;
 import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.IKlvValue;
@@ -17,6 +16,7 @@ import org.jmisb.api.klv.LdsParser;
 import org.jmisb.api.klv.st0903.IVmtiMetadataValue;
 import org.jmisb.api.klv.st0903.shared.VmtiTextString;
 import org.jmisb.api.klv.st0903.shared.VmtiUri;
+import org.jmisb.api.metrics.Metrics;
 import org.jmisb.core.klv.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,7 +40,8 @@ public class OntologyLS implements IKlvValue, INestedKlvValue {
     private static final Logger LOGGER = LoggerFactory.getLogger(OntologyLS.class);
 
     /** Map containing all data elements in the message. */
-    private final SortedMap<OntologyMetadataKey, IVmtiMetadataValue> map = new TreeMap<>();
+    private final Map<OntologyMetadataKey, IVmtiMetadataValue> map =
+            new EnumMap<>(OntologyMetadataKey.class);
 
     /**
      * Create the message from the given key/value pairs.
@@ -68,13 +69,13 @@ public class OntologyLS implements IKlvValue, INestedKlvValue {
             OntologyMetadataKey key = OntologyMetadataKey.getKey(field.getTag());
             if (key == OntologyMetadataKey.Undefined) {
                 LOGGER.info("Unknown VMTI Ontology Metadata tag: {}", field.getTag());
+                Metrics.getRecorder().unknownTag(LOGGER.getName(), field.getTag());
             } else {
                 try {
                     IVmtiMetadataValue value = createValue(key, field.getData());
                     map.put(key, value);
                 } catch (KlvParseException | IllegalArgumentException ex) {
-                    InvalidDataHandler.getInstance()
-                            .handleInvalidFieldEncoding(LOGGER, ex.getMessage());
+                    ParseContext.current().handleInvalidFieldEncoding(LOGGER, ex.getMessage());
                 }
             }
         }
@@ -1,19 +1,19 @@
 package org.jmisb.api.klv.st0903.vfeature;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
-import org.jmisb.api.common.InvalidDataHandler;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
 import org.jmisb.api.klv.BerEncoder;
 import org.jmisb.api.klv.LdsField;
 import org.jmisb.api.klv.LdsParser;
 import org.jmisb.api.klv.st0903.IVmtiMetadataValue;
 import org.jmisb.api.klv.st0903.shared.VmtiTextString;
 import org.jmisb.api.klv.st0903.shared.VmtiUri;
+import org.jmisb.api.metrics.Metrics;
 import org.jmisb.core.klv.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,7 +23,8 @@ public class VFeatureLS {
     private static final Logger LOGGER = LoggerFactory.getLogger(VFeatureLS.class);
 
     /** Map containing all data elements in the message. */
-    private final SortedMap<VFeatureMetadataKey, IVmtiMetadataValue> map = new TreeMap<>();
+    private final Map<VFeatureMetadataKey, IVmtiMetadataValue> map =
+            new EnumMap<>(VFeatureMetadataKey.class);
 
     /**
      * Create the message from the given key/value pairs.
@@ -49,13 +50,13 @@ public class VFeatureLS {
             VFeatureMetadataKey key = VFeatureMetadataKey.getKey(field.getTag());
             if (key == VFeatureMetadataKey.Undefined) {
                 LOGGER.info("Unknown VMTI VFeature Metadata tag: {}", field.getTag());
+                Metrics.getRecorder().unknownTag(LOGGER.getName(), field.getTag());
             } else {
                 try {
                     IVmtiMetadataValue value = createValue(key, field.getData());
                     map.put(key, value);
                 } catch (KlvParseException | IllegalArgumentException ex) {
-                    InvalidDataHandler.getInstance()
-                            .handleInvalidFieldEncoding(LOGGER, ex.getMessage());
+                    ParseContext.current().handleInvalidFieldEncoding(LOGGER, ex.getMessage());
                 }
             }
         }
@@ -6,7 +6,6 @@ import java.util.List;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.st0903.IVmtiMetadataValue;
 import org.jmisb.core.klv.ArrayUtils;
 import org.jmisb.core.klv.PrimitiveConverter;
@@ -56,12 +55,13 @@ public class BitMaskSeries implements IVmtiMetadataValue {
     public BitMaskSeries(byte[] bytes) throws KlvParseException {
         int index = 0;
         while (index < bytes.length - 1) {
-            BerField lengthField = BerDecoder.decode(bytes, index, false);
-            index += lengthField.getLength();
-            byte[] valueBytes = Arrays.copyOfRange(bytes, index, index + lengthField.getValue());
+            long lengthField = BerDecoder.decodePacked(bytes, index, false);
+            index += BerDecoder.getLength(lengthField);
+            byte[] valueBytes =
+                    Arrays.copyOfRange(bytes, index, index + BerDecoder.getValue(lengthField));
             PixelRunPair run = parsePixelRunPair(valueBytes);
             bitMask.add(run);
-            index += lengthField.getValue();
+            index += BerDecoder.getValue(lengthField);
         }
     }
 
@@ -110,22 +110,22 @@ public class BitMaskSeries implements IVmtiMetadataValue {
 
     private PixelRunPair parsePixelRunPair(byte[] valueBytes) throws KlvParseException {
         int index = 0;
-        BerField lengthField = BerDecoder.decode(valueBytes, 0, false);
-        index += lengthField.getLength();
-        if (lengthField.getValue() > 6) {
+        long lengthField = BerDecoder.decodePacked(valueBytes, 0, false);
+        index += BerDecoder.getLength(lengthField);
+        if (BerDecoder.getValue(lengthField) > 6) {
             throw new IllegalArgumentException("Pixel number encoding is up to 6 bytes");
         }
         long pixelNumber = 0;
-        if (valueBytes.length < index + lengthField.getValue()) {
+        if (valueBytes.length < index + BerDecoder.getValue(lengthField)) {
             throw new KlvParseException("Too few bytes to parse BitMaskSeries pixel pairs");
         }
-        for (int i = index; i < (index + lengthField.getValue()); ++i) {
+        for (int i = index; i < (index + BerDecoder.getValue(lengthField)); ++i) {
             pixelNumber = pixelNumber << 8;
             pixelNumber += ((int) valueBytes[i] & 0xFF);
         }
-        index += lengthField.getValue();
-        BerField runField = BerDecoder.decode(valueBytes, index, true);
-        int runValue = runField.getValue();
+        index += BerDecoder.getValue(lengthField);
+        long runField = BerDecoder.decodePacked(valueBytes, index, true);
+        int runValue = BerDecoder.getValue(runField);
         PixelRunPair run = new PixelRunPair(pixelNumber, runValue);
         return run;
     }
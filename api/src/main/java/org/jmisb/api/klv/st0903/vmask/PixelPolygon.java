@@ -6,7 +6,6 @@ import java.util.List;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.st0903.IVmtiMetadataValue;
 import org.jmisb.core.klv.ArrayUtils;
 import org.jmisb.core.klv.PrimitiveConverter;
@@ -57,13 +56,13 @@ public class PixelPolygon implements IVmtiMetadataValue {
     public PixelPolygon(byte[] bytes) throws KlvParseException {
         int index = 0;
         while (index < bytes.length - 1) {
-            BerField lengthField = BerDecoder.decode(bytes, index, false);
-            index += lengthField.getLength();
+            long lengthField = BerDecoder.decodePacked(bytes, index, false);
+            index += BerDecoder.getLength(lengthField);
             byte[] polygonPointBytes =
-                    Arrays.copyOfRange(bytes, index, index + lengthField.getValue());
+                    Arrays.copyOfRange(bytes, index, index + BerDecoder.getValue(lengthField));
             Long location = parseV6(polygonPointBytes);
             polygon.add(location);
-            index += lengthField.getValue();
+            index += BerDecoder.getValue(lengthField);
         }
     }
 
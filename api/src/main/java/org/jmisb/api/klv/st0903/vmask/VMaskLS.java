@@ -1,17 +1,17 @@
 package org.jmisb.api.klv.st0903.vmask;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
-import org.jmisb.api.common.InvalidDataHandler;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
 import org.jmisb.api.klv.BerEncoder;
 import org.jmisb.api.klv.LdsField;
 import org.jmisb.api.klv.LdsParser;
 import org.jmisb.api.klv.st0903.IVmtiMetadataValue;
+import org.jmisb.api.metrics.Metrics;
 import org.jmisb.core.klv.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,7 +21,8 @@ public class VMaskLS {
     private static final Logger LOGGER = LoggerFactory.getLogger(VMaskLS.class);
 
     /** Map containing all data elements in the message. */
-    private final SortedMap<VMaskMetadataKey, IVmtiMetadataValue> map = new TreeMap<>();
+    private final Map<VMaskMetadataKey, IVmtiMetadataValue> map =
+            new EnumMap<>(VMaskMetadataKey.class);
 
     /**
      * Create the message from the given key/value pairs.
@@ -45,13 +46,13 @@ public class VMaskLS {
             VMaskMetadataKey key = VMaskMetadataKey.getKey(field.getTag());
             if (key == VMaskMetadataKey.Undefined) {
                 LOGGER.info("Unknown VMTI VMask Metadata tag: {}", field.getTag());
+                Metrics.getRecorder().unknownTag(LOGGER.getName(), field.getTag());
             } else {
                 try {
                     IVmtiMetadataValue value = createValue(key, field.getData());
                     map.put(key, value);
                 } catch (KlvParseException | IllegalArgumentException ex) {
-                    InvalidDataHandler.getInstance()
-                            .handleInvalidFieldEncoding(LOGGER, ex.getMessage());
+                    ParseContext.current().handleInvalidFieldEncoding(LOGGER, ex.getMessage());
                 }
             }
         }
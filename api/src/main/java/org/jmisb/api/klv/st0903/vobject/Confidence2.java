@@ -19,6 +19,8 @@ import org.jmisb.api.klv.st1201.OutOfRangeBehaviour;
 public class Confidence2 implements IVmtiMetadataValue {
     private static int MIN_VALUE = 0;
     private static int MAX_VALUE = 100;
+    private static final FpEncoder ENCODER =
+            FpEncoder.getInstance(0, 100.0, 2, OutOfRangeBehaviour.Default);
     private final double confidence;
 
     /**
@@ -40,14 +42,17 @@ public class Confidence2 implements IVmtiMetadataValue {
      * @param bytes Encoded byte array
      */
     public Confidence2(byte[] bytes) {
-        FpEncoder decoder = new FpEncoder(0, 100.0, bytes.length, OutOfRangeBehaviour.Default);
+        FpEncoder decoder =
+                (bytes.length == ENCODER.getFieldLength())
+                        ? ENCODER
+                        : FpEncoder.getInstance(
+                                0, 100.0, bytes.length, OutOfRangeBehaviour.Default);
         confidence = decoder.decode(bytes);
     }
 
     @Override
     public byte[] getBytes() {
-        FpEncoder encoder = new FpEncoder(0, 100.0, 2, OutOfRangeBehaviour.Default);
-        return encoder.encode(confidence);
+        return ENCODER.encode(confidence);
     }
 
     @Override
@@ -15,6 +15,8 @@ public abstract class AbstractTargetLocationOffset implements IVmtiMetadataValue
     protected static final double MIN_VAL = -19.2;
     protected static final double MAX_VAL = 19.2;
     protected static final int NUM_BYTES = 3;
+    private static final FpEncoder ENCODER =
+            FpEncoder.getInstance(MIN_VAL, MAX_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
     private static final int LEGACY_ERROR_INDICATOR = -8388608;
     private static final int LEGACY_INT_RANGE = 8388607; // 2^23 - 1
     protected double value;
@@ -84,15 +86,12 @@ public abstract class AbstractTargetLocationOffset implements IVmtiMetadataValue
             throw new IllegalArgumentException(
                     this.getDisplayName() + " encoding is three byte IMAPB as of ST0903.4");
         }
-        FpEncoder decoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
-        this.value = decoder.decode(bytes);
+        this.value = ENCODER.decode(bytes);
     }
 
     @Override
     public byte[] getBytes() {
-        FpEncoder encoder = new FpEncoder(MIN_VAL, MAX_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
-        return encoder.encode(this.value);
+        return ENCODER.encode(this.value);
     }
 
     @Override
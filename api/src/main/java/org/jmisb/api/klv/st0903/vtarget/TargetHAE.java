@@ -22,6 +22,8 @@ public class TargetHAE implements IVmtiMetadataValue {
     protected static final double MIN_VAL = -900;
     protected static final double MAX_VAL = 19000;
     protected static final int NUM_BYTES = 2;
+    private static final FpEncoder ENCODER =
+            FpEncoder.getInstance(MIN_VAL, MAX_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
     private static final double LEGACY_INT_RANGE = 65535.0; // 2^16-1
     protected double value;
 
@@ -85,15 +87,12 @@ public class TargetHAE implements IVmtiMetadataValue {
             throw new IllegalArgumentException(
                     this.getDisplayName() + " encoding is two byte IMAPB as of ST0903.4");
         }
-        FpEncoder decoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
-        this.value = decoder.decode(bytes);
+        this.value = ENCODER.decode(bytes);
     }
 
     @Override
     public byte[] getBytes() {
-        FpEncoder encoder = new FpEncoder(MIN_VAL, MAX_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
-        return encoder.encode(this.value);
+        return ENCODER.encode(this.value);
     }
 
     @Override
@@ -58,15 +58,18 @@ public class TargetLocation
     private static final int NUM_BYTES = 2;
     private static final int NUM_BYTES_LAT_LON = 4;
     private static final FpEncoder LatEncoder =
-            new FpEncoder(MIN_LAT_VAL, MAX_LAT_VAL, NUM_BYTES_LAT_LON, OutOfRangeBehaviour.Default);
+            FpEncoder.getInstance(
+                    MIN_LAT_VAL, MAX_LAT_VAL, NUM_BYTES_LAT_LON, OutOfRangeBehaviour.Default);
     private static final FpEncoder LonEncoder =
-            new FpEncoder(MIN_LON_VAL, MAX_LON_VAL, NUM_BYTES_LAT_LON, OutOfRangeBehaviour.Default);
+            FpEncoder.getInstance(
+                    MIN_LON_VAL, MAX_LON_VAL, NUM_BYTES_LAT_LON, OutOfRangeBehaviour.Default);
     private static final FpEncoder HaeEncoder =
-            new FpEncoder(MIN_HAE_VAL, MAX_HAE_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
+            FpEncoder.getInstance(MIN_HAE_VAL, MAX_HAE_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
     private static final FpEncoder SigmaEncoder =
-            new FpEncoder(MIN_SIGMA_VAL, MAX_SIGMA_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
+            FpEncoder.getInstance(
+                    MIN_SIGMA_VAL, MAX_SIGMA_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
     private static final FpEncoder RhoEncoder =
-            new FpEncoder(MIN_RHO_VAL, MAX_RHO_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
+            FpEncoder.getInstance(MIN_RHO_VAL, MAX_RHO_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
 
     /**
      * Create from value.
@@ -5,7 +5,6 @@ import java.util.List;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.st0903.IVmtiMetadataValue;
 import org.jmisb.api.klv.st0903.shared.IVTrackItemMetadataValue;
 import org.jmisb.api.klv.st0903.vchip.VChipLS;
@@ -48,11 +47,11 @@ public class VChipSeries implements IVmtiMetadataValue, IVTrackItemMetadataValue
     public VChipSeries(byte[] bytes) throws KlvParseException {
         int index = 0;
         while (index < bytes.length - 1) {
-            BerField lengthField = BerDecoder.decode(bytes, index, false);
-            index += lengthField.getLength();
-            VChipLS chip = new VChipLS(bytes, index, lengthField.getValue());
+            long lengthField = BerDecoder.decodePacked(bytes, index, false);
+            index += BerDecoder.getLength(lengthField);
+            VChipLS chip = new VChipLS(bytes, index, BerDecoder.getValue(lengthField));
             chips.add(chip);
-            index += lengthField.getValue();
+            index += BerDecoder.getValue(lengthField);
         }
     }
 
@@ -5,7 +5,6 @@ import java.util.List;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.st0903.IVmtiMetadataValue;
 import org.jmisb.api.klv.st0903.shared.IVTrackItemMetadataValue;
 import org.jmisb.api.klv.st0903.vobject.VObjectLS;
@@ -46,11 +45,12 @@ public class VObjectSeries implements IVmtiMetadataValue, IVTrackItemMetadataVal
     public VObjectSeries(byte[] bytes) throws KlvParseException {
         int index = 0;
         while (index < bytes.length - 1) {
-            BerField lengthField = BerDecoder.decode(bytes, index, false);
-            index += lengthField.getLength();
-            VObjectLS objectLocalSet = new VObjectLS(bytes, index, lengthField.getValue());
+            long lengthField = BerDecoder.decodePacked(bytes, index, false);
+            index += BerDecoder.getLength(lengthField);
+            VObjectLS objectLocalSet =
+                    new VObjectLS(bytes, index, BerDecoder.getValue(lengthField));
             vobjects.add(objectLocalSet);
-            index += lengthField.getValue();
+            index += BerDecoder.getValue(lengthField);
         }
     }
 
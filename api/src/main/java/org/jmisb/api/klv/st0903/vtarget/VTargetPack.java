@@ -1,17 +1,15 @@
 package org.jmisb.api.klv.st0903.vtarget;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
-import org.jmisb.api.common.InvalidDataHandler;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
 import org.jmisb.api.klv.Ber;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.IKlvValue;
 import org.jmisb.api.klv.INestedKlvValue;
@@ -20,6 +18,7 @@ import org.jmisb.api.klv.LdsParser;
 import org.jmisb.api.klv.st0903.IVmtiMetadataValue;
 import org.jmisb.api.klv.st0903.shared.AlgorithmId;
 import org.jmisb.api.klv.st0903.shared.EncodingMode;
+import org.jmisb.api.metrics.Metrics;
 import org.jmisb.core.klv.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,7 +34,8 @@ public class VTargetPack implements IKlvValue, INestedKlvValue {
     private static final Logger LOGGER = LoggerFactory.getLogger(VTargetPack.class);
 
     /** Map containing all data elements in the message. */
-    private final SortedMap<VTargetMetadataKey, IVmtiMetadataValue> map = new TreeMap<>();
+    private final Map<VTargetMetadataKey, IVmtiMetadataValue> map =
+            new EnumMap<>(VTargetMetadataKey.class);
 
     private final int targetId;
 
@@ -85,22 +85,22 @@ public class VTargetPack implements IKlvValue, INestedKlvValue {
      */
     public VTargetPack(byte[] bytes, int offset, int length, EncodingMode encodingMode)
             throws KlvParseException {
-        BerField targetIdField = BerDecoder.decode(bytes, offset, true);
-        offset += targetIdField.getLength();
-        targetId = targetIdField.getValue();
+        long targetIdField = BerDecoder.decodePacked(bytes, offset, true);
+        offset += BerDecoder.getLength(targetIdField);
+        targetId = BerDecoder.getValue(targetIdField);
         List<LdsField> fields =
-                LdsParser.parseFields(bytes, offset, length - targetIdField.getLength());
+                LdsParser.parseFields(bytes, offset, length - BerDecoder.getLength(targetIdField));
         for (LdsField field : fields) {
             VTargetMetadataKey key = VTargetMetadataKey.getKey(field.getTag());
             if (key == VTargetMetadataKey.Undefined) {
                 LOGGER.info("Unknown VMTI VTarget Metadata tag: {}", field.getTag());
+                Metrics.getRecorder().unknownTag(LOGGER.getName(), field.getTag());
             } else {
                 try {
                     IVmtiMetadataValue value = createValue(key, field.getData(), encodingMode);
                     map.put(key, value);
                 } catch (KlvParseException | IllegalArgumentException ex) {
-                    InvalidDataHandler.getInstance()
-                            .handleInvalidFieldEncoding(LOGGER, ex.getMessage());
+                    ParseContext.current().handleInvalidFieldEncoding(LOGGER, ex.getMessage());
                 }
             }
         }
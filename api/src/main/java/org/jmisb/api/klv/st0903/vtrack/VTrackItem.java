@@ -1,15 +1,13 @@
 package org.jmisb.api.klv.st0903.vtrack;
 
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
-import org.jmisb.api.common.InvalidDataHandler;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
 import org.jmisb.api.klv.ArrayBuilder;
 import org.jmisb.api.klv.BerDecoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.IKlvValue;
 import org.jmisb.api.klv.INestedKlvValue;
@@ -47,6 +45,7 @@ import org.jmisb.api.klv.st0903.vtarget.VObject;
 import org.jmisb.api.klv.st0903.vtarget.VObjectSeries;
 import org.jmisb.api.klv.st0903.vtracker.Acceleration;
 import org.jmisb.api.klv.st0903.vtracker.Velocity;
+import org.jmisb.api.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -61,7 +60,8 @@ public class VTrackItem implements IKlvValue, INestedKlvValue {
     private static final Logger LOGGER = LoggerFactory.getLogger(VTrackItem.class);
 
     /** Map containing all data elements in the message. */
-    private final SortedMap<VTrackItemMetadataKey, IVTrackItemMetadataValue> map = new TreeMap<>();
+    private final Map<VTrackItemMetadataKey, IVTrackItemMetadataValue> map =
+            new EnumMap<>(VTrackItemMetadataKey.class);
 
     private final int targetId;
 
@@ -93,23 +93,23 @@ public class VTrackItem implements IKlvValue, INestedKlvValue {
      */
     public VTrackItem(byte[] bytes, int offset, int length, EncodingMode encodingMode)
             throws KlvParseException {
-        BerField targetIdField = BerDecoder.decode(bytes, offset, true);
-        offset += targetIdField.getLength();
-        targetId = targetIdField.getValue();
+        long targetIdField = BerDecoder.decodePacked(bytes, offset, true);
+        offset += BerDecoder.getLength(targetIdField);
+        targetId = BerDecoder.getValue(targetIdField);
         List<LdsField> fields =
-                LdsParser.parseFields(bytes, offset, length - targetIdField.getLength());
+                LdsParser.parseFields(bytes, offset, length - BerDecoder.getLength(targetIdField));
         for (LdsField field : fields) {
             VTrackItemMetadataKey key = VTrackItemMetadataKey.getKey(field.getTag());
             if (key == VTrackItemMetadataKey.Undefined) {
                 LOGGER.info("Unknown VTrackItem Metadata tag: {}", field.getTag());
+                Metrics.getRecorder().unknownTag(LOGGER.getName(), field.getTag());
             } else {
                 try {
                     IVTrackItemMetadataValue value =
                             createValue(key, field.getData(), encodingMode);
                     map.put(key, value);
                 } catch (KlvParseException | IllegalArgumentException ex) {
-                    InvalidDataHandler.getInstance()
-                            .handleInvalidFieldEncoding(LOGGER, ex.getMessage());
+                    ParseContext.current().handleInvalidFieldEncoding(LOGGER, ex.getMessage());
                 }
             }
         }
@@ -9,7 +9,6 @@ import java.util.TreeSet;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.ArrayBuilder;
 import org.jmisb.api.klv.BerDecoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.IKlvValue;
 import org.jmisb.api.klv.INestedKlvValue;
@@ -50,12 +49,12 @@ public class VTrackItemSeries implements IVTrackMetadataValue, INestedKlvValue {
     public VTrackItemSeries(byte[] bytes, EncodingMode encodingMode) throws KlvParseException {
         int index = 0;
         while (index < bytes.length - 1) {
-            BerField lengthField = BerDecoder.decode(bytes, index, false);
-            index += lengthField.getLength();
+            long lengthField = BerDecoder.decodePacked(bytes, index, false);
+            index += BerDecoder.getLength(lengthField);
             VTrackItem trackItem =
-                    new VTrackItem(bytes, index, lengthField.getValue(), encodingMode);
+                    new VTrackItem(bytes, index, BerDecoder.getValue(lengthField), encodingMode);
             trackItems.put(trackItem.getTargetIdentifier(), trackItem);
-            index += lengthField.getValue();
+            index += BerDecoder.getValue(lengthField);
         }
     }
 
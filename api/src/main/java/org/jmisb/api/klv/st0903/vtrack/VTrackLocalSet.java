@@ -2,14 +2,12 @@ package org.jmisb.api.klv.st0903.vtrack;
 
 import static org.jmisb.api.klv.KlvConstants.VTrackLocalSetUl;
 
-import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
-import org.jmisb.api.common.InvalidDataHandler;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
 import org.jmisb.api.klv.ArrayBuilder;
 import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.IMisbMessage;
@@ -30,6 +28,7 @@ import org.jmisb.api.klv.st0903.vtracker.EndTime;
 import org.jmisb.api.klv.st0903.vtracker.StartTime;
 import org.jmisb.api.klv.st0903.vtracker.TrackConfidence;
 import org.jmisb.api.klv.st0903.vtracker.TrackId;
+import org.jmisb.api.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -84,7 +83,8 @@ public class VTrackLocalSet implements IMisbMessage {
     }
 
     /** Map containing all data elements in the message. */
-    private final SortedMap<VTrackMetadataKey, IVTrackMetadataValue> map = new TreeMap<>();
+    private final Map<VTrackMetadataKey, IVTrackMetadataValue> map =
+            new EnumMap<>(VTrackMetadataKey.class);
 
     /**
      * Create the local set from the given key/value pairs.
@@ -120,13 +120,11 @@ public class VTrackLocalSet implements IMisbMessage {
             switch (key) {
                 case Undefined:
                     LOGGER.info("Unknown VTrack Metadata tag: {}", field.getTag());
+                    Metrics.getRecorder().unknownTag(LOGGER.getName(), field.getTag());
                     break;
                 case Checksum:
-                    byte[] expected = Checksum.compute(bytes, false);
-                    byte[] actual = Arrays.copyOfRange(bytes, bytes.length - 2, bytes.length);
-                    if (!Arrays.equals(expected, actual)) {
-                        InvalidDataHandler.getInstance()
-                                .handleInvalidChecksum(LOGGER, "Bad checksum");
+                    if (!Checksum.verify(bytes, 0, bytes.length)) {
+                        ParseContext.current().handleInvalidChecksum(LOGGER, "Bad checksum");
                     }
                     break;
                 default:
@@ -135,8 +133,7 @@ public class VTrackLocalSet implements IMisbMessage {
                                 createValue(key, field.getData(), encodingMode);
                         map.put(key, value);
                     } catch (KlvParseException | IllegalArgumentException ex) {
-                        InvalidDataHandler.getInstance()
-                                .handleInvalidFieldEncoding(LOGGER, ex.getMessage());
+                        ParseContext.current().handleInvalidFieldEncoding(LOGGER, ex.getMessage());
                     }
                     break;
             }
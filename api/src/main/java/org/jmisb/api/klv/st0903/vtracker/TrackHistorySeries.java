@@ -6,7 +6,6 @@ import java.util.List;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.BerDecoder;
 import org.jmisb.api.klv.BerEncoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.st0903.IVmtiMetadataValue;
 import org.jmisb.api.klv.st0903.shared.EncodingMode;
 import org.jmisb.api.klv.st0903.shared.LocationPack;
@@ -74,13 +73,14 @@ public class TrackHistorySeries implements IVmtiMetadataValue {
     public TrackHistorySeries(byte[] bytes, EncodingMode encodingMode) throws KlvParseException {
         int index = 0;
         while (index < bytes.length - 1) {
-            BerField lengthField = BerDecoder.decode(bytes, index, false);
-            index += lengthField.getLength();
-            byte[] packBytes = Arrays.copyOfRange(bytes, index, index + lengthField.getValue());
+            long lengthField = BerDecoder.decodePacked(bytes, index, false);
+            index += BerDecoder.getLength(lengthField);
+            byte[] packBytes =
+                    Arrays.copyOfRange(bytes, index, index + BerDecoder.getValue(lengthField));
             LocationPack location =
                     TargetLocation.targetLocationPackFromBytes(packBytes, encodingMode);
             history.add(location);
-            index += lengthField.getValue();
+            index += BerDecoder.getValue(lengthField);
         }
     }
 
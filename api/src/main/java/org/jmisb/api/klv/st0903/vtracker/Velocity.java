@@ -41,11 +41,12 @@ public class Velocity implements IVmtiMetadataValue, IVTrackItemMetadataValue, I
     private static final double MAX_RHO_VAL = 1.0;
     private static final int LEGACY_INT_RANGE = 65535;
     private static final FpEncoder VelocityEncoder =
-            new FpEncoder(MIN_VAL, MAX_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
+            FpEncoder.getInstance(MIN_VAL, MAX_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
     private static final FpEncoder SigmaEncoder =
-            new FpEncoder(MIN_SIGMA_VAL, MAX_SIGMA_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
+            FpEncoder.getInstance(
+                    MIN_SIGMA_VAL, MAX_SIGMA_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
     private static final FpEncoder RhoEncoder =
-            new FpEncoder(MIN_RHO_VAL, MAX_RHO_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
+            FpEncoder.getInstance(MIN_RHO_VAL, MAX_RHO_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
     private VelocityPack value;
 
     /**
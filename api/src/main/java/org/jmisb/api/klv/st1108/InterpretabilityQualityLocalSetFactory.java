@@ -3,7 +3,6 @@ package org.jmisb.api.klv.st1108;
 import java.util.List;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.BerDecoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.IMisbMessage;
 import org.jmisb.api.klv.IMisbMessageFactory;
 import org.jmisb.api.klv.LdsField;
@@ -59,9 +58,9 @@ public class InterpretabilityQualityLocalSetFactory implements IMisbMessageFacto
     private static List<LdsField> getFields(final byte[] bytes)
             throws IllegalArgumentException, KlvParseException {
         int offset = UniversalLabel.LENGTH;
-        BerField len = BerDecoder.decode(bytes, offset, false);
-        offset += len.getLength();
-        List<LdsField> fields = LdsParser.parseFields(bytes, offset, len.getValue());
+        long len = BerDecoder.decodePacked(bytes, offset, false);
+        offset += BerDecoder.getLength(len);
+        List<LdsField> fields = LdsParser.parseFields(bytes, offset, BerDecoder.getValue(len));
         return fields;
     }
 }
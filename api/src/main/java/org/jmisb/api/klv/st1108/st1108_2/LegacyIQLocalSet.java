@@ -2,11 +2,10 @@ package org.jmisb.api.klv.st1108.st1108_2;
 
 import static org.jmisb.api.klv.KlvConstants.InterpretabilityQualityLocalSetUl;
 
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.ArrayBuilder;
 import org.jmisb.api.klv.IKlvKey;
@@ -14,6 +13,7 @@ import org.jmisb.api.klv.IMisbMessage;
 import org.jmisb.api.klv.LdsField;
 import org.jmisb.api.klv.UniversalLabel;
 import org.jmisb.api.klv.st1108.IInterpretabilityQualityMetadataValue;
+import org.jmisb.api.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,8 +28,8 @@ public class LegacyIQLocalSet implements IMisbMessage {
     private static final Logger LOGGER = LoggerFactory.getLogger(LegacyIQLocalSet.class);
 
     /** Map containing all elements in the message. */
-    private final SortedMap<LegacyIQMetadataKey, IInterpretabilityQualityMetadataValue> map =
-            new TreeMap<>();
+    private final Map<LegacyIQMetadataKey, IInterpretabilityQualityMetadataValue> map =
+            new EnumMap<>(LegacyIQMetadataKey.class);
 
     private LegacyIQLocalSet() {};
 
@@ -130,6 +130,7 @@ public class LegacyIQLocalSet implements IMisbMessage {
                 LOGGER.info(
                         "Unknown Legacy Interpretability and Quality Metadata tag: {}",
                         field.getTag());
+                Metrics.getRecorder().unknownTag(LOGGER.getName(), field.getTag());
         }
     }
 
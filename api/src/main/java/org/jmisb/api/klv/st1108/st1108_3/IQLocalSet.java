@@ -2,13 +2,12 @@ package org.jmisb.api.klv.st1108.st1108_3;
 
 import static org.jmisb.api.klv.KlvConstants.InterpretabilityQualityLocalSetUl;
 
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
-import org.jmisb.api.common.InvalidDataHandler;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
 import org.jmisb.api.klv.ArrayBuilder;
 import org.jmisb.api.klv.CrcCcitt;
 import org.jmisb.api.klv.IKlvKey;
@@ -17,6 +16,7 @@ import org.jmisb.api.klv.LdsField;
 import org.jmisb.api.klv.UniversalLabel;
 import org.jmisb.api.klv.st1108.IInterpretabilityQualityMetadataValue;
 import org.jmisb.api.klv.st1108.st1108_3.metric.MetricLocalSets;
+import org.jmisb.api.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,8 +32,8 @@ public class IQLocalSet implements IMisbMessage {
     private static final Logger LOGGER = LoggerFactory.getLogger(IQLocalSet.class);
 
     /** Map containing all elements in the message. */
-    private final SortedMap<IQMetadataKey, IInterpretabilityQualityMetadataValue> map =
-            new TreeMap<>();
+    private final Map<IQMetadataKey, IInterpretabilityQualityMetadataValue> map =
+            new EnumMap<>(IQMetadataKey.class);
 
     private IQLocalSet() {};
 
@@ -105,13 +105,14 @@ public class IQLocalSet implements IMisbMessage {
                 break;
             case CRC16CCITT:
                 if (!CrcCcitt.verify(bytes, field.getData())) {
-                    InvalidDataHandler handler = InvalidDataHandler.getInstance();
+                    ParseContext handler = ParseContext.current();
                     handler.handleInvalidChecksum(LOGGER, "Bad checksum");
                 }
                 break;
             default:
                 LOGGER.info(
                         "Unknown Interpretability and Quality Metadata tag: {}", field.getTag());
+                Metrics.getRecorder().unknownTag(LOGGER.getName(), field.getTag());
         }
     }
 
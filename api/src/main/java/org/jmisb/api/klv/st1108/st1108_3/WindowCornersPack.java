@@ -3,7 +3,6 @@ package org.jmisb.api.klv.st1108.st1108_3;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.ArrayBuilder;
 import org.jmisb.api.klv.BerDecoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.st1108.IInterpretabilityQualityMetadataValue;
 
 /**
@@ -63,21 +62,21 @@ public class WindowCornersPack implements IInterpretabilityQualityMetadataValue
         int offset = 0;
 
         try {
-            BerField c1rowField = BerDecoder.decode(bytes, offset, true);
-            startingRow = c1rowField.getValue();
-            offset += c1rowField.getLength();
+            long c1rowField = BerDecoder.decodePacked(bytes, offset, true);
+            startingRow = BerDecoder.getValue(c1rowField);
+            offset += BerDecoder.getLength(c1rowField);
 
-            BerField c1columnField = BerDecoder.decode(bytes, offset, true);
-            startingColumn = c1columnField.getValue();
-            offset += c1columnField.getLength();
+            long c1columnField = BerDecoder.decodePacked(bytes, offset, true);
+            startingColumn = BerDecoder.getValue(c1columnField);
+            offset += BerDecoder.getLength(c1columnField);
 
-            BerField c2rowField = BerDecoder.decode(bytes, offset, true);
-            endingRow = c2rowField.getValue();
-            offset += c2rowField.getLength();
+            long c2rowField = BerDecoder.decodePacked(bytes, offset, true);
+            endingRow = BerDecoder.getValue(c2rowField);
+            offset += BerDecoder.getLength(c2rowField);
 
-            BerField c2columnField = BerDecoder.decode(bytes, offset, true);
-            endingColumn = c2columnField.getValue();
-            offset += c2columnField.getLength();
+            long c2columnField = BerDecoder.decodePacked(bytes, offset, true);
+            endingColumn = BerDecoder.getValue(c2columnField);
+            offset += BerDecoder.getLength(c2columnField);
         } catch (IllegalArgumentException ex) {
             throw new KlvParseException(ex.getMessage());
         }
@@ -1,11 +1,10 @@
 package org.jmisb.api.klv.st1108.st1108_3.metric;
 
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.ArrayBuilder;
 import org.jmisb.api.klv.IKlvKey;
@@ -86,7 +85,8 @@ public class MetricLocalSet implements IInterpretabilityQualityMetadataValue, IN
     }
 
     /** Map containing all data elements in the message. */
-    private final SortedMap<MetricLocalSetKey, IMetricLocalSetValue> map = new TreeMap<>();
+    private final Map<MetricLocalSetKey, IMetricLocalSetValue> map =
+            new EnumMap<>(MetricLocalSetKey.class);
 
     @Override
     public IMetricLocalSetValue getField(IKlvKey tag) {
@@ -2,6 +2,9 @@ package org.jmisb.api.klv.st1201;
 
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import org.jmisb.core.klv.PrimitiveConverter;
 
 /**
@@ -31,28 +34,26 @@ import org.jmisb.core.klv.PrimitiveConverter;
  * <p>It is also possible to construct an encoder that produces a specified level of accuracy rather
  * than needing to specify the number of bytes to use. This is known as IMAPA, and is used in MIMD,
  * but is otherwise uncommon.
+ *
+ * <p>Encoders are immutable, and so can be shared between threads. Computing the encoder constants
+ * is relatively expensive, so code that encodes or decodes the same kind of value repeatedly should
+ * hold on to an encoder (typically in a {@code static final} field), or use the shared instances
+ * returned by {@link #getInstance(double, double, int, OutOfRangeBehaviour)} and {@link
+ * #getInstance(double, double, double, OutOfRangeBehaviour)}. Encoders with parameters taken from
+ * received data (as in MDAP) should be constructed directly, so they do not fill the shared cache.
  */
-public class FpEncoder {
-
-    private double a, b;
-    private double bPow, dPow;
-    private double sF, sR;
-    private double zOffset;
-    protected int fieldLength;
-    private static double logOf2 = Math.log(2.0);
-    private final OutOfRangeBehaviour behaviour;
-    private static final byte[] EIGHT_BYTE_HIGH_BIT =
-            new byte[] {
-                (byte) 0x80,
-                (byte) 0x00,
-                (byte) 0x00,
-                (byte) 0x00,
-                (byte) 0x00,
-                (byte) 0x00,
-                (byte) 0x00,
-                (byte) 0x00
-            };
+public final class FpEncoder {
+    /** Upper bound on cached encoders, since parameters may come from received data (e.g. MDAP). */
+    private static final int MAX_CACHED_ENCODERS = 1024;
 
+    private static final Map<CacheKey, FpEncoder> CACHE = new ConcurrentHashMap<>();
+
+    private final double a, b;
+    private final double sF, sR;
+    private final double zOffset;
+    private final int fieldLength;
+    private static final double logOf2 = Math.log(2.0);
+    private final OutOfRangeBehaviour behaviour;
     private static final byte POSITIVE_INFINITY_HIGH_BYTE = (byte) 0b11001000;
     private static final byte NEGATIVE_INFINITY_HIGH_BYTE = (byte) 0b11101000;
     private static final byte POSITIVE_QUIET_NAN_HIGH_BYTE = (byte) 0b11010000;
@@ -98,10 +99,20 @@ public class FpEncoder {
     public FpEncoder(double min, double max, int length, OutOfRangeBehaviour outOfRangeBehavior) {
         if (length < 1 || length > 8) {
             throw new IllegalArgumentException("Valid field length for FpEncoder is 1-8 bytes");
+        }
+        fieldLength = length;
+        a = min;
+        b = max;
+        double bPow = Math.ceil(log2(b - a));
+        double dPow = 8 * fieldLength - 1;
+        sF = Math.pow(2, dPow - bPow);
+        sR = Math.pow(2, bPow - dPow);
+        if (a < 0 && b > 0) {
+            zOffset = sF * a - Math.floor(sF * a);
         } else {
-            computeConstants(min, max, length);
-            this.behaviour = outOfRangeBehavior;
+            zOffset = 0.0;
         }
+        this.behaviour = outOfRangeBehavior;
     }
 
     /**
@@ -135,20 +146,90 @@ public class FpEncoder {
      *     bits
      */
     public FpEncoder(double min, double max, double precision, OutOfRangeBehaviour behavior) {
+        this(min, max, lengthForPrecision(min, max, precision), behavior);
+    }
+
+    /**
+     * Select the IMAPA field length for a range and precision.
+     *
+     * @param min The minimum floating point value to be encoded
+     * @param max The maximum floating point value to be encoded
+     * @param precision The required precision
+     * @return The field length, in bytes
+     * @throws IllegalArgumentException if the range/precision is too large to represent within 64
+     *     bits
+     */
+    private static int lengthForPrecision(double min, double max, double precision) {
         double bits = Math.ceil(log2((max - min) / precision) + 1);
         int length = (int) Math.ceil(bits / 8);
 
         if (length <= 2) {
-            computeConstants(min, max, length);
+            return Math.max(length, 1);
         } else if (length <= 4) {
-            computeConstants(min, max, 4);
+            return 4;
         } else if (length <= 8) {
-            computeConstants(min, max, 8);
+            return 8;
         } else {
             throw new IllegalArgumentException(
                     "The specified range and precision cannot be represented using a 64-bit integer");
         }
-        this.behaviour = behavior;
+    }
+
+    /**
+     * Get a shared encoder with the desired field length.
+     *
+     * <p>This is equivalent to {@link #FpEncoder(double, double, int, OutOfRangeBehaviour)}, but
+     * re-uses a previously constructed encoder with the same parameters where possible.
+     *
+     * @param min The minimum floating point value to be encoded
+     * @param max The maximum floating point value to be encoded
+     * @param length The field length, in bytes (1-8)
+     * @param behaviour behavior for out-of-range conditions (e.g. above {@code max}, or below
+     *     {@code min})
+     * @return the encoder
+     * @throws IllegalArgumentException if the length is not supported
+     */
+    public static FpEncoder getInstance(
+            double min, double max, int length, OutOfRangeBehaviour behaviour) {
+        CacheKey key = new CacheKey(min, max, length, false, behaviour);
+        FpEncoder encoder = CACHE.get(key);
+        if (encoder == null) {
+            encoder = cache(key, new FpEncoder(min, max, length, behaviour));
+        }
+        return encoder;
+    }
+
+    /**
+     * Get a shared encoder with the desired precision.
+     *
+     * <p>This is equivalent to {@link #FpEncoder(double, double, double, OutOfRangeBehaviour)}, but
+     * re-uses a previously constructed encoder with the same parameters where possible.
+     *
+     * @param min The minimum floating point value to be encoded
+     * @param max The maximum floating point value to be encoded
+     * @param precision The required precision
+     * @param behaviour behavior for out-of-range conditions (e.g. above {@code max}, or below
+     *     {@code min})
+     * @return the encoder
+     * @throws IllegalArgumentException if the range/precision is too large to represent within 64
+     *     bits
+     */
+    public static FpEncoder getInstance(
+            double min, double max, double precision, OutOfRangeBehaviour behaviour) {
+        CacheKey key = new CacheKey(min, max, precision, true, behaviour);
+        FpEncoder encoder = CACHE.get(key);
+        if (encoder == null) {
+            encoder = cache(key, new FpEncoder(min, max, precision, behaviour));
+        }
+        return encoder;
+    }
+
+    private static FpEncoder cache(CacheKey key, FpEncoder encoder) {
+        if (CACHE.size() >= MAX_CACHED_ENCODERS) {
+            return encoder;
+        }
+        FpEncoder existing = CACHE.putIfAbsent(key, encoder);
+        return (existing == null) ? encoder : existing;
     }
 
     /**
@@ -230,7 +311,8 @@ public class FpEncoder {
                 case 8:
                     if (d >= Long.MAX_VALUE) {
                         // Workaround for lack of unsigned long
-                        encoded = EIGHT_BYTE_HIGH_BIT;
+                        encoded = new byte[8];
+                        encoded[0] = (byte) 0x80;
                     } else {
                         encoded = ByteBuffer.allocate(8).putLong((long) d).array();
                     }
@@ -360,21 +442,46 @@ public class FpEncoder {
             throw new IllegalArgumentException(
                     "Array length does not match offset and required field length");
         }
-        if ((bytes[offset] & 0x80) == 0x00) {
-            return decodeAsNormalMappedValue(bytes, offset);
-        } else if (bytes[offset] == (byte) 0x80) {
-            boolean allZeros = true;
-            for (int i = offset + 1; i < offset + fieldLength; i++) {
-                if (bytes[i] != (byte) 0x00) {
-                    allZeros = false;
-                    break;
-                }
-            }
-            if (allZeros) {
-                return decodeAsNormalMappedValue(bytes, offset);
-            }
+        return decodeRaw(readRaw(bytes, offset));
+    }
+
+    /**
+     * Decode an encoded floating point value from a buffer.
+     *
+     * <p>This uses an absolute position, so the buffer's position is not modified. The value
+     * mapping is the same as {@link #decode(byte[], int)}.
+     *
+     * @param buffer The buffer containing the encoded value
+     * @param offset the index in the buffer to decode from
+     * @return The floating point value
+     * @throws IllegalArgumentException if the buffer is too short
+     */
+    public double decode(ByteBuffer buffer, int offset) throws IllegalArgumentException {
+        if (offset + fieldLength > buffer.limit()) {
+            throw new IllegalArgumentException(
+                    "Buffer length does not match offset and required field length");
+        }
+        long raw = 0;
+        for (int i = 0; i < fieldLength; i++) {
+            raw = (raw << 8) | (buffer.get(offset + i) & 0xFF);
+        }
+        return decodeRaw(raw);
+    }
+
+    /**
+     * Decode the integer representation of a value.
+     *
+     * @param raw the encoded bytes, as a big-endian integer
+     * @return The floating point value
+     */
+    private double decodeRaw(long raw) {
+        final int lowBits = Byte.SIZE * (fieldLength - 1);
+        final byte highByte = (byte) (raw >>> lowBits);
+        if ((highByte & 0x80) == 0x00) {
+            return decodeAsNormalMappedValue(raw);
+        } else if (highByte == (byte) 0x80 && (raw & ((1L << lowBits) - 1)) == 0) {
+            return decodeAsNormalMappedValue(raw);
         }
-        byte highByte = bytes[offset];
         if (highByte == IMAP_BELOW_MINIMUM) {
             return a;
         }
@@ -408,7 +515,7 @@ public class FpEncoder {
         DecodeResult decodeResult = new DecodeResult();
         if ((bytes[offset] & 0x80) == 0x00) {
             decodeResult.setKind(ValueMappingKind.NormalMappedValue);
-            decodeResult.setValue(decodeAsNormalMappedValue(bytes, offset));
+            decodeResult.setValue(decodeAsNormalMappedValue(readRaw(bytes, offset)));
             return decodeResult;
         } else if (bytes[offset] == (byte) 0x80) {
             boolean allZeros = true;
@@ -420,7 +527,7 @@ public class FpEncoder {
             }
             if (allZeros) {
                 decodeResult.setKind(ValueMappingKind.NormalMappedValue);
-                decodeResult.setValue(decodeAsNormalMappedValue(bytes, offset));
+                decodeResult.setValue(decodeAsNormalMappedValue(readRaw(bytes, offset)));
                 return decodeResult;
             } else {
                 return parseAsReservedKind1(bytes, offset);
@@ -496,69 +603,22 @@ public class FpEncoder {
         return decodeSpecial(bytes, 0);
     }
 
-    private double decodeAsNormalMappedValue(byte[] bytes, int offset)
-            throws IllegalArgumentException {
-        double val = 0.0;
-        ByteBuffer wrapped = ByteBuffer.wrap(bytes, offset, fieldLength);
-        switch (fieldLength) {
-            case 1:
-                int b1 = wrapped.get() & 0xFF;
-                val = sR * (b1 - zOffset) + a;
-                break;
-            case 2:
-                int s = (int) wrapped.getShort() & 0xFFFF;
-                val = sR * (s - zOffset) + a;
-                break;
-            case 3:
-                int i3 = (int) wrapped.getShort() & 0xFFFF;
-                byte lowByte = wrapped.get(offset + fieldLength - 1);
-                i3 = (i3 << 8) + (lowByte & 0xFF);
-                val = sR * (i3 - zOffset) + a;
-                break;
-            case 4:
-            case 5:
-            case 6:
-            case 7:
-                long lx = (long) wrapped.getInt() & 0xFFFFFFFFl;
-                for (int j = 0; j < (fieldLength - Integer.BYTES); ++j) {
-                    byte byt = wrapped.get(offset + Integer.BYTES + j);
-                    lx = (lx << 8) + (byt & 0xFF);
-                }
-                val = sR * (lx - zOffset) + a;
-                break;
-            case 8:
-                if (Arrays.equals(bytes, EIGHT_BYTE_HIGH_BIT)) {
-                    val = b;
-                } else {
-                    long l = wrapped.getLong();
-                    val = sR * (l - zOffset) + a;
-                }
-                break;
-            default:
-                throw new IllegalArgumentException("Only field lengths of [1-8] are supported");
+    private long readRaw(byte[] bytes, int offset) {
+        long raw = 0;
+        for (int i = 0; i < fieldLength; i++) {
+            raw = (raw << 8) | (bytes[offset + i] & 0xFF);
         }
-        return val;
+        return raw;
     }
 
-    /**
-     * Compute constants used for encoding and decoding.
-     *
-     * @param min The minimum floating point value to be encoded
-     * @param max The maximum floating point value to be encoded
-     * @param length The field length, in bytes
-     */
-    protected final void computeConstants(double min, double max, int length) {
-        fieldLength = length;
-        a = min;
-        b = max;
-        bPow = Math.ceil(log2(b - a));
-        dPow = 8 * fieldLength - 1;
-        sF = Math.pow(2, dPow - bPow);
-        sR = Math.pow(2, bPow - dPow);
-        zOffset = 0.0;
-        if (a < 0 && b > 0) {
-            zOffset = sF * a - Math.floor(sF * a);
+    private double decodeAsNormalMappedValue(long raw) throws IllegalArgumentException {
+        if (fieldLength < 1 || fieldLength > 8) {
+            throw new IllegalArgumentException("Only field lengths of [1-8] are supported");
+        }
+        if (fieldLength == 8 && raw == Long.MIN_VALUE) {
+            return b;
         }
+        return sR * (raw - zOffset) + a;
     }
 
     /**
@@ -598,4 +658,47 @@ public class FpEncoder {
         highByteEncoded = (byte) ((highByteEncoded & 0b00111111) | RESERVED_KIND1_HIGH_BYTE);
         encoded[0] = highByteEncoded;
     }
+
+    /** Parameters identifying a cached encoder. */
+    private static final class CacheKey {
+        private final double min;
+        private final double max;
+        private final double lengthOrPrecision;
+        private final boolean isPrecision;
+        private final OutOfRangeBehaviour behaviour;
+
+        CacheKey(
+                double min,
+                double max,
+                double lengthOrPrecision,
+                boolean isPrecision,
+                OutOfRangeBehaviour behaviour) {
+            this.min = min;
+            this.max = max;
+            this.lengthOrPrecision = lengthOrPrecision;
+            this.isPrecision = isPrecision;
+            this.behaviour = behaviour;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            return Double.compare(min, other.min) == 0
+                    && Double.compare(max, other.max) == 0
+                    && Double.compare(lengthOrPrecision, other.lengthOrPrecision) == 0
+                    && isPrecision == other.isPrecision
+                    && behaviour == other.behaviour;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(min, max, lengthOrPrecision, isPrecision, behaviour);
+        }
+    }
 }
@@ -6,7 +6,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import org.jmisb.api.klv.BerDecoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.core.klv.ArrayUtils;
 import org.jmisb.core.klv.UuidUtils;
 import org.slf4j.Logger;
@@ -153,9 +152,9 @@ public class CoreIdentifier {
         }
         int index = 0;
         CoreIdentifier coreIdentifier = new CoreIdentifier();
-        BerField field = BerDecoder.decode(bytes, index, true);
-        index += field.getLength();
-        coreIdentifier.setVersion(field.getValue());
+        long field = BerDecoder.decodePacked(bytes, index, true);
+        index += BerDecoder.getLength(field);
+        coreIdentifier.setVersion(BerDecoder.getValue(field));
         if (index >= bytes.length) {
             LOGGER.error("Insufficient bytes to read MIIS Core Identifer usage");
             return null;
@@ -13,6 +13,8 @@ public abstract class AbstractDistance implements ISARMIMetadataValue {
     protected static final double MIN_VAL = 0.0;
     protected static final double MAX_VAL = 1.0e6;
     protected static final int NUM_BYTES = 4;
+    private static final FpEncoder ENCODER =
+            FpEncoder.getInstance(MIN_VAL, MAX_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
     protected double value;
 
     /**
@@ -41,15 +43,12 @@ public abstract class AbstractDistance implements ISARMIMetadataValue {
                     String.format(
                             "%s encoding is %d byte IMAPB", this.getDisplayName(), NUM_BYTES));
         }
-        FpEncoder decoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
-        this.value = decoder.decode(bytes);
+        this.value = ENCODER.decode(bytes);
     }
 
     @Override
     public byte[] getBytes() {
-        FpEncoder encoder = new FpEncoder(MIN_VAL, MAX_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
-        return encoder.encode(this.value);
+        return ENCODER.encode(this.value);
     }
 
     @Override
@@ -11,6 +11,8 @@ import org.jmisb.api.klv.st1201.OutOfRangeBehaviour;
 public abstract class Angle_0_90 extends AbstractAngle implements ISARMIMetadataValue {
     private static final double MIN_VAL = 0.0;
     private static final double MAX_VAL = 90.0;
+    private static final FpEncoder ENCODER =
+            FpEncoder.getInstance(MIN_VAL, MAX_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
 
     /**
      * Create from value.
@@ -38,14 +40,11 @@ public abstract class Angle_0_90 extends AbstractAngle implements ISARMIMetadata
                     String.format(
                             "%s encoding is %d byte IMAPB", this.getDisplayName(), NUM_BYTES));
         }
-        FpEncoder decoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
-        this.value = decoder.decode(bytes);
+        this.value = ENCODER.decode(bytes);
     }
 
     @Override
     public byte[] getBytes() {
-        FpEncoder encoder = new FpEncoder(MIN_VAL, MAX_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
-        return encoder.encode(this.value);
+        return ENCODER.encode(this.value);
     }
 }
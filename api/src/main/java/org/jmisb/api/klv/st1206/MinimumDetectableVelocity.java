@@ -24,6 +24,8 @@ public class MinimumDetectableVelocity implements ISARMIMetadataValue {
     protected static final double MIN_VAL = 0.0;
     protected static final double MAX_VAL = 100.0;
     protected static final int NUM_BYTES = 2;
+    private static final FpEncoder ENCODER =
+            FpEncoder.getInstance(MIN_VAL, MAX_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
     protected double value;
 
     /**
@@ -54,15 +56,12 @@ public class MinimumDetectableVelocity implements ISARMIMetadataValue {
                     String.format(
                             "%s encoding is %d byte IMAPB", this.getDisplayName(), NUM_BYTES));
         }
-        FpEncoder decoder =
-                new FpEncoder(MIN_VAL, MAX_VAL, bytes.length, OutOfRangeBehaviour.Default);
-        this.value = decoder.decode(bytes);
+        this.value = ENCODER.decode(bytes);
     }
 
     @Override
     public byte[] getBytes() {
-        FpEncoder encoder = new FpEncoder(MIN_VAL, MAX_VAL, NUM_BYTES, OutOfRangeBehaviour.Default);
-        return encoder.encode(this.value);
+        return ENCODER.encode(this.value);
     }
 
     @Override
@@ -2,11 +2,10 @@ package org.jmisb.api.klv.st1206;
 
 import static org.jmisb.api.klv.KlvConstants.SARMILocalSetUl;
 
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.ArrayBuilder;
 import org.jmisb.api.klv.IKlvKey;
@@ -14,6 +13,7 @@ import org.jmisb.api.klv.IMisbMessage;
 import org.jmisb.api.klv.LdsField;
 import org.jmisb.api.klv.LdsParser;
 import org.jmisb.api.klv.UniversalLabel;
+import org.jmisb.api.metrics.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -95,7 +95,8 @@ public class SARMILocalSet implements IMisbMessage {
     }
 
     /** Map containing all elements in the message. */
-    private final SortedMap<SARMIMetadataKey, ISARMIMetadataValue> map = new TreeMap<>();
+    private final Map<SARMIMetadataKey, ISARMIMetadataValue> map =
+            new EnumMap<>(SARMIMetadataKey.class);
 
     /**
      * Create the local set from the given key/value pairs.
@@ -119,6 +120,7 @@ public class SARMILocalSet implements IMisbMessage {
             switch (key) {
                 case Undefined:
                     LOGGER.info("Unknown SAR Motion Imagery Metadata tag: {}", field.getTag());
+                    Metrics.getRecorder().unknownTag(LOGGER.getName(), field.getTag());
                     break;
                 default:
                     ISARMIMetadataValue value = createValue(key, field.getData());
@@ -2,7 +2,6 @@ package org.jmisb.api.klv.st1303;
 
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.BerDecoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.st1201.FpEncoder;
 import org.jmisb.api.klv.st1201.OutOfRangeBehaviour;
 import org.jmisb.core.klv.PrimitiveConverter;
@@ -21,24 +20,24 @@ public class MDAPDecoder {
     public double[] decodeFloatingPoint1D(byte[] bytes, final int offset) throws KlvParseException {
         int i = offset;
         try {
-            BerField ndim = BerDecoder.decode(bytes, i, true);
-            if (ndim.getValue() != 1) {
+            long ndim = BerDecoder.decodePacked(bytes, i, true);
+            if (BerDecoder.getValue(ndim) != 1) {
                 throw new KlvParseException("Wrong dimensions for this call");
             }
-            i += ndim.getLength();
-            BerField dim1 = BerDecoder.decode(bytes, i, true);
-            i += dim1.getLength();
-            BerField ebytes = BerDecoder.decode(bytes, i, true);
-            i += ebytes.getLength();
-            BerField apa = BerDecoder.decode(bytes, i, true);
-            i += apa.getLength();
-            switch (ArrayProcessingAlgorithm.getValue(apa.getValue())) {
+            i += BerDecoder.getLength(ndim);
+            long dim1 = BerDecoder.decodePacked(bytes, i, true);
+            i += BerDecoder.getLength(dim1);
+            long ebytes = BerDecoder.decodePacked(bytes, i, true);
+            i += BerDecoder.getLength(ebytes);
+            long apa = BerDecoder.decodePacked(bytes, i, true);
+            i += BerDecoder.getLength(apa);
+            switch (ArrayProcessingAlgorithm.getValue(BerDecoder.getValue(apa))) {
                 case NaturalFormat:
                     return decodeFloatingPoint1D_NaturalFormat(
-                            bytes, i, dim1.getValue(), ebytes.getValue());
+                            bytes, i, BerDecoder.getValue(dim1), BerDecoder.getValue(ebytes));
                 case ST1201:
                     return decodeFloatingPoint1D_ST1201(
-                            bytes, i, dim1.getValue(), ebytes.getValue());
+                            bytes, i, BerDecoder.getValue(dim1), BerDecoder.getValue(ebytes));
                 case BooleanArray:
                     throw new KlvParseException(
                             "Unsupported APA algorithm for floating point 1D decode: BooleanArray");
@@ -52,7 +51,7 @@ public class MDAPDecoder {
                     throw new KlvParseException(
                             String.format(
                                     "Unknown APA algorithm for floating point 1D decode: %d",
-                                    apa.getValue()));
+                                    BerDecoder.getValue(apa)));
             }
         } catch (java.lang.IllegalArgumentException ex) {
             throw new KlvParseException(ex.getMessage());
@@ -88,6 +87,8 @@ public class MDAPDecoder {
         int lengthOfArrayOfElements = numElements * eBytes;
         int lengthOfArrayProcessingAlgorithmSupportValues =
                 bytesRemaining - lengthOfArrayOfElements;
+        // The encoder parameters come from the received data, so are not shared via the
+        // FpEncoder cache
         FpEncoder encoder;
         switch (lengthOfArrayProcessingAlgorithmSupportValues) {
             case 2 * Double.BYTES:
@@ -131,26 +132,34 @@ public class MDAPDecoder {
             throws KlvParseException {
         int i = offset;
         try {
-            BerField ndim = BerDecoder.decode(bytes, i, true);
-            if (ndim.getValue() != 2) {
+            long ndim = BerDecoder.decodePacked(bytes, i, true);
+            if (BerDecoder.getValue(ndim) != 2) {
                 throw new KlvParseException("Wrong dimensions for this call");
             }
-            i += ndim.getLength();
-            BerField dim1 = BerDecoder.decode(bytes, i, true);
-            i += dim1.getLength();
-            BerField dim2 = BerDecoder.decode(bytes, i, true);
-            i += dim2.getLength();
-            BerField ebytes = BerDecoder.decode(bytes, i, true);
-            i += ebytes.getLength();
-            BerField apa = BerDecoder.decode(bytes, i, true);
-            i += apa.getLength();
-            switch (ArrayProcessingAlgorithm.getValue(apa.getValue())) {
+            i += BerDecoder.getLength(ndim);
+            long dim1 = BerDecoder.decodePacked(bytes, i, true);
+            i += BerDecoder.getLength(dim1);
+            long dim2 = BerDecoder.decodePacked(bytes, i, true);
+            i += BerDecoder.getLength(dim2);
+            long ebytes = BerDecoder.decodePacked(bytes, i, true);
+            i += BerDecoder.getLength(ebytes);
+            long apa = BerDecoder.decodePacked(bytes, i, true);
+            i += BerDecoder.getLength(apa);
+            switch (ArrayProcessingAlgorithm.getValue(BerDecoder.getValue(apa))) {
                 case NaturalFormat:
                     return decodeFloatingPoint2D_NaturalFormat(
-                            bytes, i, dim1.getValue(), dim2.getValue(), ebytes.getValue());
+                            bytes,
+                            i,
+                            BerDecoder.getValue(dim1),
+                            BerDecoder.getValue(dim2),
+                            BerDecoder.getValue(ebytes));
                 case ST1201:
                     return decodeFloatingPoint2D_ST1201(
-                            bytes, i, dim1.getValue(), dim2.getValue(), ebytes.getValue());
+                            bytes,
+                            i,
+                            BerDecoder.getValue(dim1),
+                            BerDecoder.getValue(dim2),
+                            BerDecoder.getValue(ebytes));
                 case BooleanArray:
                     throw new KlvParseException(
                             "Unsupported APA algorithm for floating point 2D decode: BooleanArray");
@@ -164,7 +173,7 @@ public class MDAPDecoder {
                     throw new KlvParseException(
                             String.format(
                                     "Unknown APA algorithm for floating point 2D decode: %d",
-                                    apa.getValue()));
+                                    BerDecoder.getValue(apa)));
             }
         } catch (java.lang.IllegalArgumentException ex) {
             throw new KlvParseException(ex.getMessage());
@@ -210,6 +219,8 @@ public class MDAPDecoder {
         int lengthOfArrayOfElements = numRows * numColumns * eBytes;
         int lengthOfArrayProcessingAlgorithmSupportValues =
                 bytesRemaining - lengthOfArrayOfElements;
+        // The encoder parameters come from the received data, so are not shared via the
+        // FpEncoder cache
         FpEncoder encoder;
         switch (lengthOfArrayProcessingAlgorithmSupportValues) {
             case 2 * Double.BYTES:
@@ -253,25 +264,25 @@ public class MDAPDecoder {
      */
     public boolean[][] decodeBoolean2D(byte[] bytes, final int offset) throws KlvParseException {
         int i = offset;
-        BerField ndim = BerDecoder.decode(bytes, i, true);
-        if (ndim.getValue() != 2) {
+        long ndim = BerDecoder.decodePacked(bytes, i, true);
+        if (BerDecoder.getValue(ndim) != 2) {
             throw new KlvParseException("Wrong dimensions for this call");
         }
-        i += ndim.getLength();
-        BerField dim1 = BerDecoder.decode(bytes, i, true);
-        i += dim1.getLength();
-        int numRows = dim1.getValue();
-        BerField dim2 = BerDecoder.decode(bytes, i, true);
-        i += dim2.getLength();
-        int numColumns = dim2.getValue();
-        BerField ebytes = BerDecoder.decode(bytes, i, true);
-        i += ebytes.getLength();
-        if (ebytes.getValue() != Byte.BYTES) {
+        i += BerDecoder.getLength(ndim);
+        long dim1 = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(dim1);
+        int numRows = BerDecoder.getValue(dim1);
+        long dim2 = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(dim2);
+        int numColumns = BerDecoder.getValue(dim2);
+        long ebytes = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(ebytes);
+        if (BerDecoder.getValue(ebytes) != Byte.BYTES) {
             throw new KlvParseException("Expected 1 byte encoding for boolean RLE");
         }
-        BerField apa = BerDecoder.decode(bytes, i, true);
-        i += apa.getLength();
-        switch (ArrayProcessingAlgorithm.getValue(apa.getValue())) {
+        long apa = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(apa);
+        switch (ArrayProcessingAlgorithm.getValue(BerDecoder.getValue(apa))) {
             case NaturalFormat:
                 return decodeBoolean2D_NaturalFormat(numRows, numColumns, bytes, i);
             case ST1201:
@@ -289,7 +300,8 @@ public class MDAPDecoder {
             default:
                 throw new KlvParseException(
                         String.format(
-                                "Unknown APA algorithm for boolean 2D decode: %d", apa.getValue()));
+                                "Unknown APA algorithm for boolean 2D decode: %d",
+                                BerDecoder.getValue(apa)));
         }
     }
 
@@ -346,18 +358,18 @@ public class MDAPDecoder {
     private int processNextPatch(byte[] bytes, int i, boolean[][] result) {
         boolean value = bytes[i] != 0x00;
         i++;
-        BerField dim1 = BerDecoder.decode(bytes, i, true);
-        i += dim1.getLength();
-        int startRow = dim1.getValue();
-        BerField dim2 = BerDecoder.decode(bytes, i, true);
-        i += dim2.getLength();
-        int startColumn = dim2.getValue();
-        BerField runLength1 = BerDecoder.decode(bytes, i, true);
-        i += runLength1.getLength();
-        int numRowsForRun = runLength1.getValue();
-        BerField runLength2 = BerDecoder.decode(bytes, i, true);
-        i += runLength2.getLength();
-        int numColumnsForRun = runLength2.getValue();
+        long dim1 = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(dim1);
+        int startRow = BerDecoder.getValue(dim1);
+        long dim2 = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(dim2);
+        int startColumn = BerDecoder.getValue(dim2);
+        long runLength1 = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(runLength1);
+        int numRowsForRun = BerDecoder.getValue(runLength1);
+        long runLength2 = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(runLength2);
+        int numColumnsForRun = BerDecoder.getValue(runLength2);
         for (int r = startRow; r < startRow + numRowsForRun; ++r) {
             for (int c = startColumn; c < startColumn + numColumnsForRun; ++c) {
                 result[r][c] = value;
@@ -376,20 +388,21 @@ public class MDAPDecoder {
      */
     public long[] decodeInt1D(byte[] bytes, final int offset) throws KlvParseException {
         int i = offset;
-        BerField ndim = BerDecoder.decode(bytes, i, true);
-        if (ndim.getValue() != 1) {
+        long ndim = BerDecoder.decodePacked(bytes, i, true);
+        if (BerDecoder.getValue(ndim) != 1) {
             throw new KlvParseException("Wrong dimensions for this call");
         }
-        i += ndim.getLength();
-        BerField dim1 = BerDecoder.decode(bytes, i, true);
-        i += dim1.getLength();
-        BerField ebytes = BerDecoder.decode(bytes, i, true);
-        i += ebytes.getLength();
-        BerField apa = BerDecoder.decode(bytes, i, true);
-        i += apa.getLength();
-        switch (ArrayProcessingAlgorithm.getValue(apa.getValue())) {
+        i += BerDecoder.getLength(ndim);
+        long dim1 = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(dim1);
+        long ebytes = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(ebytes);
+        long apa = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(apa);
+        switch (ArrayProcessingAlgorithm.getValue(BerDecoder.getValue(apa))) {
             case NaturalFormat:
-                return decodeInt1D_NaturalFormat(bytes, i, dim1.getValue(), ebytes.getValue());
+                return decodeInt1D_NaturalFormat(
+                        bytes, i, BerDecoder.getValue(dim1), BerDecoder.getValue(ebytes));
             case ST1201:
                 throw new KlvParseException(
                         "Invalid APA algorithm for signed integer 1D decode: ST1201");
@@ -406,7 +419,7 @@ public class MDAPDecoder {
                 throw new KlvParseException(
                         String.format(
                                 "Unknown APA algorithm for  signed integer 1D decode: %d",
-                                apa.getValue()));
+                                BerDecoder.getValue(apa)));
         }
     }
 
@@ -432,23 +445,27 @@ public class MDAPDecoder {
      */
     public long[][] decodeInt2D(byte[] bytes, final int offset) throws KlvParseException {
         int i = offset;
-        BerField ndim = BerDecoder.decode(bytes, i, true);
-        if (ndim.getValue() != 2) {
+        long ndim = BerDecoder.decodePacked(bytes, i, true);
+        if (BerDecoder.getValue(ndim) != 2) {
             throw new KlvParseException("Wrong dimensions for this call");
         }
-        i += ndim.getLength();
-        BerField dim1 = BerDecoder.decode(bytes, i, true);
-        i += dim1.getLength();
-        BerField dim2 = BerDecoder.decode(bytes, i, true);
-        i += dim2.getLength();
-        BerField ebytes = BerDecoder.decode(bytes, i, true);
-        i += ebytes.getLength();
-        BerField apa = BerDecoder.decode(bytes, i, true);
-        i += apa.getLength();
-        switch (ArrayProcessingAlgorithm.getValue(apa.getValue())) {
+        i += BerDecoder.getLength(ndim);
+        long dim1 = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(dim1);
+        long dim2 = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(dim2);
+        long ebytes = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(ebytes);
+        long apa = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(apa);
+        switch (ArrayProcessingAlgorithm.getValue(BerDecoder.getValue(apa))) {
             case NaturalFormat:
                 return decodeInt2D_NaturalFormat(
-                        bytes, i, dim1.getValue(), dim2.getValue(), ebytes.getValue());
+                        bytes,
+                        i,
+                        BerDecoder.getValue(dim1),
+                        BerDecoder.getValue(dim2),
+                        BerDecoder.getValue(ebytes));
             case ST1201:
                 throw new KlvParseException(
                         "Invalid APA algorithm for signed integer 2D decode: ST1201");
@@ -465,7 +482,7 @@ public class MDAPDecoder {
                 throw new KlvParseException(
                         String.format(
                                 "Unknown APA algorithm for signed integer 2D decode: %d",
-                                apa.getValue()));
+                                BerDecoder.getValue(apa)));
         }
     }
 
@@ -497,20 +514,21 @@ public class MDAPDecoder {
      */
     public long[] decodeUInt1D(byte[] bytes, final int offset) throws KlvParseException {
         int i = offset;
-        BerField ndim = BerDecoder.decode(bytes, i, true);
-        if (ndim.getValue() != 1) {
+        long ndim = BerDecoder.decodePacked(bytes, i, true);
+        if (BerDecoder.getValue(ndim) != 1) {
             throw new KlvParseException("Wrong dimensions for this call");
         }
-        i += ndim.getLength();
-        BerField dim1 = BerDecoder.decode(bytes, i, true);
-        i += dim1.getLength();
-        BerField ebytes = BerDecoder.decode(bytes, i, true);
-        i += ebytes.getLength();
-        BerField apa = BerDecoder.decode(bytes, i, true);
-        i += apa.getLength();
-        switch (ArrayProcessingAlgorithm.getValue(apa.getValue())) {
+        i += BerDecoder.getLength(ndim);
+        long dim1 = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(dim1);
+        long ebytes = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(ebytes);
+        long apa = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(apa);
+        switch (ArrayProcessingAlgorithm.getValue(BerDecoder.getValue(apa))) {
             case NaturalFormat:
-                return decodeUInt_NaturalFormat(bytes, i, dim1.getValue(), ebytes.getValue());
+                return decodeUInt_NaturalFormat(
+                        bytes, i, BerDecoder.getValue(dim1), BerDecoder.getValue(ebytes));
             case ST1201:
                 throw new KlvParseException(
                         "Invalid APA algorithm for unsigned integer 1D decode: ST1201");
@@ -518,10 +536,10 @@ public class MDAPDecoder {
                 throw new KlvParseException(
                         "Invalid APA algorithm for unsigned integer 1D decode: BooleanArray");
             case UnsignedInteger:
-                BerField biasField = BerDecoder.decode(bytes, i, true);
-                i += biasField.getLength();
+                long biasField = BerDecoder.decodePacked(bytes, i, true);
+                i += BerDecoder.getLength(biasField);
                 return decodeUInt_UnsignedIntegerEncoded(
-                        bytes, i, dim1.getValue(), biasField.getValue());
+                        bytes, i, BerDecoder.getValue(dim1), BerDecoder.getValue(biasField));
 
             case RunLengthEncoding:
                 throw new KlvParseException(
@@ -530,7 +548,7 @@ public class MDAPDecoder {
                 throw new KlvParseException(
                         String.format(
                                 "Unknown APA algorithm for  unsigned integer 1D decode: %d",
-                                apa.getValue()));
+                                BerDecoder.getValue(apa)));
         }
     }
 
@@ -551,9 +569,9 @@ public class MDAPDecoder {
         int index = offset;
         long[] result = new long[numElements];
         for (int i = 0; i < numElements; ++i) {
-            BerField el = BerDecoder.decode(bytes, index, true);
-            result[i] = el.getValue() + bias;
-            index += el.getLength();
+            long el = BerDecoder.decodePacked(bytes, index, true);
+            result[i] = BerDecoder.getValue(el) + bias;
+            index += BerDecoder.getLength(el);
         }
         return result;
     }
@@ -568,23 +586,27 @@ public class MDAPDecoder {
      */
     public long[][] decodeUInt2D(byte[] bytes, final int offset) throws KlvParseException {
         int i = offset;
-        BerField ndim = BerDecoder.decode(bytes, i, true);
-        if (ndim.getValue() != 2) {
+        long ndim = BerDecoder.decodePacked(bytes, i, true);
+        if (BerDecoder.getValue(ndim) != 2) {
             throw new KlvParseException("Wrong dimensions for this call");
         }
-        i += ndim.getLength();
-        BerField dim1 = BerDecoder.decode(bytes, i, true);
-        i += dim1.getLength();
-        BerField dim2 = BerDecoder.decode(bytes, i, true);
-        i += dim2.getLength();
-        BerField ebytes = BerDecoder.decode(bytes, i, true);
-        i += ebytes.getLength();
-        BerField apa = BerDecoder.decode(bytes, i, true);
-        i += apa.getLength();
-        switch (ArrayProcessingAlgorithm.getValue(apa.getValue())) {
+        i += BerDecoder.getLength(ndim);
+        long dim1 = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(dim1);
+        long dim2 = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(dim2);
+        long ebytes = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(ebytes);
+        long apa = BerDecoder.decodePacked(bytes, i, true);
+        i += BerDecoder.getLength(apa);
+        switch (ArrayProcessingAlgorithm.getValue(BerDecoder.getValue(apa))) {
             case NaturalFormat:
                 return decodeUInt2D_NaturalFormat(
-                        bytes, i, dim1.getValue(), dim2.getValue(), ebytes.getValue());
+                        bytes,
+                        i,
+                        BerDecoder.getValue(dim1),
+                        BerDecoder.getValue(dim2),
+                        BerDecoder.getValue(ebytes));
             case ST1201:
                 throw new KlvParseException(
                         "Invalid APA algorithm for unsigned integer 1D decode: ST1201");
@@ -592,10 +614,14 @@ public class MDAPDecoder {
                 throw new KlvParseException(
                         "Invalid APA algorithm for unsigned integer 1D decode: BooleanArray");
             case UnsignedInteger:
-                BerField biasField = BerDecoder.decode(bytes, i, true);
-                i += biasField.getLength();
+                long biasField = BerDecoder.decodePacked(bytes, i, true);
+                i += BerDecoder.getLength(biasField);
                 return decodeUInt2D_UnsignedIntegerEncoded(
-                        bytes, i, dim1.getValue(), dim2.getValue(), biasField.getValue());
+                        bytes,
+                        i,
+                        BerDecoder.getValue(dim1),
+                        BerDecoder.getValue(dim2),
+                        BerDecoder.getValue(biasField));
 
             case RunLengthEncoding:
                 throw new KlvParseException(
@@ -604,7 +630,7 @@ public class MDAPDecoder {
                 throw new KlvParseException(
                         String.format(
                                 "Unknown APA algorithm for  unsigned integer 1D decode: %d",
-                                apa.getValue()));
+                                BerDecoder.getValue(apa)));
         }
     }
 
@@ -636,9 +662,9 @@ public class MDAPDecoder {
         long[][] result = new long[numRows][numColumns];
         for (int r = 0; r < numRows; ++r) {
             for (int c = 0; c < numColumns; ++c) {
-                BerField el = BerDecoder.decode(bytes, index, true);
-                result[r][c] = el.getValue() + bias;
-                index += el.getLength();
+                long el = BerDecoder.decodePacked(bytes, index, true);
+                result[r][c] = BerDecoder.getValue(el) + bias;
+                index += BerDecoder.getLength(el);
             }
         }
         return result;
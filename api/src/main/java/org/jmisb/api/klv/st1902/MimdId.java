@@ -3,7 +3,6 @@ package org.jmisb.api.klv.st1902;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.ArrayBuilder;
 import org.jmisb.api.klv.BerDecoder;
-import org.jmisb.api.klv.BerField;
 
 /**
  * MIMD Identifier.
@@ -63,11 +62,12 @@ public class MimdId implements IMimdMetadataValue {
      */
     public MimdId(byte[] data) throws KlvParseException {
         try {
-            BerField serialField = BerDecoder.decode(data, 0, true);
-            serialNumber = serialField.getValue();
-            if (serialField.getLength() < data.length) {
-                BerField groupField = BerDecoder.decode(data, serialField.getLength(), true);
-                groupIdentifier = groupField.getValue();
+            long serialField = BerDecoder.decodePacked(data, 0, true);
+            serialNumber = BerDecoder.getValue(serialField);
+            if (BerDecoder.getLength(serialField) < data.length) {
+                long groupField =
+                        BerDecoder.decodePacked(data, BerDecoder.getLength(serialField), true);
+                groupIdentifier = BerDecoder.getValue(groupField);
             } else {
                 groupIdentifier = 0;
             }
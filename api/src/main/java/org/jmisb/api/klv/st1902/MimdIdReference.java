@@ -3,7 +3,6 @@ package org.jmisb.api.klv.st1902;
 import org.jmisb.api.common.KlvParseException;
 import org.jmisb.api.klv.ArrayBuilder;
 import org.jmisb.api.klv.BerDecoder;
-import org.jmisb.api.klv.BerField;
 
 public class MimdIdReference implements IMimdMetadataValue {
 
@@ -41,12 +40,12 @@ public class MimdIdReference implements IMimdMetadataValue {
             throws KlvParseException {
         int index = offset;
         try {
-            BerField serialIdField = BerDecoder.decode(data, index, true);
-            serialNumber = serialIdField.getValue();
-            index += serialIdField.getLength();
+            long serialIdField = BerDecoder.decodePacked(data, index, true);
+            serialNumber = BerDecoder.getValue(serialIdField);
+            index += BerDecoder.getLength(serialIdField);
             if (index < offset + numBytes) {
-                BerField groupIdField = BerDecoder.decode(data, index, true);
-                groupId = groupIdField.getValue();
+                long groupIdField = BerDecoder.decodePacked(data, index, true);
+                groupId = BerDecoder.getValue(groupIdField);
             }
             this.displayName = name;
             this.refTargetType = target;
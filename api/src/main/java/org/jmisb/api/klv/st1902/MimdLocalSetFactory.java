@@ -1,6 +1,9 @@
 package org.jmisb.api.klv.st1902;
 
+import java.util.Arrays;
+import java.util.Set;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.IMisbMessageFactory;
 import org.jmisb.api.klv.st1903.MIMD;
 
@@ -11,4 +14,10 @@ public class MimdLocalSetFactory implements IMisbMessageFactory {
     public MIMD create(byte[] bytes) throws KlvParseException {
         return new MIMD(bytes);
     }
+
+    @Override
+    public MIMD create(byte[] bytes, int offset, int length, Set<? extends IKlvKey> wantedKeys)
+            throws KlvParseException {
+        return new MIMD(Arrays.copyOfRange(bytes, offset, offset + length), wantedKeys);
+    }
 }
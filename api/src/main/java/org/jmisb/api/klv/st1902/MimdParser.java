@@ -3,10 +3,10 @@ package org.jmisb.api.klv.st1902;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import org.jmisb.api.common.InvalidDataHandler;
+import java.util.function.IntPredicate;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
 import org.jmisb.api.klv.BerDecoder;
-import org.jmisb.api.klv.BerField;
 import org.jmisb.api.klv.CrcCcitt;
 import org.jmisb.api.klv.LdsField;
 import org.jmisb.api.klv.LdsParser;
@@ -38,39 +38,60 @@ public class MimdParser {
      */
     public static List<LdsField> parseFields(final byte[] bytes, final int start, final int length)
             throws KlvParseException {
+        return parseFields(bytes, start, length, null);
+    }
+
+    /**
+     * Parse selected fields of a {@link MIMD} local set from a byte array.
+     *
+     * <p>Fields with tags that do not match {@code tagFilter} are skipped, and are not included in
+     * the returned list. The check value always covers the whole local set.
+     *
+     * @param bytes Byte array to parse
+     * @param start Index of the first byte to parse
+     * @param length Number of bytes to parse
+     * @param tagFilter Test for the tags to return, or null to return all fields
+     * @return List of parsed fields
+     * @throws KlvParseException If a parsing error occurs
+     */
+    public static List<LdsField> parseFields(
+            final byte[] bytes, final int start, final int length, IntPredicate tagFilter)
+            throws KlvParseException {
         List<LdsField> fields = new ArrayList<>();
         final int last = start + length - LEN_CHECK_VALUE;
         int offset = start + UniversalLabel.LENGTH;
-        BerField reportedLength = BerDecoder.decode(bytes, offset, false);
-        offset += reportedLength.getLength();
+        long reportedLength = BerDecoder.decodePacked(bytes, offset, false);
+        offset += BerDecoder.getLength(reportedLength);
         final int valueStart = offset;
         while (offset < last) {
             // Get the BER-OID encoded Key (tag)
-            BerField tagField = BerDecoder.decode(bytes, offset, true);
-            int tag = tagField.getValue();
-            offset += tagField.getLength();
+            long tagField = BerDecoder.decodePacked(bytes, offset, true);
+            int tag = BerDecoder.getValue(tagField);
+            offset += BerDecoder.getLength(tagField);
 
             // Get the Length (BER short or long form-encoded)
             int lengthFieldOffset = offset;
-            BerField lengthField = BerDecoder.decode(bytes, lengthFieldOffset, false);
+            long lengthField = BerDecoder.decodePacked(bytes, lengthFieldOffset, false);
             // Get the Value
-            int begin = lengthFieldOffset + lengthField.getLength();
-            int end = begin + lengthField.getValue();
+            int begin = lengthFieldOffset + BerDecoder.getLength(lengthField);
+            int end = begin + BerDecoder.getValue(lengthField);
             if (end > last) {
-                InvalidDataHandler idh = InvalidDataHandler.getInstance();
+                ParseContext idh = ParseContext.current();
                 idh.handleOverrun(LOGGER, "Overrun encountered while parsing MIMD fields");
             }
 
-            byte[] value = Arrays.copyOfRange(bytes, begin, end);
-            fields.add(new LdsField(tag, value));
+            if ((tagFilter == null) || tagFilter.test(tag)) {
+                byte[] value = Arrays.copyOfRange(bytes, begin, end);
+                fields.add(new LdsField(tag, value));
+            }
             offset = end;
         }
         CrcCcitt crcCalc = new CrcCcitt();
-        crcCalc.addData(Arrays.copyOfRange(bytes, start, start + UniversalLabel.LENGTH));
-        crcCalc.addData(Arrays.copyOfRange(bytes, valueStart, last));
-        byte[] expectedCheckValue = Arrays.copyOfRange(bytes, last, last + LEN_CHECK_VALUE);
-        if (!Arrays.equals(expectedCheckValue, crcCalc.getCrc())) {
-            InvalidDataHandler idh = InvalidDataHandler.getInstance();
+        crcCalc.addData(bytes, start, UniversalLabel.LENGTH);
+        crcCalc.addData(bytes, valueStart, last - valueStart);
+        int expectedCheckValue = ((bytes[last] & 0xFF) << 8) | (bytes[last + 1] & 0xFF);
+        if (expectedCheckValue != crcCalc.getValue()) {
+            ParseContext idh = ParseContext.current();
             idh.handleInvalidChecksum(LOGGER, "Bad MIMD Check Value");
         }
         return fields;
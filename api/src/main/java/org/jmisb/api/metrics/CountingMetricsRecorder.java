@@ -0,0 +1,206 @@
+package org.jmisb.api.metrics;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.jmisb.api.common.ParseDiagnostic;
+import org.jmisb.api.klv.UniversalLabel;
+
+/**
+ * Metrics recorder that keeps counters and latency histograms in memory.
+ *
+ * <p>The values can be read at any time (e.g. by a periodic task that publishes them to a
+ * monitoring system), and accumulate until {@link #reset()} is called. This class is thread safe.
+ */
+public class CountingMetricsRecorder implements IMetricsRecorder {
+
+    private final ConcurrentMap<UniversalLabel, LongAdder> messageCounts =
+            new ConcurrentHashMap<>();
+    private final ConcurrentMap<UniversalLabel, LongAdder> failedCounts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UniversalLabel, LatencyHistogram> parseLatencies =
+            new ConcurrentHashMap<>();
+    private final LongAdder bytesParsed = new LongAdder();
+    private final Map<ParseDiagnostic.Kind, ConcurrentMap<String, LongAdder>> invalidDataCounts =
+            new EnumMap<>(ParseDiagnostic.Kind.class);
+    private final ConcurrentMap<String, LongAdder> unknownTagCounts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicInteger> queueDepths = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicInteger> maxQueueDepths = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> videoDecodeLatencies =
+            new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> metadataDecodeLatencies =
+            new ConcurrentHashMap<>();
+
+    /** Constructor. */
+    public CountingMetricsRecorder() {
+        for (ParseDiagnostic.Kind kind : ParseDiagnostic.Kind.values()) {
+            invalidDataCounts.put(kind, new ConcurrentHashMap<>());
+        }
+    }
+
+    @Override
+    public void messageParsed(UniversalLabel label, int length, long nanos) {
+        messageCounts.computeIfAbsent(label, k -> new LongAdder()).increment();
+        parseLatencies.computeIfAbsent(label, k -> new LatencyHistogram()).record(nanos);
+        bytesParsed.add(length);
+    }
+
+    @Override
+    public void messageFailed(UniversalLabel label, int length, long nanos) {
+        failedCounts.computeIfAbsent(label, k -> new LongAdder()).increment();
+        bytesParsed.add(length);
+    }
+
+    @Override
+    public void invalidData(ParseDiagnostic.Kind kind, String source) {
+        invalidDataCounts.get(kind).computeIfAbsent(source, k -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void unknownTag(String source, int tag) {
+        unknownTagCounts.computeIfAbsent(source, k -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void packetQueueDepth(String queue, int depth) {
+        queueDepths.computeIfAbsent(queue, k -> new AtomicInteger()).set(depth);
+        maxQueueDepths
+                .computeIfAbsent(queue, k -> new AtomicInteger())
+                .accumulateAndGet(depth, Math::max);
+    }
+
+    @Override
+    public void videoFrameDecoded(String stream, long nanos) {
+        videoDecodeLatencies.computeIfAbsent(stream, k -> new LatencyHistogram()).record(nanos);
+    }
+
+    @Override
+    public void metadataPacketDecoded(String stream, int length, long nanos) {
+        metadataDecodeLatencies.computeIfAbsent(stream, k -> new LatencyHistogram()).record(nanos);
+    }
+
+    /**
+     * Get the number of messages parsed, for each Universal Label.
+     *
+     * @return map of Universal Label to the number of messages successfully parsed
+     */
+    public Map<UniversalLabel, Long> getMessageCounts() {
+        return snapshot(messageCounts);
+    }
+
+    /**
+     * Get the number of messages that failed to parse, for each Universal Label.
+     *
+     * @return map of Universal Label to the number of messages that failed to parse
+     */
+    public Map<UniversalLabel, Long> getFailedMessageCounts() {
+        return snapshot(failedCounts);
+    }
+
+    /**
+     * Get the parse latency histogram for a Universal Label.
+     *
+     * @param label the Universal Label
+     * @return the histogram, or null if no messages with that label have been parsed
+     */
+    public LatencyHistogram getParseLatency(UniversalLabel label) {
+        return parseLatencies.get(label);
+    }
+
+    /**
+     * Get the total number of bytes in the top-level messages parsed.
+     *
+     * @return the number of bytes, including messages that failed to parse
+     */
+    public long getBytesParsed() {
+        return bytesParsed.sum();
+    }
+
+    /**
+     * Get the number of invalid data events of a particular kind, for each source.
+     *
+     * @param kind the kind of invalid data
+     * @return map of source class name to the number of events
+     */
+    public Map<String, Long> getInvalidDataCounts(ParseDiagnostic.Kind kind) {
+        return snapshot(invalidDataCounts.get(kind));
+    }
+
+    /**
+     * Get the number of unknown tags skipped, for each source.
+     *
+     * @return map of source class name to the number of unknown tags
+     */
+    public Map<String, Long> getUnknownTagCounts() {
+        return snapshot(unknownTagCounts);
+    }
+
+    /**
+     * Get the most recently sampled depth of each packet queue.
+     *
+     * @return map of queue name to depth
+     */
+    public Map<String, Integer> getQueueDepths() {
+        return snapshotInt(queueDepths);
+    }
+
+    /**
+     * Get the largest sampled depth of each packet queue.
+     *
+     * @return map of queue name to maximum depth
+     */
+    public Map<String, Integer> getMaxQueueDepths() {
+        return snapshotInt(maxQueueDepths);
+    }
+
+    /**
+     * Get the video decode latency histogram for a stream.
+     *
+     * @param stream the stream name
+     * @return the histogram, or null if no frames have been decoded from that stream
+     */
+    public LatencyHistogram getVideoDecodeLatency(String stream) {
+        return videoDecodeLatencies.get(stream);
+    }
+
+    /**
+     * Get the metadata decode latency histogram for a stream.
+     *
+     * @param stream the stream name
+     * @return the histogram, or null if no packets have been processed from that stream
+     */
+    public LatencyHistogram getMetadataDecodeLatency(String stream) {
+        return metadataDecodeLatencies.get(stream);
+    }
+
+    /** Discard all recorded values. */
+    public void reset() {
+        messageCounts.clear();
+        failedCounts.clear();
+        parseLatencies.clear();
+        bytesParsed.reset();
+        for (ConcurrentMap<String, LongAdder> counts : invalidDataCounts.values()) {
+            counts.clear();
+        }
+        unknownTagCounts.clear();
+        queueDepths.clear();
+        maxQueueDepths.clear();
+        videoDecodeLatencies.clear();
+        metadataDecodeLatencies.clear();
+    }
+
+    private static <K> Map<K, Long> snapshot(Map<K, LongAdder> counters) {
+        Map<K, Long> result = new HashMap<>();
+        counters.forEach((key, value) -> result.put(key, value.sum()));
+        return result;
+    }
+
+    private static Map<String, Integer> snapshotInt(Map<String, AtomicInteger> gauges) {
+        Map<String, Integer> result = new HashMap<>();
+        gauges.forEach((key, value) -> result.put(key, value.get()));
+        return result;
+    }
+}
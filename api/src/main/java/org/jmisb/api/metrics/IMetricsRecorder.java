@@ -0,0 +1,86 @@
+package org.jmisb.api.metrics;
+
+import org.jmisb.api.common.ParseDiagnostic;
+import org.jmisb.api.klv.UniversalLabel;
+
+/**
+ * Receiver of parsing and decoding metrics.
+ *
+ * <p>Implementations are called from the parsing and decoding threads, so must be thread safe, and
+ * should be fast. All methods have empty default implementations, so an implementation only needs
+ * to override the metrics it is interested in.
+ *
+ * <p>The {@code source} of an event is the name of the class that detected it (e.g. {@code
+ * org.jmisb.api.klv.st0601.UasDatalinkMessage}), which identifies the standard.
+ */
+public interface IMetricsRecorder {
+
+    /**
+     * A top-level message was parsed.
+     *
+     * @param label the Universal Label of the message
+     * @param length the length of the message (including the Universal Label and length field), in
+     *     bytes
+     * @param nanos the time taken to parse the message, in nanoseconds
+     */
+    default void messageParsed(UniversalLabel label, int length, long nanos) {}
+
+    /**
+     * A top-level message failed to parse.
+     *
+     * @param label the Universal Label of the message
+     * @param length the length of the message (including the Universal Label and length field), in
+     *     bytes
+     * @param nanos the time taken before the parse failed, in nanoseconds
+     */
+    default void messageFailed(UniversalLabel label, int length, long nanos) {}
+
+    /**
+     * Invalid data (such as a checksum failure or an overrun) was found.
+     *
+     * <p>This is called whether or not the invalid data handling strategy throws.
+     *
+     * @param kind the kind of invalid data
+     * @param source the name of the class that found the invalid data
+     */
+    default void invalidData(ParseDiagnostic.Kind kind, String source) {}
+
+    /**
+     * A field with an unknown tag was skipped.
+     *
+     * @param source the name of the class that was parsing the field
+     * @param tag the unknown tag
+     */
+    default void unknownTag(String source, int tag) {}
+
+    /**
+     * The depth of a packet queue was sampled.
+     *
+     * <p>This is called by the video input decode threads each time they take a packet.
+     *
+     * @param queue the name of the queue, which identifies the input and stream
+     * @param depth the number of packets waiting in the queue
+     */
+    default void packetQueueDepth(String queue, int depth) {}
+
+    /**
+     * A video frame was decoded and converted.
+     *
+     * @param stream the name of the stream, which identifies the input
+     * @param nanos the time taken to decode and convert the frame, in nanoseconds
+     */
+    default void videoFrameDecoded(String stream, long nanos) {}
+
+    /**
+     * A metadata packet was processed.
+     *
+     * <p>This includes decoding any messages completed by the packet, unless they are decoded on
+     * worker threads (see {@link
+     * org.jmisb.api.video.VideoInputOptions#getMetadataDecodeThreads()}).
+     *
+     * @param stream the name of the stream, which identifies the input and stream index
+     * @param length the length of the packet, in bytes
+     * @param nanos the time taken to process the packet, in nanoseconds
+     */
+    default void metadataPacketDecoded(String stream, int length, long nanos) {}
+}
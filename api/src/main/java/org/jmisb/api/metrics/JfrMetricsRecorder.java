@@ -0,0 +1,201 @@
+package org.jmisb.api.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import org.jmisb.api.common.ParseDiagnostic;
+import org.jmisb.api.klv.UniversalLabel;
+
+/**
+ * Metrics recorder that emits JDK Flight Recorder events.
+ *
+ * <p>The events are in the "jMISB" category, and are only recorded while a flight recording is
+ * running (e.g. started with {@code -XX:StartFlightRecording} or {@code jcmd <pid> JFR.start}).
+ * Each event carries the measured time in a duration field, since the measurement has finished by
+ * the time the recorder is called.
+ *
+ * <p>This class requires a Java runtime with the {@code jdk.jfr} module (Java 11 or later, or Java
+ * 8 update 262 or later). Other parts of the library do not depend on it.
+ */
+public class JfrMetricsRecorder implements IMetricsRecorder {
+
+    /** Constructor. */
+    public JfrMetricsRecorder() {}
+
+    @Override
+    public void messageParsed(UniversalLabel label, int length, long nanos) {
+        commitParse(label, length, nanos, true);
+    }
+
+    @Override
+    public void messageFailed(UniversalLabel label, int length, long nanos) {
+        commitParse(label, length, nanos, false);
+    }
+
+    private static void commitParse(UniversalLabel label, int length, long nanos, boolean valid) {
+        KlvParseEvent event = new KlvParseEvent();
+        if (event.shouldCommit()) {
+            event.universalLabel = toHex(label.getBytes());
+            event.length = length;
+            event.parseTime = nanos;
+            event.valid = valid;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void invalidData(ParseDiagnostic.Kind kind, String source) {
+        InvalidDataEvent event = new InvalidDataEvent();
+        if (event.shouldCommit()) {
+            event.kind = kind.name();
+            event.source = source;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void unknownTag(String source, int tag) {
+        UnknownTagEvent event = new UnknownTagEvent();
+        if (event.shouldCommit()) {
+            event.source = source;
+            event.tag = tag;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void packetQueueDepth(String queue, int depth) {
+        PacketQueueEvent event = new PacketQueueEvent();
+        if (event.shouldCommit()) {
+            event.queue = queue;
+            event.depth = depth;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void videoFrameDecoded(String stream, long nanos) {
+        VideoDecodeEvent event = new VideoDecodeEvent();
+        if (event.shouldCommit()) {
+            event.stream = stream;
+            event.decodeTime = nanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void metadataPacketDecoded(String stream, int length, long nanos) {
+        MetadataDecodeEvent event = new MetadataDecodeEvent();
+        if (event.shouldCommit()) {
+            event.stream = stream;
+            event.length = length;
+            event.decodeTime = nanos;
+            event.commit();
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(String.format("%02X", b));
+        }
+        return sb.toString();
+    }
+
+    @Name("org.jmisb.KlvParse")
+    @Label("KLV Parse")
+    @Description("A top-level KLV message was parsed")
+    @Category({"jMISB", "KLV"})
+    @StackTrace(false)
+    static class KlvParseEvent extends Event {
+        @Label("Universal Label")
+        String universalLabel;
+
+        @Label("Length")
+        @DataAmount
+        int length;
+
+        @Label("Parse Time")
+        @Timespan
+        long parseTime;
+
+        @Label("Valid")
+        boolean valid;
+    }
+
+    @Name("org.jmisb.InvalidData")
+    @Label("Invalid KLV Data")
+    @Description("Invalid data (such as a bad checksum or an overrun) was found")
+    @Category({"jMISB", "KLV"})
+    @StackTrace(false)
+    static class InvalidDataEvent extends Event {
+        @Label("Kind")
+        String kind;
+
+        @Label("Source")
+        String source;
+    }
+
+    @Name("org.jmisb.UnknownTag")
+    @Label("Unknown KLV Tag")
+    @Description("A field with an unknown tag was skipped")
+    @Category({"jMISB", "KLV"})
+    @StackTrace(false)
+    static class UnknownTagEvent extends Event {
+        @Label("Source")
+        String source;
+
+        @Label("Tag")
+        int tag;
+    }
+
+    @Name("org.jmisb.PacketQueue")
+    @Label("Packet Queue Depth")
+    @Description("The depth of a decode thread's packet queue")
+    @Category({"jMISB", "Video"})
+    @StackTrace(false)
+    static class PacketQueueEvent extends Event {
+        @Label("Queue")
+        String queue;
+
+        @Label("Depth")
+        int depth;
+    }
+
+    @Name("org.jmisb.VideoDecode")
+    @Label("Video Frame Decode")
+    @Description("A video frame was decoded and converted")
+    @Category({"jMISB", "Video"})
+    @StackTrace(false)
+    static class VideoDecodeEvent extends Event {
+        @Label("Stream")
+        String stream;
+
+        @Label("Decode Time")
+        @Timespan
+        long decodeTime;
+    }
+
+    @Name("org.jmisb.MetadataDecode")
+    @Label("Metadata Packet Decode")
+    @Description("A metadata packet was processed")
+    @Category({"jMISB", "Video"})
+    @StackTrace(false)
+    static class MetadataDecodeEvent extends Event {
+        @Label("Stream")
+        String stream;
+
+        @Label("Length")
+        @DataAmount
+        int length;
+
+        @Label("Decode Time")
+        @Timespan
+        long decodeTime;
+    }
+}
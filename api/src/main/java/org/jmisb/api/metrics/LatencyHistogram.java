@@ -0,0 +1,113 @@
+package org.jmisb.api.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies.
+ *
+ * <p>Values are counted in power-of-two buckets, so percentiles are approximate (to within a factor
+ * of two), but recording is cheap and does not allocate. This class is thread safe.
+ */
+public class LatencyHistogram {
+
+    private static final int NUM_BUCKETS = 64;
+
+    /** Bucket {@code i} counts values {@code v} with {@code 2^(i-1) <= v < 2^i}. */
+    private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /** Constructor. */
+    public LatencyHistogram() {}
+
+    /**
+     * Record a value.
+     *
+     * @param nanos the latency, in nanoseconds (negative values are treated as 0)
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        buckets.incrementAndGet(Math.min(NUM_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value)));
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Get the number of values recorded.
+     *
+     * @return the count
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Get the mean of the values recorded.
+     *
+     * @return the mean latency in nanoseconds, or 0 if no values have been recorded
+     */
+    public double getMean() {
+        long n = count.sum();
+        return (n == 0) ? 0.0 : (double) total.sum() / n;
+    }
+
+    /**
+     * Get the largest value recorded.
+     *
+     * @return the maximum latency in nanoseconds, or 0 if no values have been recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Get an approximate percentile.
+     *
+     * @param percentile the percentile, in the range [0, 100]
+     * @return the upper bound of the bucket containing the percentile, in nanoseconds (limited to
+     *     the maximum recorded value), or 0 if no values have been recorded
+     */
+    public long getPercentile(double percentile) {
+        long n = 0;
+        long[] counts = new long[NUM_BUCKETS];
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            n += counts[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long upper = (i == 0) ? 0 : (i >= 63 ? Long.MAX_VALUE : (1L << i) - 1);
+                return Math.min(upper, getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /** Discard all recorded values. */
+    public void reset() {
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        total.reset();
+        max.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "count=%d mean=%.0fns p50=%dns p99=%dns max=%dns",
+                getCount(), getMean(), getPercentile(50), getPercentile(99), getMax());
+    }
+}
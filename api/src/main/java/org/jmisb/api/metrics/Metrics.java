@@ -0,0 +1,44 @@
+package org.jmisb.api.metrics;
+
+/**
+ * Holder for the {@link IMetricsRecorder} used by the library.
+ *
+ * <p>By default no recorder is installed, and the instrumented code skips the timing measurements.
+ */
+public final class Metrics {
+
+    private static final IMetricsRecorder NO_OP = new IMetricsRecorder() {};
+
+    private static volatile IMetricsRecorder recorder = NO_OP;
+
+    private Metrics() {}
+
+    /**
+     * Install a recorder.
+     *
+     * @param metricsRecorder the recorder, or null to stop recording
+     */
+    public static void setRecorder(IMetricsRecorder metricsRecorder) {
+        recorder = (metricsRecorder == null) ? NO_OP : metricsRecorder;
+    }
+
+    /**
+     * Get the installed recorder.
+     *
+     * @return the recorder, which does nothing if none has been installed
+     */
+    public static IMetricsRecorder getRecorder() {
+        return recorder;
+    }
+
+    /**
+     * Check whether a recorder is installed.
+     *
+     * <p>Instrumented code uses this to avoid measuring times that would not be recorded.
+     *
+     * @return true if a recorder has been installed
+     */
+    public static boolean isEnabled() {
+        return recorder != NO_OP;
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * Instrumentation of parsing and decoding.
+ *
+ * <p>An {@link org.jmisb.api.metrics.IMetricsRecorder} installed with {@link
+ * org.jmisb.api.metrics.Metrics#setRecorder} is notified of parsed messages, invalid data, unknown
+ * tags and video input activity. {@link org.jmisb.api.metrics.CountingMetricsRecorder} keeps
+ * counters and latency histograms in memory, and {@link org.jmisb.api.metrics.JfrMetricsRecorder}
+ * emits JDK Flight Recorder events.
+ */
+package org.jmisb.api.metrics;
@@ -1,19 +1,23 @@
 package org.jmisb.api.video;
 
+import static org.bytedeco.ffmpeg.global.avcodec.AVDISCARD_ALL;
+
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.bytedeco.ffmpeg.avcodec.AVPacket;
 import org.bytedeco.ffmpeg.avformat.AVFormatContext;
 import org.bytedeco.ffmpeg.avformat.AVStream;
 import org.jmisb.core.video.FfmpegUtils;
 
 /** Abstract base class for Demuxers. */
-abstract class Demuxer extends ProcessingThread {
+abstract class Demuxer extends PausableTask {
 
     final AVFormatContext avFormatContext;
-    VideoDecodeThread videoDecodeThread;
-    Map<Integer, MetadataDecodeThread> metadataDecodeThreads = new HashMap<>(3);
+    volatile VideoDecodeThread videoDecodeThread;
+    Map<Integer, MetadataDecodeThread> metadataDecodeThreads = new ConcurrentHashMap<>(3);
+    InputStatisticsCollector statistics = new InputStatisticsCollector();
     int videoStreamIndex;
     List<Integer> dataStreamIndices;
     private final VideoInputOptions options;
@@ -24,25 +28,59 @@ abstract class Demuxer extends ProcessingThread {
     }
 
     void createDecodeThreads(VideoInput videoInput) {
+        statistics = videoInput.statistics;
         videoStreamIndex = FfmpegUtils.getVideoStreamIndex(avFormatContext);
         dataStreamIndices = FfmpegUtils.getDataStreamIndices(avFormatContext);
 
         if (options.isDecodeVideo()) {
             videoDecodeThread =
                     DemuxerUtils.createVideoDecodeThread(
-                            videoStreamIndex, avFormatContext, videoInput);
+                            videoStreamIndex, avFormatContext, videoInput, options);
         }
 
         if (options.isDecodeMetadata()) {
             for (int streamIndex : dataStreamIndices) {
                 AVStream stream = FfmpegUtils.getStreamByIndex(avFormatContext, streamIndex);
                 MetadataDecodeThread metadataDecodeThread =
-                        new MetadataDecodeThread(videoInput, stream);
+                        new MetadataDecodeThread(videoInput, stream, options);
                 metadataDecodeThreads.put(streamIndex, metadataDecodeThread);
             }
         }
     }
 
+    /**
+     * Get the number of packets waiting in each decode thread's queue.
+     *
+     * @return Map of stream index to queue depth
+     */
+    Map<Integer, Integer> getPacketQueueDepths() {
+        Map<Integer, Integer> depths = new HashMap<>();
+        VideoDecodeThread videoThread = videoDecodeThread;
+        if (videoThread != null) {
+            depths.put(videoStreamIndex, videoThread.getQueueDepth());
+        }
+        metadataDecodeThreads.forEach((index, thread) -> depths.put(index, thread.getQueueDepth()));
+        return depths;
+    }
+
+    /**
+     * Discard packets from streams that will not be decoded.
+     *
+     * <p>This is done inside FFmpeg, so the packets are skipped by the container demuxer rather
+     * than being read and then thrown away by {@link #shouldDecode(AVPacket)}.
+     */
+    void discardUnusedStreams() {
+        final int numStreams = FfmpegUtils.getNumStreams(avFormatContext);
+        for (int i = 0; i < numStreams; i++) {
+            boolean used =
+                    (i == videoStreamIndex && options.isDecodeVideo())
+                            || (dataStreamIndices.contains(i) && options.isDecodeMetadata());
+            if (!used) {
+                FfmpegUtils.getStreamByIndex(avFormatContext, i).discard(AVDISCARD_ALL);
+            }
+        }
+    }
+
     boolean shouldDecode(AVPacket packet) {
         boolean shouldDecode = false;
         if (packet.stream_index() == videoStreamIndex && options.isDecodeVideo()) {
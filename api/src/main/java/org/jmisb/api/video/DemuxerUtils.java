@@ -3,9 +3,11 @@ package org.jmisb.api.video;
 import static org.bytedeco.ffmpeg.global.avformat.AVSEEK_FLAG_BACKWARD;
 import static org.bytedeco.ffmpeg.global.avformat.av_guess_frame_rate;
 import static org.bytedeco.ffmpeg.global.avformat.av_read_frame;
+import static org.bytedeco.ffmpeg.global.avformat.av_seek_frame;
 import static org.bytedeco.ffmpeg.global.avformat.avformat_flush;
 import static org.bytedeco.ffmpeg.global.avformat.avformat_seek_file;
 import static org.bytedeco.ffmpeg.global.avutil.AVERROR_EOF;
+import static org.bytedeco.ffmpeg.global.avutil.av_q2d;
 
 import org.bytedeco.ffmpeg.avcodec.AVPacket;
 import org.bytedeco.ffmpeg.avformat.AVFormatContext;
@@ -27,13 +29,18 @@ class DemuxerUtils {
      * @param videoStreamIndex Index of the video stream
      * @param avFormatContext The format context
      * @param inputStream The input stream
+     * @param options The input options
      * @return A new VideoDecodeThread, or null if one could not be created
      */
     static VideoDecodeThread createVideoDecodeThread(
-            int videoStreamIndex, AVFormatContext avFormatContext, VideoInput inputStream) {
+            int videoStreamIndex,
+            AVFormatContext avFormatContext,
+            VideoInput inputStream,
+            VideoInputOptions options) {
         if (videoStreamIndex >= 0) {
             AVStream videoStream = FfmpegUtils.getVideoStream(avFormatContext);
-            VideoDecodeThread videoDecodeThread = new VideoDecodeThread(inputStream, videoStream);
+            VideoDecodeThread videoDecodeThread =
+                    new VideoDecodeThread(inputStream, videoStream, options);
 
             if (logger.isDebugEnabled()) {
                 AVRational frameRate = av_guess_frame_rate(avFormatContext, videoStream, null);
@@ -94,4 +101,27 @@ class DemuxerUtils {
         }
         avformat_flush(avFormatContext);
     }
+
+    /**
+     * Seek to the specified position on a single stream.
+     *
+     * <p>Used when the file has no video stream to seek on, e.g. in metadata extraction mode where
+     * all other streams are discarded. The position is converted to the stream's time base.
+     *
+     * @param avFormatContext The format context
+     * @param streamIndex Index of the stream to seek on
+     * @param seekPosition The position, in seconds
+     */
+    static void seek(AVFormatContext avFormatContext, int streamIndex, double seekPosition) {
+        AVStream stream = avFormatContext.streams(streamIndex);
+        long timestamp = Math.round(seekPosition / av_q2d(stream.time_base()));
+        if (logger.isDebugEnabled()) {
+            logger.debug("Seeking stream " + streamIndex + " to " + timestamp);
+        }
+
+        if (av_seek_frame(avFormatContext, streamIndex, timestamp, AVSEEK_FLAG_BACKWARD) < 0) {
+            logger.error("Error seeking to " + seekPosition);
+        }
+        avformat_flush(avFormatContext);
+    }
 }
@@ -14,11 +14,14 @@ class FileDemuxer extends Demuxer {
 
     private static Logger logger = LoggerFactory.getLogger(FileDemuxer.class);
     private final VideoInput inputStream;
+    private final boolean metadataExtraction;
 
     private double videoFrameRate;
 
-    private boolean seekRequested = false;
-    private double seekPosition;
+    private final Object seekLock = new Object();
+    private volatile boolean seekRequested = false;
+    private volatile double seekPosition;
+    private boolean exited = false;
 
     FileDemuxer(
             VideoInput inputStream,
@@ -26,6 +29,7 @@ class FileDemuxer extends Demuxer {
             VideoFileInputOptions options) {
         super(avFormatContext, options);
         this.inputStream = inputStream;
+        this.metadataExtraction = options.isMetadataExtraction();
     }
 
     @Override
@@ -33,10 +37,14 @@ class FileDemuxer extends Demuxer {
         Thread.currentThread().setName("Demuxer - " + inputStream.getUrl());
         logger.debug("Starting file demuxer for " + inputStream.getUrl());
 
-        videoFrameRate = FfmpegUtils.getFrameRate(avFormatContext);
-
         createDecodeThreads(inputStream);
 
+        if (metadataExtraction) {
+            discardUnusedStreams();
+        } else {
+            videoFrameRate = FfmpegUtils.getFrameRate(avFormatContext);
+        }
+
         AVPacket packet = new AVPacket();
         while (!isShutdown()) {
             // If paused, sleep until play() or shutdown() is called
@@ -59,8 +67,12 @@ class FileDemuxer extends Demuxer {
                     }
                 }
 
-                // Perform the seek
-                DemuxerUtils.seek(avFormatContext, seekPosition);
+                // Perform the seek; only the KLV streams are read when extracting metadata
+                if (metadataExtraction && !dataStreamIndices.isEmpty()) {
+                    DemuxerUtils.seek(avFormatContext, dataStreamIndices.get(0), seekPosition);
+                } else {
+                    DemuxerUtils.seek(avFormatContext, seekPosition);
+                }
 
                 // Reset the decoders
                 if (videoDecodeThread != null) {
@@ -80,7 +92,10 @@ class FileDemuxer extends Demuxer {
                         metadataDecodeThread.play();
                     }
                 }
-                seekRequested = false;
+                synchronized (seekLock) {
+                    seekRequested = false;
+                    seekLock.notifyAll();
+                }
             }
 
             // Read a packet from the stream
@@ -99,6 +114,7 @@ class FileDemuxer extends Demuxer {
                 shortWait(10);
                 continue;
             }
+            statistics.packetDemuxed(packet.stream_index());
 
             // double pts = packet.pts() *
             // av_q2d(avFormatContext.streams(packet.stream_index()).time_base());
@@ -123,6 +139,12 @@ class FileDemuxer extends Demuxer {
 
         // Clean up resources
         shutdownThreads();
+
+        // Release any thread waiting for a seek that will not happen
+        synchronized (seekLock) {
+            exited = true;
+            seekLock.notifyAll();
+        }
     }
 
     @Override
@@ -152,16 +174,18 @@ class FileDemuxer extends Demuxer {
     }
 
     void seek(double position) {
-        // Notify our thread that a seek has been requested
-        seekRequested = true;
-        seekPosition = position;
+        synchronized (seekLock) {
+            // Notify our thread that a seek has been requested
+            seekPosition = position;
+            seekRequested = true;
 
-        // Block until seek has been performed
-        // TODO: this seems potentially dangerous
-        while (seekRequested) {
+            // Block until seek has been performed, or the demuxer has exited
             try {
-                Thread.sleep(10);
-            } catch (InterruptedException ignored) {
+                while (seekRequested && !exited) {
+                    seekLock.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
         }
     }
@@ -0,0 +1,89 @@
+package org.jmisb.api.video;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Pool of image buffers for decoded video frames.
+ *
+ * <p>All images in the pool have the same dimensions. Requesting a different size discards the idle
+ * images, so that a change in stream resolution does not leave stale buffers behind.
+ *
+ * <p>The pool does not limit the number of images in use: if none are idle, a new image is
+ * allocated. At most {@code capacity} idle images are kept for re-use; any more are left to the
+ * garbage collector.
+ */
+class FramePool {
+    private final int capacity;
+    private final Deque<BufferedImage> idle = new ArrayDeque<>();
+    private int width;
+    private int height;
+    private long allocated;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity The maximum number of idle images to keep
+     */
+    FramePool(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Get a frame backed by a pooled image.
+     *
+     * <p>The image content is undefined, and is expected to be overwritten by the caller.
+     *
+     * @param width The image width
+     * @param height The image height
+     * @param pts The presentation timestamp, in seconds
+     * @return A frame holding one reference
+     */
+    VideoFrame acquire(int width, int height, double pts) {
+        return new VideoFrame(acquireImage(width, height), pts, this);
+    }
+
+    private synchronized BufferedImage acquireImage(int width, int height) {
+        if (width != this.width || height != this.height) {
+            idle.clear();
+            this.width = width;
+            this.height = height;
+        }
+        BufferedImage image = idle.pollFirst();
+        if (image == null) {
+            allocated++;
+            image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        }
+        return image;
+    }
+
+    /**
+     * Return an image to the pool.
+     *
+     * @param image The image, which must no longer be used by the caller
+     */
+    synchronized void recycle(BufferedImage image) {
+        if (image.getWidth() == width && image.getHeight() == height && idle.size() < capacity) {
+            idle.addFirst(image);
+        }
+    }
+
+    /**
+     * Get the number of idle images.
+     *
+     * @return The number of images available for re-use
+     */
+    synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Get the total number of images allocated by the pool.
+     *
+     * @return The number of allocations
+     */
+    synchronized long getAllocatedCount() {
+        return allocated;
+    }
+}
@@ -47,6 +47,10 @@ public interface IVideoFileInput extends IVideoInput {
     /**
      * Seek to a specified position in the file.
      *
+     * <p>In metadata extraction mode (see {@link
+     * VideoFileInputOptions#setMetadataExtraction(boolean)}) the seek is performed on the metadata
+     * stream, so delivery resumes from the KLV packet at or before the requested position.
+     *
      * @param position The desired position, in seconds
      */
     void seek(double position);
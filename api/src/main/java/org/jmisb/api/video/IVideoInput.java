@@ -42,6 +42,16 @@ public interface IVideoInput extends AutoCloseable {
      */
     List<PesInfo> getPesInfo();
 
+    /**
+     * Get statistics for the input.
+     *
+     * <p>This takes a snapshot of the counters and queue depths, and is cheap enough to call
+     * periodically (e.g. once a second) to monitor a live stream.
+     *
+     * @return The input statistics
+     */
+    InputStatistics getStatistics();
+
     /**
      * Add a video frame listener.
      *
@@ -5,6 +5,10 @@ public interface IVideoListener {
     /**
      * Notification that a video frame has been received.
      *
+     * <p>If the frame is reference counted (see {@link VideoFrame#isReferenceCounted()}), its image
+     * or planes are only valid until this method returns, unless the listener calls {@link
+     * VideoFrame#retain()}.
+     *
      * @param image The video frame
      */
     void onVideoReceived(VideoFrame image);
@@ -0,0 +1,242 @@
+package org.jmisb.api.video;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Statistics reported by {@link VideoInput}.
+ *
+ * <p>This is a snapshot taken by {@link IVideoInput#getStatistics()}, so values do not change after
+ * it is returned. Counts are totals since the input was opened.
+ */
+public class InputStatistics {
+    private final Map<Integer, Long> packetsDemuxed;
+    private final long numVideoFramesDecoded;
+    private final long numVideoFramesDropped;
+    private final long numVideoDecodeErrors;
+    private final long numMetadataMessagesParsed;
+    private final long numMetadataMessagesFailed;
+    private final int videoQueueDepth;
+    private final int metadataQueueDepth;
+    private final Map<Integer, Integer> packetQueueDepths;
+    private final double metadataInterArrivalMean;
+    private final double metadataInterArrivalJitter;
+    private final double metadataInterArrivalMax;
+    private final long numMetadataGaps;
+    private final double timeSinceLastMetadata;
+
+    InputStatistics(
+            Map<Integer, Long> packetsDemuxed,
+            long numVideoFramesDecoded,
+            long numVideoFramesDropped,
+            long numVideoDecodeErrors,
+            long numMetadataMessagesParsed,
+            long numMetadataMessagesFailed,
+            int videoQueueDepth,
+            int metadataQueueDepth,
+            Map<Integer, Integer> packetQueueDepths,
+            double metadataInterArrivalMean,
+            double metadataInterArrivalJitter,
+            double metadataInterArrivalMax,
+            long numMetadataGaps,
+            double timeSinceLastMetadata) {
+        this.packetsDemuxed = Collections.unmodifiableMap(packetsDemuxed);
+        this.numVideoFramesDecoded = numVideoFramesDecoded;
+        this.numVideoFramesDropped = numVideoFramesDropped;
+        this.numVideoDecodeErrors = numVideoDecodeErrors;
+        this.numMetadataMessagesParsed = numMetadataMessagesParsed;
+        this.numMetadataMessagesFailed = numMetadataMessagesFailed;
+        this.videoQueueDepth = videoQueueDepth;
+        this.metadataQueueDepth = metadataQueueDepth;
+        this.packetQueueDepths = Collections.unmodifiableMap(packetQueueDepths);
+        this.metadataInterArrivalMean = metadataInterArrivalMean;
+        this.metadataInterArrivalJitter = metadataInterArrivalJitter;
+        this.metadataInterArrivalMax = metadataInterArrivalMax;
+        this.numMetadataGaps = numMetadataGaps;
+        this.timeSinceLastMetadata = timeSinceLastMetadata;
+    }
+
+    /**
+     * Get the number of packets demuxed from each stream.
+     *
+     * <p>This includes packets from streams that are not being decoded.
+     *
+     * @return Map of stream index to the number of packets
+     */
+    public Map<Integer, Long> getPacketsDemuxed() {
+        return packetsDemuxed;
+    }
+
+    /**
+     * Get the total number of packets demuxed.
+     *
+     * @return The number of packets, from all streams
+     */
+    public long getNumPacketsDemuxed() {
+        long total = 0;
+        for (long count : packetsDemuxed.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Get the number of video frames decoded.
+     *
+     * @return The number of video frames
+     */
+    public long getNumVideoFramesDecoded() {
+        return numVideoFramesDecoded;
+    }
+
+    /**
+     * Get the number of decoded video frames that were discarded.
+     *
+     * <p>Frames are discarded when the input is paused or closed before they could be queued for
+     * the listeners.
+     *
+     * @return The number of video frames
+     */
+    public long getNumVideoFramesDropped() {
+        return numVideoFramesDropped;
+    }
+
+    /**
+     * Get the number of errors reported by the video decoder.
+     *
+     * <p>These usually indicate corrupt or missing packets.
+     *
+     * @return The number of errors
+     */
+    public long getNumVideoDecodeErrors() {
+        return numVideoDecodeErrors;
+    }
+
+    /**
+     * Get the number of KLV messages parsed from the metadata streams.
+     *
+     * @return The number of messages
+     */
+    public long getNumMetadataMessagesParsed() {
+        return numMetadataMessagesParsed;
+    }
+
+    /**
+     * Get the number of KLV messages that failed to parse.
+     *
+     * @return The number of messages
+     */
+    public long getNumMetadataMessagesFailed() {
+        return numMetadataMessagesFailed;
+    }
+
+    /**
+     * Get the number of decoded video frames waiting to be sent to the listeners.
+     *
+     * @return The number of video frames queued
+     */
+    public int getVideoQueueDepth() {
+        return videoQueueDepth;
+    }
+
+    /**
+     * Get the number of metadata frames waiting to be sent to the listeners.
+     *
+     * @return The number of metadata frames queued
+     */
+    public int getMetadataQueueDepth() {
+        return metadataQueueDepth;
+    }
+
+    /**
+     * Get the number of packets waiting to be decoded, for each decoded stream.
+     *
+     * @return Map of stream index to the number of packets queued
+     */
+    public Map<Integer, Integer> getPacketQueueDepths() {
+        return packetQueueDepths;
+    }
+
+    /**
+     * Get the mean interval between KLV messages.
+     *
+     * <p>This is a moving average of the wall clock time between messages being parsed, weighted
+     * towards recent messages. Messages completed by the same packet count as a single arrival.
+     *
+     * @return The mean interval in seconds, or 0 if fewer than two messages have been parsed
+     */
+    public double getMetadataInterArrivalMean() {
+        return metadataInterArrivalMean;
+    }
+
+    /**
+     * Get the jitter of the interval between KLV messages.
+     *
+     * <p>This is a moving average of the change between successive intervals, computed in the same
+     * way as the RTP interarrival jitter (RFC 3550).
+     *
+     * @return The jitter in seconds
+     */
+    public double getMetadataInterArrivalJitter() {
+        return metadataInterArrivalJitter;
+    }
+
+    /**
+     * Get the longest interval between KLV messages.
+     *
+     * @return The longest interval in seconds
+     */
+    public double getMetadataInterArrivalMax() {
+        return metadataInterArrivalMax;
+    }
+
+    /**
+     * Get the number of gaps in the KLV messages.
+     *
+     * <p>A gap is an interval more than three times the mean interval before it.
+     *
+     * @return The number of gaps
+     */
+    public long getNumMetadataGaps() {
+        return numMetadataGaps;
+    }
+
+    /**
+     * Get the time since the last KLV message was parsed.
+     *
+     * @return The time in seconds, or a negative value if no messages have been parsed
+     */
+    public double getTimeSinceLastMetadata() {
+        return timeSinceLastMetadata;
+    }
+
+    @Override
+    public String toString() {
+        return "packets = "
+                + getNumPacketsDemuxed()
+                + ", video = ("
+                + numVideoFramesDecoded
+                + "/"
+                + numVideoFramesDropped
+                + "/"
+                + numVideoDecodeErrors
+                + "), metadata = ("
+                + numMetadataMessagesParsed
+                + "/"
+                + numMetadataMessagesFailed
+                + "), queues = ("
+                + videoQueueDepth
+                + "/"
+                + metadataQueueDepth
+                + "/"
+                + packetQueueDepths
+                + "), klv interval = ("
+                + String.format(
+                        "%.3f/%.3f/%.3f",
+                        metadataInterArrivalMean,
+                        metadataInterArrivalJitter,
+                        metadataInterArrivalMax)
+                + "), gaps = "
+                + numMetadataGaps;
+    }
+}
@@ -0,0 +1,133 @@
+package org.jmisb.api.video;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the counters for {@link InputStatistics}.
+ *
+ * <p>The counters are updated by the demuxer and decode threads, so this class is thread safe.
+ */
+class InputStatisticsCollector {
+    /** Gap threshold, as a multiple of the mean interval. */
+    private static final double GAP_FACTOR = 3.0;
+
+    /** Gain of the moving averages, as in RFC 3550. */
+    private static final double GAIN = 1.0 / 16.0;
+
+    private final ConcurrentMap<Integer, LongAdder> packetsDemuxed = new ConcurrentHashMap<>();
+    private final LongAdder videoFramesDecoded = new LongAdder();
+    private final LongAdder videoFramesDropped = new LongAdder();
+    private final LongAdder videoDecodeErrors = new LongAdder();
+    private final LongAdder metadataMessagesParsed = new LongAdder();
+    private final LongAdder metadataMessagesFailed = new LongAdder();
+
+    // Metadata arrival statistics, guarded by this
+    private boolean anyArrived;
+    private long lastArrivalNanos;
+    private double previousInterval = -1.0;
+    private double meanInterval;
+    private double jitter;
+    private double maxInterval;
+    private long gaps;
+
+    void packetDemuxed(int streamIndex) {
+        packetsDemuxed.computeIfAbsent(streamIndex, k -> new LongAdder()).increment();
+    }
+
+    void videoFrameDecoded() {
+        videoFramesDecoded.increment();
+    }
+
+    void videoFrameDropped() {
+        videoFramesDropped.increment();
+    }
+
+    void videoDecodeError() {
+        videoDecodeErrors.increment();
+    }
+
+    void metadataMessagesParsed(long count) {
+        metadataMessagesParsed.add(count);
+    }
+
+    void metadataMessagesFailed(long count) {
+        metadataMessagesFailed.add(count);
+    }
+
+    /**
+     * Record the arrival of KLV metadata.
+     *
+     * <p>This is called once per packet that completes one or more messages, so that messages
+     * carried in the same packet do not appear as near-zero intervals.
+     *
+     * @param nanos The arrival time, from {@link System#nanoTime()}
+     */
+    synchronized void metadataArrived(long nanos) {
+        if (anyArrived) {
+            double interval = (nanos - lastArrivalNanos) * 1.0e-9;
+            if (previousInterval < 0) {
+                meanInterval = interval;
+            } else {
+                if (interval > GAP_FACTOR * meanInterval) {
+                    gaps++;
+                }
+                jitter += (Math.abs(interval - previousInterval) - jitter) * GAIN;
+                meanInterval += (interval - meanInterval) * GAIN;
+            }
+            maxInterval = Math.max(maxInterval, interval);
+            previousInterval = interval;
+        }
+        lastArrivalNanos = nanos;
+        anyArrived = true;
+    }
+
+    /** Reset all counters, when the input is (re-)opened. */
+    synchronized void reset() {
+        packetsDemuxed.clear();
+        videoFramesDecoded.reset();
+        videoFramesDropped.reset();
+        videoDecodeErrors.reset();
+        metadataMessagesParsed.reset();
+        metadataMessagesFailed.reset();
+        anyArrived = false;
+        previousInterval = -1.0;
+        meanInterval = 0;
+        jitter = 0;
+        maxInterval = 0;
+        gaps = 0;
+    }
+
+    /**
+     * Take a snapshot of the statistics.
+     *
+     * @param videoQueueDepth The number of decoded video frames queued
+     * @param metadataQueueDepth The number of metadata frames queued
+     * @param packetQueueDepths The packet queue depth for each decoded stream
+     * @return The statistics
+     */
+    synchronized InputStatistics snapshot(
+            int videoQueueDepth, int metadataQueueDepth, Map<Integer, Integer> packetQueueDepths) {
+        Map<Integer, Long> packets = new HashMap<>();
+        packetsDemuxed.forEach((index, count) -> packets.put(index, count.sum()));
+        double sinceLast = anyArrived ? (System.nanoTime() - lastArrivalNanos) * 1.0e-9 : -1.0;
+        return new InputStatistics(
+                packets,
+                videoFramesDecoded.sum(),
+                videoFramesDropped.sum(),
+                videoDecodeErrors.sum(),
+                metadataMessagesParsed.sum(),
+                metadataMessagesFailed.sum(),
+                videoQueueDepth,
+                metadataQueueDepth,
+                packetQueueDepths,
+                meanInterval,
+                jitter,
+                maxInterval,
+                gaps,
+                sinceLast);
+    }
+}
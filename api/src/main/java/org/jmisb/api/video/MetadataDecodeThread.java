@@ -6,17 +6,31 @@ import static org.bytedeco.ffmpeg.global.avcodec.avcodec_free_context;
 import static org.bytedeco.ffmpeg.global.avcodec.avcodec_parameters_to_context;
 import static org.bytedeco.ffmpeg.global.avutil.av_q2d;
 
-import java.util.List;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.bytedeco.ffmpeg.avcodec.AVCodecContext;
 import org.bytedeco.ffmpeg.avcodec.AVPacket;
 import org.bytedeco.ffmpeg.avformat.AVStream;
+import org.bytedeco.javacpp.Pointer;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
 import org.jmisb.api.klv.IMisbMessage;
-import org.jmisb.api.klv.KlvParser;
-import org.jmisb.core.klv.ArrayUtils;
+import org.jmisb.api.klv.KlvStreamParser;
+import org.jmisb.api.klv.MisbMessageFactory;
+import org.jmisb.api.metrics.Metrics;
 import org.jmisb.core.video.FfmpegUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,24 +39,88 @@ import org.slf4j.LoggerFactory;
  * Metadata decoding thread.
  *
  * <p>This thread decodes KLV metadata and sends {@link IMisbMessage}s up to the {@link VideoInput}.
+ *
+ * <p>If {@link VideoInputOptions#getMetadataDecodeExecutor()} is set, or {@link
+ * VideoInputOptions#getMetadataDecodeThreads()} is greater than 1, this thread only frames the
+ * messages, and decoding is done on the executor or a pool of worker threads. Decoded messages are
+ * sent up in the order they were framed, so the PTS order is preserved.
+ *
+ * <p>Messages are decoded in the {@link ParseContext} of this thread, wherever the decoding runs.
+ * This thread does not enter a context, so invalid data is handled by the {@link
+ * org.jmisb.api.common.InvalidDataHandler} singleton.
  */
-class MetadataDecodeThread extends ProcessingThread {
+class MetadataDecodeThread extends PausableTask {
     private static Logger logger = LoggerFactory.getLogger(MetadataDecodeThread.class);
     private static final int INPUT_QUEUE_SIZE = 100;
     private final VideoInput inputStream;
     private final AVStream dataStream;
     private BlockingQueue<AVPacket> packetQueue = new LinkedBlockingDeque<>(INPUT_QUEUE_SIZE);
 
+    /** Marker added to {@link #packetQueue} to wake this thread, which is not a real packet. */
+    private static final AVPacket WAKE_UP = new AVPacket((Pointer) null);
+
+    /** Reassembles messages that are split across (or combined within) packets. */
+    private final KlvStreamParser klvParser;
+
+    /** Executor for decoding framed messages, or null to decode on this thread. */
+    private final Executor decodeExecutor;
+
+    /**
+     * Worker threads created for {@link #decodeExecutor}, or null if it is not ours to shut down.
+     */
+    private final ExecutorService decodePool;
+
+    /** Maximum size of {@link #pending}. */
+    private final int maxPending;
+
+    /** Messages submitted to the decode pool, in the order they were framed. */
+    private final Deque<PendingMessage> pending = new ArrayDeque<>();
+
+    /** PTS of the packet currently being parsed. */
+    private double currentPts;
+
+    /** Number of parse failures already reported to the input statistics. */
+    private long reportedFailures;
+
     /**
      * Constructor.
      *
      * @param inputStream The {@link VideoInput}
      * @param dataStream The metadata stream
+     * @param options The input options, which specify how to decode the metadata
      */
-    MetadataDecodeThread(VideoInput inputStream, AVStream dataStream) {
+    MetadataDecodeThread(VideoInput inputStream, AVStream dataStream, VideoInputOptions options) {
         this.inputStream = inputStream;
         this.dataStream = dataStream;
-        start();
+        this.maxPending = options.getMaxPendingMetadataMessages();
+        if (options.getMetadataDecodeExecutor() != null) {
+            decodeExecutor = options.getMetadataDecodeExecutor();
+            decodePool = null;
+        } else if (options.getMetadataDecodeThreads() > 1) {
+            String name = "MetadataDecodeWorker - " + inputStream.getUrl() + " - ";
+            AtomicInteger count = new AtomicInteger();
+            decodePool =
+                    Executors.newFixedThreadPool(
+                            options.getMetadataDecodeThreads(),
+                            runnable -> {
+                                Thread thread =
+                                        new Thread(runnable, name + count.incrementAndGet());
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+            decodeExecutor = decodePool;
+        } else {
+            decodeExecutor = null;
+            decodePool = null;
+        }
+        if (decodeExecutor != null) {
+            klvParser =
+                    KlvStreamParser.forFrames(
+                            this::submitFrame, KlvStreamParser.DEFAULT_MAX_MESSAGE_LENGTH);
+        } else {
+            klvParser = new KlvStreamParser(this::queueMessage);
+        }
+        start(options.getExecutor());
     }
 
     /**
@@ -59,19 +137,42 @@ class MetadataDecodeThread extends ProcessingThread {
         }
     }
 
+    @Override
+    protected void wakeUp() {
+        // If the queue is not empty, the thread is not blocked on it anyway
+        if (packetQueue.isEmpty() && !packetQueue.offer(WAKE_UP)) {
+            logger.debug("Packet queue filled while waking decoder");
+        }
+    }
+
+    /**
+     * Get the number of packets waiting to be decoded.
+     *
+     * @return The queue depth
+     */
+    int getQueueDepth() {
+        return packetQueue.size();
+    }
+
     public void clear() {
         // Clear out our input queue
         packetQueue.clear();
+        // Discard any partial message, since the stream will no longer be continuous
+        klvParser.reset();
+        // Discard any messages still being decoded
+        synchronized (pending) {
+            for (PendingMessage message : pending) {
+                message.future.cancel(false);
+            }
+            pending.clear();
+        }
     }
 
     @Override
     public void run() {
-        Thread.currentThread()
-                .setName(
-                        "MetadataDecodeThread - "
-                                + inputStream.getUrl()
-                                + " - "
-                                + dataStream.index());
+        String threadName =
+                "MetadataDecodeThread - " + inputStream.getUrl() + " - " + dataStream.index();
+        Thread.currentThread().setName(threadName);
 
         AVCodecContext codecContext = avcodec_alloc_context3(null);
         int ret;
@@ -95,45 +196,214 @@ class MetadataDecodeThread extends ProcessingThread {
             }
 
             try {
-                AVPacket packet = packetQueue.poll(10, TimeUnit.MILLISECONDS);
-                if (packet != null) {
-                    double pts = packet.pts() * av_q2d(dataStream.time_base());
-                    // logger.debug("Data PTS = " + pts);
-
-                    byte[] data = new byte[packet.size()];
-                    packet.data().get(data);
-
-                    try {
-                        List<IMisbMessage> messages = KlvParser.parseBytes(data);
-                        for (IMisbMessage message : messages) {
-                            boolean queued = false;
-                            while (!queued && !isShutdown() && !isPauseRequested()) {
-                                queued =
-                                        inputStream.queueMetadataFrame(
-                                                new MetadataFrame(message, pts), 20);
-                            }
-                            if (isShutdown() || isPauseRequested()) break;
-                        }
-                    } catch (KlvParseException exception) {
-                        logger.error("KLV parse exception", exception);
-                        if (logger.isDebugEnabled()) {
-                            logger.debug(ArrayUtils.toHexString(data));
-                        }
+                AVPacket packet = packetQueue.take();
+                if (packet != WAKE_UP) {
+                    currentPts = packet.pts() * av_q2d(dataStream.time_base());
+                    // logger.debug("Data PTS = " + currentPts);
+
+                    long arrival = System.nanoTime();
+                    long messages = klvParser.getMessageCount();
+                    if (Metrics.isEnabled()) {
+                        Metrics.getRecorder().packetQueueDepth(threadName, packetQueue.size());
+                        klvParser.feed(packet.data().capacity(packet.size()).asByteBuffer());
+                        Metrics.getRecorder()
+                                .metadataPacketDecoded(
+                                        threadName, packet.size(), System.nanoTime() - arrival);
+                    } else {
+                        klvParser.feed(packet.data().capacity(packet.size()).asByteBuffer());
                     }
+                    // Messages completed by the same packet arrive together, so count once
+                    if (klvParser.getMessageCount() != messages) {
+                        inputStream.statistics.metadataArrived(arrival);
+                    }
+                    long failures = klvParser.getFailedMessageCount();
+                    if (failures != reportedFailures) {
+                        inputStream.statistics.metadataMessagesFailed(failures - reportedFailures);
+                        reportedFailures = failures;
+                    }
+                }
+                if (decodeExecutor != null) {
+                    emitDecoded(false);
                 }
             } catch (InterruptedException ignored) {
             }
         }
 
+        if (decodePool != null) {
+            decodePool.shutdownNow();
+        } else if (decodeExecutor != null) {
+            // Not ours to shut down, so just stop anything still waiting to decode
+            clear();
+        }
+
         if (logger.isDebugEnabled()) logger.debug("Data stream decoder exiting");
 
         avcodec_free_context(codecContext);
     }
 
+    /**
+     * Pass a parsed message up to the {@link VideoInput}.
+     *
+     * @param message The message, which is assigned the PTS of the packet that completed it
+     */
+    private void queueMessage(IMisbMessage message) {
+        inputStream.statistics.metadataMessagesParsed(1);
+        queueMessage(message, currentPts);
+    }
+
+    /**
+     * Pass a decoded message up to the {@link VideoInput}.
+     *
+     * @param message The message
+     * @param pts The PTS of the packet that completed the message
+     */
+    private void queueMessage(IMisbMessage message, double pts) {
+        boolean queued = false;
+        while (!queued && !isShutdown() && !isPauseRequested()) {
+            queued = inputStream.queueMetadataFrame(new MetadataFrame(message, pts), 20);
+        }
+    }
+
+    /**
+     * Submit a framed message to the decode pool.
+     *
+     * <p>If the maximum number of messages are already pending, this waits for the oldest one to be
+     * decoded and sent up first.
+     *
+     * @param frame The complete message, which is assigned the PTS of the packet that completed it
+     */
+    private void submitFrame(byte[] frame) {
+        while (pendingCount() >= maxPending && !isShutdown()) {
+            emitDecoded(true);
+        }
+        // Decode in the same context as on this thread. A worker could otherwise be running a task
+        // for a caller's parse (e.g. a ForkJoinPool worker helping to join), and so use its
+        // context.
+        ParseContext context = ParseContext.current();
+        // Let this thread pass the message on once the result is available
+        DecodeTask future = new DecodeTask(() -> decode(frame, context), this::wakeUp);
+        synchronized (pending) {
+            pending.addLast(new PendingMessage(currentPts, future));
+        }
+        try {
+            decodeExecutor.execute(future);
+        } catch (RejectedExecutionException e) {
+            logger.error("Metadata decode executor rejected message", e);
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Send decoded messages up to the {@link VideoInput}, in the order they were framed.
+     *
+     * @param waitForOldest True to wait (briefly) for the oldest message to finish decoding
+     */
+    private void emitDecoded(boolean waitForOldest) {
+        while (true) {
+            PendingMessage oldest;
+            synchronized (pending) {
+                oldest = pending.peekFirst();
+            }
+            if (oldest == null) {
+                return;
+            }
+            IMisbMessage message;
+            try {
+                if (waitForOldest) {
+                    message = oldest.future.get(10, TimeUnit.MILLISECONDS);
+                } else if (oldest.future.isDone()) {
+                    message = oldest.future.get();
+                } else {
+                    return;
+                }
+            } catch (TimeoutException | InterruptedException e) {
+                return;
+            } catch (ExecutionException | RuntimeException e) {
+                // Cancelled by clear(), or failed unexpectedly
+                message = null;
+            }
+            synchronized (pending) {
+                if (pending.peekFirst() != oldest) {
+                    // Discarded by clear() while we were waiting
+                    return;
+                }
+                pending.removeFirst();
+            }
+            if (message != null) {
+                queueMessage(message, oldest.pts);
+            }
+            waitForOldest = false;
+        }
+    }
+
+    private int pendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Decode a framed message.
+     *
+     * @param frame The complete message
+     * @param context The context to handle invalid data with
+     * @return The decoded message, or null if it could not be decoded
+     */
+    private IMisbMessage decode(byte[] frame, ParseContext context) {
+        try {
+            IMisbMessage message =
+                    context.parse(() -> MisbMessageFactory.getInstance().handleMessage(frame));
+            inputStream.statistics.metadataMessagesParsed(1);
+            return message;
+        } catch (KlvParseException | IllegalArgumentException ex) {
+            logger.error("KLV parse exception", ex);
+            inputStream.statistics.metadataMessagesFailed(1);
+            return null;
+        }
+    }
+
     public void notifyEOF() {
         if (inputStream instanceof IVideoFileInput) {
             IVideoFileInput fileInputStream = (IVideoFileInput) inputStream;
             fileInputStream.notifyEOF();
         }
     }
+
+    /**
+     * Decoding of a framed message, which signals when the result is available.
+     *
+     * <p>The signal is sent from {@link #done()}, after the result has been set, so a thread woken
+     * by it always sees the task as done. Signalling from within the decoding itself would race
+     * with setting the result, and could leave the last message of a stream undelivered.
+     */
+    static final class DecodeTask extends FutureTask<IMisbMessage> {
+        private final Runnable onDone;
+
+        /**
+         * Constructor.
+         *
+         * @param decoder decodes the message
+         * @param onDone called once the task has completed, failed or been cancelled
+         */
+        DecodeTask(Callable<IMisbMessage> decoder, Runnable onDone) {
+            super(decoder);
+            this.onDone = onDone;
+        }
+
+        @Override
+        protected void done() {
+            onDone.run();
+        }
+    }
+
+    /** A message that has been submitted for decoding. */
+    private static class PendingMessage {
+        private final double pts;
+        private final Future<IMisbMessage> future;
+
+        PendingMessage(double pts, Future<IMisbMessage> future) {
+            this.pts = pts;
+            this.future = future;
+        }
+    }
 }
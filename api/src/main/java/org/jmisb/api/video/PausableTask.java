@@ -0,0 +1,124 @@
+package org.jmisb.api.video;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Processing task allowing itself to be paused and unpaused.
+ *
+ * <p>Subclasses that block waiting for input should override {@link #wakeUp()}, so that pause and
+ * shutdown requests are noticed without polling.
+ *
+ * <p>Waiting uses a {@link Lock} rather than an object monitor, so that a paused task running on a
+ * virtual thread does not hold on to its carrier thread.
+ */
+abstract class PausableTask extends ProcessingTask {
+    private static final long EXIT_CHECK_MILLIS = 100;
+    private final Lock pauseLock = new ReentrantLock();
+    private final Condition pauseChanged = pauseLock.newCondition();
+    private volatile boolean shutdown = false;
+    private volatile boolean paused = false;
+    private volatile boolean pauseRequested = false;
+
+    /**
+     * Pause if requested and check whether to shut down.
+     *
+     * @return True if the task should shut down
+     */
+    protected boolean pauseOrResume() {
+        pauseLock.lock();
+        try {
+            if (shutdown) return true;
+            if (pauseRequested) {
+                paused = true;
+                // Release any thread waiting in pause()
+                pauseChanged.signalAll();
+                try {
+                    while (pauseRequested && !shutdown) {
+                        pauseChanged.await();
+                    }
+                } catch (InterruptedException e) {
+                    return true;
+                } finally {
+                    paused = false;
+                }
+
+                if (shutdown) return true;
+            }
+        } finally {
+            pauseLock.unlock();
+        }
+        return false;
+    }
+
+    protected void shutdown() {
+        shutdown = true;
+        wakeUp();
+        play(); // to unblock
+    }
+
+    protected boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Pause the task.
+     *
+     * <p>This method blocks until the task is paused (or shut down).
+     */
+    protected void pause() {
+        requestPause();
+        pauseLock.lock();
+        try {
+            while (!paused && pauseRequested && !shutdown && isAlive()) {
+                // Signalled by pauseOrResume(); the timeout only guards against the task having
+                // exited without shutdown() being called
+                if (!pauseChanged.await(EXIT_CHECK_MILLIS, TimeUnit.MILLISECONDS) && !isAlive()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+
+    protected boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Request the task be paused.
+     *
+     * <p>This is a non-blocking call.
+     */
+    protected void requestPause() {
+        pauseRequested = true;
+        wakeUp();
+    }
+
+    protected boolean isPauseRequested() {
+        return pauseRequested;
+    }
+
+    protected void play() {
+        pauseLock.lock();
+        try {
+            pauseRequested = false;
+            pauseChanged.signalAll();
+        } finally {
+            pauseLock.unlock();
+        }
+    }
+
+    /**
+     * Wake the task if it is blocked waiting for input.
+     *
+     * <p>Called when a pause or shutdown is requested, so the task can act on it. The default
+     * implementation does nothing.
+     */
+    protected void wakeUp() {}
+}
@@ -0,0 +1,50 @@
+package org.jmisb.api.video;
+
+import static org.bytedeco.ffmpeg.global.avutil.AV_PIX_FMT_BGR24;
+import static org.bytedeco.ffmpeg.global.avutil.AV_PIX_FMT_GRAY8;
+import static org.bytedeco.ffmpeg.global.avutil.AV_PIX_FMT_NONE;
+import static org.bytedeco.ffmpeg.global.avutil.AV_PIX_FMT_NV12;
+import static org.bytedeco.ffmpeg.global.avutil.AV_PIX_FMT_YUV420P;
+
+/**
+ * Pixel format of decoded video frames.
+ *
+ * <p>With {@link #BGR24} (the default), frames are delivered as a {@link
+ * java.awt.image.BufferedImage}. With any other format, frames are delivered as planes of native
+ * memory (see {@link VideoFrame#getPlane(int)}), avoiding the copy into the Java heap.
+ */
+public enum PixelFormat {
+    /**
+     * The format produced by the decoder, without conversion.
+     *
+     * <p>This is typically YUV420P for H.264 and H.265 streams, but depends on the stream.
+     */
+    NATIVE(AV_PIX_FMT_NONE),
+
+    /** Packed 24-bit BGR, delivered as a {@code BufferedImage}. */
+    BGR24(AV_PIX_FMT_BGR24),
+
+    /** 8-bit luma (Y) only. */
+    GRAY8(AV_PIX_FMT_GRAY8),
+
+    /** Planar YUV 4:2:0, with separate Y, U and V planes. */
+    YUV420P(AV_PIX_FMT_YUV420P),
+
+    /** Semi-planar YUV 4:2:0, with a Y plane and an interleaved UV plane. */
+    NV12(AV_PIX_FMT_NV12);
+
+    private final int code;
+
+    private PixelFormat(int code) {
+        this.code = code;
+    }
+
+    /**
+     * Get the FFmpeg pixel format code.
+     *
+     * @return The {@code AV_PIX_FMT_*} value, or {@code AV_PIX_FMT_NONE} for {@link #NATIVE}
+     */
+    public int getCode() {
+        return code;
+    }
+}
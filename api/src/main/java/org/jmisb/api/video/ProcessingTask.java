@@ -0,0 +1,115 @@
+package org.jmisb.api.video;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long-running processing task, run either on its own thread or on an {@link Executor}.
+ *
+ * <p>This provides the parts of the {@link Thread} API used to manage the video input pipeline
+ * (start, interrupt and join) without tying a task to a dedicated platform thread. A task runs for
+ * the lifetime of the input, so an executor must be able to run all of the tasks it is given at the
+ * same time (for example a cached thread pool, or a virtual thread per task executor).
+ */
+abstract class ProcessingTask implements Runnable {
+    private final CountDownLatch done = new CountDownLatch(1);
+    private boolean started = false;
+
+    /** Thread currently running the task, or null if it is not running. */
+    private Thread runner;
+
+    /**
+     * Start the task.
+     *
+     * @param executor The executor to run the task on, or null to start a new thread
+     * @throws IllegalStateException if the task has already been started
+     * @throws RejectedExecutionException if the executor does not accept the task
+     */
+    void start(Executor executor) {
+        synchronized (this) {
+            if (started) {
+                throw new IllegalStateException("Task has already been started");
+            }
+            started = true;
+        }
+        if (executor == null) {
+            new Thread(this::execute).start();
+        } else {
+            try {
+                executor.execute(this::execute);
+            } catch (RejectedExecutionException e) {
+                done.countDown();
+                throw e;
+            }
+        }
+    }
+
+    private void execute() {
+        final Thread thread = Thread.currentThread();
+        final String name = thread.getName();
+        synchronized (this) {
+            runner = thread;
+        }
+        try {
+            run();
+        } finally {
+            // Executor threads are shared, so leave them as we found them
+            synchronized (this) {
+                runner = null;
+            }
+            Thread.interrupted();
+            thread.setName(name);
+            done.countDown();
+        }
+    }
+
+    /**
+     * Interrupt the thread running the task.
+     *
+     * <p>This has no effect if the task is not running.
+     */
+    synchronized void interrupt() {
+        if (runner != null) {
+            runner.interrupt();
+        }
+    }
+
+    /**
+     * Check whether the task has been started and has not yet finished.
+     *
+     * @return true if the task is running, or waiting for the executor to run it
+     */
+    synchronized boolean isAlive() {
+        return started && done.getCount() > 0;
+    }
+
+    /**
+     * Wait for the task to finish.
+     *
+     * <p>Returns immediately if the task was never started.
+     *
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    void join() throws InterruptedException {
+        if (isStarted()) {
+            done.await();
+        }
+    }
+
+    /**
+     * Wait for the task to finish, up to a time limit.
+     *
+     * @param millis The maximum time to wait, in milliseconds
+     * @return true if the task finished (or was never started), false if the time limit expired
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    boolean join(long millis) throws InterruptedException {
+        return !isStarted() || done.await(millis, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized boolean isStarted() {
+        return started;
+    }
+}
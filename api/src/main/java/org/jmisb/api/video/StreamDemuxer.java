@@ -35,6 +35,7 @@ class StreamDemuxer extends Demuxer {
                 shortWait(10);
                 continue;
             }
+            statistics.packetDemuxed(packet.stream_index());
 
             // Pass packet to the appropriate decoder
             boolean queued = false;
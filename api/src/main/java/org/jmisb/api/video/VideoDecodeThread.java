@@ -12,12 +12,16 @@ import static org.bytedeco.ffmpeg.global.avcodec.avcodec_send_packet;
 import static org.bytedeco.ffmpeg.global.avutil.AV_PIX_FMT_BGR24;
 import static org.bytedeco.ffmpeg.global.avutil.av_dict_free;
 import static org.bytedeco.ffmpeg.global.avutil.av_frame_alloc;
+import static org.bytedeco.ffmpeg.global.avutil.av_frame_clone;
 import static org.bytedeco.ffmpeg.global.avutil.av_frame_free;
+import static org.bytedeco.ffmpeg.global.avutil.av_frame_get_buffer;
 import static org.bytedeco.ffmpeg.global.avutil.av_image_fill_arrays;
 import static org.bytedeco.ffmpeg.global.avutil.av_image_get_buffer_size;
 import static org.bytedeco.ffmpeg.global.avutil.av_malloc;
 import static org.bytedeco.ffmpeg.global.avutil.av_q2d;
 import static org.bytedeco.ffmpeg.global.swscale.SWS_FAST_BILINEAR;
+import static org.bytedeco.ffmpeg.global.swscale.sws_freeContext;
+import static org.bytedeco.ffmpeg.global.swscale.sws_getCachedContext;
 import static org.bytedeco.ffmpeg.global.swscale.sws_getContext;
 import static org.bytedeco.ffmpeg.global.swscale.sws_scale;
 
@@ -33,6 +37,7 @@ import org.bytedeco.ffmpeg.avutil.AVDictionary;
 import org.bytedeco.ffmpeg.avutil.AVFrame;
 import org.bytedeco.ffmpeg.swscale.SwsContext;
 import org.bytedeco.javacpp.*;
+import org.jmisb.api.metrics.Metrics;
 import org.jmisb.core.video.FfmpegUtils;
 import org.jmisb.core.video.FrameConverter;
 import org.slf4j.Logger;
@@ -42,9 +47,10 @@ import org.slf4j.LoggerFactory;
  * Video decoding thread.
  *
  * <p>This thread buffers and decodes video data, and sends uncompressed images in BGR24 format back
- * up to the {@link VideoInput}.
+ * up to the {@link VideoInput}. If another {@link PixelFormat} was requested, frames are sent as
+ * native planes instead.
  */
-class VideoDecodeThread extends ProcessingThread {
+class VideoDecodeThread extends PausableTask {
     private static Logger logger = LoggerFactory.getLogger(VideoDecodeThread.class);
     private static final int INPUT_QUEUE_SIZE = 100;
     private final VideoInput inputStream;
@@ -52,6 +58,9 @@ class VideoDecodeThread extends ProcessingThread {
     private AVCodecContext codecContext;
     private BlockingQueue<AVPacket> packetQueue = new LinkedBlockingDeque<>(INPUT_QUEUE_SIZE);
 
+    /** Marker added to {@link #packetQueue} to wake this thread, which is not a real packet. */
+    private static final AVPacket WAKE_UP = new AVPacket((Pointer) null);
+
     /** Image buffer in native stream format. */
     private AVFrame nativeFrame;
 
@@ -60,10 +69,22 @@ class VideoDecodeThread extends ProcessingThread {
 
     private final FrameConverter frameConverter = new FrameConverter();
 
-    VideoDecodeThread(VideoInput inputStream, AVStream videoStream) {
+    /** Pool of output images, or null to copy each frame into a new image. */
+    private final FramePool framePool;
+
+    /** Requested output pixel format. */
+    private final PixelFormat pixelFormat;
+
+    /** SwsContext used to convert to a planar output format, if needed. */
+    private SwsContext planarSwsContext;
+
+    VideoDecodeThread(VideoInput inputStream, AVStream videoStream, VideoInputOptions options) {
         this.inputStream = inputStream;
         this.videoStream = videoStream;
-        start();
+        this.pixelFormat = options.getPixelFormat();
+        this.framePool =
+                options.getFramePoolSize() > 0 ? new FramePool(options.getFramePoolSize()) : null;
+        start(options.getExecutor());
     }
 
     /**
@@ -80,6 +101,23 @@ class VideoDecodeThread extends ProcessingThread {
         }
     }
 
+    @Override
+    protected void wakeUp() {
+        // If the queue is not empty, the thread is not blocked on it anyway
+        if (packetQueue.isEmpty() && !packetQueue.offer(WAKE_UP)) {
+            logger.debug("Packet queue filled while waking decoder");
+        }
+    }
+
+    /**
+     * Get the number of packets waiting to be decoded.
+     *
+     * @return The queue depth
+     */
+    int getQueueDepth() {
+        return packetQueue.size();
+    }
+
     /** Clear the queue of packets to be decoded and flush codec buffers. */
     public void clear() {
         packetQueue.clear();
@@ -88,7 +126,8 @@ class VideoDecodeThread extends ProcessingThread {
 
     @Override
     public void run() {
-        Thread.currentThread().setName("VideoDecodeThread - " + inputStream.getUrl());
+        String threadName = "VideoDecodeThread - " + inputStream.getUrl();
+        Thread.currentThread().setName(threadName);
 
         AVCodec codec = avcodec_find_decoder(videoStream.codecpar().codec_id());
         if (codec == null) {
@@ -124,23 +163,25 @@ class VideoDecodeThread extends ProcessingThread {
             codecContext.time_base().den(1000);
         }
 
-        // Allocate image buffers
-        allocateImages(videoStream.codecpar().width(), videoStream.codecpar().height());
-
-        // Allocate SwsContext used for color conversion/scaling
-        SwsContext swsContext;
-        swsContext =
-                sws_getContext(
-                        videoStream.codecpar().width(),
-                        videoStream.codecpar().height(),
-                        codecContext.pix_fmt(),
-                        bgrFrame.width(),
-                        bgrFrame.height(),
-                        bgrFrame.format(),
-                        SWS_FAST_BILINEAR,
-                        null,
-                        null,
-                        (DoublePointer) null);
+        SwsContext swsContext = null;
+        if (pixelFormat == PixelFormat.BGR24) {
+            // Allocate image buffers
+            allocateImages(videoStream.codecpar().width(), videoStream.codecpar().height());
+
+            // Allocate SwsContext used for color conversion/scaling
+            swsContext =
+                    sws_getContext(
+                            videoStream.codecpar().width(),
+                            videoStream.codecpar().height(),
+                            codecContext.pix_fmt(),
+                            bgrFrame.width(),
+                            bgrFrame.height(),
+                            bgrFrame.format(),
+                            SWS_FAST_BILINEAR,
+                            null,
+                            null,
+                            (DoublePointer) null);
+        }
 
         AVFrame avFrame = av_frame_alloc();
 
@@ -152,11 +193,19 @@ class VideoDecodeThread extends ProcessingThread {
             }
 
             try {
-                AVPacket packet = packetQueue.poll(10, TimeUnit.MILLISECONDS);
-                if (packet != null) {
+                AVPacket packet = packetQueue.take();
+                if (packet != WAKE_UP) {
+                    boolean metricsEnabled = Metrics.isEnabled();
+                    long decodeStart = 0;
+                    if (metricsEnabled) {
+                        Metrics.getRecorder().packetQueueDepth(threadName, packetQueue.size());
+                        decodeStart = System.nanoTime();
+                    }
+
                     // Send the packet to the decoder
                     if ((ret = avcodec_send_packet(codecContext, packet)) < 0) {
                         logger.error("avcodec_send_packet error " + FfmpegUtils.formatError(ret));
+                        inputStream.statistics.videoDecodeError();
                     }
 
                     // Check for decoded frames
@@ -166,30 +215,38 @@ class VideoDecodeThread extends ProcessingThread {
                         double pts = packet.pts() * av_q2d(videoStream.time_base());
                         // logger.debug("Video PTS = " + pts);
 
-                        // Convert image from native pixel format to BGR24
-                        sws_scale(
-                                swsContext,
-                                new PointerPointer(avFrame),
-                                avFrame.linesize(),
-                                0,
-                                codecContext.height(),
-                                bgrFrame.data(),
-                                bgrFrame.linesize());
-
-                        // FrameConverter will internally cache the BufferedImage and re-use it for
-                        // each call
-                        BufferedImage image = frameConverter.convert(bgrFrame);
+                        VideoFrame frame;
+                        if (pixelFormat == PixelFormat.BGR24) {
+                            frame = convertToImage(avFrame, swsContext, pts);
+                        } else {
+                            frame = convertToPlanes(avFrame, pts);
+                            if (frame == null) {
+                                inputStream.statistics.videoDecodeError();
+                                continue;
+                            }
+                        }
+                        if (metricsEnabled) {
+                            Metrics.getRecorder()
+                                    .videoFrameDecoded(threadName, System.nanoTime() - decodeStart);
+                        }
 
                         // TODO: on a seek, the final frame before the seek often gets hung up here
+                        inputStream.statistics.videoFrameDecoded();
+                        VideoFrame queuedFrame = inputStream.prepareVideoFrame(frame);
                         boolean queued = false;
                         while (!queued && !isShutdown() && !isPauseRequested()) {
-                            queued = inputStream.queueVideoFrame(new VideoFrame(image, pts), 20);
+                            queued = inputStream.offerVideoFrame(queuedFrame, 20);
+                        }
+                        if (!queued) {
+                            queuedFrame.release();
+                            inputStream.statistics.videoFrameDropped();
                         }
                     } else if (ret != -11 && ret != -35) // -11 = EAGAIN, -35 = EDEADLK
                     {
                         // -11 is expected and just means the decoder is waiting for more packets
                         // -35 seems to be warning us about some concurrency issue unique to MacOS
                         logger.error("avcodec_receive_frame error " + FfmpegUtils.formatError(ret));
+                        inputStream.statistics.videoDecodeError();
                     }
                 }
             } catch (InterruptedException ignored) {
@@ -201,10 +258,108 @@ class VideoDecodeThread extends ProcessingThread {
         // Clean up resources
         avcodec_free_context(codecContext);
         av_frame_free(avFrame);
+        if (swsContext != null) {
+            sws_freeContext(swsContext);
+        }
+        if (planarSwsContext != null) {
+            sws_freeContext(planarSwsContext);
+            planarSwsContext = null;
+        }
 
         deallocateImages();
     }
 
+    /**
+     * Convert a decoded frame to a BGR24 image.
+     *
+     * @param avFrame The decoded frame
+     * @param swsContext The context used to convert to BGR24
+     * @param pts The presentation timestamp, in seconds
+     * @return The video frame
+     */
+    private VideoFrame convertToImage(AVFrame avFrame, SwsContext swsContext, double pts) {
+        // Convert image from native pixel format to BGR24
+        sws_scale(
+                swsContext,
+                new PointerPointer(avFrame),
+                avFrame.linesize(),
+                0,
+                codecContext.height(),
+                bgrFrame.data(),
+                bgrFrame.linesize());
+
+        if (framePool != null) {
+            VideoFrame frame = framePool.acquire(bgrFrame.width(), bgrFrame.height(), pts);
+            frameConverter.convert(bgrFrame, frame.getImage());
+            return frame;
+        }
+
+        // FrameConverter will internally cache the BufferedImage and re-use it for each call, so
+        // VideoInput copies it when queueing
+        BufferedImage image = frameConverter.convert(bgrFrame);
+        return new VideoFrame(image, pts);
+    }
+
+    /**
+     * Convert a decoded frame to native planes in the requested pixel format.
+     *
+     * <p>If the decoded frame is already in the requested format, the new frame references the
+     * decoder's buffers rather than copying them.
+     *
+     * @param avFrame The decoded frame
+     * @param pts The presentation timestamp, in seconds
+     * @return The video frame, or null if the conversion failed
+     */
+    private VideoFrame convertToPlanes(AVFrame avFrame, double pts) {
+        int format = pixelFormat.getCode();
+        if (pixelFormat == PixelFormat.NATIVE || avFrame.format() == format) {
+            AVFrame clone = av_frame_clone(avFrame);
+            if (clone == null) {
+                logger.error("av_frame_clone() error: Could not reference frame");
+                return null;
+            }
+            return new VideoFrame(clone, pts);
+        }
+
+        AVFrame converted = av_frame_alloc();
+        if (converted == null) {
+            logger.error("av_frame_alloc() error: Could not allocate " + pixelFormat + " frame");
+            return null;
+        }
+        converted.format(format);
+        converted.width(avFrame.width());
+        converted.height(avFrame.height());
+        int ret;
+        if ((ret = av_frame_get_buffer(converted, 32)) < 0) {
+            logger.error("av_frame_get_buffer error " + FfmpegUtils.formatError(ret));
+            av_frame_free(converted);
+            return null;
+        }
+
+        planarSwsContext =
+                sws_getCachedContext(
+                        planarSwsContext,
+                        avFrame.width(),
+                        avFrame.height(),
+                        avFrame.format(),
+                        converted.width(),
+                        converted.height(),
+                        format,
+                        SWS_FAST_BILINEAR,
+                        null,
+                        null,
+                        (DoublePointer) null);
+        sws_scale(
+                planarSwsContext,
+                avFrame.data(),
+                avFrame.linesize(),
+                0,
+                avFrame.height(),
+                converted.data(),
+                converted.linesize());
+        return new VideoFrame(converted, pts);
+    }
+
     private void allocateImages(int width, int height) {
         deallocateImages();
 
@@ -14,6 +14,9 @@ import static org.jmisb.core.video.TimingUtils.shortWait;
 import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import org.bytedeco.ffmpeg.avcodec.AVCodec;
 import org.bytedeco.ffmpeg.avcodec.AVPacket;
 import org.bytedeco.ffmpeg.avformat.AVStream;
@@ -42,6 +45,12 @@ public class VideoFileInput extends VideoInput implements IVideoFileInput {
     private double prevVideoPts;
     private long videoDelay;
 
+    /** Guards {@link #prevVideoPts}. */
+    private final Lock videoPtsLock = new ReentrantLock();
+
+    /** Signalled when {@link #prevVideoPts} changes. */
+    private final Condition videoPtsChanged = videoPtsLock.newCondition();
+
     /** Construct with default options. */
     public VideoFileInput() {
         this(new VideoFileInputOptions());
@@ -88,32 +97,43 @@ public class VideoFileInput extends VideoInput implements IVideoFileInput {
 
         duration = FfmpegUtils.getDuration(formatContext);
 
-        // Require a valid video stream
-        if (videoStream == null) {
-            freeContext();
-            throw new IOException("Did not find a video stream within URL: " + url);
-        }
+        if (options.isMetadataExtraction()) {
+            // Only the metadata is needed, so don't require video or scan the whole file
+            if (FfmpegUtils.getDataStreamIndices(formatContext).isEmpty()) {
+                freeContext();
+                throw new IOException("Did not find a metadata stream within URL: " + url);
+            }
+            numFrames = 0;
+        } else {
+            // Require a valid video stream
+            if (videoStream == null) {
+                freeContext();
+                throw new IOException("Did not find a video stream within URL: " + url);
+            }
 
-        // Find the decoder for the video stream to ensure we can decode it
-        AVCodec codec = avcodec_find_decoder(videoStream.codecpar().codec_id());
-        if (codec == null) {
-            freeContext();
-            throw new IOException(
-                    "avcodec_find_decoder() error: Unsupported video format or codec not found: "
-                            + videoStream.codecpar().codec_id()
-                            + ".");
-        }
+            // Find the decoder for the video stream to ensure we can decode it
+            AVCodec codec = avcodec_find_decoder(videoStream.codecpar().codec_id());
+            if (codec == null) {
+                freeContext();
+                throw new IOException(
+                        "avcodec_find_decoder() error: Unsupported video format or codec not"
+                                + " found: "
+                                + videoStream.codecpar().codec_id()
+                                + ".");
+            }
 
-        // Analyze frames
-        numFrames = countFrames(videoStream);
+            // Analyze frames
+            numFrames = countFrames(videoStream);
+        }
 
         // Create the demuxer and start thread
+        statistics.reset();
         demuxer = new FileDemuxer(this, formatContext, options);
-        demuxer.start();
+        demuxer.start(options.getExecutor());
 
         // Start notifier threads
         playing = !options.isInitiallyPaused();
-        startNotifiers(options.isInitiallyPaused());
+        startNotifiers(options.isInitiallyPaused(), options.getExecutor());
 
         open = true;
     }
@@ -151,6 +171,11 @@ public class VideoFileInput extends VideoInput implements IVideoFileInput {
         return open;
     }
 
+    @Override
+    Demuxer getDemuxer() {
+        return open ? demuxer : null;
+    }
+
     @Override
     public void close() {
         logger.debug("Closing " + url);
@@ -229,10 +254,15 @@ public class VideoFileInput extends VideoInput implements IVideoFileInput {
         stopNotifiers();
 
         // Resume notifiers
-        startNotifiers(true);
+        startNotifiers(true, options.getExecutor());
 
-        // Get one frame even if we are paused
-        sendOneFrame();
+        if (options.isMetadataExtraction()) {
+            // No video to show, and nothing else will update the position until metadata arrives
+            position = pos;
+        } else {
+            // Get one frame even if we are paused
+            sendOneFrame();
+        }
 
         // Reset for computing delay
         prevVideoTime = 0;
@@ -268,24 +298,44 @@ public class VideoFileInput extends VideoInput implements IVideoFileInput {
         // logger.debug("delay: " + videoDelay);
         if (videoDelay > 0) shortWait(videoDelay);
 
-        prevVideoPts = pts;
+        videoPtsLock.lock();
+        try {
+            prevVideoPts = pts;
+            videoPtsChanged.signalAll();
+        } finally {
+            videoPtsLock.unlock();
+        }
         prevVideoTime = time;
 
         // TODO: good?
-        position = prevVideoPts;
+        position = pts;
 
-        // logger.debug("Setting position = " + prevVideoPts);
+        // logger.debug("Setting position = " + pts);
     }
 
     @Override
     protected void delayMetadata(double pts) throws InterruptedException {
+        // No delay when extracting metadata, and nothing else to track position (asynchronous
+        // KLV may have no PTS, so ignore invalid values)
+        if (options.isMetadataExtraction()) {
+            if (pts >= 0) {
+                position = pts;
+            }
+            return;
+        }
+
         // No delay if ripping
         if (rateMultiplier == Double.MAX_VALUE) return;
 
         if (options.isDecodeVideo()) {
             // Just sync to the video based on PTS
-            while (pts > prevVideoPts) {
-                Thread.sleep(10);
+            videoPtsLock.lock();
+            try {
+                while (pts > prevVideoPts) {
+                    videoPtsChanged.await();
+                }
+            } finally {
+                videoPtsLock.unlock();
             }
         }
     }
@@ -294,7 +344,9 @@ public class VideoFileInput extends VideoInput implements IVideoFileInput {
     private void stopFileDemuxer() {
         demuxer.shutdown();
         try {
-            demuxer.join(SHUTDOWN_TIMEOUT_MILLIS);
+            if (!demuxer.join(SHUTDOWN_TIMEOUT_MILLIS)) {
+                logger.warn("Timed out waiting for demuxer to stop");
+            }
         } catch (InterruptedException e) {
             logger.warn("Interrupted while joining demuxer thread", e);
         }
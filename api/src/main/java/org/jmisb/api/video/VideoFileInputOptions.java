@@ -5,6 +5,9 @@ public class VideoFileInputOptions extends VideoInputOptions {
     /** Indicates playback will be paused when the file is first opened. */
     private boolean initiallyPaused;
 
+    /** Indicates the file is only read to extract metadata. */
+    private boolean metadataExtraction = false;
+
     /** Constructor specifying default options. */
     public VideoFileInputOptions() {
         this.initiallyPaused = false;
@@ -35,4 +38,48 @@ public class VideoFileInputOptions extends VideoInputOptions {
     public boolean isInitiallyPaused() {
         return initiallyPaused;
     }
+
+    /**
+     * Indicates whether the file is only read to extract metadata.
+     *
+     * @return True if metadata extraction mode is enabled
+     */
+    public boolean isMetadataExtraction() {
+        return metadataExtraction;
+    }
+
+    /**
+     * Set metadata extraction mode.
+     *
+     * <p>This mode is intended for reading the KLV out of large files as quickly as possible, e.g.
+     * for indexing an archive. When enabled:
+     *
+     * <ul>
+     *   <li>video (and audio) is not decoded, regardless of the decode options passed to the
+     *       constructor
+     *   <li>packets from all streams other than the metadata streams are discarded by FFmpeg while
+     *       demuxing, rather than being read and thrown away
+     *   <li>the file is not scanned to count video frames on open, so {@link
+     *       IVideoFileInput#getNumFrames()} returns 0, and a video stream is not required
+     *   <li>metadata is delivered as fast as listeners consume it, ignoring the playback speed, and
+     *       {@link IVideoFileInput#getPosition()} follows the metadata timestamps
+     * </ul>
+     *
+     * <p>Seeking is performed on the first metadata stream rather than the video stream.
+     *
+     * @param metadataExtraction True to enable metadata extraction mode (default false)
+     */
+    public void setMetadataExtraction(boolean metadataExtraction) {
+        this.metadataExtraction = metadataExtraction;
+    }
+
+    @Override
+    public boolean isDecodeAudio() {
+        return !metadataExtraction && super.isDecodeAudio();
+    }
+
+    @Override
+    public boolean isDecodeVideo() {
+        return !metadataExtraction && super.isDecodeVideo();
+    }
 }
@@ -98,6 +98,9 @@ public class VideoFileOutput extends VideoOutput implements IVideoFileOutput {
 
     @Override
     public void addVideoFrame(VideoFrame frame) throws IOException {
+        if (frame.getImage() == null) {
+            throw new IllegalArgumentException("Video frame has no image");
+        }
         if (frame.getImage().getWidth() != options.getWidth()
                 || frame.getImage().getHeight() != options.getHeight()) {
             throw new IllegalArgumentException("Invalid image dimensions");
@@ -1,11 +1,40 @@
 package org.jmisb.api.video;
 
+import static org.bytedeco.ffmpeg.global.avutil.AV_PIX_FMT_BGR24;
+import static org.bytedeco.ffmpeg.global.avutil.av_frame_free;
+import static org.bytedeco.ffmpeg.global.avutil.av_pix_fmt_count_planes;
+import static org.bytedeco.ffmpeg.global.avutil.av_pix_fmt_desc_get;
+
 import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bytedeco.ffmpeg.avutil.AVFrame;
+import org.bytedeco.ffmpeg.avutil.AVPixFmtDescriptor;
 
-/** An uncompressed video frame. */
-public class VideoFrame {
+/**
+ * An uncompressed video frame.
+ *
+ * <p>A frame holds either an image or, if the input was opened with a pixel format other than BGR24
+ * (see {@link VideoInputOptions#setPixelFormat(PixelFormat)}), one or more planes of native memory.
+ * In the latter case {@link #getImage()} returns null, and the pixel data is accessed using {@link
+ * #getPlane(int)} and {@link #getLineSize(int)}.
+ *
+ * <p>Frames delivered by a {@link VideoInput} that has frame pooling enabled (see {@link
+ * VideoInputOptions#setFramePoolSize(int)}) are reference counted, as are frames holding planes.
+ * The image buffer is returned to the pool (or the planes freed) once every reference has been
+ * released, and will then be overwritten by a later frame. A listener that needs to keep such a
+ * frame after {@link IVideoListener#onVideoReceived} returns must call {@link #retain()}, and then
+ * {@link #release()} (or {@link #close()}) when it is done.
+ *
+ * <p>Other frames (including any created by client code) are unaffected by {@link #retain()} and
+ * {@link #release()}.
+ */
+public class VideoFrame implements AutoCloseable {
     private final BufferedImage bufferedImage;
     private final double pts;
+    private final FramePool pool;
+    private final AVFrame avFrame;
+    private final AtomicInteger references = new AtomicInteger(1);
 
     /**
      * Create a video frame.
@@ -14,14 +43,42 @@ public class VideoFrame {
      * @param pts The presentation timestamp, in seconds
      */
     public VideoFrame(BufferedImage image, double pts) {
+        this(image, pts, null);
+    }
+
+    /**
+     * Create a video frame using a pooled image.
+     *
+     * @param image The image, obtained from {@code pool}
+     * @param pts The presentation timestamp, in seconds
+     * @param pool The pool to return the image to, or null if the frame is not pooled
+     */
+    VideoFrame(BufferedImage image, double pts, FramePool pool) {
         this.bufferedImage = image;
         this.pts = pts;
+        this.pool = pool;
+        this.avFrame = null;
+    }
+
+    /**
+     * Create a video frame holding native planes.
+     *
+     * <p>The frame takes ownership of {@code avFrame}, which is freed when the frame is released.
+     *
+     * @param avFrame The frame data
+     * @param pts The presentation timestamp, in seconds
+     */
+    VideoFrame(AVFrame avFrame, double pts) {
+        this.bufferedImage = null;
+        this.pts = pts;
+        this.pool = null;
+        this.avFrame = avFrame;
     }
 
     /**
      * Get the image.
      *
-     * @return The image
+     * @return The image, or null if the frame holds native planes
      */
     public BufferedImage getImage() {
         return bufferedImage;
@@ -35,4 +92,195 @@ public class VideoFrame {
     public double getPts() {
         return pts;
     }
+
+    /**
+     * Get the frame width.
+     *
+     * @return The width, in pixels
+     */
+    public int getWidth() {
+        return avFrame != null ? avFrame.width() : bufferedImage.getWidth();
+    }
+
+    /**
+     * Get the frame height.
+     *
+     * @return The height, in pixels
+     */
+    public int getHeight() {
+        return avFrame != null ? avFrame.height() : bufferedImage.getHeight();
+    }
+
+    /**
+     * Get the pixel format.
+     *
+     * <p>This is the FFmpeg {@code AV_PIX_FMT_*} value, which for frames holding native planes may
+     * be a format other than those listed in {@link PixelFormat} (e.g. when delivering the
+     * decoder's native format). Frames holding an image report {@code AV_PIX_FMT_BGR24}.
+     *
+     * @return The pixel format code
+     */
+    public int getPixelFormat() {
+        return avFrame != null ? avFrame.format() : AV_PIX_FMT_BGR24;
+    }
+
+    /**
+     * Get the name of the pixel format.
+     *
+     * @return The FFmpeg pixel format name, e.g. "yuv420p"
+     */
+    public String getPixelFormatName() {
+        return av_pix_fmt_desc_get(getPixelFormat()).name().getString();
+    }
+
+    /**
+     * Get the number of native planes.
+     *
+     * @return The number of planes, or 0 if the frame holds an image
+     */
+    public int getPlaneCount() {
+        return avFrame != null ? av_pix_fmt_count_planes(avFrame.format()) : 0;
+    }
+
+    /**
+     * Get a plane of pixel data.
+     *
+     * <p>The returned buffer is a direct view of native memory, covering {@link #getLineSize(int)}
+     * bytes for each row of the plane. Rows may contain padding beyond the pixel data. The buffer
+     * is only valid until the last reference to the frame is released.
+     *
+     * @param plane The plane index, from 0 to {@link #getPlaneCount()} - 1
+     * @return The plane data
+     * @throws IllegalStateException if the frame holds an image, or has been released
+     * @throws IndexOutOfBoundsException if {@code plane} is out of range
+     */
+    public ByteBuffer getPlane(int plane) {
+        checkPlane(plane);
+        long size = (long) avFrame.linesize(plane) * getPlaneHeight(plane);
+        return avFrame.data(plane).capacity(size).asBuffer();
+    }
+
+    /**
+     * Get the number of bytes in each row of a plane.
+     *
+     * @param plane The plane index, from 0 to {@link #getPlaneCount()} - 1
+     * @return The line size, in bytes
+     * @throws IllegalStateException if the frame holds an image, or has been released
+     * @throws IndexOutOfBoundsException if {@code plane} is out of range
+     */
+    public int getLineSize(int plane) {
+        checkPlane(plane);
+        return avFrame.linesize(plane);
+    }
+
+    /**
+     * Get the number of rows in a plane.
+     *
+     * <p>Chroma planes of subsampled formats (e.g. YUV420P and NV12) have fewer rows than the
+     * frame.
+     *
+     * @param plane The plane index, from 0 to {@link #getPlaneCount()} - 1
+     * @return The number of rows
+     * @throws IllegalStateException if the frame holds an image, or has been released
+     * @throws IndexOutOfBoundsException if {@code plane} is out of range
+     */
+    public int getPlaneHeight(int plane) {
+        checkPlane(plane);
+        int height = avFrame.height();
+        if (plane == 1 || plane == 2) {
+            AVPixFmtDescriptor descriptor = av_pix_fmt_desc_get(avFrame.format());
+            // Round up, as for AV_CEIL_RSHIFT
+            height = -((-height) >> descriptor.log2_chroma_h());
+        }
+        return height;
+    }
+
+    private void checkPlane(int plane) {
+        if (avFrame == null) {
+            throw new IllegalStateException("Video frame holds an image, not planes");
+        }
+        if (references.get() <= 0) {
+            throw new IllegalStateException("Video frame has already been released");
+        }
+        if (plane < 0 || plane >= getPlaneCount()) {
+            throw new IndexOutOfBoundsException("Invalid plane index: " + plane);
+        }
+    }
+
+    /**
+     * Whether the frame's image buffer belongs to a pool.
+     *
+     * @return true if the image is returned to a pool when the frame is released
+     */
+    public boolean isPooled() {
+        return pool != null;
+    }
+
+    /**
+     * Whether the frame is reference counted.
+     *
+     * <p>This is true for pooled frames and frames holding native planes. For other frames {@link
+     * #retain()} and {@link #release()} have no effect.
+     *
+     * @return true if the frame's data is only valid until it is released
+     */
+    public boolean isReferenceCounted() {
+        return pool != null || avFrame != null;
+    }
+
+    /**
+     * Add a reference to the frame.
+     *
+     * <p>Each call must be matched by a call to {@link #release()}.
+     *
+     * @return This frame
+     * @throws IllegalStateException if the frame has already been released
+     */
+    public VideoFrame retain() {
+        if (isReferenceCounted()) {
+            int count;
+            do {
+                count = references.get();
+                if (count <= 0) {
+                    throw new IllegalStateException("Video frame has already been released");
+                }
+            } while (!references.compareAndSet(count, count + 1));
+        }
+        return this;
+    }
+
+    /**
+     * Release a reference to the frame.
+     *
+     * <p>When the last reference is released, a pooled image is returned to its pool and native
+     * planes are freed. Neither may be used afterwards.
+     *
+     * @throws IllegalStateException if the frame has already been released
+     */
+    public void release() {
+        if (isReferenceCounted()) {
+            int count = references.decrementAndGet();
+            if (count == 0) {
+                if (pool != null) {
+                    pool.recycle(bufferedImage);
+                } else {
+                    av_frame_free(avFrame);
+                }
+            } else if (count < 0) {
+                references.incrementAndGet();
+                throw new IllegalStateException("Video frame has already been released");
+            }
+        }
+    }
+
+    /**
+     * Release a reference to the frame.
+     *
+     * <p>This is the same as {@link #release()}, allowing frames to be used in try-with-resources
+     * statements.
+     */
+    @Override
+    public void close() {
+        release();
+    }
 }
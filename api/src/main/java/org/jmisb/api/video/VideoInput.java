@@ -2,19 +2,24 @@ package org.jmisb.api.video;
 
 import static org.bytedeco.ffmpeg.global.avformat.avformat_close_input;
 import static org.bytedeco.ffmpeg.global.avformat.avformat_free_context;
-import static org.jmisb.core.video.TimingUtils.shortWait;
 
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
 import java.awt.image.WritableRaster;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import org.bytedeco.ffmpeg.avformat.AVFormatContext;
 import org.jmisb.core.video.FfmpegUtils;
 import org.slf4j.Logger;
@@ -35,6 +40,9 @@ public abstract class VideoInput extends VideoIO implements IVideoInput {
     VideoNotifier videoNotifier;
     MetadataNotifier metadataNotifier;
 
+    /** Counters updated by the demuxer and decode threads. */
+    final InputStatisticsCollector statistics = new InputStatisticsCollector();
+
     private static final int QUEUE_SIZE = 100;
 
     String url;
@@ -83,6 +91,23 @@ public abstract class VideoInput extends VideoIO implements IVideoInput {
         return list;
     }
 
+    @Override
+    public InputStatistics getStatistics() {
+        Demuxer demuxer = getDemuxer();
+        Map<Integer, Integer> packetQueueDepths =
+                (demuxer == null) ? new HashMap<>() : demuxer.getPacketQueueDepths();
+        return statistics.snapshot(decodedVideo.size(), decodedMetadata.size(), packetQueueDepths);
+    }
+
+    /**
+     * Get the demuxer for the open input.
+     *
+     * @return The demuxer, or null if the input is not open
+     */
+    Demuxer getDemuxer() {
+        return null;
+    }
+
     @Override
     public void addFrameListener(IVideoListener listener) {
         videoListeners.add(listener);
@@ -106,15 +131,42 @@ public abstract class VideoInput extends VideoIO implements IVideoInput {
     /**
      * Attempt to queue a newly decoded video frame for client notification.
      *
+     * <p>A reference counted frame is queued as-is, and its reference is released once listeners
+     * have been notified. Any other frame is copied, as its image may be re-used by the caller.
+     *
      * @param frame The video frame
      * @param timeout Milliseconds to wait for the queue to become available before failing
      * @return True of the frame was successfully queued
      */
     protected boolean queueVideoFrame(VideoFrame frame, long timeout) {
-        VideoFrame copy = deepCopy(frame);
+        return offerVideoFrame(prepareVideoFrame(frame), timeout);
+    }
+
+    /**
+     * Prepare a newly decoded video frame to be queued.
+     *
+     * <p>A reference counted frame is returned as-is. Any other frame is copied, as its image may
+     * be re-used by the caller. Callers that retry {@link #offerVideoFrame(VideoFrame, long)} while
+     * the queue is full should prepare the frame once, rather than copying it on each attempt.
+     *
+     * @param frame The video frame
+     * @return The frame to queue
+     */
+    VideoFrame prepareVideoFrame(VideoFrame frame) {
+        return frame.isReferenceCounted() ? frame : deepCopy(frame);
+    }
+
+    /**
+     * Attempt to queue a prepared video frame for client notification.
+     *
+     * @param frame The video frame, from {@link #prepareVideoFrame(VideoFrame)}
+     * @param timeout Milliseconds to wait for the queue to become available before failing
+     * @return True of the frame was successfully queued
+     */
+    boolean offerVideoFrame(VideoFrame frame, long timeout) {
         boolean queued = false;
         try {
-            queued = decodedVideo.offer(copy, timeout, TimeUnit.MILLISECONDS);
+            queued = decodedVideo.offer(frame, timeout, TimeUnit.MILLISECONDS);
         } catch (InterruptedException ignored) {
         }
         return queued;
@@ -137,16 +189,17 @@ public abstract class VideoInput extends VideoIO implements IVideoInput {
     }
 
     /**
-     * Start up the notifier threads.
+     * Start up the notifier tasks.
      *
      * @param startPaused True to begin in a paused state
+     * @param executor The executor to run the notifiers on, or null to start a thread for each
      */
-    void startNotifiers(boolean startPaused) {
+    void startNotifiers(boolean startPaused, Executor executor) {
         videoNotifier = new VideoNotifier(startPaused);
-        videoNotifier.start();
+        videoNotifier.start(executor);
 
         metadataNotifier = new MetadataNotifier(startPaused);
-        metadataNotifier.start();
+        metadataNotifier.start(executor);
     }
 
     void sendOneFrame() {
@@ -169,15 +222,20 @@ public abstract class VideoInput extends VideoIO implements IVideoInput {
         metadataNotifier = null;
 
         logger.debug("Clearing decodedVideo");
-        decodedVideo.clear();
+        VideoFrame frame;
+        while ((frame = decodedVideo.poll()) != null) {
+            frame.release();
+        }
         decodedMetadata.clear();
     }
 
-    /** Thread to notify clients of new video frames. */
-    protected class VideoNotifier extends Thread {
+    /** Task to notify clients of new video frames. */
+    protected class VideoNotifier extends ProcessingTask {
+        private final Lock outputLock = new ReentrantLock();
+        private final Condition outputChanged = outputLock.newCondition();
         private volatile boolean shutdown = false;
-        private boolean paused = false;
-        private boolean getOneFrame = false;
+        private volatile boolean paused = false;
+        private volatile boolean getOneFrame = false;
 
         VideoNotifier(boolean paused) {
             this.paused = paused;
@@ -188,26 +246,33 @@ public abstract class VideoInput extends VideoIO implements IVideoInput {
             Thread.currentThread().setName("VideoNotifier - " + getUrl());
 
             while (!shutdown) {
-                while (!shutdown && paused && !getOneFrame) {
-                    shortWait(50);
-                }
-
-                if (!shutdown) {
+                try {
+                    outputLock.lock();
                     try {
-                        VideoFrame frame = decodedVideo.poll(50, TimeUnit.MILLISECONDS);
+                        while (!shutdown && paused && !getOneFrame) {
+                            outputChanged.await();
+                        }
+                    } finally {
+                        outputLock.unlock();
+                    }
 
-                        if (frame != null) {
-                            if (getOneFrame)
-                                logger.debug("Got one frame from queue, pts = " + frame.getPts());
+                    if (!shutdown) {
+                        VideoFrame frame = decodedVideo.take();
+                        if (getOneFrame)
+                            logger.debug("Got one frame from queue, pts = " + frame.getPts());
 
-                            // Sleep if we are trying to control playback rate
-                            delayVideo(frame.getPts());
+                        // Sleep if we are trying to control playback rate
+                        delayVideo(frame.getPts());
 
+                        try {
                             videoListeners.forEach(listener -> listener.onVideoReceived(frame));
-                            getOneFrame = false;
+                        } finally {
+                            frame.release();
                         }
-                    } catch (InterruptedException ignored) {
+                        getOneFrame = false;
                     }
+                } catch (InterruptedException ignored) {
+                    // Interrupted by shutdown()
                 }
             }
         }
@@ -222,18 +287,32 @@ public abstract class VideoInput extends VideoIO implements IVideoInput {
         }
 
         protected void resumeOutput() {
-            paused = false;
+            outputLock.lock();
+            try {
+                paused = false;
+                outputChanged.signalAll();
+            } finally {
+                outputLock.unlock();
+            }
         }
 
         protected void frame() {
-            getOneFrame = true;
+            outputLock.lock();
+            try {
+                getOneFrame = true;
+                outputChanged.signalAll();
+            } finally {
+                outputLock.unlock();
+            }
         }
     }
 
-    /** Thread to notify clients of new metadata. */
-    protected class MetadataNotifier extends Thread {
+    /** Task to notify clients of new metadata. */
+    protected class MetadataNotifier extends ProcessingTask {
+        private final Lock outputLock = new ReentrantLock();
+        private final Condition outputChanged = outputLock.newCondition();
         private volatile boolean shutdown = false;
-        private boolean paused = false;
+        private volatile boolean paused = false;
 
         MetadataNotifier(boolean paused) {
             this.paused = paused;
@@ -244,23 +323,26 @@ public abstract class VideoInput extends VideoIO implements IVideoInput {
             Thread.currentThread().setName("MetadataNotifier - " + getUrl());
 
             while (!shutdown) {
-                while (!shutdown && paused) {
-                    shortWait(50);
-                }
-
-                if (!shutdown) {
+                try {
+                    outputLock.lock();
                     try {
-                        MetadataFrame frame = decodedMetadata.poll(50, TimeUnit.MILLISECONDS);
+                        while (!shutdown && paused) {
+                            outputChanged.await();
+                        }
+                    } finally {
+                        outputLock.unlock();
+                    }
 
-                        if (frame != null) {
-                            // Sleep if we are trying to control playback rate
-                            delayMetadata(frame.getPts());
+                    if (!shutdown) {
+                        MetadataFrame frame = decodedMetadata.take();
 
-                            metadataListeners.forEach(
-                                    listener -> listener.onMetadataReceived(frame));
-                        }
-                    } catch (InterruptedException ignored) {
+                        // Sleep if we are trying to control playback rate
+                        delayMetadata(frame.getPts());
+
+                        metadataListeners.forEach(listener -> listener.onMetadataReceived(frame));
                     }
+                } catch (InterruptedException ignored) {
+                    // Interrupted by shutdown()
                 }
             }
         }
@@ -275,7 +357,13 @@ public abstract class VideoInput extends VideoIO implements IVideoInput {
         }
 
         protected void resumeOutput() {
-            paused = false;
+            outputLock.lock();
+            try {
+                paused = false;
+                outputChanged.signalAll();
+            } finally {
+                outputLock.unlock();
+            }
         }
     }
 
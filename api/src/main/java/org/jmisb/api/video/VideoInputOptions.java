@@ -1,11 +1,31 @@
 package org.jmisb.api.video;
 
+import java.util.concurrent.Executor;
+
 /** Options to be be specified when opening an input file or stream. */
 public class VideoInputOptions {
     private final boolean decodeAudio;
     private final boolean decodeMetadata;
     private final boolean decodeVideo;
 
+    /** Number of threads used to decode each metadata stream. */
+    private int metadataDecodeThreads = 1;
+
+    /** Maximum number of metadata messages being decoded (or awaiting emission) per stream. */
+    private int maxPendingMetadataMessages = 64;
+
+    /** Number of idle decoded video frame buffers to keep for re-use, or 0 to disable pooling. */
+    private int framePoolSize = 0;
+
+    /** Pixel format of decoded video frames. */
+    private PixelFormat pixelFormat = PixelFormat.BGR24;
+
+    /** Executor for the input's processing tasks, or null to start a thread for each. */
+    private Executor executor;
+
+    /** Executor shared by metadata streams for decoding messages, or null for none. */
+    private Executor metadataDecodeExecutor;
+
     /** Construct with default values. */
     public VideoInputOptions() {
         decodeAudio = false;
@@ -52,4 +72,194 @@ public class VideoInputOptions {
     public boolean isDecodeVideo() {
         return decodeVideo;
     }
+
+    /**
+     * Get the number of threads used to decode each metadata stream.
+     *
+     * @return the number of decode threads, where 1 means that messages are decoded on the metadata
+     *     stream's own thread
+     */
+    public int getMetadataDecodeThreads() {
+        return metadataDecodeThreads;
+    }
+
+    /**
+     * Set the number of threads used to decode each metadata stream.
+     *
+     * <p>With more than one thread, messages are framed on the metadata stream's thread and decoded
+     * on a pool of worker threads. Decoded messages are still passed to the {@link VideoInput} in
+     * the order they were received, so PTS ordering is preserved. This is mostly useful for
+     * high-rate streams with large messages (e.g. ST 0903 VMTI with many targets).
+     *
+     * <p>Metadata from a video input is always decoded outside of any {@link
+     * org.jmisb.api.common.ParseContext}, so invalid data is handled by the {@link
+     * org.jmisb.api.common.InvalidDataHandler} singleton, however many threads are used.
+     *
+     * @param metadataDecodeThreads the number of decode threads (default 1)
+     * @throws IllegalArgumentException if {@code metadataDecodeThreads} is less than 1
+     */
+    public void setMetadataDecodeThreads(int metadataDecodeThreads) {
+        if (metadataDecodeThreads < 1) {
+            throw new IllegalArgumentException("Metadata decode threads must be at least 1");
+        }
+        this.metadataDecodeThreads = metadataDecodeThreads;
+    }
+
+    /**
+     * Get the maximum number of pending metadata messages per stream.
+     *
+     * @return the maximum number of messages being decoded or waiting to be passed on
+     */
+    public int getMaxPendingMetadataMessages() {
+        return maxPendingMetadataMessages;
+    }
+
+    /**
+     * Set the maximum number of pending metadata messages per stream.
+     *
+     * <p>When decoding on multiple threads, a message that finishes decoding early is held until
+     * all earlier messages have been passed on. This bounds the number of messages that can be in
+     * flight, and so the memory used for reordering. When the limit is reached, framing waits for
+     * the oldest message to be decoded. It has no effect when {@link #getMetadataDecodeThreads()}
+     * is 1.
+     *
+     * @param maxPendingMetadataMessages the maximum number of pending messages (default 64)
+     * @throws IllegalArgumentException if {@code maxPendingMetadataMessages} is less than 1
+     */
+    public void setMaxPendingMetadataMessages(int maxPendingMetadataMessages) {
+        if (maxPendingMetadataMessages < 1) {
+            throw new IllegalArgumentException("Max pending metadata messages must be at least 1");
+        }
+        this.maxPendingMetadataMessages = maxPendingMetadataMessages;
+    }
+
+    /**
+     * Get the decoded video frame pool size.
+     *
+     * @return the number of idle frame buffers kept for re-use, or 0 if pooling is disabled
+     */
+    public int getFramePoolSize() {
+        return framePoolSize;
+    }
+
+    /**
+     * Set the decoded video frame pool size.
+     *
+     * <p>By default, each decoded frame is copied into a newly allocated image, which listeners may
+     * keep indefinitely. For high resolution video this produces a lot of garbage. With pooling
+     * enabled, frames are decoded directly into images taken from a pool, and each image is
+     * returned to the pool after all listeners have been notified. A listener that needs to keep a
+     * frame (or pass it to another thread) must call {@link VideoFrame#retain()} and later {@link
+     * VideoFrame#release()}.
+     *
+     * <p>The pool size is the number of idle images kept for re-use. A few more than the number of
+     * frames listeners typically retain is sufficient.
+     *
+     * @param framePoolSize the number of idle frame buffers to keep (default 0, which disables
+     *     pooling)
+     * @throws IllegalArgumentException if {@code framePoolSize} is negative
+     */
+    public void setFramePoolSize(int framePoolSize) {
+        if (framePoolSize < 0) {
+            throw new IllegalArgumentException("Frame pool size cannot be negative");
+        }
+        this.framePoolSize = framePoolSize;
+    }
+
+    /**
+     * Get the pixel format of decoded video frames.
+     *
+     * @return the pixel format
+     */
+    public PixelFormat getPixelFormat() {
+        return pixelFormat;
+    }
+
+    /**
+     * Set the pixel format of decoded video frames.
+     *
+     * <p>By default, decoded frames are converted to BGR24 and copied into a {@link
+     * java.awt.image.BufferedImage}. Any other format delivers frames as planes of native memory
+     * instead, with no image: see {@link VideoFrame#getPlane(int)}. {@link PixelFormat#NATIVE}
+     * skips colour conversion entirely, delivering the decoder's own buffers. The other formats
+     * convert into a new native buffer for each frame.
+     *
+     * <p>Frames in these formats are reference counted, and their planes are only valid until the
+     * frame is released (see {@link VideoFrame#retain()}). The frame pool (see {@link
+     * #setFramePoolSize(int)}) only applies to BGR24.
+     *
+     * @param pixelFormat the pixel format (default {@link PixelFormat#BGR24})
+     * @throws IllegalArgumentException if {@code pixelFormat} is null
+     */
+    public void setPixelFormat(PixelFormat pixelFormat) {
+        if (pixelFormat == null) {
+            throw new IllegalArgumentException("Pixel format cannot be null");
+        }
+        this.pixelFormat = pixelFormat;
+    }
+
+    /**
+     * Get the executor that runs the input's processing tasks.
+     *
+     * @return the executor, or null if each task runs on its own thread
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Set the executor that runs the input's processing tasks.
+     *
+     * <p>Each input is processed by a number of long-running tasks: a demuxer, a video decoder, a
+     * decoder for each metadata stream, and a notifier each for video and metadata. By default,
+     * each task runs on its own newly created thread. With an executor, the tasks are run on it
+     * instead, so that many inputs can share threads. On Java 21 or later, {@code
+     * Executors.newVirtualThreadPerTaskExecutor()} runs each task on a virtual thread, which allows
+     * a single process to handle hundreds of inputs.
+     *
+     * <p>Each task runs until the input is closed, so the executor must be able to run all of the
+     * tasks of all the inputs that use it at the same time. A fixed size thread pool is not
+     * suitable: tasks waiting for a thread would never run, and closing the input would block. To
+     * limit the number of threads decoding metadata, use {@link
+     * #setMetadataDecodeExecutor(Executor)}.
+     *
+     * <p>The executor is not shut down when the input is closed.
+     *
+     * @param executor the executor, or null to run each task on its own thread (default null)
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Get the executor used to decode metadata messages.
+     *
+     * @return the executor, or null if each metadata stream decodes its own messages
+     */
+    public Executor getMetadataDecodeExecutor() {
+        return metadataDecodeExecutor;
+    }
+
+    /**
+     * Set the executor used to decode metadata messages.
+     *
+     * <p>With an executor, messages are framed by each metadata stream's task, and decoded by short
+     * tasks submitted to this executor. Decoded messages are still passed on in the order they were
+     * received. Sharing a bounded executor (such as a fixed size thread pool) between inputs caps
+     * the total number of threads decoding metadata, however many streams there are.
+     *
+     * <p>This takes precedence over {@link #setMetadataDecodeThreads(int)}. The number of messages
+     * in flight for each stream is still limited by {@link #setMaxPendingMetadataMessages(int)}.
+     * The executor is not shut down when the input is closed.
+     *
+     * <p>As for {@link #setMetadataDecodeThreads(int)}, invalid data is handled by the {@link
+     * org.jmisb.api.common.InvalidDataHandler} singleton, not by any {@link
+     * org.jmisb.api.common.ParseContext} that the executor's threads may be running in.
+     *
+     * @param metadataDecodeExecutor the executor, or null to decode as specified by {@link
+     *     #setMetadataDecodeThreads(int)} (default null)
+     */
+    public void setMetadataDecodeExecutor(Executor metadataDecodeExecutor) {
+        this.metadataDecodeExecutor = metadataDecodeExecutor;
+    }
 }
@@ -99,11 +99,12 @@ public class VideoStreamInput extends VideoInput implements IVideoStreamInput {
         }
 
         // Create the demuxer and start demuxing
+        statistics.reset();
         demuxer = new StreamDemuxer(this, formatContext, options);
-        demuxer.start();
+        demuxer.start(options.getExecutor());
 
         // Start notifier threads
-        startNotifiers(false);
+        startNotifiers(false, options.getExecutor());
 
         open = true;
     }
@@ -113,6 +114,11 @@ public class VideoStreamInput extends VideoInput implements IVideoStreamInput {
         return open;
     }
 
+    @Override
+    Demuxer getDemuxer() {
+        return open ? demuxer : null;
+    }
+
     @Override
     public void close() {
         logger.debug("Closing " + url);
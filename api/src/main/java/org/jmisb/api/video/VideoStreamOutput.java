@@ -138,6 +138,9 @@ public class VideoStreamOutput extends VideoOutput implements IVideoStreamOutput
 
     @Override
     public void queueVideoFrame(VideoFrame videoFrame) {
+        if (videoFrame.getImage() == null) {
+            throw new IllegalArgumentException("Video frame has no image");
+        }
         boolean wasAdded = videoFrames.offer(videoFrame);
         if (!wasAdded) {
             logger.info("Video frame could not be queued, possible lag");
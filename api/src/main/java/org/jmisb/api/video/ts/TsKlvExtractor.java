@@ -0,0 +1,571 @@
+package org.jmisb.api.video.ts;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.jmisb.api.klv.KlvStreamParser;
+import org.jmisb.api.video.IMetadataListener;
+import org.jmisb.api.video.MetadataFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Extract KLV metadata from an MPEG-2 Transport Stream, without using FFmpeg.
+ *
+ * <p>This is intended for metadata-only workloads, such as indexing an archive of files, where the
+ * startup cost of the native libraries used by {@link org.jmisb.api.video.VideoFileInput} is a
+ * burden. Files are memory-mapped and scanned as 188-byte TS packets. The Program Association Table
+ * and Program Map Tables are used to find the KLV streams, which are:
+ *
+ * <ul>
+ *   <li>asynchronous KLV: stream type 0x06 (PES private data) with a "KLVA" registration descriptor
+ *   <li>synchronous KLV: stream type 0x15 (metadata carried in PES) with a "KLVA" registration or
+ *       metadata descriptor, where the payload is a sequence of metadata access unit cells
+ * </ul>
+ *
+ * <p>The PES packets of each KLV stream are reassembled and passed through a {@link
+ * KlvStreamParser}, so messages that are split across PES packets are handled. Each message is
+ * passed to the listener as a {@link MetadataFrame}, with the PTS of the PES packet that completed
+ * it, or {@code Double.NaN} if that packet had no PTS.
+ *
+ * <p>Lost packets (detected using the continuity counter) cause the partial PES packet to be
+ * discarded. Loss of sync is recovered by scanning for the next sync byte.
+ *
+ * <p>This class is not thread safe. Since each extractor is independent, many files can be
+ * processed in parallel using one extractor per thread.
+ */
+public class TsKlvExtractor {
+    private static final Logger logger = LoggerFactory.getLogger(TsKlvExtractor.class);
+
+    /** Length of a transport stream packet, in bytes. */
+    public static final int PACKET_LENGTH = 188;
+
+    static final byte SYNC_BYTE = 0x47;
+    private static final int PAT_PID = 0x0000;
+    private static final int NULL_PID = 0x1FFF;
+    private static final int PAT_TABLE_ID = 0x00;
+    private static final int PMT_TABLE_ID = 0x02;
+    private static final int STREAM_TYPE_PES_PRIVATE_DATA = 0x06;
+    private static final int STREAM_TYPE_METADATA_PES = 0x15;
+    private static final int REGISTRATION_DESCRIPTOR = 0x05;
+    private static final int METADATA_DESCRIPTOR = 0x26;
+
+    /** The "KLVA" format identifier. */
+    private static final int KLVA = 0x4B4C5641;
+
+    private static final int METADATA_AU_HEADER_LENGTH = 5;
+    private static final int PES_HEADER_LENGTH = 6;
+    private static final int MAX_SECTION_LENGTH = 4096;
+
+    /** Number of packets to map at once (about 750 MiB). */
+    private static final long PACKETS_PER_MAPPING = 4L * 1024 * 1024;
+
+    private final IMetadataListener listener;
+    private final int maxMessageLength;
+    private final Map<Integer, SectionBuffer> sectionBuffers = new HashMap<>();
+    private final Map<Integer, KlvStream> klvStreams = new TreeMap<>();
+    private long packetCount;
+    private long syncErrorCount;
+    private long continuityErrorCount;
+
+    /**
+     * Constructor.
+     *
+     * @param listener The listener to pass each extracted message to
+     */
+    public TsKlvExtractor(IMetadataListener listener) {
+        this(listener, KlvStreamParser.DEFAULT_MAX_MESSAGE_LENGTH);
+    }
+
+    /**
+     * Constructor specifying the maximum message length.
+     *
+     * @param listener The listener to pass each extracted message to
+     * @param maxMessageLength the maximum length of a top-level message (including the Universal
+     *     Label and length field), in bytes
+     */
+    public TsKlvExtractor(IMetadataListener listener, int maxMessageLength) {
+        this.listener = listener;
+        this.maxMessageLength = maxMessageLength;
+    }
+
+    /**
+     * Extract the KLV metadata from a file.
+     *
+     * <p>The listener is called on the calling thread, before this method returns.
+     *
+     * @param path The transport stream file
+     * @throws IOException if the file could not be read
+     */
+    public void extract(Path path) throws IOException {
+        reset();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            long offset = 0;
+            while (size - offset >= PACKET_LENGTH) {
+                long length = Math.min(size - offset, PACKETS_PER_MAPPING * PACKET_LENGTH);
+                MappedByteBuffer buffer =
+                        channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                offset += process(buffer);
+            }
+        }
+        finish();
+    }
+
+    /**
+     * Extract the KLV metadata from a transport stream held in memory.
+     *
+     * <p>The bytes between the buffer's position and limit are treated as a complete transport
+     * stream. The position is not modified. The listener is called on the calling thread, before
+     * this method returns.
+     *
+     * @param data The transport stream
+     */
+    public void extract(ByteBuffer data) {
+        reset();
+        process(data.duplicate());
+        finish();
+    }
+
+    /**
+     * Get the number of TS packets read by the last extraction.
+     *
+     * @return The number of packets, including those from streams other than KLV
+     */
+    public long getPacketCount() {
+        return packetCount;
+    }
+
+    /**
+     * Get the number of times sync was lost in the last extraction.
+     *
+     * @return The number of times the packets were not aligned with the sync byte
+     */
+    public long getSyncErrorCount() {
+        return syncErrorCount;
+    }
+
+    /**
+     * Get the number of continuity errors on KLV streams in the last extraction.
+     *
+     * @return The number of times a packet was found to be missing
+     */
+    public long getContinuityErrorCount() {
+        return continuityErrorCount;
+    }
+
+    /**
+     * Get the KLV streams found by the last extraction.
+     *
+     * @return The PIDs of the KLV streams, in ascending order
+     */
+    public List<Integer> getKlvPids() {
+        return new ArrayList<>(klvStreams.keySet());
+    }
+
+    /**
+     * Get the number of messages extracted by the last extraction.
+     *
+     * @return The number of messages passed to the listener
+     */
+    public long getMessageCount() {
+        long count = 0;
+        for (KlvStream stream : klvStreams.values()) {
+            count += stream.parser.getMessageCount();
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of messages that failed to parse in the last extraction.
+     *
+     * @return The number of messages that were framed but could not be decoded
+     */
+    public long getFailedMessageCount() {
+        long count = 0;
+        for (KlvStream stream : klvStreams.values()) {
+            count += stream.parser.getFailedMessageCount();
+        }
+        return count;
+    }
+
+    /** Prepare for a new transport stream, forgetting any streams found previously. */
+    void reset() {
+        sectionBuffers.clear();
+        sectionBuffers.put(PAT_PID, new SectionBuffer());
+        klvStreams.clear();
+        packetCount = 0;
+        syncErrorCount = 0;
+        continuityErrorCount = 0;
+    }
+
+    /** Parse any PES packets still being reassembled, at the end of the transport stream. */
+    void finish() {
+        for (KlvStream stream : klvStreams.values()) {
+            stream.flush();
+        }
+    }
+
+    /**
+     * Process the whole packets in a buffer.
+     *
+     * @param buffer The buffer, from its position to its limit
+     * @return The number of bytes consumed, which leaves less than a packet unprocessed
+     */
+    int process(ByteBuffer buffer) {
+        final int start = buffer.position();
+        final int limit = buffer.limit();
+        int pos = start;
+        while (limit - pos >= PACKET_LENGTH) {
+            // Also check the following packet (if any), so a stray sync byte isn't mistaken for
+            // the start of a packet
+            if (buffer.get(pos) != SYNC_BYTE
+                    || (limit - pos > PACKET_LENGTH
+                            && buffer.get(pos + PACKET_LENGTH) != SYNC_BYTE)) {
+                syncErrorCount++;
+                pos = findSync(buffer, pos + 1, limit);
+                continue;
+            }
+            processPacket(buffer, pos);
+            packetCount++;
+            pos += PACKET_LENGTH;
+        }
+        return pos - start;
+    }
+
+    /**
+     * Find the next sync byte that is followed by another a packet later.
+     *
+     * @return The index of the sync byte, or an index less than a packet from the limit if none
+     */
+    private static int findSync(ByteBuffer buffer, int pos, int limit) {
+        for (; limit - pos >= PACKET_LENGTH; pos++) {
+            if (buffer.get(pos) == SYNC_BYTE
+                    && (limit - pos == PACKET_LENGTH
+                            || buffer.get(pos + PACKET_LENGTH) == SYNC_BYTE)) {
+                return pos;
+            }
+        }
+        return pos;
+    }
+
+    private void processPacket(ByteBuffer buffer, int pos) {
+        final int b1 = buffer.get(pos + 1) & 0xFF;
+        final int b3 = buffer.get(pos + 3) & 0xFF;
+        if ((b1 & 0x80) != 0) {
+            // transport_error_indicator
+            return;
+        }
+        final boolean unitStart = (b1 & 0x40) != 0;
+        final int pid = ((b1 & 0x1F) << 8) | (buffer.get(pos + 2) & 0xFF);
+        if (pid == NULL_PID) {
+            return;
+        }
+        final int adaptationFieldControl = (b3 >> 4) & 0x03;
+        final int continuityCounter = b3 & 0x0F;
+        final int end = pos + PACKET_LENGTH;
+        int payload = pos + 4;
+        boolean discontinuity = false;
+        if ((adaptationFieldControl & 0x02) != 0) {
+            int adaptationFieldLength = buffer.get(payload) & 0xFF;
+            if (adaptationFieldLength > 0) {
+                discontinuity = (buffer.get(payload + 1) & 0x80) != 0;
+            }
+            payload += 1 + adaptationFieldLength;
+        }
+        if ((adaptationFieldControl & 0x01) == 0) {
+            // No payload, so the continuity counter does not advance
+            return;
+        }
+
+        KlvStream klvStream = klvStreams.get(pid);
+        if (klvStream != null) {
+            // The counter advances even if the adaptation field fills the packet
+            if (klvStream.checkContinuity(continuityCounter, discontinuity) && payload < end) {
+                klvStream.packet(buffer, payload, end, unitStart);
+            }
+            return;
+        }
+        if (payload >= end) {
+            return;
+        }
+        SectionBuffer sectionBuffer = sectionBuffers.get(pid);
+        if (sectionBuffer != null) {
+            sectionBuffer.packet(buffer, payload, end, unitStart);
+        }
+    }
+
+    private void handleSection(byte[] section, int length) {
+        // Need the long form header (8 bytes) and CRC (4 bytes)
+        if (length < 12 || (section[1] & 0x80) == 0 || (section[5] & 0x01) == 0) {
+            // Not long form, or not yet applicable
+            return;
+        }
+        final int tableId = section[0] & 0xFF;
+        final int end = length - 4;
+        if (tableId == PAT_TABLE_ID) {
+            for (int i = 8; i + 4 <= end; i += 4) {
+                int programNumber = readUint16(section, i);
+                int pmtPid = readUint16(section, i + 2) & 0x1FFF;
+                if (programNumber != 0 && !sectionBuffers.containsKey(pmtPid)) {
+                    sectionBuffers.put(pmtPid, new SectionBuffer());
+                }
+            }
+        } else if (tableId == PMT_TABLE_ID && length >= 16) {
+            int i = 12 + (readUint16(section, 10) & 0x0FFF);
+            while (i + 5 <= end) {
+                int streamType = section[i] & 0xFF;
+                int pid = readUint16(section, i + 1) & 0x1FFF;
+                int infoLength = readUint16(section, i + 3) & 0x0FFF;
+                int descriptors = i + 5;
+                i = descriptors + infoLength;
+                if (i > end) {
+                    break;
+                }
+                if (isKlv(streamType, section, descriptors, i) && !klvStreams.containsKey(pid)) {
+                    logger.debug("Found KLV stream on PID " + pid);
+                    klvStreams.put(pid, new KlvStream(streamType == STREAM_TYPE_METADATA_PES));
+                }
+            }
+        }
+    }
+
+    /**
+     * Check whether an elementary stream carries KLV.
+     *
+     * @param streamType The stream type
+     * @param bytes The PMT section
+     * @param from The index of the first descriptor for the stream
+     * @param to The index after the last descriptor for the stream
+     * @return true if the stream is KLV
+     */
+    private static boolean isKlv(int streamType, byte[] bytes, int from, int to) {
+        if (streamType != STREAM_TYPE_PES_PRIVATE_DATA && streamType != STREAM_TYPE_METADATA_PES) {
+            return false;
+        }
+        int i = from;
+        while (i + 2 <= to) {
+            int tag = bytes[i] & 0xFF;
+            int length = bytes[i + 1] & 0xFF;
+            int data = i + 2;
+            i = data + length;
+            if (i > to) {
+                break;
+            }
+            if (tag == REGISTRATION_DESCRIPTOR && length >= 4 && readInt32(bytes, data) == KLVA) {
+                return true;
+            }
+            if (tag == METADATA_DESCRIPTOR && length >= 3) {
+                // metadata_application_format, optional identifier, then metadata_format
+                int k = data + 2;
+                if (readUint16(bytes, data) == 0xFFFF) {
+                    k += 4;
+                }
+                if (k + 5 <= i && (bytes[k] & 0xFF) == 0xFF && readInt32(bytes, k + 1) == KLVA) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static int readUint16(byte[] bytes, int index) {
+        return ((bytes[index] & 0xFF) << 8) | (bytes[index + 1] & 0xFF);
+    }
+
+    private static int readInt32(byte[] bytes, int index) {
+        return (readUint16(bytes, index) << 16) | readUint16(bytes, index + 2);
+    }
+
+    /** Reassembles PSI sections (PAT and PMT) from TS packet payloads. */
+    private class SectionBuffer {
+        private final byte[] data = new byte[MAX_SECTION_LENGTH + PACKET_LENGTH];
+        private int length = 0;
+        private boolean started = false;
+
+        void packet(ByteBuffer buffer, int from, int to, boolean unitStart) {
+            if (unitStart) {
+                int pointer = buffer.get(from) & 0xFF;
+                from++;
+                if (started) {
+                    // The bytes before the pointer complete the previous section
+                    append(buffer, from, Math.min(to, from + pointer));
+                }
+                from += pointer;
+                length = 0;
+                started = true;
+            }
+            if (started && from < to) {
+                append(buffer, from, to);
+            }
+        }
+
+        private void append(ByteBuffer buffer, int from, int to) {
+            int count = to - from;
+            if (length + count > data.length) {
+                // Not a valid section
+                length = 0;
+                started = false;
+                return;
+            }
+            for (int i = 0; i < count; i++) {
+                data[length + i] = buffer.get(from + i);
+            }
+            length += count;
+            while (started && length >= 3) {
+                if ((data[0] & 0xFF) == 0xFF) {
+                    // Stuffing, no more sections until the next unit start
+                    started = false;
+                    length = 0;
+                    break;
+                }
+                int sectionLength = 3 + (readUint16(data, 1) & 0x0FFF);
+                if (length < sectionLength) {
+                    break;
+                }
+                handleSection(data, sectionLength);
+                length -= sectionLength;
+                System.arraycopy(data, sectionLength, data, 0, length);
+            }
+        }
+    }
+
+    /** Reassembles the PES packets of a KLV stream, and parses the KLV. */
+    private class KlvStream {
+        private final boolean synchronous;
+        private final KlvStreamParser parser;
+        private byte[] pes = new byte[PACKET_LENGTH * 4];
+        private int length = 0;
+        private boolean started = false;
+        private int lastContinuityCounter = -1;
+        private double pts;
+
+        KlvStream(boolean synchronous) {
+            this.synchronous = synchronous;
+            this.parser =
+                    new KlvStreamParser(
+                            message -> listener.onMetadataReceived(new MetadataFrame(message, pts)),
+                            maxMessageLength);
+        }
+
+        /**
+         * Check the continuity counter of a packet that has the payload flag set.
+         *
+         * @param continuityCounter the continuity counter of the packet
+         * @param discontinuity true if the packet has the discontinuity indicator set
+         * @return false if the packet is a duplicate, and should be ignored
+         */
+        boolean checkContinuity(int continuityCounter, boolean discontinuity) {
+            if (lastContinuityCounter >= 0 && !discontinuity) {
+                if (continuityCounter == lastContinuityCounter) {
+                    // Duplicate packet
+                    return false;
+                }
+                if (continuityCounter != ((lastContinuityCounter + 1) & 0x0F)) {
+                    continuityErrorCount++;
+                    started = false;
+                    length = 0;
+                    parser.reset();
+                }
+            }
+            lastContinuityCounter = continuityCounter;
+            return true;
+        }
+
+        void packet(ByteBuffer buffer, int from, int to, boolean unitStart) {
+            if (unitStart) {
+                flush();
+                started = true;
+            }
+            if (!started) {
+                return;
+            }
+            int count = to - from;
+            if (length + count > pes.length) {
+                pes = Arrays.copyOf(pes, Math.max(pes.length * 2, length + count));
+            }
+            for (int i = 0; i < count; i++) {
+                pes[length + i] = buffer.get(from + i);
+            }
+            length += count;
+
+            // Deliver as soon as a bounded PES packet is complete
+            if (length >= PES_HEADER_LENGTH) {
+                int pesPacketLength = readUint16(pes, 4);
+                if (pesPacketLength > 0 && length >= PES_HEADER_LENGTH + pesPacketLength) {
+                    flush();
+                }
+            }
+        }
+
+        /** Parse the current PES packet, if any. */
+        void flush() {
+            if (started) {
+                parsePes();
+            }
+            started = false;
+            length = 0;
+        }
+
+        private void parsePes() {
+            if (length < 9 || pes[0] != 0 || pes[1] != 0 || pes[2] != 1) {
+                logger.debug("Invalid PES packet start code");
+                return;
+            }
+            int pesPacketLength = readUint16(pes, 4);
+            int end = (pesPacketLength > 0) ? PES_HEADER_LENGTH + pesPacketLength : length;
+            if (end > length) {
+                logger.debug("Truncated PES packet");
+                return;
+            }
+            int flags = pes[7] & 0xFF;
+            int data = 9 + (pes[8] & 0xFF);
+            if (data > end) {
+                logger.debug("Invalid PES header length");
+                return;
+            }
+            pts =
+                    ((flags & 0x80) != 0 && data >= 14)
+                            ? readTimestamp(pes, 9) / 90000.0
+                            : Double.NaN;
+
+            if (synchronous) {
+                // Sequence of metadata access unit cells, each with a five byte header
+                int cell = data;
+                while (end - cell >= METADATA_AU_HEADER_LENGTH) {
+                    int cellLength = readUint16(pes, cell + 3);
+                    int cellData = cell + METADATA_AU_HEADER_LENGTH;
+                    int count = Math.min(cellLength, end - cellData);
+                    parser.feed(ByteBuffer.wrap(pes, cellData, count));
+                    cell = cellData + count;
+                }
+            } else {
+                parser.feed(ByteBuffer.wrap(pes, data, end - data));
+            }
+        }
+    }
+
+    /**
+     * Read a 33-bit PES timestamp.
+     *
+     * @param bytes The array
+     * @param index The index of the first of the five timestamp bytes
+     * @return The timestamp, in 90 kHz units
+     */
+    private static long readTimestamp(byte[] bytes, int index) {
+        return (((long) bytes[index] & 0x0E) << 29)
+                | ((long) (bytes[index + 1] & 0xFF) << 22)
+                | ((long) (bytes[index + 2] & 0xFE) << 14)
+                | ((long) (bytes[index + 3] & 0xFF) << 7)
+                | ((long) (bytes[index + 4] & 0xFE) >>> 1);
+    }
+}
@@ -0,0 +1,100 @@
+package org.jmisb.api.video.ts;
+
+import static org.jmisb.api.video.ts.TsKlvExtractor.PACKET_LENGTH;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free ring buffer of TS packets, for a single producer and a single consumer.
+ *
+ * <p>The producer copies whole packets in using {@link #offer(ByteBuffer)}. The consumer reads them
+ * in place using {@link #peek()}, then frees the slots using {@link #advance(int)}. Neither side
+ * blocks: the producer is told how many packets fitted, and the consumer gets null if the ring is
+ * empty.
+ */
+class TsPacketRing {
+    private final byte[] data;
+    private final int capacity;
+
+    /** Index of the next packet to read. Only written by the consumer. */
+    private final AtomicLong head = new AtomicLong();
+
+    /** Index of the next packet to write. Only written by the producer. */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param capacity The number of packets the ring can hold
+     */
+    TsPacketRing(int capacity) {
+        this.capacity = capacity;
+        this.data = new byte[capacity * PACKET_LENGTH];
+    }
+
+    /**
+     * Copy whole packets into the ring.
+     *
+     * <p>Must only be called by the producer.
+     *
+     * @param src The packets, from the buffer's position to its limit. The position is advanced
+     *     past the packets that were copied.
+     * @return The number of packets copied, which is less than the number available if the ring is
+     *     full
+     */
+    int offer(ByteBuffer src) {
+        final long t = tail.get();
+        final long free = capacity - (t - head.get());
+        final int count = (int) Math.min(free, src.remaining() / PACKET_LENGTH);
+        for (int i = 0; i < count; i++) {
+            int slot = (int) ((t + i) % capacity);
+            src.get(data, slot * PACKET_LENGTH, PACKET_LENGTH);
+        }
+        // Publish the packets to the consumer. This is a volatile store rather than lazySet, so
+        // that it is ordered before the producer's following check of whether the consumer is
+        // waiting (see TsUdpReceiver).
+        tail.set(t + count);
+        return count;
+    }
+
+    /**
+     * Get the packets available to the consumer.
+     *
+     * <p>Must only be called by the consumer. The packets remain in the ring until {@link
+     * #advance(int)} is called.
+     *
+     * @return A buffer holding one or more contiguous packets, or null if the ring is empty
+     */
+    ByteBuffer peek() {
+        final long h = head.get();
+        final long available = tail.get() - h;
+        if (available == 0) {
+            return null;
+        }
+        final int slot = (int) (h % capacity);
+        final int count = (int) Math.min(available, capacity - slot);
+        return ByteBuffer.wrap(data, slot * PACKET_LENGTH, count * PACKET_LENGTH);
+    }
+
+    /**
+     * Free packets that have been read.
+     *
+     * <p>Must only be called by the consumer.
+     *
+     * @param count The number of packets, which must not exceed the number returned by {@link
+     *     #peek()}
+     */
+    void advance(int count) {
+        head.lazySet(head.get() + count);
+    }
+
+    /**
+     * Check whether the ring is empty.
+     *
+     * @return true if there are no packets for the consumer
+     */
+    boolean isEmpty() {
+        return tail.get() == head.get();
+    }
+}
@@ -0,0 +1,421 @@
+package org.jmisb.api.video.ts;
+
+import static org.jmisb.api.video.ts.TsKlvExtractor.PACKET_LENGTH;
+import static org.jmisb.api.video.ts.TsKlvExtractor.SYNC_BYTE;
+
+import java.io.IOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.jmisb.api.video.IMetadataListener;
+import org.jmisb.api.video.MetadataFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Receive KLV metadata from an MPEG-2 Transport Stream sent over UDP, without using FFmpeg.
+ *
+ * <p>This is intended for metadata-only live ingest, where a {@link
+ * org.jmisb.api.video.VideoStreamInput} (with its demux, decode and notifier threads, and a native
+ * video decoder) would be wasted effort, for example when listening to many feeds at once. Video is
+ * never decoded: the transport stream packets are handed to a {@link TsKlvExtractor}, and only the
+ * KLV streams are reassembled.
+ *
+ * <p>Each receiver uses two threads. The receive thread reads datagrams from the socket and copies
+ * the TS packets into a lock-free ring buffer, so that the socket is drained promptly. The parse
+ * thread takes packets from the ring, parses the KLV, and calls the listener. If the listener falls
+ * behind and the ring fills, packets are dropped (see {@link #getOverflowCount()}). Packets lost on
+ * the network or in the ring are detected using the continuity counter (see {@link
+ * #getContinuityErrorCount()}), and the affected message is discarded.
+ *
+ * <p>Datagrams are expected to hold whole TS packets, typically seven. Any header before the
+ * packets (such as an RTP header) is skipped.
+ *
+ * <p>The listener is called on the parse thread.
+ */
+public class TsUdpReceiver implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(TsUdpReceiver.class);
+
+    private static final int MAX_DATAGRAM_LENGTH = 65536;
+
+    /** Longest time the parse thread waits without checking whether to stop, in nanoseconds. */
+    private static final long MAX_PARK_NANOS = 100_000_000L;
+
+    private final TsUdpReceiverOptions options;
+    private final TsKlvExtractor extractor;
+
+    private String url;
+    private DatagramChannel channel;
+    private Thread receiveThread;
+    private Thread parseThread;
+    private int receiveBufferSize;
+    private volatile boolean open = false;
+    private volatile boolean receiving = false;
+    private volatile boolean parserWaiting = false;
+
+    private final AtomicLong datagramCount = new AtomicLong();
+    private final AtomicLong invalidDatagramCount = new AtomicLong();
+    private final AtomicLong packetCount = new AtomicLong();
+    private final AtomicLong overflowCount = new AtomicLong();
+    private volatile long continuityErrorCount;
+    private volatile long messageCount;
+    private volatile long failedMessageCount;
+
+    /**
+     * Constructor.
+     *
+     * @param listener The listener to pass each received message to
+     */
+    public TsUdpReceiver(IMetadataListener listener) {
+        this(listener, new TsUdpReceiverOptions());
+    }
+
+    /**
+     * Constructor specifying options.
+     *
+     * @param listener The listener to pass each received message to
+     * @param options Receiver options
+     */
+    public TsUdpReceiver(IMetadataListener listener, TsUdpReceiverOptions options) {
+        this.options = options;
+        this.extractor =
+                new TsKlvExtractor(frame -> notify(listener, frame), options.getMaxMessageLength());
+    }
+
+    /**
+     * Start receiving.
+     *
+     * @param url The stream URL, in the form {@code udp://host:port}. A multicast host joins the
+     *     group, while a unicast host (e.g. {@code 0.0.0.0}) binds to that address.
+     * @throws IOException if the socket could not be opened
+     * @throws IllegalArgumentException if the URL is not a valid UDP URL
+     * @throws IllegalStateException if the receiver is already open
+     */
+    public void open(String url) throws IOException {
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid URL: " + url, e);
+        }
+        if (!"udp".equals(uri.getScheme()) || uri.getHost() == null || uri.getPort() < 0) {
+            throw new IllegalArgumentException(
+                    "Expected a URL of the form udp://host:port: " + url);
+        }
+        open(new InetSocketAddress(uri.getHost(), uri.getPort()), url);
+    }
+
+    /**
+     * Start receiving.
+     *
+     * @param address The address to receive from. A multicast address joins the group, while a
+     *     unicast address binds to that address.
+     * @throws IOException if the socket could not be opened
+     * @throws IllegalStateException if the receiver is already open
+     */
+    public void open(InetSocketAddress address) throws IOException {
+        open(address, "udp://" + address.getHostString() + ":" + address.getPort());
+    }
+
+    private synchronized void open(InetSocketAddress address, String url) throws IOException {
+        if (open) {
+            throw new IllegalStateException("Receiver is already open");
+        }
+        if (address.isUnresolved()) {
+            throw new IOException("Could not resolve host: " + address.getHostString());
+        }
+        logger.debug("Opening " + url + "...");
+        InetAddress host = address.getAddress();
+        DatagramChannel datagramChannel =
+                DatagramChannel.open(
+                        (host instanceof Inet6Address)
+                                ? StandardProtocolFamily.INET6
+                                : StandardProtocolFamily.INET);
+        try {
+            datagramChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            datagramChannel.setOption(
+                    StandardSocketOptions.SO_RCVBUF, options.getReceiveBufferSize());
+            if (host.isMulticastAddress()) {
+                datagramChannel.bind(new InetSocketAddress(address.getPort()));
+                datagramChannel.join(host, getMulticastInterface());
+            } else {
+                datagramChannel.bind(address);
+            }
+            receiveBufferSize = datagramChannel.getOption(StandardSocketOptions.SO_RCVBUF);
+        } catch (IOException | RuntimeException e) {
+            datagramChannel.close();
+            throw e;
+        }
+        if (receiveBufferSize < options.getReceiveBufferSize()) {
+            logger.warn(
+                    "Requested receive buffer of "
+                            + options.getReceiveBufferSize()
+                            + " bytes for "
+                            + url
+                            + ", but only got "
+                            + receiveBufferSize);
+        }
+
+        this.url = url;
+        channel = datagramChannel;
+        datagramCount.set(0);
+        invalidDatagramCount.set(0);
+        packetCount.set(0);
+        overflowCount.set(0);
+        continuityErrorCount = 0;
+        messageCount = 0;
+        failedMessageCount = 0;
+
+        open = true;
+        receiving = true;
+        final TsPacketRing packetRing = new TsPacketRing(options.getRingCapacity());
+        final Thread parser = new Thread(() -> parse(packetRing), "TsUdpReceiver parse " + url);
+        parseThread = parser;
+        receiveThread =
+                new Thread(
+                        () -> receive(datagramChannel, packetRing, parser, url),
+                        "TsUdpReceiver receive " + url);
+        parseThread.start();
+        receiveThread.start();
+    }
+
+    /**
+     * Check whether the receiver is open.
+     *
+     * @return true if open
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * Stop receiving.
+     *
+     * <p>Packets already received are parsed, and the listener called, before this method returns.
+     */
+    @Override
+    public synchronized void close() {
+        if (!open) {
+            return;
+        }
+        logger.debug("Closing " + url);
+        open = false;
+        try {
+            // Unblocks the receive thread
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Error closing " + url, e);
+        }
+        try {
+            receiveThread.join();
+            parseThread.join();
+        } catch (InterruptedException e) {
+            logger.warn("Interrupted while joining receiver threads", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Get the local address of the socket.
+     *
+     * <p>This is useful when opened on port 0, to find the port that was allocated.
+     *
+     * @return The local address, or null if the receiver is not open
+     * @throws IOException if the address could not be read
+     */
+    public synchronized InetSocketAddress getLocalAddress() throws IOException {
+        return open ? (InetSocketAddress) channel.getLocalAddress() : null;
+    }
+
+    /**
+     * Get the socket receive buffer size granted by the operating system.
+     *
+     * @return The buffer size, in bytes
+     */
+    public synchronized int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    /**
+     * Get the number of datagrams received since the receiver was opened.
+     *
+     * @return The number of datagrams
+     */
+    public long getDatagramCount() {
+        return datagramCount.get();
+    }
+
+    /**
+     * Get the number of datagrams ignored because they did not hold TS packets.
+     *
+     * @return The number of invalid datagrams
+     */
+    public long getInvalidDatagramCount() {
+        return invalidDatagramCount.get();
+    }
+
+    /**
+     * Get the number of TS packets received since the receiver was opened.
+     *
+     * @return The number of packets, including those dropped because the ring was full
+     */
+    public long getPacketCount() {
+        return packetCount.get();
+    }
+
+    /**
+     * Get the number of TS packets dropped because the ring buffer was full.
+     *
+     * <p>A non-zero count means that the listener cannot keep up with the stream, or that the ring
+     * is too small to absorb bursts (see {@link TsUdpReceiverOptions#setRingCapacity(int)}).
+     *
+     * @return The number of dropped packets
+     */
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+
+    /**
+     * Get the number of continuity errors on KLV streams.
+     *
+     * <p>This counts gaps in the packets of the KLV streams, whether the packets were lost on the
+     * network or dropped by the receiver.
+     *
+     * @return The number of times a packet was found to be missing
+     */
+    public long getContinuityErrorCount() {
+        return continuityErrorCount;
+    }
+
+    /**
+     * Get the number of messages received.
+     *
+     * @return The number of messages passed to the listener
+     */
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    /**
+     * Get the number of messages that failed to parse.
+     *
+     * @return The number of messages that were framed but could not be decoded
+     */
+    public long getFailedMessageCount() {
+        return failedMessageCount;
+    }
+
+    private static void notify(IMetadataListener listener, MetadataFrame frame) {
+        try {
+            listener.onMetadataReceived(frame);
+        } catch (RuntimeException e) {
+            logger.error("Metadata listener failed", e);
+        }
+    }
+
+    private NetworkInterface getMulticastInterface() throws IOException {
+        NetworkInterface networkInterface = options.getNetworkInterface();
+        if (networkInterface != null) {
+            return networkInterface;
+        }
+        for (NetworkInterface candidate :
+                Collections.list(NetworkInterface.getNetworkInterfaces())) {
+            if (candidate.isUp() && candidate.supportsMulticast() && !candidate.isLoopback()) {
+                return candidate;
+            }
+        }
+        throw new IOException("No network interface available for multicast");
+    }
+
+    /**
+     * Body of the receive thread.
+     *
+     * @param channel The socket
+     * @param ring The ring to add received packets to
+     * @param parseThread The thread to wake when packets are added
+     * @param url The stream URL, for logging
+     */
+    private void receive(
+            DatagramChannel channel, TsPacketRing ring, Thread parseThread, String url) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_DATAGRAM_LENGTH);
+        try {
+            while (open) {
+                buffer.clear();
+                channel.receive(buffer);
+                buffer.flip();
+                datagramCount.incrementAndGet();
+
+                // Skip anything before the packets, e.g. an RTP header
+                int offset = buffer.remaining() % PACKET_LENGTH;
+                if (buffer.remaining() < PACKET_LENGTH || buffer.get(offset) != SYNC_BYTE) {
+                    invalidDatagramCount.incrementAndGet();
+                    continue;
+                }
+                buffer.position(offset);
+                int packets = buffer.remaining() / PACKET_LENGTH;
+                int copied = ring.offer(buffer);
+                packetCount.addAndGet(packets);
+                if (copied < packets) {
+                    overflowCount.addAndGet(packets - copied);
+                }
+                if (parserWaiting) {
+                    LockSupport.unpark(parseThread);
+                }
+            }
+        } catch (ClosedChannelException e) {
+            // Closed by close()
+        } catch (IOException e) {
+            logger.error("Error receiving from " + url, e);
+        } finally {
+            receiving = false;
+            LockSupport.unpark(parseThread);
+        }
+    }
+
+    /**
+     * Body of the parse thread.
+     *
+     * @param ring The ring to take packets from
+     */
+    private void parse(TsPacketRing ring) {
+        extractor.reset();
+        while (true) {
+            ByteBuffer packets = ring.peek();
+            if (packets != null) {
+                extractor.process(packets);
+                ring.advance(packets.remaining() / PACKET_LENGTH);
+                updateStatistics();
+            } else if (!receiving) {
+                break;
+            } else {
+                // Check again after announcing that we are waiting. The tail of the ring and
+                // parserWaiting are both volatile, so either this check sees the new packets or
+                // the receive thread sees that we are waiting, and a wake-up can't be missed
+                parserWaiting = true;
+                if (ring.isEmpty() && receiving) {
+                    LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                }
+                parserWaiting = false;
+            }
+        }
+        extractor.finish();
+        updateStatistics();
+    }
+
+    private void updateStatistics() {
+        continuityErrorCount = extractor.getContinuityErrorCount();
+        messageCount = extractor.getMessageCount();
+        failedMessageCount = extractor.getFailedMessageCount();
+    }
+}
@@ -0,0 +1,121 @@
+package org.jmisb.api.video.ts;
+
+import java.net.NetworkInterface;
+import org.jmisb.api.klv.KlvStreamParser;
+import org.jmisb.api.klv.UniversalLabel;
+
+/** Options to be specified when opening a {@link TsUdpReceiver}. */
+public class TsUdpReceiverOptions {
+    /** Requested socket receive buffer size, in bytes. */
+    private int receiveBufferSize = 4 * 1024 * 1024;
+
+    /** Number of TS packets held between the receive and parse threads. */
+    private int ringCapacity = 8192;
+
+    /** Interface used to join a multicast group, or null to choose one automatically. */
+    private NetworkInterface networkInterface;
+
+    /** Maximum length of a top-level KLV message, in bytes. */
+    private int maxMessageLength = KlvStreamParser.DEFAULT_MAX_MESSAGE_LENGTH;
+
+    /** Construct with default values. */
+    public TsUdpReceiverOptions() {}
+
+    /**
+     * Get the requested socket receive buffer size.
+     *
+     * @return the buffer size, in bytes
+     */
+    public int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    /**
+     * Set the requested socket receive buffer size.
+     *
+     * <p>A large buffer absorbs bursts of datagrams while the receive thread is not scheduled. The
+     * operating system may grant less than requested (on Linux, the limit is {@code
+     * net.core.rmem_max}); the granted size is available from {@link
+     * TsUdpReceiver#getReceiveBufferSize()}.
+     *
+     * @param receiveBufferSize the buffer size, in bytes (default 4 MiB)
+     * @throws IllegalArgumentException if {@code receiveBufferSize} is less than 1
+     */
+    public void setReceiveBufferSize(int receiveBufferSize) {
+        if (receiveBufferSize < 1) {
+            throw new IllegalArgumentException("Receive buffer size must be at least 1");
+        }
+        this.receiveBufferSize = receiveBufferSize;
+    }
+
+    /**
+     * Get the ring capacity.
+     *
+     * @return the number of TS packets that can be waiting to be parsed
+     */
+    public int getRingCapacity() {
+        return ringCapacity;
+    }
+
+    /**
+     * Set the ring capacity.
+     *
+     * <p>Received packets wait in a ring buffer until the parse thread (which also runs the
+     * listener) processes them. If the listener falls behind and the ring fills, further packets
+     * are dropped and counted (see {@link TsUdpReceiver#getOverflowCount()}).
+     *
+     * @param ringCapacity the number of packets (default 8192, about 1.5 MiB)
+     * @throws IllegalArgumentException if {@code ringCapacity} is less than 1
+     */
+    public void setRingCapacity(int ringCapacity) {
+        if (ringCapacity < 1) {
+            throw new IllegalArgumentException("Ring capacity must be at least 1");
+        }
+        this.ringCapacity = ringCapacity;
+    }
+
+    /**
+     * Get the network interface used to join a multicast group.
+     *
+     * @return the interface, or null to choose one automatically
+     */
+    public NetworkInterface getNetworkInterface() {
+        return networkInterface;
+    }
+
+    /**
+     * Set the network interface used to join a multicast group.
+     *
+     * <p>This has no effect for unicast addresses.
+     *
+     * @param networkInterface the interface, or null (the default) to use the first non-loopback
+     *     interface that is up and supports multicast
+     */
+    public void setNetworkInterface(NetworkInterface networkInterface) {
+        this.networkInterface = networkInterface;
+    }
+
+    /**
+     * Get the maximum KLV message length.
+     *
+     * @return the maximum length of a top-level message, in bytes
+     */
+    public int getMaxMessageLength() {
+        return maxMessageLength;
+    }
+
+    /**
+     * Set the maximum KLV message length.
+     *
+     * @param maxMessageLength the maximum length of a top-level message (including the Universal
+     *     Label and length field), in bytes
+     * @throws IllegalArgumentException if {@code maxMessageLength} is not longer than a Universal
+     *     Label
+     */
+    public void setMaxMessageLength(int maxMessageLength) {
+        if (maxMessageLength <= UniversalLabel.LENGTH) {
+            throw new IllegalArgumentException("Max message length is too small");
+        }
+        this.maxMessageLength = maxMessageLength;
+    }
+}
@@ -0,0 +1,2 @@
+/** Pure Java processing of MPEG-2 Transport Streams, without FFmpeg. */
+package org.jmisb.api.video.ts;
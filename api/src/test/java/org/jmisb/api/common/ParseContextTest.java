@@ -0,0 +1,123 @@
+package org.jmisb.api.common;
+
+import static org.testng.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.jmisb.api.klv.IMisbMessage;
+import org.jmisb.api.klv.KlvParser;
+import org.jmisb.api.klv.LoggerChecks;
+import org.jmisb.api.klv.st0601.IUasDatalinkValue;
+import org.jmisb.api.klv.st0601.SensorLatitude;
+import org.jmisb.api.klv.st0601.UasDatalinkMessage;
+import org.jmisb.api.klv.st0601.UasDatalinkTag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+/** Unit tests for ParseContext. */
+public class ParseContextTest extends LoggerChecks {
+
+    private static Logger LOGGER = LoggerFactory.getLogger(ParseContextTest.class);
+
+    public ParseContextTest() {
+        super(ParseContextTest.class);
+    }
+
+    private static byte[] makeBadChecksumMessage() {
+        SortedMap<UasDatalinkTag, IUasDatalinkValue> values = new TreeMap<>();
+        values.put(UasDatalinkTag.SensorLatitude, new SensorLatitude(10.0));
+        byte[] bytes = new UasDatalinkMessage(values).frameMessage(false);
+        bytes[bytes.length - 1] ^= 0x01;
+        return bytes;
+    }
+
+    @Test
+    public void checkStrict() {
+        ParseContext context = new ParseContext();
+        try {
+            context.handleOverrun(LOGGER, "Test Message");
+            fail();
+        } catch (KlvParseException ex) {
+            assertEquals(ex.getMessage(), "Test Message");
+        }
+        assertFalse(context.hasDiagnostics());
+    }
+
+    @Test
+    public void checkLenient() throws KlvParseException {
+        ParseContext context = ParseContext.lenient();
+        context.handleInvalidChecksum(LOGGER, "Checksum");
+        context.handleMissingChecksum(LOGGER, "Missing");
+        context.handleOverrun(LOGGER, "Overrun");
+        context.handleInvalidFieldEncoding(LOGGER, "Encoding");
+        List<ParseDiagnostic> diagnostics = context.getDiagnostics();
+        assertEquals(diagnostics.size(), 4);
+        assertEquals(diagnostics.get(0).getKind(), ParseDiagnostic.Kind.InvalidChecksum);
+        assertEquals(diagnostics.get(0).getMessage(), "Checksum");
+        assertEquals(diagnostics.get(1).getKind(), ParseDiagnostic.Kind.MissingChecksum);
+        assertEquals(diagnostics.get(2).getKind(), ParseDiagnostic.Kind.Overrun);
+        assertEquals(diagnostics.get(3).getKind(), ParseDiagnostic.Kind.InvalidFieldEncoding);
+        assertEquals(diagnostics.get(3).toString(), "InvalidFieldEncoding: Encoding");
+        context.clearDiagnostics();
+        assertFalse(context.hasDiagnostics());
+    }
+
+    @Test
+    public void checkStrategy() throws KlvParseException {
+        List<String> processed = new ArrayList<>();
+        ParseContext context = new ParseContext();
+        context.setInvalidFieldEncodingStrategy((logger, message) -> processed.add(message));
+        context.setOverrunStrategy(null);
+        context.handleInvalidFieldEncoding(LOGGER, "Processed");
+        assertEquals(processed.size(), 1);
+        assertEquals(processed.get(0), "Processed");
+        assertFalse(context.hasDiagnostics());
+        context.handleOverrun(LOGGER, "Recorded");
+        assertEquals(context.getDiagnostics().size(), 1);
+        assertEquals(context.getDiagnostics().get(0).getMessage(), "Recorded");
+    }
+
+    @Test
+    public void checkParseLenient() throws KlvParseException {
+        ParseContext context = ParseContext.lenient();
+        List<IMisbMessage> messages = KlvParser.parseBytes(makeBadChecksumMessage(), context);
+        assertEquals(messages.size(), 1);
+        assertTrue(messages.get(0) instanceof UasDatalinkMessage);
+        assertEquals(context.getDiagnostics().size(), 1);
+        assertEquals(
+                context.getDiagnostics().get(0).getKind(), ParseDiagnostic.Kind.InvalidChecksum);
+        assertSame(ParseContext.current(), ParseContext.current());
+    }
+
+    @Test(expectedExceptions = KlvParseException.class)
+    public void checkParseStrict() throws KlvParseException {
+        KlvParser.parseBytes(makeBadChecksumMessage(), new ParseContext());
+    }
+
+    @Test(expectedExceptions = KlvParseException.class)
+    public void checkParseGlobal() throws KlvParseException {
+        // Outside of a context, the InvalidDataHandler singleton (throwing by default) applies
+        KlvParser.parseBytes(makeBadChecksumMessage());
+    }
+
+    @Test
+    public void checkNested() throws KlvParseException {
+        ParseContext outer = ParseContext.lenient();
+        ParseContext inner = ParseContext.lenient();
+        outer.parse(
+                () -> {
+                    assertSame(ParseContext.current(), outer);
+                    inner.parse(
+                            () -> {
+                                assertSame(ParseContext.current(), inner);
+                                return null;
+                            });
+                    assertSame(ParseContext.current(), outer);
+                    return null;
+                });
+        assertNotSame(ParseContext.current(), outer);
+    }
+}
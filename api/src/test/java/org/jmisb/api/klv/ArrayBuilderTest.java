@@ -162,4 +162,24 @@ public class ArrayBuilderTest {
         assertEquals(bytes.length, 1);
         assertEquals(bytes, new byte[] {(byte) 0xFF});
     }
+
+    @Test
+    public void checkPrependBeyondHeadroom() {
+        ArrayBuilder builder = new ArrayBuilder();
+        byte[] content = new byte[300];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        builder.append(content);
+        builder.prependLength();
+        builder.prepend(KlvConstants.RvtLocalSetUl);
+        builder.prepend(KlvConstants.RvtLocalSetUl);
+        builder.prepend(KlvConstants.RvtLocalSetUl);
+        byte[] bytes = builder.toBytes();
+        assertEquals(bytes.length, 3 * UniversalLabel.LENGTH + 3 + content.length);
+        assertEquals(bytes[3 * UniversalLabel.LENGTH], (byte) 0x82);
+        assertEquals(bytes[3 * UniversalLabel.LENGTH + 1], (byte) 0x01);
+        assertEquals(bytes[3 * UniversalLabel.LENGTH + 2], (byte) 0x2c);
+        assertEquals(bytes[bytes.length - 1], (byte) 299);
+    }
 }
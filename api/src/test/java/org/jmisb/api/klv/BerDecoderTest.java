@@ -75,4 +75,36 @@ public class BerDecoderTest {
         byte[] data = {(byte) 0x80};
         BerField l1 = BerDecoder.decode(data, 0, true);
     }
+
+    @Test
+    public void testPackedLongForm() {
+        byte[] data = {(byte) 0x82, 0x01, (byte) 0x80, (byte) 0x84, 0x7f, (byte) 0xff, 0x01, 0x01};
+        long l1 = BerDecoder.decodePacked(data, 0, false);
+        long l2 = BerDecoder.decodePacked(data, 3, false);
+
+        Assert.assertEquals(BerDecoder.getValue(l1), 384);
+        Assert.assertEquals(BerDecoder.getLength(l1), 3);
+        Assert.assertEquals(BerDecoder.getValue(l2), 0x7fff0101);
+        Assert.assertEquals(BerDecoder.getLength(l2), 5);
+    }
+
+    @Test
+    public void testPackedOid() {
+        byte[] data = {0x00, (byte) 0x81, 0x00, (byte) 0xff, (byte) 0xff, 0x7f};
+        long oid1 = BerDecoder.decodePacked(data, 0, true);
+        long oid2 = BerDecoder.decodePacked(data, 1, true);
+        long oid3 = BerDecoder.decodePacked(data, 3, true);
+
+        Assert.assertEquals(BerDecoder.getValue(oid1), 0);
+        Assert.assertEquals(BerDecoder.getLength(oid1), 1);
+        Assert.assertEquals(BerDecoder.getValue(oid2), 128);
+        Assert.assertEquals(BerDecoder.getLength(oid2), 2);
+        Assert.assertEquals(BerDecoder.getValue(oid3), 2097151);
+        Assert.assertEquals(BerDecoder.getLength(oid3), 3);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testPackedBeyondArray() {
+        BerDecoder.decodePacked(new byte[] {0x01}, 1, false);
+    }
 }
@@ -1,5 +1,7 @@
 package org.jmisb.api.klv;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -76,4 +78,33 @@ public class BerEncoderTest {
         bytes = BerEncoder.encode(256, Ber.OID); // 256 = 0x0100 -> 10 0000000
         Assert.assertEquals(bytes, new byte[] {(byte) 0x82, (byte) 0x00});
     }
+
+    @Test
+    public void testEncodedLength() {
+        Assert.assertEquals(BerEncoder.getEncodedLength(127), 1);
+        Assert.assertEquals(BerEncoder.getEncodedLength(128), 2);
+        Assert.assertEquals(BerEncoder.getEncodedLength(65536), 4);
+        Assert.assertEquals(BerEncoder.getEncodedLength(127, Ber.OID), 1);
+        Assert.assertEquals(BerEncoder.getEncodedLength(128, Ber.OID), 2);
+        Assert.assertEquals(BerEncoder.getEncodedLength(16384, Ber.OID), 3);
+        Assert.assertEquals(BerEncoder.getEncodedLength(3, Ber.LONG_FORM), 2);
+    }
+
+    @Test
+    public void testEncodeToArray() {
+        byte[] dest = new byte[4];
+        int written = BerEncoder.encode(256, Ber.OID, dest, 1);
+        Assert.assertEquals(written, 2);
+        Assert.assertEquals(dest, new byte[] {0x00, (byte) 0x82, 0x00, 0x00});
+    }
+
+    @Test
+    public void testEncodeToBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        BerEncoder.encode(201, buffer);
+        BerEncoder.encode(5, Ber.SHORT_FORM, buffer);
+        Assert.assertEquals(buffer.position(), 3);
+        Assert.assertEquals(
+                Arrays.copyOf(buffer.array(), 3), new byte[] {(byte) 0x81, (byte) 0xc9, 0x05});
+    }
 }
@@ -0,0 +1,102 @@
+package org.jmisb.api.klv;
+
+import static org.testng.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.testng.annotations.Test;
+
+/** Tests for CrcCcitt. */
+public class CrcCcittTest {
+
+    /** Bit-at-a-time reference implementation. */
+    private static int reference(byte[] bytes, int offset, int length) {
+        int crc = 0x1D0F;
+        for (int i = offset; i < offset + length; i++) {
+            crc ^= (bytes[i] & 0xFF) << 8;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = ((crc & 0x8000) != 0) ? (crc << 1) ^ 0x1021 : crc << 1;
+                crc &= 0xFFFF;
+            }
+        }
+        return crc;
+    }
+
+    private static int toInt(byte[] crc) {
+        assertEquals(crc.length, 2);
+        return ((crc[0] & 0xFF) << 8) | (crc[1] & 0xFF);
+    }
+
+    @Test
+    public void checkKnownValue() {
+        byte[] bytes = "123456789".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(CrcCcitt.getCRC(bytes), new byte[] {(byte) 0xE5, (byte) 0xCC});
+        assertEquals(CrcCcitt.getCRC(new byte[0]), new byte[] {(byte) 0x1D, (byte) 0x0F});
+    }
+
+    @Test
+    public void checkRanges() {
+        Random random = new Random(0x1021);
+        byte[] bytes = new byte[200];
+        random.nextBytes(bytes);
+        for (int offset = 0; offset < 9; offset++) {
+            for (int length = 0; length <= 100; length++) {
+                int expected = reference(bytes, offset, length);
+                assertEquals(CrcCcitt.compute(bytes, offset, length), expected);
+                assertEquals(toInt(CrcCcitt.getCRC(bytes, offset, length)), expected);
+            }
+        }
+    }
+
+    @Test
+    public void checkBuffers() {
+        Random random = new Random(42);
+        byte[] bytes = new byte[150];
+        random.nextBytes(bytes);
+        ByteBuffer heap = ByteBuffer.wrap(bytes);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes);
+        direct.position(5);
+        ByteBuffer littleEndian = ByteBuffer.allocateDirect(bytes.length);
+        littleEndian.order(ByteOrder.LITTLE_ENDIAN);
+        littleEndian.put(bytes);
+        for (int offset = 0; offset < 9; offset++) {
+            for (int length = 0; length <= 100; length += 3) {
+                int expected = reference(bytes, offset, length);
+                assertEquals(CrcCcitt.compute(heap, offset, length), expected);
+                assertEquals(CrcCcitt.compute(direct, offset, length), expected);
+                assertEquals(CrcCcitt.compute(littleEndian, offset, length), expected);
+            }
+        }
+        assertEquals(direct.position(), 5);
+    }
+
+    @Test
+    public void checkIncremental() {
+        Random random = new Random(7);
+        byte[] bytes = new byte[77];
+        random.nextBytes(bytes);
+        int expected = reference(bytes, 0, bytes.length);
+        CrcCcitt crc = new CrcCcitt();
+        crc.addData(bytes, 0, 3);
+        crc.addData(ByteBuffer.wrap(bytes), 3, 20);
+        assertEquals(crc.getValue(), reference(bytes, 0, 23));
+        assertEquals(toInt(crc.getCrc()), reference(bytes, 0, 23));
+        crc.addData(bytes, 23, bytes.length - 23);
+        assertEquals(crc.getValue(), expected);
+        crc.reset();
+        crc.addData(bytes);
+        assertEquals(toInt(crc.getCrc()), expected);
+    }
+
+    @Test
+    public void checkVerify() {
+        byte[] bytes = "123456789xx".getBytes(StandardCharsets.US_ASCII);
+        assertTrue(CrcCcitt.verify(bytes, new byte[] {(byte) 0xE5, (byte) 0xCC}));
+        assertFalse(CrcCcitt.verify(bytes, new byte[] {(byte) 0xE5, (byte) 0xCD}));
+        assertFalse(CrcCcitt.verify(bytes, new byte[] {(byte) 0xE5}));
+        assertFalse(CrcCcitt.verify(new byte[] {0x01}, new byte[] {(byte) 0xE5, (byte) 0xCC}));
+    }
+}
@@ -1,16 +1,26 @@
 package org.jmisb.api.klv;
 
+import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
+import org.jmisb.api.common.ParseDiagnostic;
 import org.jmisb.api.klv.st0102.ST0102Version;
 import org.jmisb.api.klv.st0102.SecurityMetadataKey;
 import org.jmisb.api.klv.st0102.localset.SecurityMetadataLocalSet;
 import org.jmisb.api.klv.st0102.universalset.SecurityMetadataUniversalSet;
 import org.jmisb.api.klv.st0601.*;
+import org.jmisb.api.klv.st0903.VmtiMetadataKey;
 import org.jmisb.core.klv.ArrayUtils;
 import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
@@ -194,6 +204,83 @@ public class KlvParserTest {
         KlvParser.parseBytes(bytes);
     }
 
+    private static final byte[] UAS_DATALINK_BYTES =
+            new byte[] {
+                (byte) 0x06, (byte) 0x0e, (byte) 0x2b, (byte) 0x34, (byte) 0x02, (byte) 0x0b,
+                (byte) 0x01, (byte) 0x01, (byte) 0x0e, (byte) 0x01, (byte) 0x03, (byte) 0x01,
+                (byte) 0x01, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x14, (byte) 0x0d,
+                (byte) 0x04, (byte) 0x3c, (byte) 0x4e, (byte) 0xad, (byte) 0xfa, (byte) 0x0e,
+                (byte) 0x04, (byte) 0xcd, (byte) 0x6b, (byte) 0x78, (byte) 0x4e, (byte) 0x0f,
+                (byte) 0x02, (byte) 0x1b, (byte) 0xc4, (byte) 0x01, (byte) 0x02, (byte) 0x2d,
+                (byte) 0xc4
+            };
+
+    @Test
+    public void testUasDatalinkHeapBufferWithOffset() throws KlvParseException {
+        byte[] padded = new byte[UAS_DATALINK_BYTES.length + 7];
+        System.arraycopy(UAS_DATALINK_BYTES, 0, padded, 3, UAS_DATALINK_BYTES.length);
+        ByteBuffer buffer = ByteBuffer.wrap(padded, 3, UAS_DATALINK_BYTES.length);
+        List<IMisbMessage> messages = KlvParser.parseBytes(buffer.slice());
+        Assert.assertEquals(messages.size(), 1);
+        check0601Parse(messages);
+        Assert.assertEquals(buffer.position(), 3);
+    }
+
+    @Test
+    public void testUasDatalinkDirectBuffer() throws KlvParseException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(UAS_DATALINK_BYTES.length);
+        buffer.put(UAS_DATALINK_BYTES);
+        buffer.flip();
+        List<IMisbMessage> messages = KlvParser.parseBytes(buffer);
+        Assert.assertEquals(messages.size(), 1);
+        check0601Parse(messages);
+        Assert.assertEquals(buffer.remaining(), UAS_DATALINK_BYTES.length);
+    }
+
+    @Test
+    public void testUasDatalinkArrayRange() throws KlvParseException {
+        byte[] padded = new byte[UAS_DATALINK_BYTES.length * 2];
+        System.arraycopy(UAS_DATALINK_BYTES, 0, padded, 0, UAS_DATALINK_BYTES.length);
+        System.arraycopy(
+                UAS_DATALINK_BYTES,
+                0,
+                padded,
+                UAS_DATALINK_BYTES.length,
+                UAS_DATALINK_BYTES.length);
+        List<IMisbMessage> messages =
+                KlvParser.parseBytes(padded, UAS_DATALINK_BYTES.length, UAS_DATALINK_BYTES.length);
+        Assert.assertEquals(messages.size(), 1);
+        check0601Parse(messages);
+    }
+
+    @Test(expectedExceptions = KlvParseException.class)
+    public void testArrayRangeTooShort() throws KlvParseException {
+        KlvParser.parseBytes(UAS_DATALINK_BYTES, 0, UAS_DATALINK_BYTES.length - 1);
+    }
+
+    @Test
+    public void testUasDatalinkWantedKeys() throws KlvParseException {
+        List<IMisbMessage> messages =
+                KlvParser.parseBytes(
+                        UAS_DATALINK_BYTES,
+                        EnumSet.of(
+                                UasDatalinkTag.SensorLatitude,
+                                UasDatalinkTag.PlatformHeadingAngle));
+        Assert.assertEquals(messages.size(), 1);
+        UasDatalinkMessage message = (UasDatalinkMessage) messages.get(0);
+        Assert.assertEquals(message.getIdentifiers(), EnumSet.of(UasDatalinkTag.SensorLatitude));
+        SensorLatitude lat = (SensorLatitude) message.getField(UasDatalinkTag.SensorLatitude);
+        Assert.assertEquals(lat.getDegrees(), 42.4036, SensorLatitude.DELTA);
+    }
+
+    @Test
+    public void testUasDatalinkWantedKeysOtherType() throws KlvParseException {
+        // No ST 0601 keys, so there is no projection for ST 0601
+        List<IMisbMessage> messages =
+                KlvParser.parseBytes(UAS_DATALINK_BYTES, EnumSet.of(VmtiMetadataKey.FrameNumber));
+        check0601Parse(messages);
+    }
+
     private void check0601Parse(List<IMisbMessage> messages) {
         IMisbMessage message = messages.get(0);
         Assert.assertTrue(message instanceof UasDatalinkMessage);
@@ -490,4 +577,160 @@ public class KlvParserTest {
                 (ST0102Version) securityMessage.getField(SecurityMetadataKey.Version);
         Assert.assertEquals(version.getVersion(), 12);
     }
+
+    private static List<byte[]> buildPackets(int count) {
+        List<byte[]> packets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            SortedMap<UasDatalinkTag, IUasDatalinkValue> values = new TreeMap<>();
+            values.put(UasDatalinkTag.PrecisionTimeStamp, new PrecisionTimeStamp(1000L * i));
+            values.put(UasDatalinkTag.SensorLatitude, new SensorLatitude(i * 0.01));
+            values.put(UasDatalinkTag.SensorLongitude, new SensorLongitude(-i * 0.01));
+            packets.add(new UasDatalinkMessage(values).frameMessage(false));
+        }
+        return packets;
+    }
+
+    private static byte[] concatenate(List<byte[]> packets) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        packets.forEach(packet -> out.write(packet, 0, packet.length));
+        return out.toByteArray();
+    }
+
+    private static void checkSameMessages(List<IMisbMessage> actual, List<IMisbMessage> expected) {
+        Assert.assertEquals(actual.size(), expected.size());
+        for (int i = 0; i < actual.size(); i++) {
+            Assert.assertEquals(
+                    actual.get(i).frameMessage(false), expected.get(i).frameMessage(false));
+        }
+    }
+
+    @Test
+    public void testParseAll() throws KlvParseException {
+        byte[] bytes = concatenate(buildPackets(200));
+        List<IMisbMessage> expected = KlvParser.parseBytes(bytes);
+        Assert.assertEquals(expected.size(), 200);
+        checkSameMessages(KlvParser.parseAll(bytes), expected);
+        checkSameMessages(KlvParser.parseAll(new byte[0]), new ArrayList<>());
+    }
+
+    @Test
+    public void testParseAllExecutor() throws KlvParseException {
+        List<byte[]> packets = buildPackets(100);
+        byte[] bytes = concatenate(packets);
+        List<IMisbMessage> expected = KlvParser.parseBytes(bytes);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            checkSameMessages(KlvParser.parseAll(packets, null, executor), expected);
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+            direct.put(bytes).flip();
+            checkSameMessages(KlvParser.parseAll(direct, null, executor), expected);
+            Assert.assertEquals(direct.position(), 0);
+        } finally {
+            executor.shutdown();
+        }
+        // Run on the calling thread
+        checkSameMessages(
+                KlvParser.parseAll(bytes, 0, bytes.length, null, Runnable::run), expected);
+    }
+
+    @Test
+    public void testParseAllProjection() throws KlvParseException {
+        byte[] bytes = concatenate(buildPackets(40));
+        List<IMisbMessage> messages =
+                KlvParser.parseAll(
+                        bytes,
+                        0,
+                        bytes.length,
+                        EnumSet.of(UasDatalinkTag.SensorLatitude),
+                        Runnable::run);
+        Assert.assertEquals(messages.size(), 40);
+        UasDatalinkMessage message = (UasDatalinkMessage) messages.get(39);
+        Assert.assertEquals(message.getIdentifiers().size(), 1);
+        Assert.assertTrue(message.getIdentifiers().contains(UasDatalinkTag.SensorLatitude));
+    }
+
+    @Test(expectedExceptions = KlvParseException.class)
+    public void testParseAllTruncated() throws KlvParseException {
+        byte[] bytes = concatenate(buildPackets(10));
+        KlvParser.parseAll(bytes, 0, bytes.length - 1, null, Runnable::run);
+    }
+
+    @Test
+    public void testParseAllFirstError() {
+        // A decoding error is reported ahead of a later framing error, as it is by parseBytes
+        List<byte[]> packets = buildPackets(100);
+        byte[] bad = packets.get(5);
+        bad[bad.length - 1] ^= 0x01;
+        byte[] bytes = concatenate(packets);
+        ParseContext context = new ParseContext();
+        try {
+            context.parse(() -> KlvParser.parseBytes(Arrays.copyOf(bytes, bytes.length - 1)));
+            Assert.fail("Expected exception from parseBytes");
+        } catch (KlvParseException ex) {
+            Assert.assertNotEquals(ex.getMessage(), "Length exceeds available bytes");
+        }
+        try {
+            context.parse(
+                    () -> KlvParser.parseAll(bytes, 0, bytes.length - 1, null, Runnable::run));
+            Assert.fail("Expected exception from parseAll");
+        } catch (KlvParseException ex) {
+            Assert.assertNotEquals(ex.getMessage(), "Length exceeds available bytes");
+        }
+        packets.set(5, packets.get(6));
+        packets.set(90, Arrays.copyOf(packets.get(90), packets.get(90).length - 1));
+        try {
+            context.parse(() -> KlvParser.parseAll(packets, null, ForkJoinPool.commonPool()));
+            Assert.fail("Expected exception from parseAll");
+        } catch (KlvParseException ex) {
+            Assert.assertEquals(ex.getMessage(), "Length exceeds available bytes");
+        }
+    }
+
+    @Test
+    public void testParseAllContext() throws KlvParseException {
+        List<byte[]> packets = buildPackets(100);
+        byte[] bad = packets.get(60);
+        bad[bad.length - 1] ^= 0x01;
+        byte[] bytes = concatenate(packets);
+        ParseContext context = ParseContext.lenient();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<IMisbMessage> messages =
+                    context.parse(() -> KlvParser.parseAll(bytes, 0, bytes.length, null, executor));
+            Assert.assertEquals(messages.size(), 100);
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(context.getDiagnostics().size(), 1);
+        Assert.assertEquals(
+                context.getDiagnostics().get(0).getKind(), ParseDiagnostic.Kind.InvalidChecksum);
+    }
+
+    @Test
+    public void testParseAllRuntimeException() throws KlvParseException {
+        // Same exception as parseBytes, rather than wrapped in a CompletionException
+        byte[] label = {
+            0x06, 0x0E, 0x2B, 0x34, 0x02, 0x0B, 0x01, 0x01, 0x0E, 0x01, 0x03, 0x7F, 0x7F, 0x7F,
+            0x7F, 0x7F
+        };
+        MisbMessageFactory.getInstance()
+                .registerHandler(
+                        new UniversalLabel(label),
+                        bytes -> {
+                            throw new UnsupportedOperationException("Test handler");
+                        });
+        byte[] bytes = ArrayUtils.arrayFromChunks(Arrays.asList(label, new byte[] {0x00}), 17);
+        try {
+            KlvParser.parseBytes(bytes);
+            Assert.fail("Expected exception from parseBytes");
+        } catch (UnsupportedOperationException ex) {
+            Assert.assertEquals(ex.getMessage(), "Test handler");
+        }
+        try {
+            KlvParser.parseAll(bytes, 0, bytes.length, null, ForkJoinPool.commonPool());
+            Assert.fail("Expected exception from parseAll");
+        } catch (UnsupportedOperationException ex) {
+            Assert.assertEquals(ex.getMessage(), "Test handler");
+        }
+    }
 }
@@ -0,0 +1,259 @@
+package org.jmisb.api.klv;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.klv.st0601.IUasDatalinkValue;
+import org.jmisb.api.klv.st0601.SensorLatitude;
+import org.jmisb.api.klv.st0601.SensorLongitude;
+import org.jmisb.api.klv.st0601.UasDatalinkMessage;
+import org.jmisb.api.klv.st0601.UasDatalinkTag;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class KlvStreamParserTest extends LoggerChecks {
+    private List<IMisbMessage> received;
+    private KlvStreamParser parser;
+    private byte[] first;
+    private byte[] second;
+
+    public KlvStreamParserTest() {
+        super(KlvStreamParser.class);
+    }
+
+    @BeforeMethod
+    public void setup() {
+        received = new ArrayList<>();
+        parser = new KlvStreamParser(received::add);
+        first = makeMessage(10.0, 20.0);
+        second = makeMessage(-30.0, 40.0);
+    }
+
+    private static byte[] makeMessage(double lat, double lon) {
+        SortedMap<UasDatalinkTag, IUasDatalinkValue> values = new TreeMap<>();
+        values.put(UasDatalinkTag.SensorLatitude, new SensorLatitude(lat));
+        values.put(UasDatalinkTag.SensorLongitude, new SensorLongitude(lon));
+        return new UasDatalinkMessage(values).frameMessage(false);
+    }
+
+    private static byte[] concat(byte[]... arrays) {
+        int length = 0;
+        for (byte[] array : arrays) {
+            length += array.length;
+        }
+        byte[] result = new byte[length];
+        int offset = 0;
+        for (byte[] array : arrays) {
+            System.arraycopy(array, 0, result, offset, array.length);
+            offset += array.length;
+        }
+        return result;
+    }
+
+    private void checkLatitude(IMisbMessage message, double expected) {
+        Assert.assertTrue(message instanceof UasDatalinkMessage);
+        SensorLatitude lat =
+                (SensorLatitude)
+                        ((UasDatalinkMessage) message).getField(UasDatalinkTag.SensorLatitude);
+        Assert.assertEquals(lat.getDegrees(), expected, SensorLatitude.DELTA);
+    }
+
+    @Test
+    public void testCompleteMessage() {
+        parser.feed(first);
+        Assert.assertEquals(received.size(), 1);
+        checkLatitude(received.get(0), 10.0);
+        Assert.assertEquals(parser.getBufferedByteCount(), 0);
+        Assert.assertEquals(parser.getMessageCount(), 1);
+        Assert.assertEquals(parser.getDiscardedByteCount(), 0);
+    }
+
+    @Test
+    public void testMultipleMessagesInOneFeed() {
+        parser.feed(ByteBuffer.wrap(concat(first, second)));
+        Assert.assertEquals(received.size(), 2);
+        checkLatitude(received.get(0), 10.0);
+        checkLatitude(received.get(1), -30.0);
+    }
+
+    @Test
+    public void testSplitAcrossFeeds() {
+        // Split inside the UL, then inside the value
+        parser.feed(Arrays.copyOfRange(first, 0, 2));
+        Assert.assertEquals(received.size(), 0);
+        parser.feed(Arrays.copyOfRange(first, 2, 20));
+        Assert.assertEquals(received.size(), 0);
+        Assert.assertEquals(parser.getBufferedByteCount(), 20);
+        parser.feed(Arrays.copyOfRange(first, 20, first.length));
+        Assert.assertEquals(received.size(), 1);
+        checkLatitude(received.get(0), 10.0);
+    }
+
+    @Test
+    public void testByteAtATime() {
+        byte[] stream = concat(first, second);
+        for (byte b : stream) {
+            parser.feed(new byte[] {b});
+        }
+        Assert.assertEquals(received.size(), 2);
+        checkLatitude(received.get(1), -30.0);
+        Assert.assertEquals(parser.getBufferedByteCount(), 0);
+    }
+
+    @Test
+    public void testJoinedAndSplit() {
+        byte[] stream = concat(first, second);
+        parser.feed(Arrays.copyOfRange(stream, 0, first.length + 5));
+        Assert.assertEquals(received.size(), 1);
+        parser.feed(Arrays.copyOfRange(stream, first.length + 5, stream.length));
+        Assert.assertEquals(received.size(), 2);
+    }
+
+    @Test
+    public void testLeadingGarbage() {
+        // Looks like a synchronous metadata access unit cell header
+        byte[] header = new byte[] {0x00, 0x01, (byte) 0xdf, 0x00, (byte) first.length};
+        parser.feed(concat(header, first));
+        Assert.assertEquals(received.size(), 1);
+        checkLatitude(received.get(0), 10.0);
+        Assert.assertEquals(parser.getDiscardedByteCount(), header.length);
+    }
+
+    @Test
+    public void testLostFragment() {
+        // The tail of the first message was lost, so its length runs into the second message
+        byte[] truncated = Arrays.copyOfRange(first, 0, first.length - 10);
+        parser.feed(truncated);
+        Assert.assertEquals(received.size(), 0);
+        parser.feed(second);
+        parser.feed(second);
+        Assert.assertTrue(parser.getFailedMessageCount() > 0);
+        Assert.assertTrue(received.size() >= 1);
+        checkLatitude(received.get(received.size() - 1), -30.0);
+        LOGGER.clear();
+    }
+
+    @Test
+    public void testHandlerException() {
+        // A handler failure is not a parse failure, so the following message is still delivered
+        KlvStreamParser throwing =
+                new KlvStreamParser(
+                        message -> {
+                            received.add(message);
+                            if (received.size() == 1) {
+                                throw new IllegalStateException("listener failure");
+                            }
+                        });
+        throwing.feed(concat(first, second));
+        Assert.assertEquals(received.size(), 2);
+        checkLatitude(received.get(1), -30.0);
+        Assert.assertEquals(throwing.getMessageCount(), 2);
+        Assert.assertEquals(throwing.getFailedMessageCount(), 0);
+        Assert.assertEquals(throwing.getDiscardedByteCount(), 0);
+        Assert.assertEquals(throwing.getBufferedByteCount(), 0);
+        Assert.assertEquals(LOGGER.getLoggingEvents().size(), 1);
+        Assert.assertEquals(
+                LOGGER.getLoggingEvents().get(0).getMessage(),
+                "KLV message handler threw an exception");
+        LOGGER.clear();
+    }
+
+    @Test
+    public void testInvalidLength() {
+        byte[] bad = first.clone();
+        // BER long form with 8 length bytes is not valid
+        bad[UniversalLabel.LENGTH] = (byte) 0x88;
+        parser.feed(concat(bad, second));
+        Assert.assertEquals(received.size(), 1);
+        checkLatitude(received.get(0), -30.0);
+    }
+
+    @Test
+    public void testCorruptLengthFollowedByValidMessages() {
+        // The length claims more bytes than the message has, which would hold back what follows
+        byte[] bad = first.clone();
+        Assert.assertEquals(bad[UniversalLabel.LENGTH] & 0x80, 0);
+        bad[UniversalLabel.LENGTH] = (byte) 0x7f;
+        parser.feed(bad);
+        Assert.assertEquals(received.size(), 0);
+        parser.feed(second);
+        Assert.assertEquals(received.size(), 1);
+        checkLatitude(received.get(0), -30.0);
+        parser.feed(first);
+        Assert.assertEquals(received.size(), 2);
+        checkLatitude(received.get(1), 10.0);
+        Assert.assertEquals(parser.getFailedMessageCount(), 1);
+        Assert.assertEquals(parser.getBufferedByteCount(), 0);
+        Assert.assertEquals(LOGGER.getLoggingEvents().size(), 1);
+        Assert.assertEquals(
+                LOGGER.getLoggingEvents().get(0).getMessage(),
+                "Incomplete KLV message overruns the next message; resynchronising");
+        LOGGER.clear();
+    }
+
+    @Test
+    public void testUnregisteredLabelInsideMessage() throws KlvParseException {
+        // Keys inside a message (e.g. of a universal set) do not start a new message
+        List<byte[]> frames = new ArrayList<>();
+        KlvStreamParser framer =
+                KlvStreamParser.forFrames(frames::add, KlvStreamParser.DEFAULT_MAX_MESSAGE_LENGTH);
+        byte[] value = new byte[40];
+        System.arraycopy(
+                new byte[] {0x06, 0x0e, 0x2b, 0x34, 0x01, 0x01, 0x01, 0x03}, 0, value, 10, 8);
+        byte[] message =
+                concat(
+                        KlvConstants.UasDatalinkLocalUl.getBytes(),
+                        new byte[] {(byte) value.length},
+                        value);
+        framer.feed(Arrays.copyOfRange(message, 0, 40));
+        framer.feed(Arrays.copyOfRange(message, 40, message.length));
+        Assert.assertEquals(frames.size(), 1);
+        Assert.assertEquals(frames.get(0), message);
+        Assert.assertEquals(framer.getFailedMessageCount(), 0);
+    }
+
+    @Test
+    public void testExcessiveLength() {
+        KlvStreamParser limited = new KlvStreamParser(received::add, 32);
+        limited.feed(concat(first, second));
+        Assert.assertEquals(received.size(), 0);
+        Assert.assertEquals(limited.getBufferedByteCount(), 3);
+    }
+
+    @Test
+    public void testReset() {
+        parser.feed(Arrays.copyOfRange(first, 0, 30));
+        parser.reset();
+        Assert.assertEquals(parser.getBufferedByteCount(), 0);
+        parser.feed(second);
+        Assert.assertEquals(received.size(), 1);
+        checkLatitude(received.get(0), -30.0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testBadMaxLength() {
+        new KlvStreamParser(received::add, UniversalLabel.LENGTH);
+    }
+
+    @Test
+    public void testFrames() throws KlvParseException {
+        List<byte[]> frames = new ArrayList<>();
+        KlvStreamParser framer =
+                KlvStreamParser.forFrames(frames::add, KlvStreamParser.DEFAULT_MAX_MESSAGE_LENGTH);
+        byte[] both = concat(new byte[] {0x01, 0x02}, first, second);
+        framer.feed(Arrays.copyOfRange(both, 0, 40));
+        framer.feed(Arrays.copyOfRange(both, 40, both.length));
+        Assert.assertEquals(frames.size(), 2);
+        Assert.assertEquals(frames.get(0), first);
+        Assert.assertEquals(frames.get(1), second);
+        Assert.assertEquals(framer.getMessageCount(), 2);
+        Assert.assertEquals(framer.getDiscardedByteCount(), 2);
+        Assert.assertEquals(framer.getBufferedByteCount(), 0);
+        checkLatitude(MisbMessageFactory.getInstance().handleMessage(frames.get(1)), -30.0);
+    }
+}
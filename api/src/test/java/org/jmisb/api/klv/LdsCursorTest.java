@@ -0,0 +1,107 @@
+package org.jmisb.api.klv;
+
+import static org.testng.Assert.*;
+
+import java.util.List;
+import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.klv.st1201.FpEncoder;
+import org.testng.annotations.Test;
+
+/** Unit tests for LdsCursor. */
+public class LdsCursorTest {
+    private static final FpEncoder ENCODER = new FpEncoder(-900.0, 19000.0, 2);
+
+    private final byte[] bytes =
+            new byte[] {
+                // Padding before the local set
+                (byte) 0xff,
+                // Tag 2, unsigned integer
+                0x02,
+                0x02,
+                (byte) 0xfe,
+                0x01,
+                // Tag 3, string
+                0x03,
+                0x03,
+                0x41,
+                0x42,
+                0x43,
+                // Tag 200 (BER-OID), signed integer
+                (byte) 0x81,
+                0x48,
+                0x01,
+                (byte) 0xfe,
+                // Tag 4, IMAPB encoded
+                0x04,
+                0x02,
+                0x00,
+                0x00,
+                // Padding after the local set
+                0x7f
+            };
+
+    @Test
+    public void checkIteration() throws KlvParseException {
+        LdsCursor cursor = new LdsCursor(bytes, 1, bytes.length - 2);
+        assertEquals(cursor.getTag(), -1);
+
+        assertTrue(cursor.next());
+        assertEquals(cursor.getTag(), 2);
+        assertEquals(cursor.getValueOffset(), 3);
+        assertEquals(cursor.getValueLength(), 2);
+        assertEquals(cursor.readUInt(), 0xfe01);
+        assertEquals(cursor.readInt(), -511);
+
+        assertTrue(cursor.next());
+        assertEquals(cursor.getTag(), 3);
+        assertEquals(cursor.readString(), "ABC");
+        assertEquals(cursor.readBytes(), new byte[] {0x41, 0x42, 0x43});
+
+        assertTrue(cursor.next());
+        assertEquals(cursor.getTag(), 200);
+        assertEquals(cursor.readInt(), -2);
+        assertEquals(cursor.readUInt(), 254);
+
+        assertTrue(cursor.next());
+        assertEquals(cursor.getTag(), 4);
+        assertEquals(cursor.readFp(ENCODER), -900.0, 0.5);
+        assertFalse(cursor.isOverrun());
+
+        assertFalse(cursor.next());
+        assertEquals(cursor.getTag(), -1);
+        assertSame(cursor.getArray(), bytes);
+    }
+
+    @Test
+    public void checkMatchesParser() throws KlvParseException {
+        List<LdsField> fields = LdsParser.parseFields(bytes, 1, bytes.length - 2);
+        LdsCursor cursor = new LdsCursor(bytes, 1, bytes.length - 2);
+        for (LdsField field : fields) {
+            assertTrue(cursor.next());
+            LdsField cursorField = cursor.toField();
+            assertEquals(cursorField.getTag(), field.getTag());
+            assertEquals(cursorField.getData(), field.getData());
+        }
+        assertFalse(cursor.next());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void checkFpLengthMismatch() throws KlvParseException {
+        LdsCursor cursor = new LdsCursor(bytes, 1, bytes.length - 2);
+        cursor.next();
+        cursor.next();
+        cursor.readFp(ENCODER);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void checkReadBeforeNext() {
+        LdsCursor cursor = new LdsCursor(bytes, 1, bytes.length - 2);
+        cursor.readUInt();
+    }
+
+    @Test(expectedExceptions = KlvParseException.class)
+    public void checkOverrun() throws KlvParseException {
+        LdsCursor cursor = new LdsCursor(new byte[] {0x02, 0x05, 0x01}, 0, 3);
+        cursor.next();
+    }
+}
@@ -0,0 +1,43 @@
+package org.jmisb.api.klv;
+
+import static org.testng.Assert.*;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import org.jmisb.api.klv.st0601.UasDatalinkTag;
+import org.jmisb.api.klv.st0903.VmtiMetadataKey;
+import org.testng.annotations.Test;
+
+/** Tests for TagFilter. */
+public class TagFilterTest {
+
+    @Test
+    public void checkNullKeys() {
+        assertNull(TagFilter.forKeys(null, UasDatalinkTag.class));
+    }
+
+    @Test
+    public void checkNoKeysOfType() {
+        assertNull(
+                TagFilter.forKeys(
+                        EnumSet.of(VmtiMetadataKey.FrameNumber),
+                        UasDatalinkTag.class,
+                        UasDatalinkTag.Checksum));
+    }
+
+    @Test
+    public void checkMixedKeys() {
+        Set<IKlvKey> keys = new HashSet<>();
+        keys.add(UasDatalinkTag.SensorLatitude);
+        keys.add(VmtiMetadataKey.FrameWidth);
+        TagFilter filter = TagFilter.forKeys(keys, UasDatalinkTag.class, UasDatalinkTag.Checksum);
+        assertNotNull(filter);
+        assertTrue(filter.test(UasDatalinkTag.SensorLatitude.getIdentifier()));
+        assertTrue(filter.test(UasDatalinkTag.Checksum.getIdentifier()));
+        assertFalse(filter.test(VmtiMetadataKey.FrameWidth.getIdentifier()));
+        assertFalse(filter.test(UasDatalinkTag.SensorLongitude.getIdentifier()));
+        assertFalse(filter.test(-1));
+        assertFalse(filter.test(100000));
+    }
+}
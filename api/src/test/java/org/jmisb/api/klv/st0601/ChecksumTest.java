@@ -1,5 +1,8 @@
 package org.jmisb.api.klv.st0601;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -27,4 +30,80 @@ public class ChecksumTest {
         byte[] actual = Checksum.compute(input, false);
         Assert.assertEquals(actual, expected);
     }
+
+    /** Reference implementation, summing big-endian 16-bit words. */
+    private static int reference(byte[] bytes, int offset, int length) {
+        int sum = 0;
+        for (int i = 0; i < length - 2; i++) {
+            int b = bytes[offset + i] & 0xFF;
+            sum += (i % 2 == 0) ? (b << 8) : b;
+        }
+        return sum & 0xFFFF;
+    }
+
+    @Test
+    public void testRanges() {
+        Random random = new Random(601);
+        byte[] bytes = new byte[300];
+        random.nextBytes(bytes);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes);
+        ByteBuffer littleEndian = ByteBuffer.allocateDirect(bytes.length);
+        littleEndian.order(ByteOrder.LITTLE_ENDIAN);
+        littleEndian.put(bytes);
+        for (int offset = 0; offset < 9; offset++) {
+            for (int length = 2; length < 280; length++) {
+                int expected = reference(bytes, offset, length);
+                byte[] expectedBytes = new byte[] {(byte) (expected >> 8), (byte) expected};
+                Assert.assertEquals(Checksum.compute(bytes, offset, length, false), expectedBytes);
+                Assert.assertEquals(Checksum.compute(direct, offset, length, false), expectedBytes);
+                Assert.assertEquals(
+                        Checksum.compute(littleEndian, offset, length, false), expectedBytes);
+            }
+        }
+    }
+
+    @Test
+    public void testVerify() {
+        Random random = new Random(1);
+        byte[] message = new byte[123];
+        random.nextBytes(message);
+        Assert.assertFalse(Checksum.verify(message, 0, message.length));
+        Checksum.compute(message, true);
+        Assert.assertTrue(Checksum.verify(message, 0, message.length));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(message.length + 10);
+        direct.position(10);
+        direct.put(message);
+        Assert.assertTrue(Checksum.verify(direct, 10, message.length));
+        Assert.assertTrue(Checksum.verify(ByteBuffer.wrap(message), 0, message.length));
+
+        message[17]++;
+        Assert.assertFalse(Checksum.verify(message, 0, message.length));
+        Assert.assertFalse(Checksum.verify(message, 0, 1));
+        Assert.assertFalse(Checksum.verify(direct, 0, 1));
+    }
+
+    @Test
+    public void testInsertBuffer() {
+        byte[] message =
+                new byte[] {0x06, 0x0e, 0x2b, 0x34, 0x02, 0x00, (byte) 0x81, (byte) 0xbb, 0, 0};
+        ByteBuffer direct = ByteBuffer.allocateDirect(message.length);
+        direct.put(message);
+        Checksum.compute(direct, 0, message.length, true);
+        Assert.assertEquals(direct.get(8), (byte) 0xb4);
+        Assert.assertEquals(direct.get(9), (byte) 0xfd);
+    }
+
+    @Test
+    public void testInsertInPlace() {
+        Random random = new Random(2);
+        byte[] bytes = new byte[140];
+        random.nextBytes(bytes);
+        byte[] expected = Checksum.compute(bytes, 7, 123, false);
+        Checksum.insert(bytes, 7, 123);
+        Assert.assertEquals(bytes[7 + 121], expected[0]);
+        Assert.assertEquals(bytes[7 + 122], expected[1]);
+        Assert.assertTrue(Checksum.verify(bytes, 7, 123));
+    }
 }
@@ -2,9 +2,19 @@ package org.jmisb.api.klv.st0601;
 
 import static org.jmisb.api.klv.KlvConstants.UasDatalinkLocalUl;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.*;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
+import org.jmisb.api.common.ParseDiagnostic;
+import org.jmisb.api.klv.IKlvKey;
 import org.jmisb.api.klv.LoggerChecks;
+import org.jmisb.api.klv.st0903.FrameNumber;
+import org.jmisb.api.klv.st0903.IVmtiMetadataValue;
+import org.jmisb.api.klv.st0903.VmtiLocalSet;
+import org.jmisb.api.klv.st0903.VmtiMetadataKey;
+import org.jmisb.api.klv.st0903.shared.VmtiTextString;
 import org.testng.Assert;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
@@ -151,6 +161,159 @@ public class UasDatalinkMessageTest extends LoggerChecks {
         }
     }
 
+    @Test
+    public void testLazyParse() throws KlvParseException {
+        byte[] bytes = message.frameMessage(false);
+        UasDatalinkMessage msg = new UasDatalinkMessage(bytes, 0, bytes.length, true);
+
+        // The identifiers are known before any values are decoded
+        Assert.assertEquals(
+                msg.getIdentifiers(),
+                EnumSet.of(
+                        UasDatalinkTag.SensorLatitude,
+                        UasDatalinkTag.SensorLongitude,
+                        UasDatalinkTag.SensorTrueAltitude));
+
+        // Changing the original bytes does not affect the message
+        byte[] original = bytes.clone();
+        Arrays.fill(bytes, (byte) 0);
+
+        SensorLatitude sensorLatitude =
+                (SensorLatitude) msg.getField(UasDatalinkTag.SensorLatitude);
+        Assert.assertEquals(sensorLatitude.getDegrees(), lat, SensorLatitude.DELTA);
+        Assert.assertSame(msg.getField(UasDatalinkTag.SensorLatitude), sensorLatitude);
+        Assert.assertNull(msg.getField(UasDatalinkTag.PlatformHeadingAngle));
+
+        // Framing re-uses the undecoded fields
+        Assert.assertEquals(msg.frameMessage(false), original);
+    }
+
+    @Test
+    public void testLazyParseRange() throws KlvParseException {
+        byte[] framed = message.frameMessage(false);
+        byte[] bytes = new byte[framed.length + 10];
+        System.arraycopy(framed, 0, bytes, 3, framed.length);
+        UasDatalinkMessage msg =
+                (UasDatalinkMessage)
+                        new UasDatalinkMessageFactory(true).create(bytes, 3, framed.length);
+        SensorLongitude sensorLongitude =
+                (SensorLongitude) msg.getField(UasDatalinkTag.SensorLongitude);
+        Assert.assertEquals(sensorLongitude.getDegrees(), lon, SensorLongitude.DELTA);
+    }
+
+    @Test
+    public void testLazyChecksum() {
+        byte[] bytes = message.frameMessage(false);
+        bytes[20] = (byte) (~bytes[20] & 0xff);
+        try {
+            new UasDatalinkMessage(bytes, 0, bytes.length, true);
+            Assert.fail("Parsing should have failed due to bad checksum");
+        } catch (KlvParseException e) {
+            Assert.assertEquals(e.getMessage(), "Bad checksum");
+        }
+    }
+
+    private static byte[] makeLazyInvalidValueMessage() {
+        // Sensor latitude is 3 bytes long, which is invalid
+        byte[] bad =
+                new byte[] {
+                    0x06, 0x0E, 0x2B, 0x34, 0x02, 0x0B, 0x01, 0x01, 0x0E, 0x01, 0x03, 0x01, 0x01,
+                    0x00, 0x00, 0x00, 0x09, 0x0D, 0x03, 0x01, 0x02, 0x03, 0x01, 0x02, 0x00, 0x00
+                };
+        byte[] checksum = Checksum.compute(bad, false);
+        bad[bad.length - 2] = checksum[0];
+        bad[bad.length - 1] = checksum[1];
+        return bad;
+    }
+
+    @Test
+    public void testLazyInvalidValue() throws KlvParseException {
+        byte[] bad = makeLazyInvalidValueMessage();
+        ParseContext context = ParseContext.lenient();
+        UasDatalinkMessage msg =
+                context.parse(() -> new UasDatalinkMessage(bad, 0, bad.length, true));
+        Assert.assertTrue(msg.getIdentifiers().contains(UasDatalinkTag.SensorLatitude));
+        Assert.assertFalse(context.hasDiagnostics());
+        // Decoded outside of parse(), but still handled by the context it was parsed in
+        Assert.assertNull(msg.getField(UasDatalinkTag.SensorLatitude));
+        Assert.assertFalse(msg.getIdentifiers().contains(UasDatalinkTag.SensorLatitude));
+        Assert.assertEquals(context.getDiagnostics().size(), 1);
+        Assert.assertEquals(
+                context.getDiagnostics().get(0).getKind(),
+                ParseDiagnostic.Kind.InvalidFieldEncoding);
+    }
+
+    @Test
+    public void testLazyInvalidValueStrict() throws KlvParseException {
+        byte[] bad = makeLazyInvalidValueMessage();
+        UasDatalinkMessage msg = new UasDatalinkMessage(bad, 0, bad.length, true);
+        try {
+            msg.getField(UasDatalinkTag.SensorLatitude);
+            Assert.fail("Expected exception from the default strategy");
+        } catch (IllegalArgumentException ex) {
+            Assert.assertTrue(ex.getCause() instanceof KlvParseException);
+        }
+        Assert.assertNull(msg.getField(UasDatalinkTag.SensorLatitude));
+        Assert.assertFalse(msg.getIdentifiers().contains(UasDatalinkTag.SensorLatitude));
+    }
+
+    @Test
+    public void testWantedKeysNestedVmti() throws KlvParseException {
+        Map<VmtiMetadataKey, IVmtiMetadataValue> vmtiValues = new TreeMap<>();
+        vmtiValues.put(
+                VmtiMetadataKey.SystemName,
+                new VmtiTextString(VmtiTextString.SYSTEM_NAME, "DSTO_ADSS_VMTI"));
+        vmtiValues.put(VmtiMetadataKey.FrameNumber, new FrameNumber(78000));
+        SortedMap<UasDatalinkTag, IUasDatalinkValue> values = new TreeMap<>();
+        values.put(UasDatalinkTag.SensorLatitude, new SensorLatitude(lat));
+        values.put(
+                UasDatalinkTag.VmtiLocalDataSet,
+                new NestedVmtiLocalSet(new VmtiLocalSet(vmtiValues)));
+        byte[] bytes = new UasDatalinkMessage(values).frameMessage(false);
+
+        Set<IKlvKey> wantedKeys = new HashSet<>();
+        wantedKeys.add(UasDatalinkTag.VmtiLocalDataSet);
+        wantedKeys.add(VmtiMetadataKey.FrameNumber);
+        UasDatalinkMessage msg =
+                new UasDatalinkMessageFactory().create(bytes, 0, bytes.length, wantedKeys);
+        Assert.assertEquals(msg.getIdentifiers(), EnumSet.of(UasDatalinkTag.VmtiLocalDataSet));
+        NestedVmtiLocalSet vmti =
+                (NestedVmtiLocalSet) msg.getField(UasDatalinkTag.VmtiLocalDataSet);
+        // The version number is always decoded, since it affects the encoding of other values
+        Assert.assertEquals(
+                vmti.getIdentifiers(),
+                EnumSet.of(VmtiMetadataKey.VersionNumber, VmtiMetadataKey.FrameNumber));
+
+        // Lazy parsing applies the same projection
+        msg = new UasDatalinkMessageFactory(true).create(bytes, 0, bytes.length, wantedKeys);
+        vmti = (NestedVmtiLocalSet) msg.getField(UasDatalinkTag.VmtiLocalDataSet);
+        Assert.assertFalse(vmti.getIdentifiers().contains(VmtiMetadataKey.SystemName));
+    }
+
+    @Test
+    public void testParsedTagOrder() throws KlvParseException {
+        // Tags 15, 13, 14 - not in tag order
+        byte[] bytes =
+                new byte[] {
+                    0x06, 0x0E, 0x2B, 0x34, 0x02, 0x0B, 0x01, 0x01,
+                    0x0E, 0x01, 0x03, 0x01, 0x01, 0x00, 0x00, 0x00,
+                    0x14, 0x0f, 0x02, 0x1b, (byte) 0xc4, 0x0d, 0x04, 0x3c,
+                    0x4e, (byte) 0xad, (byte) 0xfa, 0x0e, 0x04, (byte) 0xcd, 0x6b, 0x78,
+                    0x4e, 0x01, 0x02, 0x00, 0x00
+                };
+        byte[] checksum = Checksum.compute(bytes, false);
+        bytes[bytes.length - 2] = checksum[0];
+        bytes[bytes.length - 1] = checksum[1];
+        UasDatalinkMessage msg = new UasDatalinkMessage(bytes);
+        Assert.assertEquals(
+                new ArrayList<>(msg.getIdentifiers()),
+                Arrays.asList(
+                        UasDatalinkTag.SensorLatitude,
+                        UasDatalinkTag.SensorLongitude,
+                        UasDatalinkTag.SensorTrueAltitude));
+        Assert.assertEquals(msg.frameMessage(false), message.frameMessage(false));
+    }
+
     /** Test we get the expected tags */
     @Test
     public void testTags() {
@@ -161,4 +324,72 @@ public class UasDatalinkMessageTest extends LoggerChecks {
         Assert.assertTrue(tags.contains(UasDatalinkTag.SensorLongitude));
         Assert.assertTrue(tags.contains(UasDatalinkTag.SensorTrueAltitude));
     }
+
+    @Test
+    public void testEncodeTo() {
+        byte[] expected = message.frameMessage(false);
+        Assert.assertEquals(message.encodedLength(), expected.length);
+
+        ByteBuffer heap = ByteBuffer.allocate(expected.length + 3);
+        heap.put((byte) 0x55);
+        message.encodeTo(heap);
+        Assert.assertEquals(heap.position(), expected.length + 1);
+        Assert.assertEquals(Arrays.copyOfRange(heap.array(), 1, expected.length + 1), expected);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(expected.length + 3);
+        direct.put((byte) 0x55);
+        message.encodeTo(direct);
+        Assert.assertEquals(direct.position(), expected.length + 1);
+        byte[] written = new byte[expected.length];
+        direct.position(1);
+        direct.get(written);
+        Assert.assertEquals(written, expected);
+    }
+
+    @Test
+    public void testEncodeToLazy() throws KlvParseException {
+        byte[] original = message.frameMessage(false);
+        UasDatalinkMessage msg = new UasDatalinkMessage(original, 0, original.length, true);
+        Assert.assertEquals(msg.encodedLength(), original.length);
+        ByteBuffer direct = ByteBuffer.allocateDirect(original.length);
+        msg.encodeTo(direct);
+        byte[] written = new byte[original.length];
+        direct.flip();
+        direct.get(written);
+        Assert.assertEquals(written, original);
+    }
+
+    @Test
+    public void testLazyConcurrentDecodeAndEncode() throws Exception {
+        // Decoding fields on one thread must not disturb encoding on another
+        byte[] original = message.frameMessage(false);
+        for (int i = 0; i < 200; i++) {
+            UasDatalinkMessage msg = new UasDatalinkMessage(original, 0, original.length, true);
+            Thread reader =
+                    new Thread(
+                            () -> {
+                                for (UasDatalinkTag tag : msg.getIdentifiers()) {
+                                    Assert.assertNotNull(msg.getField(tag));
+                                }
+                            });
+            reader.start();
+            for (int j = 0; j < 5; j++) {
+                Assert.assertEquals(msg.frameMessage(false), original);
+            }
+            reader.join();
+            Assert.assertEquals(msg.frameMessage(false), original);
+        }
+    }
+
+    @Test
+    public void testEncodeToOverflow() {
+        ByteBuffer buffer = ByteBuffer.allocate(message.encodedLength() - 1);
+        try {
+            message.encodeTo(buffer);
+            Assert.fail("Expected BufferOverflowException");
+        } catch (BufferOverflowException e) {
+            // Nothing should have been written
+            Assert.assertEquals(buffer.position(), 0);
+        }
+    }
 }
@@ -0,0 +1,151 @@
+package org.jmisb.api.klv.st0601;
+
+import static org.testng.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.jmisb.api.common.KlvParseException;
+import org.testng.annotations.Test;
+
+/** Tests for the UasDatalinkTemplate. */
+public class UasDatalinkTemplateTest {
+
+    private static UasDatalinkMessage buildMessage(long time, double lat, double heading) {
+        SortedMap<UasDatalinkTag, IUasDatalinkValue> values = new TreeMap<>();
+        values.put(UasDatalinkTag.PrecisionTimeStamp, new PrecisionTimeStamp(time));
+        values.put(
+                UasDatalinkTag.MissionId,
+                new UasDatalinkString(UasDatalinkString.MISSION_ID, "M1"));
+        values.put(UasDatalinkTag.PlatformHeadingAngle, new PlatformHeadingAngle(heading));
+        values.put(UasDatalinkTag.SensorLatitude, new SensorLatitude(lat));
+        values.put(UasDatalinkTag.UasLdsVersionNumber, new ST0601Version((short) 17));
+        return new UasDatalinkMessage(values);
+    }
+
+    @Test
+    public void checkInitialContent() {
+        UasDatalinkMessage prototype = buildMessage(1000L, 10.0, 90.0);
+        UasDatalinkTemplate template = new UasDatalinkTemplate(prototype);
+        assertEquals(template.encode(), prototype.frameMessage(false));
+        assertEquals(template.getLength(), prototype.frameMessage(false).length);
+        assertEquals(template.getValueLength(UasDatalinkTag.PrecisionTimeStamp), 8);
+        assertEquals(template.getValueLength(UasDatalinkTag.SensorLatitude), 4);
+        assertTrue(template.hasTag(UasDatalinkTag.MissionId));
+        assertFalse(template.hasTag(UasDatalinkTag.PlatformTailNumber));
+        assertFalse(template.hasTag(UasDatalinkTag.Checksum));
+    }
+
+    @Test
+    public void checkPatchValues() throws KlvParseException {
+        UasDatalinkTemplate template = new UasDatalinkTemplate(buildMessage(1000L, 10.0, 90.0));
+        UasDatalinkMessage expected = buildMessage(1234567890L, -33.5, 271.0);
+
+        template.setUnsigned(UasDatalinkTag.PrecisionTimeStamp, 1234567890L);
+        template.setValue(UasDatalinkTag.SensorLatitude, new SensorLatitude(-33.5));
+        byte[] heading = new PlatformHeadingAngle(271.0).getBytes();
+        template.setUnsigned(
+                UasDatalinkTag.PlatformHeadingAngle,
+                ((heading[0] & 0xFF) << 8) | (heading[1] & 0xFF));
+
+        byte[] bytes = template.encode();
+        assertEquals(bytes, expected.frameMessage(false));
+
+        // Checksum must be valid
+        UasDatalinkMessage parsed = new UasDatalinkMessage(bytes, 0, bytes.length, false);
+        assertEquals(
+                ((SensorLatitude) parsed.getField(UasDatalinkTag.SensorLatitude)).getDegrees(),
+                -33.5,
+                0.0001);
+    }
+
+    @Test
+    public void checkSetSignedAndBytes() {
+        UasDatalinkTemplate template = new UasDatalinkTemplate(buildMessage(1000L, 10.0, 90.0));
+        byte[] lat = new SensorLatitude(45.0).getBytes();
+        template.setBytes(UasDatalinkTag.SensorLatitude, lat, 0);
+        byte[] first = template.encode().clone();
+        int raw =
+                ((lat[0] & 0xFF) << 24)
+                        | ((lat[1] & 0xFF) << 16)
+                        | ((lat[2] & 0xFF) << 8)
+                        | (lat[3] & 0xFF);
+        template.setSigned(UasDatalinkTag.SensorLatitude, raw);
+        assertEquals(template.encode(), first);
+    }
+
+    @Test
+    public void checkChecksumAfterRepeatedEncodes() {
+        UasDatalinkTemplate template = new UasDatalinkTemplate(buildMessage(1000L, 10.0, 90.0));
+        for (int i = 0; i < 5; i++) {
+            template.setUnsigned(UasDatalinkTag.PrecisionTimeStamp, 1000L + i * 33333L);
+            template.setSigned(UasDatalinkTag.SensorLatitude, i * 1000003);
+            template.setBytes(
+                    UasDatalinkTag.PlatformHeadingAngle, new byte[] {(byte) i, (byte) (7 * i)}, 0);
+            byte[] bytes = template.encode();
+            assertTrue(Checksum.verify(bytes, 0, bytes.length));
+            byte[] checksum = Checksum.compute(bytes.clone(), false);
+            assertEquals(bytes[bytes.length - 2], checksum[0]);
+            assertEquals(bytes[bytes.length - 1], checksum[1]);
+        }
+    }
+
+    @Test
+    public void checkEncodeTo() {
+        UasDatalinkMessage prototype = buildMessage(1000L, 10.0, 90.0);
+        UasDatalinkTemplate template = new UasDatalinkTemplate(prototype);
+        ByteBuffer buffer = ByteBuffer.allocate(template.getLength());
+        template.encodeTo(buffer);
+        assertEquals(buffer.array(), prototype.frameMessage(false));
+    }
+
+    @Test
+    public void checkRepeatedControlCommands() {
+        // Each command is a separate tag 115 field, so the tag can't be set in the template
+        ControlCommands commands = new ControlCommands(new ControlCommand(1, "Turn left"));
+        commands.add(new ControlCommand(2, "Turn right"));
+        commands.add(new ControlCommand(3, "Go straight"));
+        SortedMap<UasDatalinkTag, IUasDatalinkValue> values = new TreeMap<>();
+        values.put(UasDatalinkTag.PrecisionTimeStamp, new PrecisionTimeStamp(1000L));
+        values.put(UasDatalinkTag.SensorLatitude, new SensorLatitude(10.0));
+        values.put(UasDatalinkTag.ControlCommand, commands);
+        UasDatalinkMessage prototype = new UasDatalinkMessage(values);
+        UasDatalinkTemplate template = new UasDatalinkTemplate(prototype);
+        assertFalse(template.hasTag(UasDatalinkTag.ControlCommand));
+        assertTrue(template.hasTag(UasDatalinkTag.SensorLatitude));
+        assertEquals(template.encode(), prototype.frameMessage(false));
+        try {
+            template.setBytes(UasDatalinkTag.ControlCommand, new byte[16], 0);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // Expected, and the commands must be unchanged
+            assertEquals(template.encode(), prototype.frameMessage(false));
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void checkWrongLength() {
+        UasDatalinkTemplate template = new UasDatalinkTemplate(buildMessage(1000L, 10.0, 90.0));
+        template.setValue(
+                UasDatalinkTag.MissionId,
+                new UasDatalinkString(UasDatalinkString.MISSION_ID, "Longer"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void checkUnsignedTooLarge() {
+        UasDatalinkTemplate template = new UasDatalinkTemplate(buildMessage(1000L, 10.0, 90.0));
+        template.setUnsigned(UasDatalinkTag.PlatformHeadingAngle, 0x10000);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void checkSignedTooLarge() {
+        UasDatalinkTemplate template = new UasDatalinkTemplate(buildMessage(1000L, 10.0, 90.0));
+        template.setSigned(UasDatalinkTag.SensorLatitude, 0x80000000L);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void checkMissingTag() {
+        UasDatalinkTemplate template = new UasDatalinkTemplate(buildMessage(1000L, 10.0, 90.0));
+        template.setUnsigned(UasDatalinkTag.PlatformTailNumber, 1);
+    }
+}
@@ -3,6 +3,8 @@ package org.jmisb.api.klv.st0903;
 import static org.testng.Assert.*;
 
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
 import org.jmisb.api.common.KlvParseException;
@@ -49,6 +51,24 @@ public class VmtiLocalSetTest extends LoggerChecks {
         assertEquals(localSet.frameMessage(true), bytes);
     }
 
+    @Test
+    public void parseWantedKeys() throws KlvParseException {
+        final byte[] bytes =
+                new byte[] {
+                    0x03, 0x0E, 0x44, 0x53, 0x54, 0x4F, 0x5F, 0x41, 0x44, 0x53, 0x53, 0x5F, 0x56,
+                    0x4D, 0x54, 0x49, 0x0c, 0x02, 0x0e, 0x39, 0x04, 0x01, 0x03
+                };
+        VmtiLocalSet localSet =
+                new VmtiLocalSet(bytes, EnumSet.of(VmtiMetadataKey.VerticalFieldOfView));
+        assertEquals(
+                localSet.getIdentifiers(),
+                EnumSet.of(VmtiMetadataKey.VersionNumber, VmtiMetadataKey.VerticalFieldOfView));
+        // Version 3 means the field of view uses legacy encoding
+        VmtiVerticalFieldOfView fov =
+                (VmtiVerticalFieldOfView) localSet.getField(VmtiMetadataKey.VerticalFieldOfView);
+        assertEquals(fov.getFieldOfView(), 10.0, 0.003);
+    }
+
     @Test
     public void parseLegacyEncoding() throws KlvParseException {
         final byte[] bytes = new byte[] {0x0c, 0x02, 0x0e, 0x39, 0x04, 0x01, 0x03};
@@ -350,4 +370,18 @@ public class VmtiLocalSetTest extends LoggerChecks {
         this.verifySingleLoggerMessage("Unknown VMTI Metadata tag: Undefined");
         assertNull(unknown);
     }
+
+    @Test
+    public void checkEncodeTo() {
+        VmtiLocalSet localSet = buildLocalSetValues();
+        byte[] expected = localSet.frameMessage(false);
+        assertEquals(localSet.encodedLength(), expected.length);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(expected.length);
+        localSet.encodeTo(buffer);
+        assertEquals(buffer.remaining(), 0);
+        byte[] written = new byte[expected.length];
+        buffer.flip();
+        buffer.get(written);
+        assertEquals(written, expected);
+    }
 }
@@ -1,5 +1,6 @@
 package org.jmisb.api.klv.st1201;
 
+import java.nio.ByteBuffer;
 import org.testng.Assert;
 import org.testng.annotations.*;
 
@@ -594,55 +595,65 @@ public class FpEncoderTest {
         byte[] encoded = fpEncoder.encodeSpecial(ValueMappingKind.NegativeQuietNaN, 1 << 24);
     }
 
-    class TestEncoder extends FpEncoder {
-        public TestEncoder(OutOfRangeBehaviour behaviour) {
-            super(0.0, 1e9, 2, behaviour);
-        }
-
-        public void setFieldLength(int fieldLength) {
-            this.fieldLength = fieldLength;
-        }
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testTooShortDecode() {
+        FpEncoder fpEncoder = new FpEncoder(0.0, 1e9, 2, OutOfRangeBehaviour.Default);
+        fpEncoder.decode(new byte[] {0x00}, 0);
     }
 
     @Test(expectedExceptions = IllegalArgumentException.class)
-    public void testTooLongEncodeFlag() {
-        TestEncoder fpEncoder = new TestEncoder(OutOfRangeBehaviour.Default);
-        fpEncoder.setFieldLength(9);
-        fpEncoder.encode(0);
+    public void testTooLongDecode() {
+        FpEncoder fpEncoder = new FpEncoder(0.0, 1e9, 2, OutOfRangeBehaviour.Default);
+        fpEncoder.decode(new byte[] {0x01, 0x02}, 1);
     }
 
-    @Test(expectedExceptions = IllegalArgumentException.class)
-    public void testTooShortEncodeFlag() {
-        TestEncoder fpEncoder = new TestEncoder(OutOfRangeBehaviour.Default);
-        fpEncoder.setFieldLength(0);
-        fpEncoder.encode(0);
+    @Test
+    public void testPrecisionCoarserThanRange() {
+        FpEncoder fpEncoder = new FpEncoder(0.0, 1.0, 10.0, OutOfRangeBehaviour.Default);
+        Assert.assertEquals(fpEncoder.getFieldLength(), 1);
     }
 
-    @Test(expectedExceptions = IllegalArgumentException.class)
-    public void testTooLongEncodeThrow() {
-        TestEncoder fpEncoder = new TestEncoder(OutOfRangeBehaviour.Throw);
-        fpEncoder.setFieldLength(9);
-        fpEncoder.encode(0);
+    @Test
+    public void testSharedInstances() {
+        FpEncoder first = FpEncoder.getInstance(-900.0, 19000.0, 2, OutOfRangeBehaviour.Default);
+        FpEncoder second = FpEncoder.getInstance(-900.0, 19000.0, 2, OutOfRangeBehaviour.Default);
+        Assert.assertSame(first, second);
+        Assert.assertNotSame(
+                first, FpEncoder.getInstance(-900.0, 19000.0, 2, OutOfRangeBehaviour.Throw));
+        Assert.assertNotSame(
+                first, FpEncoder.getInstance(-900.0, 19000.0, 3, OutOfRangeBehaviour.Default));
+        FpEncoder precision = FpEncoder.getInstance(0.0, 100.0, 0.1, OutOfRangeBehaviour.Default);
+        Assert.assertSame(
+                precision, FpEncoder.getInstance(0.0, 100.0, 0.1, OutOfRangeBehaviour.Default));
+        Assert.assertEquals(precision.getFieldLength(), 2);
+        Assert.assertNotSame(
+                precision, FpEncoder.getInstance(0.0, 100.0, 2, OutOfRangeBehaviour.Default));
     }
 
-    @Test(expectedExceptions = IllegalArgumentException.class)
-    public void testTooShortEncode() {
-        TestEncoder fpEncoder = new TestEncoder(OutOfRangeBehaviour.Throw);
-        fpEncoder.setFieldLength(0);
-        fpEncoder.encode(0);
+    @Test
+    public void testDecodeBuffer() {
+        FpEncoder encoder = FpEncoder.getInstance(-900.0, 19000.0, 3, OutOfRangeBehaviour.Default);
+        byte[] encoded = encoder.encode(1234.5);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(encoded.length + 2);
+        buffer.put((byte) 0x01);
+        buffer.put(encoded);
+        Assert.assertEquals(encoder.decode(buffer, 1), encoder.decode(encoded), 0.0);
+        Assert.assertEquals(encoder.decode(buffer, 1), 1234.5, 0.01);
+        Assert.assertEquals(buffer.position(), encoded.length + 1);
     }
 
     @Test(expectedExceptions = IllegalArgumentException.class)
-    public void testTooShortDecode() {
-        TestEncoder fpEncoder = new TestEncoder(OutOfRangeBehaviour.Default);
-        fpEncoder.setFieldLength(0);
-        fpEncoder.decode(new byte[] {0x00}, 0);
+    public void testDecodeBufferTooShort() {
+        FpEncoder encoder = FpEncoder.getInstance(-900.0, 19000.0, 3, OutOfRangeBehaviour.Default);
+        encoder.decode(ByteBuffer.allocate(4), 2);
     }
 
-    @Test(expectedExceptions = IllegalArgumentException.class)
-    public void testTooLongDecode() {
-        TestEncoder fpEncoder = new TestEncoder(OutOfRangeBehaviour.Default);
-        fpEncoder.setFieldLength(2);
-        fpEncoder.decode(new byte[] {0x01, 0x02}, 1);
+    @Test
+    public void testDecodeEightByteMaxAtOffset() {
+        FpEncoder encoder = FpEncoder.getInstance(0.0, 1.0e9, 8, OutOfRangeBehaviour.Default);
+        byte[] bytes = new byte[9];
+        bytes[1] = (byte) 0x80;
+        Assert.assertEquals(encoder.decode(bytes, 1), 1.0e9, 0.0);
+        Assert.assertEquals(encoder.decode(ByteBuffer.wrap(bytes), 1), 1.0e9, 0.0);
     }
 }
@@ -2,9 +2,12 @@ package org.jmisb.api.klv.st1902;
 
 import static org.testng.Assert.*;
 
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
+import org.jmisb.api.klv.CrcCcitt;
 import org.jmisb.api.klv.KlvConstants;
 import org.jmisb.api.klv.st1903.MIMD;
 import org.jmisb.api.klv.st1903.MIMDMetadataKey;
@@ -156,6 +159,23 @@ public class MimdParseTest {
         checkVersionNumberParse(mimd);
     }
 
+    @Test
+    public void parseWantedKeys() throws KlvParseException {
+        MIMD mimd = new MIMD(missionSupportProfileBytes, EnumSet.of(MIMDMetadataKey.version));
+        assertEquals(mimd.getIdentifiers(), EnumSet.of(MIMDMetadataKey.version));
+        assertNull(mimd.getTimers());
+    }
+
+    @Test(expectedExceptions = KlvParseException.class)
+    public void parseWantedKeysBadChecksum() throws KlvParseException {
+        MimdLocalSetFactory factory = new MimdLocalSetFactory();
+        factory.create(
+                messageWithVersionBytesBadChecksum1,
+                0,
+                messageWithVersionBytesBadChecksum1.length,
+                EnumSet.of(MIMDMetadataKey.timers));
+    }
+
     private void checkVersionNumberParse(MIMD mimd) {
         assertEquals(mimd.displayHeader(), "MIMD");
         assertEquals(mimd.getUniversalLabel(), KlvConstants.MIMDLocalSetUl);
@@ -186,6 +206,35 @@ public class MimdParseTest {
         new MIMD(messageWithVersionBytesBadChecksum2);
     }
 
+    /** A version field with 9 bytes, which is too long for a uint64, and a valid check value. */
+    private static byte[] makeInvalidVersionMessage() {
+        byte[] ul = KlvConstants.MIMDLocalSetUl.getBytes();
+        byte[] value =
+                new byte[] {0x21, 0x09, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08, 0x09};
+        byte[] bytes = new byte[ul.length + 1 + value.length + 2];
+        System.arraycopy(ul, 0, bytes, 0, ul.length);
+        bytes[ul.length] = (byte) (value.length + 2);
+        System.arraycopy(value, 0, bytes, ul.length + 1, value.length);
+        CrcCcitt crc = new CrcCcitt();
+        crc.addData(ul);
+        crc.addData(value);
+        System.arraycopy(crc.getCrc(), 0, bytes, bytes.length - 2, 2);
+        return bytes;
+    }
+
+    @Test(expectedExceptions = KlvParseException.class)
+    public void parseInvalidFieldStrict() throws KlvParseException {
+        new ParseContext().parse(() -> new MIMD(makeInvalidVersionMessage()));
+    }
+
+    @Test
+    public void parseInvalidFieldLenient() throws KlvParseException {
+        ParseContext context = ParseContext.lenient();
+        MIMD mimd = context.parse(() -> new MIMD(makeInvalidVersionMessage()));
+        assertFalse(mimd.getIdentifiers().contains(MIMDMetadataKey.version));
+        assertEquals(context.getDiagnostics().size(), 1);
+    }
+
     @Test
     public void versionNumberFromValue() throws KlvParseException {
         Map<MIMDMetadataKey, IMimdMetadataValue> values = new HashMap<>();
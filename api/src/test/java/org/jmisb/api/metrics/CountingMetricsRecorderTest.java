@@ -0,0 +1,151 @@
+package org.jmisb.api.metrics;
+
+import static org.testng.Assert.*;
+
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
+import org.jmisb.api.common.ParseDiagnostic;
+import org.jmisb.api.klv.IMisbMessage;
+import org.jmisb.api.klv.KlvConstants;
+import org.jmisb.api.klv.KlvParser;
+import org.jmisb.api.klv.LoggerChecks;
+import org.jmisb.api.klv.st0601.Checksum;
+import org.jmisb.api.klv.st0601.IUasDatalinkValue;
+import org.jmisb.api.klv.st0601.SensorLatitude;
+import org.jmisb.api.klv.st0601.UasDatalinkMessage;
+import org.jmisb.api.klv.st0601.UasDatalinkTag;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Unit tests for CountingMetricsRecorder. */
+public class CountingMetricsRecorderTest extends LoggerChecks {
+    private CountingMetricsRecorder recorder;
+
+    public CountingMetricsRecorderTest() {
+        super(UasDatalinkMessage.class);
+    }
+
+    @BeforeMethod
+    public void install() {
+        recorder = new CountingMetricsRecorder();
+        Metrics.setRecorder(recorder);
+    }
+
+    @AfterMethod
+    public void uninstall() {
+        Metrics.setRecorder(null);
+    }
+
+    private static byte[] makeMessage() {
+        SortedMap<UasDatalinkTag, IUasDatalinkValue> values = new TreeMap<>();
+        values.put(UasDatalinkTag.SensorLatitude, new SensorLatitude(10.0));
+        return new UasDatalinkMessage(values).frameMessage(false);
+    }
+
+    @Test
+    public void checkEnabled() {
+        assertTrue(Metrics.isEnabled());
+        assertSame(Metrics.getRecorder(), recorder);
+        Metrics.setRecorder(null);
+        assertFalse(Metrics.isEnabled());
+        assertNotNull(Metrics.getRecorder());
+    }
+
+    @Test
+    public void checkParse() throws KlvParseException {
+        byte[] bytes = makeMessage();
+        KlvParser.parseBytes(bytes);
+        KlvParser.parseBytes(bytes);
+        assertEquals(recorder.getMessageCounts().size(), 1);
+        assertEquals(
+                recorder.getMessageCounts().get(KlvConstants.UasDatalinkLocalUl).longValue(), 2);
+        assertEquals(recorder.getBytesParsed(), 2 * bytes.length);
+        assertEquals(recorder.getParseLatency(KlvConstants.UasDatalinkLocalUl).getCount(), 2);
+        assertTrue(recorder.getFailedMessageCounts().isEmpty());
+    }
+
+    @Test
+    public void checkInvalidData() throws KlvParseException {
+        byte[] bytes = makeMessage();
+        bytes[bytes.length - 1] ^= 0x01;
+        try {
+            KlvParser.parseBytes(bytes);
+            fail();
+        } catch (KlvParseException ex) {
+            // expected
+        }
+        List<IMisbMessage> messages = KlvParser.parseBytes(bytes, ParseContext.lenient());
+        assertEquals(messages.size(), 1);
+        assertEquals(
+                recorder.getFailedMessageCounts().get(KlvConstants.UasDatalinkLocalUl).longValue(),
+                1);
+        assertEquals(
+                recorder.getMessageCounts().get(KlvConstants.UasDatalinkLocalUl).longValue(), 1);
+        assertEquals(
+                recorder.getInvalidDataCounts(ParseDiagnostic.Kind.InvalidChecksum)
+                        .get(UasDatalinkMessage.class.getName())
+                        .longValue(),
+                2);
+        assertTrue(recorder.getInvalidDataCounts(ParseDiagnostic.Kind.Overrun).isEmpty());
+    }
+
+    @Test
+    public void checkUnknownTag() throws KlvParseException {
+        // Tag 200 is not defined in ST 0601
+        byte[] bytes =
+                new byte[] {
+                    0x06,
+                    0x0E,
+                    0x2B,
+                    0x34,
+                    0x02,
+                    0x0B,
+                    0x01,
+                    0x01,
+                    0x0E,
+                    0x01,
+                    0x03,
+                    0x01,
+                    0x01,
+                    0x00,
+                    0x00,
+                    0x00,
+                    0x08,
+                    (byte) 0x81,
+                    0x48,
+                    0x01,
+                    0x00,
+                    0x01,
+                    0x02,
+                    0x00,
+                    0x00
+                };
+        Checksum.compute(bytes, true);
+        KlvParser.parseBytes(bytes);
+        assertEquals(LOGGER.getLoggingEvents().size(), 1);
+        LOGGER.clear();
+        assertEquals(
+                recorder.getUnknownTagCounts().get(UasDatalinkMessage.class.getName()).longValue(),
+                1);
+    }
+
+    @Test
+    public void checkQueueAndDecode() {
+        recorder.packetQueueDepth("queue", 5);
+        recorder.packetQueueDepth("queue", 2);
+        recorder.videoFrameDecoded("video", 1000);
+        recorder.metadataPacketDecoded("metadata", 100, 2000);
+        assertEquals(recorder.getQueueDepths().get("queue").intValue(), 2);
+        assertEquals(recorder.getMaxQueueDepths().get("queue").intValue(), 5);
+        assertEquals(recorder.getVideoDecodeLatency("video").getMax(), 1000);
+        assertEquals(recorder.getMetadataDecodeLatency("metadata").getMax(), 2000);
+        assertNull(recorder.getVideoDecodeLatency("other"));
+        recorder.reset();
+        assertTrue(recorder.getQueueDepths().isEmpty());
+        assertNull(recorder.getVideoDecodeLatency("video"));
+    }
+}
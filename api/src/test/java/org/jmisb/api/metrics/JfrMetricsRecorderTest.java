@@ -0,0 +1,71 @@
+package org.jmisb.api.metrics;
+
+import static org.testng.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
+import org.jmisb.api.klv.KlvParser;
+import org.jmisb.api.klv.st0601.IUasDatalinkValue;
+import org.jmisb.api.klv.st0601.SensorLatitude;
+import org.jmisb.api.klv.st0601.UasDatalinkMessage;
+import org.jmisb.api.klv.st0601.UasDatalinkTag;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+/** Unit tests for JfrMetricsRecorder. */
+public class JfrMetricsRecorderTest {
+
+    @AfterMethod
+    public void uninstall() {
+        Metrics.setRecorder(null);
+    }
+
+    @Test
+    public void checkEvents() throws KlvParseException, IOException {
+        SortedMap<UasDatalinkTag, IUasDatalinkValue> values = new TreeMap<>();
+        values.put(UasDatalinkTag.SensorLatitude, new SensorLatitude(10.0));
+        byte[] bytes = new UasDatalinkMessage(values).frameMessage(false);
+        bytes[bytes.length - 1] ^= 0x01;
+
+        Metrics.setRecorder(new JfrMetricsRecorder());
+        Path file = Files.createTempFile("jmisb", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("org.jmisb.KlvParse");
+            recording.enable("org.jmisb.InvalidData");
+            recording.start();
+            KlvParser.parseBytes(bytes, ParseContext.lenient());
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            RecordedEvent parse = find(events, "org.jmisb.KlvParse");
+            assertEquals(parse.getInt("length"), bytes.length);
+            assertTrue(parse.getBoolean("valid"));
+            assertEquals(parse.getString("universalLabel"), "060E2B34020B01010E01030101000000");
+            RecordedEvent invalid = find(events, "org.jmisb.InvalidData");
+            assertEquals(invalid.getString("kind"), "InvalidChecksum");
+            assertEquals(invalid.getString("source"), UasDatalinkMessage.class.getName());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name)) {
+                return event;
+            }
+        }
+        fail("No " + name + " event");
+        return null;
+    }
+}
@@ -0,0 +1,56 @@
+package org.jmisb.api.metrics;
+
+import static org.testng.Assert.*;
+
+import org.testng.annotations.Test;
+
+/** Unit tests for LatencyHistogram. */
+public class LatencyHistogramTest {
+
+    @Test
+    public void checkEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(histogram.getCount(), 0);
+        assertEquals(histogram.getMean(), 0.0);
+        assertEquals(histogram.getMax(), 0);
+        assertEquals(histogram.getPercentile(50), 0);
+    }
+
+    @Test
+    public void checkPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(10000);
+        assertEquals(histogram.getCount(), 100);
+        assertEquals(histogram.getMax(), 10000);
+        assertEquals(histogram.getMean(), 199.0, 0.001);
+        // 100 is in the [64, 128) bucket
+        assertEquals(histogram.getPercentile(50), 127);
+        assertEquals(histogram.getPercentile(99), 127);
+        assertEquals(histogram.getPercentile(100), 10000);
+        assertEquals(histogram.getPercentile(0), 127);
+    }
+
+    @Test
+    public void checkNegativeAndZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5);
+        histogram.record(0);
+        assertEquals(histogram.getCount(), 2);
+        assertEquals(histogram.getMax(), 0);
+        assertEquals(histogram.getPercentile(100), 0);
+    }
+
+    @Test
+    public void checkReset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000);
+        histogram.reset();
+        assertEquals(histogram.getCount(), 0);
+        assertEquals(histogram.getMax(), 0);
+        assertEquals(histogram.getPercentile(50), 0);
+        assertTrue(histogram.toString().startsWith("count=0"));
+    }
+}
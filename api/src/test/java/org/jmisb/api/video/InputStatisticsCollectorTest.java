@@ -0,0 +1,95 @@
+package org.jmisb.api.video;
+
+import static org.testng.Assert.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.testng.annotations.Test;
+
+/** Unit tests for InputStatisticsCollector and InputStatistics. */
+public class InputStatisticsCollectorTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    public void checkEmpty() {
+        InputStatisticsCollector collector = new InputStatisticsCollector();
+        InputStatistics stats = collector.snapshot(0, 0, Collections.emptyMap());
+        assertEquals(stats.getNumPacketsDemuxed(), 0);
+        assertTrue(stats.getPacketsDemuxed().isEmpty());
+        assertEquals(stats.getNumVideoFramesDecoded(), 0);
+        assertEquals(stats.getNumMetadataMessagesParsed(), 0);
+        assertEquals(stats.getMetadataInterArrivalMean(), 0.0);
+        assertEquals(stats.getNumMetadataGaps(), 0);
+        assertTrue(stats.getTimeSinceLastMetadata() < 0);
+    }
+
+    @Test
+    public void checkCounters() {
+        InputStatisticsCollector collector = new InputStatisticsCollector();
+        collector.packetDemuxed(0);
+        collector.packetDemuxed(0);
+        collector.packetDemuxed(1);
+        collector.videoFrameDecoded();
+        collector.videoFrameDecoded();
+        collector.videoFrameDropped();
+        collector.videoDecodeError();
+        collector.metadataMessagesParsed(3);
+        collector.metadataMessagesFailed(2);
+        Map<Integer, Integer> depths = new HashMap<>();
+        depths.put(0, 4);
+        depths.put(1, 5);
+        InputStatistics stats = collector.snapshot(6, 7, depths);
+        assertEquals(stats.getPacketsDemuxed().get(0).longValue(), 2);
+        assertEquals(stats.getPacketsDemuxed().get(1).longValue(), 1);
+        assertEquals(stats.getNumPacketsDemuxed(), 3);
+        assertEquals(stats.getNumVideoFramesDecoded(), 2);
+        assertEquals(stats.getNumVideoFramesDropped(), 1);
+        assertEquals(stats.getNumVideoDecodeErrors(), 1);
+        assertEquals(stats.getNumMetadataMessagesParsed(), 3);
+        assertEquals(stats.getNumMetadataMessagesFailed(), 2);
+        assertEquals(stats.getVideoQueueDepth(), 6);
+        assertEquals(stats.getMetadataQueueDepth(), 7);
+        assertEquals(stats.getPacketQueueDepths().get(1).intValue(), 5);
+        assertTrue(stats.toString().startsWith("packets = 3, video = (2/1/1)"));
+
+        collector.reset();
+        stats = collector.snapshot(0, 0, Collections.emptyMap());
+        assertEquals(stats.getNumPacketsDemuxed(), 0);
+        assertEquals(stats.getNumVideoFramesDecoded(), 0);
+        assertEquals(stats.getNumMetadataMessagesFailed(), 0);
+    }
+
+    @Test
+    public void checkRegularArrivals() {
+        InputStatisticsCollector collector = new InputStatisticsCollector();
+        for (int i = 0; i < 50; i++) {
+            collector.metadataArrived(1000 * MS + i * 33 * MS);
+        }
+        InputStatistics stats = collector.snapshot(0, 0, Collections.emptyMap());
+        assertEquals(stats.getMetadataInterArrivalMean(), 0.033, 1.0e-9);
+        assertEquals(stats.getMetadataInterArrivalJitter(), 0.0, 1.0e-9);
+        assertEquals(stats.getMetadataInterArrivalMax(), 0.033, 1.0e-9);
+        assertEquals(stats.getNumMetadataGaps(), 0);
+        assertTrue(stats.getTimeSinceLastMetadata() >= 0);
+    }
+
+    @Test
+    public void checkGapAndJitter() {
+        InputStatisticsCollector collector = new InputStatisticsCollector();
+        long t = 1000 * MS;
+        for (int i = 0; i < 20; i++) {
+            collector.metadataArrived(t);
+            t += 33 * MS;
+        }
+        // Stall for half a second
+        t += 500 * MS;
+        collector.metadataArrived(t);
+        InputStatistics stats = collector.snapshot(0, 0, Collections.emptyMap());
+        assertEquals(stats.getNumMetadataGaps(), 1);
+        assertEquals(stats.getMetadataInterArrivalMax(), 0.533, 1.0e-9);
+        assertEquals(stats.getMetadataInterArrivalJitter(), 0.5 / 16, 1.0e-9);
+        assertTrue(stats.getMetadataInterArrivalMean() > 0.033);
+    }
+}
@@ -0,0 +1,66 @@
+package org.jmisb.api.video;
+
+import static org.testng.Assert.*;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.jmisb.api.klv.IMisbMessage;
+import org.jmisb.api.klv.MisbMessageFactory;
+import org.jmisb.api.klv.st0601.IUasDatalinkValue;
+import org.jmisb.api.klv.st0601.PrecisionTimeStamp;
+import org.jmisb.api.klv.st0601.UasDatalinkMessage;
+import org.jmisb.api.klv.st0601.UasDatalinkTag;
+import org.testng.annotations.Test;
+
+/** Tests for MetadataDecodeThread. */
+public class MetadataDecodeThreadTest {
+
+    @Test(timeOut = 5000)
+    public void checkLastMessageDecodedOnPool() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            BlockingQueue<Boolean> wakeUps = new LinkedBlockingQueue<>();
+            for (int i = 0; i < 100; i++) {
+                byte[] frame = buildFrame(i);
+                // Each message is the last one of the stream so far, so the wake up is the only
+                // chance for the decode thread to see it
+                MetadataDecodeThread.DecodeTask[] task = new MetadataDecodeThread.DecodeTask[1];
+                task[0] =
+                        new MetadataDecodeThread.DecodeTask(
+                                () -> MisbMessageFactory.getInstance().handleMessage(frame),
+                                () -> wakeUps.add(task[0].isDone()));
+                pool.execute(task[0]);
+
+                assertTrue(wakeUps.take());
+                IMisbMessage message = task[0].get();
+                assertTrue(message instanceof UasDatalinkMessage);
+                PrecisionTimeStamp timeStamp =
+                        (PrecisionTimeStamp)
+                                ((UasDatalinkMessage) message)
+                                        .getField(UasDatalinkTag.PrecisionTimeStamp);
+                assertEquals(timeStamp.getMicroseconds(), i);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void checkCancelWakesUp() {
+        BlockingQueue<Boolean> wakeUps = new LinkedBlockingQueue<>();
+        MetadataDecodeThread.DecodeTask task =
+                new MetadataDecodeThread.DecodeTask(() -> null, () -> wakeUps.add(true));
+        task.cancel(false);
+        assertEquals(wakeUps.size(), 1);
+    }
+
+    private static byte[] buildFrame(long microseconds) {
+        SortedMap<UasDatalinkTag, IUasDatalinkValue> values = new TreeMap<>();
+        values.put(UasDatalinkTag.PrecisionTimeStamp, new PrecisionTimeStamp(microseconds));
+        return new UasDatalinkMessage(values).frameMessage(false);
+    }
+}
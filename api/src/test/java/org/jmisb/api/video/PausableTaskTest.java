@@ -0,0 +1,181 @@
+package org.jmisb.api.video;
+
+import static org.testng.Assert.*;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.Test;
+
+/** Tests for PausableTask and ProcessingTask. */
+public class PausableTaskTest {
+    private static final Integer WAKE_UP = -1;
+
+    /** A task that blocks waiting for input, like the decode threads. */
+    private static class BlockingTask extends PausableTask {
+        private final BlockingQueue<Integer> queue = new ArrayBlockingQueue<>(10);
+        private final AtomicInteger processed = new AtomicInteger();
+
+        @Override
+        public void run() {
+            Thread.currentThread().setName("BlockingTask");
+            while (!isShutdown()) {
+                if (pauseOrResume()) {
+                    break;
+                }
+                try {
+                    if (queue.take() != WAKE_UP) {
+                        processed.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        protected void wakeUp() {
+            queue.offer(WAKE_UP);
+        }
+    }
+
+    @Test(timeOut = 5000)
+    public void checkPauseAndPlay() throws InterruptedException {
+        BlockingTask task = new BlockingTask();
+        task.start(null);
+        task.queue.put(1);
+        while (task.processed.get() < 1) {
+            Thread.yield();
+        }
+
+        // Blocked on the queue, so relies on wakeUp() to notice the request
+        task.pause();
+        assertTrue(task.isPaused());
+        assertEquals(task.processed.get(), 1);
+
+        task.queue.put(2);
+        assertTrue(task.isPaused());
+        assertEquals(task.processed.get(), 1);
+
+        task.play();
+        while (task.processed.get() < 2) {
+            Thread.yield();
+        }
+        assertFalse(task.isPauseRequested());
+
+        task.shutdown();
+        task.join();
+        assertTrue(task.isShutdown());
+    }
+
+    @Test(timeOut = 5000)
+    public void checkShutdownWhilePaused() throws InterruptedException {
+        BlockingTask task = new BlockingTask();
+        task.start(null);
+        task.pause();
+        task.shutdown();
+        task.join();
+        assertFalse(task.isAlive());
+    }
+
+    @Test(timeOut = 5000)
+    public void checkPauseNotStarted() {
+        // Must not wait for a thread that will never pause
+        BlockingTask task = new BlockingTask();
+        task.pause();
+        assertFalse(task.isPaused());
+        assertTrue(task.isPauseRequested());
+    }
+
+    @Test(timeOut = 5000)
+    public void checkRunOnExecutor() throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            BlockingTask task = new BlockingTask();
+            task.start(executor);
+            assertTrue(task.isAlive());
+            task.queue.put(1);
+            while (task.processed.get() < 1) {
+                Thread.yield();
+            }
+
+            task.pause();
+            assertTrue(task.isPaused());
+            task.play();
+            task.shutdown();
+            task.join();
+            assertFalse(task.isAlive());
+
+            // The executor's thread is not left renamed (or interrupted) by the task
+            String name =
+                    executor.submit(
+                                    () -> {
+                                        assertFalse(Thread.currentThread().isInterrupted());
+                                        return Thread.currentThread().getName();
+                                    })
+                            .get();
+            assertNotEquals(name, "BlockingTask");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(timeOut = 5000)
+    public void checkShutdownBeforeRun() throws InterruptedException {
+        // Queued behind another task, so shut down before it gets to run
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            BlockingTask first = new BlockingTask();
+            BlockingTask second = new BlockingTask();
+            first.start(executor);
+            second.start(executor);
+            second.shutdown();
+            assertFalse(second.join(50));
+            first.shutdown();
+            assertTrue(second.join(4000));
+            assertEquals(second.processed.get(), 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void checkStartTwice() throws InterruptedException {
+        BlockingTask task = new BlockingTask();
+        task.start(null);
+        try {
+            task.start(null);
+        } finally {
+            task.shutdown();
+            task.join();
+        }
+    }
+
+    @Test
+    public void checkRejected() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        BlockingTask task = new BlockingTask();
+        try {
+            task.start(executor);
+            fail("Expected RejectedExecutionException");
+        } catch (RejectedExecutionException e) {
+            assertFalse(task.isAlive());
+            assertTrue(task.join(0));
+        }
+    }
+
+    @Test
+    public void checkJoinNotStarted() throws InterruptedException {
+        BlockingTask task = new BlockingTask();
+        task.join();
+        assertTrue(task.join(0));
+        assertFalse(task.isAlive());
+        // Nothing to interrupt
+        task.interrupt();
+    }
+}
@@ -3,10 +3,15 @@ package org.jmisb.api.video;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.imageio.ImageIO;
 import org.jmisb.api.klv.IMisbMessage;
 import org.jmisb.api.klv.st0102.*;
@@ -14,6 +19,7 @@ import org.jmisb.api.klv.st0102.localset.CcMethod;
 import org.jmisb.api.klv.st0102.localset.ClassificationLocal;
 import org.jmisb.api.klv.st0102.localset.SecurityMetadataLocalSet;
 import org.jmisb.api.klv.st0601.*;
+import org.jmisb.api.video.ts.TsKlvExtractor;
 import org.jmisb.core.video.TimingUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -175,6 +181,154 @@ public class VideoFileInputOutputIT {
         }
     }
 
+    @Test
+    public void testExtractKlv() {
+        // Metadata extraction mode, verify all metadata is pulled out without pacing or video
+        final double frameRate = 15.0;
+        final int numFrames = 120;
+        final String filename = "testExtractKlv.ts";
+
+        createFile(filename, frameRate, numFrames, CodecIdentifier.H264);
+
+        VideoFileInputOptions options = new VideoFileInputOptions();
+        options.setMetadataExtraction(true);
+        try (IVideoFileInput input = new VideoFileInput(options)) {
+            MetadataCounter counter = new MetadataCounter();
+            input.addMetadataListener(counter);
+            input.addFrameListener(new DisallowedListener());
+            input.open(filename);
+            Assert.assertEquals(input.getNumFrames(), 0);
+
+            // Playback speed is ignored, so this is much less than the file duration
+            TimingUtils.shortWait(1000);
+
+            Assert.assertEquals(counter.getCount(), numFrames);
+            InputStatistics statistics = input.getStatistics();
+            Assert.assertEquals(statistics.getNumPacketsDemuxed(), numFrames);
+            Assert.assertEquals(statistics.getNumVideoFramesDecoded(), 0);
+            Assert.assertTrue(input.getPosition() > 0.0);
+        } catch (IOException e) {
+            logger.error("Failed to read file", e);
+            Assert.fail("Failed to read file");
+        }
+    }
+
+    @Test
+    public void testExtractKlvSeek() throws IOException {
+        // Seeking in metadata extraction mode is done on the KLV stream, as there is no video
+        final double frameRate = 15.0;
+        final int numFrames = 120;
+        final String filename = "testExtractKlvSeek.ts";
+
+        createFile(filename, frameRate, numFrames, CodecIdentifier.H264);
+
+        VideoFileInputOptions options = new VideoFileInputOptions(false, true, false, true);
+        options.setMetadataExtraction(true);
+        try (IVideoFileInput input = new VideoFileInput(options)) {
+            List<Double> pts = Collections.synchronizedList(new ArrayList<>());
+            input.addMetadataListener(frame -> pts.add(frame.getPts()));
+            input.open(filename);
+
+            final double position = input.getDuration() / 2;
+            input.seek(position);
+            Assert.assertEquals(input.getPosition(), position);
+            input.play();
+
+            TimingUtils.shortWait(1000);
+
+            Assert.assertFalse(pts.isEmpty());
+            Assert.assertTrue(pts.size() < numFrames);
+            double firstPts = Collections.min(pts);
+            Assert.assertTrue(firstPts > position - 1.0 / frameRate - 0.001);
+            Assert.assertTrue(input.getPosition() > position);
+        }
+    }
+
+    @Test
+    public void testExtractKlvWithoutFfmpeg() throws IOException {
+        final double frameRate = 15.0;
+        final int numFrames = 120;
+        final String filename = "testExtractKlvWithoutFfmpeg.ts";
+
+        createFile(filename, frameRate, numFrames, CodecIdentifier.H264);
+
+        MetadataCounter counter = new MetadataCounter();
+        TsKlvExtractor extractor = new TsKlvExtractor(counter);
+        extractor.extract(Paths.get(filename));
+        Assert.assertEquals(counter.getCount(), numFrames);
+        Assert.assertEquals(extractor.getKlvPids().size(), 1);
+        Assert.assertEquals(extractor.getFailedMessageCount(), 0);
+        Assert.assertEquals(extractor.getContinuityErrorCount(), 0);
+    }
+
+    @Test
+    public void testSharedExecutor() throws IOException {
+        // Several inputs sharing one executor for their tasks, and a single metadata decode thread
+        final double frameRate = 15.0;
+        final int numFrames = 120;
+        final int numInputs = 3;
+        final String filename = "testSharedExecutor.ts";
+
+        createFile(filename, frameRate, numFrames, CodecIdentifier.H264);
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        ExecutorService decodeExecutor = Executors.newSingleThreadExecutor();
+        try {
+            VideoFileInputOptions options = new VideoFileInputOptions();
+            options.setMetadataExtraction(true);
+            options.setExecutor(executor);
+            options.setMetadataDecodeExecutor(decodeExecutor);
+
+            List<IVideoFileInput> inputs = new ArrayList<>();
+            List<MetadataCounter> counters = new ArrayList<>();
+            for (int i = 0; i < numInputs; i++) {
+                IVideoFileInput input = new VideoFileInput(options);
+                MetadataCounter counter = new MetadataCounter();
+                input.addMetadataListener(counter);
+                input.open(filename);
+                inputs.add(input);
+                counters.add(counter);
+            }
+
+            TimingUtils.shortWait(1000);
+
+            for (int i = 0; i < numInputs; i++) {
+                Assert.assertEquals(counters.get(i).getCount(), numFrames);
+                inputs.get(i).close();
+            }
+            // Closing the inputs leaves the executors running
+            Assert.assertFalse(executor.isShutdown());
+            Assert.assertFalse(decodeExecutor.isShutdown());
+        } finally {
+            executor.shutdownNow();
+            decodeExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMetadataDecodeThreads() throws IOException {
+        // No packets follow the last message, so only its completion can get it delivered
+        final double frameRate = 15.0;
+        final int numFrames = 120;
+        final String filename = "testMetadataDecodeThreads.ts";
+
+        createFile(filename, frameRate, numFrames, CodecIdentifier.H264);
+
+        VideoFileInputOptions options = new VideoFileInputOptions();
+        options.setMetadataExtraction(true);
+        options.setMetadataDecodeThreads(4);
+        try (IVideoFileInput input = new VideoFileInput(options)) {
+            MetadataCounter counter = new MetadataCounter();
+            input.addMetadataListener(counter);
+            input.open(filename);
+
+            TimingUtils.shortWait(1000);
+
+            Assert.assertEquals(counter.getCount(), numFrames);
+            Assert.assertEquals(input.getStatistics().getNumMetadataMessagesParsed(), numFrames);
+        }
+    }
+
     private void createFile(
             String filename, double frameRate, int numFrames, CodecIdentifier codec) {
         final int width = 640;
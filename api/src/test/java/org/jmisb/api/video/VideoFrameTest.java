@@ -1,6 +1,14 @@
 package org.jmisb.api.video;
 
+import static org.bytedeco.ffmpeg.global.avutil.AV_PIX_FMT_BGR24;
+import static org.bytedeco.ffmpeg.global.avutil.AV_PIX_FMT_NV12;
+import static org.bytedeco.ffmpeg.global.avutil.AV_PIX_FMT_YUV420P;
+import static org.bytedeco.ffmpeg.global.avutil.av_frame_alloc;
+import static org.bytedeco.ffmpeg.global.avutil.av_frame_get_buffer;
+
 import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import org.bytedeco.ffmpeg.avutil.AVFrame;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -19,4 +27,158 @@ public class VideoFrameTest {
         Assert.assertEquals(frame1.getImage(), image1);
         Assert.assertEquals(frame2.getImage(), image2);
     }
+
+    @Test
+    public void testUnpooled() {
+        VideoFrame frame = new VideoFrame(new BufferedImage(8, 8, BufferedImage.TYPE_3BYTE_BGR), 0);
+        Assert.assertFalse(frame.isPooled());
+        Assert.assertSame(frame.retain(), frame);
+        frame.release();
+        frame.release();
+        frame.close();
+    }
+
+    @Test
+    public void testPooled() {
+        FramePool pool = new FramePool(2);
+        VideoFrame frame = pool.acquire(8, 4, 1.5);
+        Assert.assertTrue(frame.isPooled());
+        Assert.assertEquals(frame.getPts(), 1.5);
+        Assert.assertEquals(frame.getImage().getWidth(), 8);
+        Assert.assertEquals(frame.getImage().getHeight(), 4);
+        Assert.assertEquals(frame.getImage().getType(), BufferedImage.TYPE_3BYTE_BGR);
+
+        frame.retain();
+        frame.release();
+        Assert.assertEquals(pool.getIdleCount(), 0);
+        frame.release();
+        Assert.assertEquals(pool.getIdleCount(), 1);
+
+        VideoFrame next = pool.acquire(8, 4, 1.6);
+        Assert.assertSame(next.getImage(), frame.getImage());
+        Assert.assertEquals(pool.getAllocatedCount(), 1);
+        try (VideoFrame closeable = next) {
+            Assert.assertEquals(closeable.getPts(), 1.6);
+        }
+        Assert.assertEquals(pool.getIdleCount(), 1);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testDoubleRelease() {
+        VideoFrame frame = new FramePool(1).acquire(8, 8, 0);
+        frame.release();
+        frame.release();
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testRetainAfterRelease() {
+        VideoFrame frame = new FramePool(1).acquire(8, 8, 0);
+        frame.release();
+        frame.retain();
+    }
+
+    @Test
+    public void testPoolCapacity() {
+        FramePool pool = new FramePool(1);
+        VideoFrame frame1 = pool.acquire(8, 8, 0);
+        VideoFrame frame2 = pool.acquire(8, 8, 0);
+        Assert.assertNotSame(frame1.getImage(), frame2.getImage());
+        frame1.release();
+        frame2.release();
+        Assert.assertEquals(pool.getIdleCount(), 1);
+        Assert.assertEquals(pool.getAllocatedCount(), 2);
+    }
+
+    @Test
+    public void testPoolResize() {
+        FramePool pool = new FramePool(4);
+        VideoFrame small = pool.acquire(8, 8, 0);
+        small.release();
+        VideoFrame large = pool.acquire(16, 16, 0);
+        Assert.assertEquals(large.getImage().getWidth(), 16);
+        Assert.assertEquals(pool.getIdleCount(), 0);
+        small = pool.acquire(8, 8, 0);
+        large.release();
+        Assert.assertEquals(pool.getIdleCount(), 0);
+        small.release();
+        Assert.assertEquals(pool.getIdleCount(), 1);
+    }
+
+    @Test
+    public void testImageFormat() {
+        VideoFrame frame = new VideoFrame(new BufferedImage(8, 6, BufferedImage.TYPE_3BYTE_BGR), 0);
+        Assert.assertEquals(frame.getWidth(), 8);
+        Assert.assertEquals(frame.getHeight(), 6);
+        Assert.assertEquals(frame.getPixelFormat(), AV_PIX_FMT_BGR24);
+        Assert.assertEquals(frame.getPixelFormatName(), "bgr24");
+        Assert.assertEquals(frame.getPlaneCount(), 0);
+        Assert.assertFalse(frame.isReferenceCounted());
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testImagePlane() {
+        VideoFrame frame = new VideoFrame(new BufferedImage(8, 6, BufferedImage.TYPE_3BYTE_BGR), 0);
+        frame.getPlane(0);
+    }
+
+    @Test
+    public void testPlanar() {
+        VideoFrame frame = new VideoFrame(allocateFrame(AV_PIX_FMT_YUV420P, 33, 17), 2.0);
+        Assert.assertNull(frame.getImage());
+        Assert.assertFalse(frame.isPooled());
+        Assert.assertTrue(frame.isReferenceCounted());
+        Assert.assertEquals(frame.getPts(), 2.0);
+        Assert.assertEquals(frame.getWidth(), 33);
+        Assert.assertEquals(frame.getHeight(), 17);
+        Assert.assertEquals(frame.getPixelFormat(), AV_PIX_FMT_YUV420P);
+        Assert.assertEquals(frame.getPixelFormatName(), "yuv420p");
+        Assert.assertEquals(frame.getPlaneCount(), 3);
+        Assert.assertEquals(frame.getPlaneHeight(0), 17);
+        Assert.assertEquals(frame.getPlaneHeight(1), 9);
+        Assert.assertEquals(frame.getPlaneHeight(2), 9);
+        Assert.assertTrue(frame.getLineSize(0) >= 33);
+        Assert.assertTrue(frame.getLineSize(1) >= 17);
+        ByteBuffer luma = frame.getPlane(0);
+        Assert.assertTrue(luma.isDirect());
+        Assert.assertEquals(luma.capacity(), frame.getLineSize(0) * 17);
+        luma.put(0, (byte) 42);
+        Assert.assertEquals(frame.getPlane(0).get(0), 42);
+        Assert.assertEquals(frame.getPlane(2).capacity(), frame.getLineSize(2) * 9);
+        frame.release();
+    }
+
+    @Test
+    public void testSemiPlanar() {
+        try (VideoFrame frame = new VideoFrame(allocateFrame(AV_PIX_FMT_NV12, 16, 8), 0)) {
+            Assert.assertEquals(frame.getPlaneCount(), 2);
+            Assert.assertEquals(frame.getPlaneHeight(1), 4);
+            Assert.assertTrue(frame.getLineSize(1) >= 16);
+        }
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void testPlaneIndex() {
+        try (VideoFrame frame = new VideoFrame(allocateFrame(AV_PIX_FMT_NV12, 16, 8), 0)) {
+            frame.getPlane(2);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testPlaneAfterRelease() {
+        VideoFrame frame = new VideoFrame(allocateFrame(AV_PIX_FMT_YUV420P, 16, 8), 0);
+        frame.retain();
+        frame.release();
+        frame.getPlane(0);
+        frame.release();
+        frame.getPlane(0);
+    }
+
+    private static AVFrame allocateFrame(int format, int width, int height) {
+        AVFrame avFrame = av_frame_alloc();
+        avFrame.format(format);
+        avFrame.width(width);
+        avFrame.height(height);
+        Assert.assertTrue(av_frame_get_buffer(avFrame, 32) >= 0);
+        return avFrame;
+    }
 }
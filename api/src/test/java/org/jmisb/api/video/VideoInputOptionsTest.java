@@ -0,0 +1,102 @@
+package org.jmisb.api.video;
+
+import static org.testng.Assert.*;
+
+import java.util.concurrent.Executor;
+import org.testng.annotations.Test;
+
+/** Unit tests for VideoInputOptions. */
+public class VideoInputOptionsTest {
+
+    public VideoInputOptionsTest() {}
+
+    @Test
+    public void checkDefaults() {
+        VideoInputOptions uut = new VideoInputOptions();
+        assertFalse(uut.isDecodeAudio());
+        assertTrue(uut.isDecodeMetadata());
+        assertTrue(uut.isDecodeVideo());
+        assertEquals(uut.getMetadataDecodeThreads(), 1);
+        assertEquals(uut.getMaxPendingMetadataMessages(), 64);
+        assertEquals(uut.getFramePoolSize(), 0);
+        assertEquals(uut.getPixelFormat(), PixelFormat.BGR24);
+        assertNull(uut.getExecutor());
+        assertNull(uut.getMetadataDecodeExecutor());
+    }
+
+    @Test
+    public void checkExecutors() {
+        Executor executor = Runnable::run;
+        Executor decodeExecutor = Runnable::run;
+        VideoFileInputOptions uut = new VideoFileInputOptions();
+        uut.setExecutor(executor);
+        uut.setMetadataDecodeExecutor(decodeExecutor);
+        assertSame(uut.getExecutor(), executor);
+        assertSame(uut.getMetadataDecodeExecutor(), decodeExecutor);
+        uut.setExecutor(null);
+        assertNull(uut.getExecutor());
+    }
+
+    @Test
+    public void checkMetadataDecodeOptions() {
+        VideoStreamInputOptions uut = new VideoStreamInputOptions();
+        uut.setMetadataDecodeThreads(4);
+        uut.setMaxPendingMetadataMessages(16);
+        assertEquals(uut.getMetadataDecodeThreads(), 4);
+        assertEquals(uut.getMaxPendingMetadataMessages(), 16);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void checkBadMetadataDecodeThreads() {
+        new VideoInputOptions().setMetadataDecodeThreads(0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void checkBadMaxPendingMetadataMessages() {
+        new VideoFileInputOptions().setMaxPendingMetadataMessages(0);
+    }
+
+    @Test
+    public void checkFramePoolSize() {
+        VideoFileInputOptions uut = new VideoFileInputOptions();
+        uut.setFramePoolSize(8);
+        assertEquals(uut.getFramePoolSize(), 8);
+        uut.setFramePoolSize(0);
+        assertEquals(uut.getFramePoolSize(), 0);
+        assertEquals(uut.getPixelFormat(), PixelFormat.BGR24);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void checkBadFramePoolSize() {
+        new VideoStreamInputOptions().setFramePoolSize(-1);
+    }
+
+    @Test
+    public void checkPixelFormat() {
+        VideoStreamInputOptions uut = new VideoStreamInputOptions();
+        uut.setPixelFormat(PixelFormat.GRAY8);
+        assertEquals(uut.getPixelFormat(), PixelFormat.GRAY8);
+        uut.setPixelFormat(PixelFormat.NATIVE);
+        assertEquals(uut.getPixelFormat(), PixelFormat.NATIVE);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void checkNullPixelFormat() {
+        new VideoFileInputOptions().setPixelFormat(null);
+    }
+
+    @Test
+    public void checkMetadataExtraction() {
+        VideoFileInputOptions uut = new VideoFileInputOptions(true, true, true, false);
+        assertFalse(uut.isMetadataExtraction());
+        assertTrue(uut.isDecodeAudio());
+        assertTrue(uut.isDecodeVideo());
+        uut.setMetadataExtraction(true);
+        assertTrue(uut.isMetadataExtraction());
+        assertFalse(uut.isDecodeAudio());
+        assertFalse(uut.isDecodeVideo());
+        assertTrue(uut.isDecodeMetadata());
+        uut.setMetadataExtraction(false);
+        assertTrue(uut.isDecodeVideo());
+    }
+}
@@ -0,0 +1,179 @@
+package org.jmisb.api.video.ts;
+
+import static org.jmisb.api.video.ts.TsWriter.KLV_PID;
+import static org.jmisb.api.video.ts.TsWriter.VIDEO_PID;
+import static org.jmisb.api.video.ts.TsWriter.cell;
+import static org.jmisb.api.video.ts.TsWriter.message;
+import static org.jmisb.api.video.ts.TsWriter.metadataDescriptor;
+import static org.jmisb.api.video.ts.TsWriter.registration;
+import static org.testng.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.jmisb.api.video.MetadataFrame;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for TsKlvExtractor. */
+public class TsKlvExtractorTest {
+    private final List<MetadataFrame> frames = new ArrayList<>();
+
+    @BeforeMethod
+    public void clear() {
+        frames.clear();
+    }
+
+    @Test
+    public void checkAsynchronous() {
+        TsWriter ts = new TsWriter();
+        ts.writePsi(0x06, registration());
+        ts.writePes(VIDEO_PID, 0xE0, new byte[500], 0);
+        ts.writePes(KLV_PID, 0xBD, message(1, 10), -1);
+        ts.writePes(KLV_PID, 0xBD, message(2, 1000), -1);
+        TsKlvExtractor extractor = extract(ts);
+        assertEquals(extractor.getKlvPids(), Collections.singletonList(KLV_PID));
+        assertEquals(frames.size(), 2);
+        assertEquals(timestamp(0), 1);
+        assertEquals(timestamp(1), 2);
+        assertTrue(Double.isNaN(frames.get(0).getPts()));
+        assertEquals(extractor.getMessageCount(), 2);
+        assertEquals(extractor.getFailedMessageCount(), 0);
+        assertEquals(extractor.getContinuityErrorCount(), 0);
+    }
+
+    @Test
+    public void checkSplitMessage() {
+        // Asynchronous KLV does not have to align messages with PES packets
+        byte[] first = message(1, 300);
+        byte[] second = message(2, 10);
+        byte[] joined = new byte[first.length + second.length];
+        System.arraycopy(first, 0, joined, 0, first.length);
+        System.arraycopy(second, 0, joined, first.length, second.length);
+        TsWriter ts = new TsWriter();
+        ts.writePsi(0x06, registration());
+        ts.writePes(KLV_PID, 0xBD, Arrays.copyOfRange(joined, 0, 200), 9000);
+        ts.writePes(KLV_PID, 0xBD, Arrays.copyOfRange(joined, 200, joined.length), 18000);
+        extract(ts);
+        assertEquals(frames.size(), 2);
+        assertEquals(timestamp(0), 1);
+        assertEquals(timestamp(1), 2);
+        assertEquals(frames.get(0).getPts(), 0.2);
+    }
+
+    @Test
+    public void checkSynchronous() {
+        TsWriter ts = new TsWriter();
+        ts.writePsi(0x15, metadataDescriptor());
+        ts.writePes(KLV_PID, 0xFC, cell(message(1, 10)), 90000);
+        ts.writePes(KLV_PID, 0xFC, cell(message(2, 400)), 93003);
+        // Timestamps use all 33 bits
+        ts.writePes(KLV_PID, 0xFC, cell(message(3, 10)), 0x1FFFFFFFFL);
+        TsKlvExtractor extractor = extract(ts);
+        assertEquals(extractor.getKlvPids(), Collections.singletonList(KLV_PID));
+        assertEquals(frames.size(), 3);
+        assertEquals(timestamp(0), 1);
+        assertEquals(timestamp(1), 2);
+        assertEquals(timestamp(2), 3);
+        assertEquals(frames.get(0).getPts(), 1.0);
+        assertEquals(frames.get(1).getPts(), 93003 / 90000.0);
+        assertEquals(frames.get(2).getPts(), 0x1FFFFFFFFL / 90000.0);
+    }
+
+    @Test
+    public void checkContinuityError() {
+        TsWriter ts = new TsWriter();
+        ts.writePsi(0x06, registration());
+        ts.writePes(KLV_PID, 0xBD, message(1, 10), -1);
+        int first = ts.getPacketCount();
+        ts.writePes(KLV_PID, 0xBD, message(2, 400), -1);
+        // Drop the second packet of the second message
+        ts.removePacket(first + 1);
+        ts.writePes(KLV_PID, 0xBD, message(3, 10), -1);
+        TsKlvExtractor extractor = extract(ts);
+        assertEquals(extractor.getContinuityErrorCount(), 1);
+        assertEquals(frames.size(), 2);
+        assertEquals(timestamp(0), 1);
+        assertEquals(timestamp(1), 3);
+    }
+
+    @Test
+    public void checkEmptyPayload() {
+        // A packet that only has an adaptation field still advances the continuity counter
+        TsWriter ts = new TsWriter();
+        ts.writePsi(0x06, registration());
+        ts.writePes(KLV_PID, 0xBD, message(1, 10), -1);
+        ts.writeEmptyPayload(KLV_PID);
+        ts.writePes(KLV_PID, 0xBD, message(2, 10), -1);
+        TsKlvExtractor extractor = extract(ts);
+        assertEquals(extractor.getContinuityErrorCount(), 0);
+        assertEquals(frames.size(), 2);
+        assertEquals(timestamp(1), 2);
+    }
+
+    @Test
+    public void checkSyncLoss() {
+        TsWriter ts = new TsWriter();
+        ts.writePsi(0x06, registration());
+        ts.writePes(KLV_PID, 0xBD, message(1, 10), -1);
+        ts.write(new byte[] {0x47, 0x00, 0x12, 0x47, 0x33}, 0, 5);
+        ts.writePes(KLV_PID, 0xBD, message(2, 10), -1);
+        TsKlvExtractor extractor = extract(ts);
+        assertEquals(extractor.getSyncErrorCount(), 1);
+        assertEquals(frames.size(), 2);
+        assertEquals(timestamp(1), 2);
+    }
+
+    @Test
+    public void checkNotKlv() {
+        TsWriter ts = new TsWriter();
+        ts.writePsi(0x06, new byte[] {0x05, 0x04, 'A', 'C', '-', '3'});
+        ts.writePes(KLV_PID, 0xBD, message(1, 10), -1);
+        TsKlvExtractor extractor = extract(ts);
+        assertTrue(extractor.getKlvPids().isEmpty());
+        assertTrue(frames.isEmpty());
+        assertEquals(extractor.getPacketCount(), 3);
+    }
+
+    @Test
+    public void checkFile() throws IOException {
+        TsWriter ts = new TsWriter();
+        ts.writePsi(0x15, registration());
+        ts.writePes(KLV_PID, 0xFC, cell(message(1, 10)), 0);
+        // Trailing partial packet is ignored
+        ts.write(new byte[] {0x47}, 0, 1);
+        Path path = Files.createTempFile("extract", ".ts");
+        try {
+            Files.write(path, ts.toByteArray());
+            TsKlvExtractor extractor = new TsKlvExtractor(frames::add);
+            extractor.extract(path);
+            assertEquals(frames.size(), 1);
+            assertEquals(extractor.getPacketCount(), 3);
+
+            // Extractor can be re-used
+            frames.clear();
+            extractor.extract(path);
+            assertEquals(frames.size(), 1);
+            assertEquals(extractor.getMessageCount(), 1);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    private TsKlvExtractor extract(TsWriter ts) {
+        TsKlvExtractor extractor = new TsKlvExtractor(frames::add);
+        ByteBuffer buffer = ByteBuffer.wrap(ts.toByteArray());
+        extractor.extract(buffer);
+        assertEquals(buffer.position(), 0);
+        return extractor;
+    }
+
+    private long timestamp(int index) {
+        return TsWriter.timestamp(frames.get(index));
+    }
+}
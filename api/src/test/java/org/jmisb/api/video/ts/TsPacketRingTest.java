@@ -0,0 +1,77 @@
+package org.jmisb.api.video.ts;
+
+import static org.jmisb.api.video.ts.TsKlvExtractor.PACKET_LENGTH;
+import static org.testng.Assert.*;
+
+import java.nio.ByteBuffer;
+import org.testng.annotations.Test;
+
+/** Tests for TsPacketRing. */
+public class TsPacketRingTest {
+    @Test
+    public void checkEmpty() {
+        TsPacketRing ring = new TsPacketRing(4);
+        assertTrue(ring.isEmpty());
+        assertNull(ring.peek());
+    }
+
+    @Test
+    public void checkOfferAndPeek() {
+        TsPacketRing ring = new TsPacketRing(4);
+        ByteBuffer src = packets(0, 3);
+        assertEquals(ring.offer(src), 3);
+        assertEquals(src.remaining(), 0);
+        assertFalse(ring.isEmpty());
+        ByteBuffer packets = ring.peek();
+        assertEquals(packets.remaining(), 3 * PACKET_LENGTH);
+        assertEquals(packets.get(packets.position() + 1), 0);
+        assertEquals(packets.get(packets.position() + 2 * PACKET_LENGTH + 1), 2);
+        ring.advance(3);
+        assertTrue(ring.isEmpty());
+        assertNull(ring.peek());
+    }
+
+    @Test
+    public void checkFull() {
+        TsPacketRing ring = new TsPacketRing(4);
+        ByteBuffer src = packets(0, 6);
+        assertEquals(ring.offer(src), 4);
+        // Packets that did not fit are left in the source
+        assertEquals(src.remaining(), 2 * PACKET_LENGTH);
+        assertEquals(ring.offer(src), 0);
+        ring.advance(1);
+        assertEquals(ring.offer(src), 1);
+    }
+
+    @Test
+    public void checkWrap() {
+        TsPacketRing ring = new TsPacketRing(4);
+        ring.offer(packets(0, 3));
+        ring.advance(3);
+        assertEquals(ring.offer(packets(3, 3)), 3);
+
+        // The first peek stops at the end of the array
+        ByteBuffer packets = ring.peek();
+        assertEquals(packets.remaining(), PACKET_LENGTH);
+        assertEquals(packets.get(packets.position() + 1), 3);
+        ring.advance(1);
+
+        packets = ring.peek();
+        assertEquals(packets.remaining(), 2 * PACKET_LENGTH);
+        assertEquals(packets.position(), 0);
+        assertEquals(packets.get(1), 4);
+        assertEquals(packets.get(PACKET_LENGTH + 1), 5);
+        ring.advance(2);
+        assertTrue(ring.isEmpty());
+    }
+
+    /** Create packets holding their sequence number in the second byte. */
+    private static ByteBuffer packets(int first, int count) {
+        ByteBuffer buffer = ByteBuffer.allocate(count * PACKET_LENGTH);
+        for (int i = 0; i < count; i++) {
+            buffer.put(i * PACKET_LENGTH, TsKlvExtractor.SYNC_BYTE);
+            buffer.put(i * PACKET_LENGTH + 1, (byte) (first + i));
+        }
+        return buffer;
+    }
+}
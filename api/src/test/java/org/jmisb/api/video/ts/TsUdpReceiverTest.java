@@ -0,0 +1,202 @@
+package org.jmisb.api.video.ts;
+
+import static org.jmisb.api.video.ts.TsKlvExtractor.PACKET_LENGTH;
+import static org.jmisb.api.video.ts.TsWriter.KLV_PID;
+import static org.jmisb.api.video.ts.TsWriter.message;
+import static org.jmisb.api.video.ts.TsWriter.registration;
+import static org.testng.Assert.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.jmisb.api.video.MetadataFrame;
+import org.jmisb.core.video.TimingUtils;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/** Tests for TsUdpReceiver, using a loopback sender. */
+public class TsUdpReceiverTest {
+    private static final int PACKETS_PER_DATAGRAM = 7;
+
+    private final List<MetadataFrame> frames = Collections.synchronizedList(new ArrayList<>());
+    private TsUdpReceiver receiver;
+    private DatagramChannel sender;
+    private InetSocketAddress target;
+
+    @BeforeMethod
+    public void open() throws IOException {
+        frames.clear();
+        receiver = new TsUdpReceiver(frames::add);
+        receiver.open("udp://127.0.0.1:0");
+        target =
+                new InetSocketAddress(
+                        InetAddress.getLoopbackAddress(), receiver.getLocalAddress().getPort());
+        sender = DatagramChannel.open();
+    }
+
+    @AfterMethod
+    public void close() throws IOException {
+        receiver.close();
+        sender.close();
+    }
+
+    @Test
+    public void checkReceive() throws IOException {
+        assertTrue(receiver.isOpen());
+        assertTrue(receiver.getReceiveBufferSize() > 0);
+        TsWriter ts = new TsWriter();
+        ts.writePsi(0x06, registration());
+        for (int i = 0; i < 50; i++) {
+            ts.writePes(KLV_PID, 0xBD, message(i, 10 + i * 20), -1);
+        }
+        int datagrams = send(ts.toByteArray(), new byte[0]);
+        receiver.close();
+        assertFalse(receiver.isOpen());
+
+        assertEquals(receiver.getDatagramCount(), datagrams);
+        assertEquals(receiver.getInvalidDatagramCount(), 0);
+        assertEquals(receiver.getOverflowCount(), 0);
+        assertEquals(receiver.getContinuityErrorCount(), 0);
+        assertEquals(receiver.getMessageCount(), 50);
+        assertEquals(receiver.getFailedMessageCount(), 0);
+        assertEquals(frames.size(), 50);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(TsWriter.timestamp(frames.get(i)), i);
+        }
+    }
+
+    @Test
+    public void checkRtpHeader() throws IOException {
+        TsWriter ts = new TsWriter();
+        ts.writePsi(0x06, registration());
+        ts.writePes(KLV_PID, 0xBD, message(1, 500), -1);
+        byte[] rtpHeader = new byte[12];
+        rtpHeader[0] = (byte) 0x80;
+        rtpHeader[1] = 33;
+        send(ts.toByteArray(), rtpHeader);
+        receiver.close();
+        assertEquals(receiver.getInvalidDatagramCount(), 0);
+        assertEquals(frames.size(), 1);
+    }
+
+    @Test
+    public void checkLostDatagram() throws IOException {
+        TsWriter ts = new TsWriter();
+        ts.writePsi(0x06, registration());
+        ts.writePes(KLV_PID, 0xBD, message(1, 10), -1);
+        ts.writePes(KLV_PID, 0xBD, message(2, 3000), -1);
+        ts.writePes(KLV_PID, 0xBD, message(3, 10), -1);
+        byte[] bytes = ts.toByteArray();
+
+        // The second message starts in the first datagram and fills the next two, so drop the
+        // second datagram
+        int datagramLength = PACKETS_PER_DATAGRAM * PACKET_LENGTH;
+        ByteBuffer remaining = ByteBuffer.allocate(bytes.length - datagramLength);
+        remaining.put(bytes, 0, datagramLength);
+        remaining.put(bytes, 2 * datagramLength, bytes.length - 2 * datagramLength);
+        send(remaining.array(), new byte[0]);
+        receiver.close();
+
+        assertEquals(receiver.getContinuityErrorCount(), 1);
+        assertEquals(frames.size(), 2);
+        assertEquals(TsWriter.timestamp(frames.get(0)), 1);
+        assertEquals(TsWriter.timestamp(frames.get(1)), 3);
+    }
+
+    @Test
+    public void checkInvalidDatagram() throws IOException {
+        sender.send(ByteBuffer.wrap("Not a transport stream".getBytes("UTF-8")), target);
+        waitForDatagrams(1);
+        receiver.close();
+        assertEquals(receiver.getInvalidDatagramCount(), 1);
+        assertEquals(receiver.getPacketCount(), 0);
+        assertTrue(frames.isEmpty());
+    }
+
+    @Test
+    public void checkReopen() throws IOException {
+        receiver.close();
+        receiver.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        assertTrue(receiver.isOpen());
+        assertEquals(receiver.getDatagramCount(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void checkAlreadyOpen() throws IOException {
+        receiver.open("udp://127.0.0.1:0");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void checkNotUdp() throws IOException {
+        new TsUdpReceiver(frames::add).open("rtsp://127.0.0.1:554");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void checkNoPort() throws IOException {
+        new TsUdpReceiver(frames::add).open("udp://127.0.0.1");
+    }
+
+    @Test
+    public void checkOptions() {
+        TsUdpReceiverOptions options = new TsUdpReceiverOptions();
+        assertEquals(options.getReceiveBufferSize(), 4 * 1024 * 1024);
+        assertEquals(options.getRingCapacity(), 8192);
+        assertNull(options.getNetworkInterface());
+        options.setReceiveBufferSize(1000);
+        assertEquals(options.getReceiveBufferSize(), 1000);
+        options.setRingCapacity(10);
+        assertEquals(options.getRingCapacity(), 10);
+        options.setMaxMessageLength(2000);
+        assertEquals(options.getMaxMessageLength(), 2000);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void checkBadRingCapacity() {
+        new TsUdpReceiverOptions().setRingCapacity(0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void checkBadReceiveBufferSize() {
+        new TsUdpReceiverOptions().setReceiveBufferSize(0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void checkBadMaxMessageLength() {
+        new TsUdpReceiverOptions().setMaxMessageLength(16);
+    }
+
+    /**
+     * Send a transport stream in datagrams, and wait for them to be received.
+     *
+     * @return The number of datagrams sent
+     */
+    private int send(byte[] ts, byte[] header) throws IOException {
+        int datagramLength = PACKETS_PER_DATAGRAM * PACKET_LENGTH;
+        int datagrams = 0;
+        for (int offset = 0; offset < ts.length; offset += datagramLength) {
+            int length = Math.min(datagramLength, ts.length - offset);
+            ByteBuffer datagram = ByteBuffer.allocate(header.length + length);
+            datagram.put(header);
+            datagram.put(ts, offset, length);
+            datagram.flip();
+            sender.send(datagram, target);
+            datagrams++;
+        }
+        waitForDatagrams(datagrams);
+        return datagrams;
+    }
+
+    private void waitForDatagrams(int datagrams) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (receiver.getDatagramCount() < datagrams) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for datagrams");
+            TimingUtils.shortWait(1);
+        }
+    }
+}
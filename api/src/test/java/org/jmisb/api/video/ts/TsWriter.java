@@ -0,0 +1,232 @@
+package org.jmisb.api.video.ts;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.jmisb.api.klv.st0601.IUasDatalinkValue;
+import org.jmisb.api.klv.st0601.PrecisionTimeStamp;
+import org.jmisb.api.klv.st0601.UasDatalinkMessage;
+import org.jmisb.api.klv.st0601.UasDatalinkString;
+import org.jmisb.api.klv.st0601.UasDatalinkTag;
+import org.jmisb.api.video.MetadataFrame;
+
+/** Writes minimal transport streams carrying KLV, for testing. */
+class TsWriter {
+    static final int PMT_PID = 0x1000;
+    static final int VIDEO_PID = 0x100;
+    static final int KLV_PID = 0x101;
+
+    private final ByteArrayOutputStream ts = new ByteArrayOutputStream();
+    private final int[] continuityCounters = new int[0x2000];
+
+    byte[] toByteArray() {
+        return ts.toByteArray();
+    }
+
+    void write(byte[] bytes, int offset, int length) {
+        ts.write(bytes, offset, length);
+    }
+
+    int getPacketCount() {
+        return ts.size() / TsKlvExtractor.PACKET_LENGTH;
+    }
+
+    /** Remove a packet, as if it had been lost. */
+    void removePacket(int index) {
+        byte[] bytes = ts.toByteArray();
+        int end = (index + 1) * TsKlvExtractor.PACKET_LENGTH;
+        ts.reset();
+        ts.write(bytes, 0, index * TsKlvExtractor.PACKET_LENGTH);
+        ts.write(bytes, end, bytes.length - end);
+    }
+
+    static byte[] message(long timestamp, int missionIdLength) {
+        SortedMap<UasDatalinkTag, IUasDatalinkValue> values = new TreeMap<>();
+        values.put(UasDatalinkTag.PrecisionTimeStamp, new PrecisionTimeStamp(timestamp));
+        char[] missionId = new char[missionIdLength];
+        Arrays.fill(missionId, 'M');
+        values.put(
+                UasDatalinkTag.MissionId,
+                new UasDatalinkString(UasDatalinkString.MISSION_ID, new String(missionId)));
+        return new UasDatalinkMessage(values).frameMessage(false);
+    }
+
+    /**
+     * Get the timestamp of a message created by {@link #message(long, int)}.
+     *
+     * @param frame The frame holding the message
+     * @return The timestamp
+     */
+    static long timestamp(MetadataFrame frame) {
+        UasDatalinkMessage message = (UasDatalinkMessage) frame.getMisbMessage();
+        return ((PrecisionTimeStamp) message.getField(UasDatalinkTag.PrecisionTimeStamp))
+                .getMicroseconds();
+    }
+
+    static byte[] cell(byte[] message) {
+        byte[] cell = new byte[message.length + 5];
+        cell[0] = 0x00;
+        cell[1] = 0x01;
+        cell[2] = (byte) 0b11011111;
+        cell[3] = (byte) (message.length >>> 8);
+        cell[4] = (byte) message.length;
+        System.arraycopy(message, 0, cell, 5, message.length);
+        return cell;
+    }
+
+    static byte[] registration() {
+        return new byte[] {0x05, 0x04, 'K', 'L', 'V', 'A'};
+    }
+
+    static byte[] metadataDescriptor() {
+        byte[] descriptor = {
+            0x26,
+            0x0D,
+            (byte) 0xFF,
+            (byte) 0xFF,
+            'K',
+            'L',
+            'V',
+            'A',
+            (byte) 0xFF,
+            'K',
+            'L',
+            'V',
+            'A',
+            0x00,
+            0x0F
+        };
+        return descriptor;
+    }
+
+    void writePsi(int klvStreamType, byte[] descriptors) {
+        byte[] pat = {
+            0x00,
+            (byte) 0xB0,
+            0x0D,
+            0x00,
+            0x01,
+            (byte) 0xC1,
+            0x00,
+            0x00,
+            0x00,
+            0x01,
+            (byte) (0xE0 | (PMT_PID >> 8)),
+            (byte) PMT_PID,
+            0,
+            0,
+            0,
+            0
+        };
+        writeSection(0, pat);
+
+        ByteArrayOutputStream pmt = new ByteArrayOutputStream();
+        int sectionLength = 9 + 5 + 5 + descriptors.length + 4;
+        byte[] header = {
+            0x02,
+            (byte) (0xB0 | (sectionLength >> 8)),
+            (byte) sectionLength,
+            0x00,
+            0x01,
+            (byte) 0xC1,
+            0x00,
+            0x00,
+            (byte) (0xE0 | (VIDEO_PID >> 8)),
+            (byte) VIDEO_PID,
+            (byte) 0xF0,
+            0x00
+        };
+        pmt.write(header, 0, header.length);
+        byte[] video = {0x1B, (byte) (0xE0 | (VIDEO_PID >> 8)), (byte) VIDEO_PID, (byte) 0xF0, 0};
+        pmt.write(video, 0, video.length);
+        byte[] klv = {
+            (byte) klvStreamType,
+            (byte) (0xE0 | (KLV_PID >> 8)),
+            (byte) KLV_PID,
+            (byte) 0xF0,
+            (byte) descriptors.length
+        };
+        pmt.write(klv, 0, klv.length);
+        pmt.write(descriptors, 0, descriptors.length);
+        pmt.write(new byte[4], 0, 4);
+        writeSection(PMT_PID, pmt.toByteArray());
+    }
+
+    private void writeSection(int pid, byte[] section) {
+        byte[] payload = new byte[section.length + 1];
+        System.arraycopy(section, 0, payload, 1, section.length);
+        writePackets(pid, payload, (byte) 0xFF);
+    }
+
+    void writePes(int pid, int streamId, byte[] data, long pts) {
+        int headerDataLength = (pts >= 0) ? 5 : 0;
+        int pesPacketLength = 3 + headerDataLength + data.length;
+        byte[] pes = new byte[9 + headerDataLength + data.length];
+        pes[2] = 0x01;
+        pes[3] = (byte) streamId;
+        pes[4] = (byte) (pesPacketLength >> 8);
+        pes[5] = (byte) pesPacketLength;
+        pes[6] = (byte) 0x80;
+        pes[7] = (byte) ((pts >= 0) ? 0x80 : 0x00);
+        pes[8] = (byte) headerDataLength;
+        if (pts >= 0) {
+            pes[9] = (byte) (0x21 | ((pts >> 29) & 0x0E));
+            pes[10] = (byte) (pts >> 22);
+            pes[11] = (byte) (0x01 | ((pts >> 14) & 0xFE));
+            pes[12] = (byte) (pts >> 7);
+            pes[13] = (byte) (0x01 | ((pts << 1) & 0xFE));
+        }
+        System.arraycopy(data, 0, pes, 9 + headerDataLength, data.length);
+        writePackets(pid, pes, (byte) 0xFF);
+    }
+
+    /**
+     * Write a packet with the payload flag set, but with an adaptation field that fills it.
+     *
+     * <p>The continuity counter still advances for such a packet.
+     */
+    void writeEmptyPayload(int pid) {
+        byte[] packet = new byte[TsKlvExtractor.PACKET_LENGTH];
+        packet[0] = 0x47;
+        packet[1] = (byte) (pid >> 8);
+        packet[2] = (byte) pid;
+        int cc = continuityCounters[pid];
+        continuityCounters[pid] = (cc + 1) & 0x0F;
+        packet[3] = (byte) (0x30 | cc);
+        packet[4] = (byte) (TsKlvExtractor.PACKET_LENGTH - 5);
+        packet[5] = 0x00;
+        Arrays.fill(packet, 6, packet.length, (byte) 0xFF);
+        ts.write(packet, 0, packet.length);
+    }
+
+    /** Split a payload into packets, padding the last one using the adaptation field. */
+    private void writePackets(int pid, byte[] payload, byte stuffing) {
+        int offset = 0;
+        boolean first = true;
+        while (offset < payload.length) {
+            int count = Math.min(184, payload.length - offset);
+            byte[] packet = new byte[TsKlvExtractor.PACKET_LENGTH];
+            packet[0] = 0x47;
+            packet[1] = (byte) ((first ? 0x40 : 0x00) | (pid >> 8));
+            packet[2] = (byte) pid;
+            int cc = continuityCounters[pid];
+            continuityCounters[pid] = (cc + 1) & 0x0F;
+            int start = TsKlvExtractor.PACKET_LENGTH - count;
+            if (count < 184) {
+                packet[3] = (byte) (0x30 | cc);
+                packet[4] = (byte) (start - 5);
+                if (start - 5 > 0) {
+                    packet[5] = 0x00;
+                    Arrays.fill(packet, 6, start, stuffing);
+                }
+            } else {
+                packet[3] = (byte) (0x10 | cc);
+            }
+            System.arraycopy(payload, offset, packet, start, count);
+            ts.write(packet, 0, packet.length);
+            offset += count;
+            first = false;
+        }
+    }
+}
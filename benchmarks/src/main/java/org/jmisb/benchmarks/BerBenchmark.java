@@ -0,0 +1,79 @@
+package org.jmisb.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.jmisb.api.klv.Ber;
+import org.jmisb.api.klv.BerDecoder;
+import org.jmisb.api.klv.BerEncoder;
+import org.jmisb.api.klv.BerField;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for BER and BER-OID encoding and decoding. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BerBenchmark {
+    private final byte[] shortForm = new byte[] {0x05};
+    private final byte[] longForm = new byte[] {(byte) 0x82, 0x01, 0x2c};
+    private final byte[] oid = new byte[] {(byte) 0x81, 0x48};
+    private final byte[] dest = new byte[8];
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(8);
+
+    @Benchmark
+    public BerField decodeShortForm() {
+        return BerDecoder.decode(shortForm, 0, false);
+    }
+
+    @Benchmark
+    public BerField decodeLongForm() {
+        return BerDecoder.decode(longForm, 0, false);
+    }
+
+    @Benchmark
+    public BerField decodeOid() {
+        return BerDecoder.decode(oid, 0, true);
+    }
+
+    @Benchmark
+    public long decodePackedLongForm() {
+        return BerDecoder.decodePacked(longForm, 0, false);
+    }
+
+    @Benchmark
+    public long decodePackedOid() {
+        return BerDecoder.decodePacked(oid, 0, true);
+    }
+
+    @Benchmark
+    public byte[] encodeLength() {
+        return BerEncoder.encode(300);
+    }
+
+    @Benchmark
+    public byte[] encodeOid() {
+        return BerEncoder.encode(200, Ber.OID);
+    }
+
+    @Benchmark
+    public int encodeOidToArray() {
+        return BerEncoder.encode(200, Ber.OID, dest, 0);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeLengthToBuffer() {
+        buffer.clear();
+        BerEncoder.encode(300, buffer);
+        return buffer;
+    }
+}
@@ -0,0 +1,66 @@
+package org.jmisb.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.klv.CrcCcitt;
+import org.jmisb.api.klv.st0601.Checksum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for the ST 0601 checksum and the CRC-16-CCITT used by ST 0903 and MIMD. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChecksumBenchmark {
+    private byte[] st0601;
+    private ByteBuffer st0601Direct;
+    private byte[] mimd;
+    private ByteBuffer mimdDirect;
+
+    @Setup
+    public void setup() throws KlvParseException {
+        st0601 = Payloads.uasDatalinkMessage(1_600_000_000_000_000L, 10).frameMessage(false);
+        st0601Direct = ByteBuffer.allocateDirect(st0601.length);
+        st0601Direct.put(st0601);
+        mimd = Payloads.mimd(1_600_000_000_000_000_000L).frameMessage(false);
+        mimdDirect = ByteBuffer.allocateDirect(mimd.length);
+        mimdDirect.put(mimd);
+    }
+
+    @Benchmark
+    public byte[] st0601Checksum() {
+        return Checksum.compute(st0601, false);
+    }
+
+    @Benchmark
+    public byte[] st0601ChecksumDirectBuffer() {
+        return Checksum.compute(st0601Direct, 0, st0601.length, false);
+    }
+
+    @Benchmark
+    public boolean st0601Verify() {
+        return Checksum.verify(st0601, 0, st0601.length);
+    }
+
+    @Benchmark
+    public byte[] crcCcitt() {
+        return CrcCcitt.getCRC(mimd);
+    }
+
+    @Benchmark
+    public int crcCcittDirectBuffer() {
+        return CrcCcitt.compute(mimdDirect, 0, mimd.length);
+    }
+}
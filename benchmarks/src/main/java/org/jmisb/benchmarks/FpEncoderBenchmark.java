@@ -0,0 +1,73 @@
+package org.jmisb.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.jmisb.api.klv.st1201.DecodeResult;
+import org.jmisb.api.klv.st1201.FpEncoder;
+import org.jmisb.api.klv.st1201.OutOfRangeBehaviour;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for ST 1201 (IMAPB) floating point encoding and decoding. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FpEncoderBenchmark {
+    /** Encoded field length, in bytes. */
+    @Param({"2", "4", "8"})
+    public int length;
+
+    private FpEncoder encoder;
+    private byte[] encoded;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        encoder = FpEncoder.getInstance(-900.0, 19000.0, length, OutOfRangeBehaviour.Default);
+        encoded = encoder.encode(3216.037);
+        buffer = ByteBuffer.allocateDirect(encoded.length);
+        buffer.put(encoded);
+    }
+
+    @Benchmark
+    public FpEncoder construct() {
+        return new FpEncoder(-900.0, 19000.0, length, OutOfRangeBehaviour.Default);
+    }
+
+    @Benchmark
+    public FpEncoder getInstance() {
+        return FpEncoder.getInstance(-900.0, 19000.0, length, OutOfRangeBehaviour.Default);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return encoder.encode(3216.037);
+    }
+
+    @Benchmark
+    public double decode() {
+        return encoder.decode(encoded, 0);
+    }
+
+    @Benchmark
+    public double decodeBuffer() {
+        return encoder.decode(buffer, 0);
+    }
+
+    @Benchmark
+    public DecodeResult decodeSpecial() {
+        return encoder.decodeSpecial(encoded, 0);
+    }
+}
@@ -0,0 +1,70 @@
+package org.jmisb.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.klv.BerDecoder;
+import org.jmisb.api.klv.LdsCursor;
+import org.jmisb.api.klv.LdsField;
+import org.jmisb.api.klv.LdsParser;
+import org.jmisb.api.klv.UdsField;
+import org.jmisb.api.klv.UdsParser;
+import org.jmisb.api.klv.UniversalLabel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for splitting local and universal sets into fields. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalSetParserBenchmark {
+    private byte[] localSet;
+    private int localSetStart;
+    private byte[] universalSet;
+    private int universalSetStart;
+
+    @Setup
+    public void setup() {
+        localSet = Payloads.uasDatalinkMessage(1_600_000_000_000_000L, 0).frameMessage(false);
+        localSetStart = valueStart(localSet);
+        universalSet = Payloads.securityUniversalSet().frameMessage(false);
+        universalSetStart = valueStart(universalSet);
+    }
+
+    private static int valueStart(byte[] message) {
+        long lengthField = BerDecoder.decodePacked(message, UniversalLabel.LENGTH, false);
+        return UniversalLabel.LENGTH + BerDecoder.getLength(lengthField);
+    }
+
+    @Benchmark
+    public List<LdsField> ldsParseFields() throws KlvParseException {
+        return LdsParser.parseFields(localSet, localSetStart, localSet.length - localSetStart);
+    }
+
+    @Benchmark
+    public long ldsCursor() throws KlvParseException {
+        LdsCursor cursor = new LdsCursor(localSet, localSetStart, localSet.length - localSetStart);
+        long sum = 0;
+        while (cursor.next()) {
+            sum += cursor.getTag() + cursor.getValueLength();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public List<UdsField> udsParseFields() throws KlvParseException {
+        return UdsParser.parseFields(
+                universalSet, universalSetStart, universalSet.length - universalSetStart);
+    }
+}
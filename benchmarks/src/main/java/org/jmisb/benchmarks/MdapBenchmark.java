@@ -0,0 +1,59 @@
+package org.jmisb.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.klv.st1303.ElementProcessedEncoder;
+import org.jmisb.api.klv.st1303.MDAPDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for ST 1303 Multi-Dimensional Array Pack decoding. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MdapBenchmark {
+    /** Number of rows and columns in the (square) array. */
+    @Param({"3", "16"})
+    public int size;
+
+    private final MDAPDecoder decoder = new MDAPDecoder();
+    private byte[] array1D;
+    private byte[] array2D;
+
+    @Setup
+    public void setup() throws KlvParseException {
+        ElementProcessedEncoder encoder = new ElementProcessedEncoder(-100.0, 100.0, 3);
+        double[] row = new double[size];
+        double[][] matrix = new double[size][size];
+        for (int r = 0; r < size; r++) {
+            row[r] = r * 0.75 - 10.0;
+            for (int c = 0; c < size; c++) {
+                matrix[r][c] = (r - c) * 1.25;
+            }
+        }
+        array1D = encoder.encode(row);
+        array2D = encoder.encode(matrix);
+    }
+
+    @Benchmark
+    public double[] decode1D() throws KlvParseException {
+        return decoder.decodeFloatingPoint1D(array1D, 0);
+    }
+
+    @Benchmark
+    public double[][] decode2D() throws KlvParseException {
+        return decoder.decodeFloatingPoint2D(array2D, 0);
+    }
+}
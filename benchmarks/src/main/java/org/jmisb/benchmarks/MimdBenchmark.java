@@ -0,0 +1,51 @@
+package org.jmisb.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.klv.LdsField;
+import org.jmisb.api.klv.st1902.MimdParser;
+import org.jmisb.api.klv.st1903.MIMD;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for parsing and framing MIMD (ST 1902 / ST 1903) messages. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MimdBenchmark {
+    private MIMD message;
+    private byte[] bytes;
+
+    @Setup
+    public void setup() throws KlvParseException {
+        message = Payloads.mimd(1_600_000_000_000_000_000L);
+        bytes = message.frameMessage(false);
+    }
+
+    @Benchmark
+    public List<LdsField> parseFields() throws KlvParseException {
+        return MimdParser.parseFields(bytes, 0, bytes.length);
+    }
+
+    @Benchmark
+    public MIMD parse() throws KlvParseException {
+        return new MIMD(bytes);
+    }
+
+    @Benchmark
+    public byte[] frameMessage() {
+        return message.frameMessage(false);
+    }
+}
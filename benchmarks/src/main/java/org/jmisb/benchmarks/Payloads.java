@@ -0,0 +1,359 @@
+package org.jmisb.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.klv.st0102.Classification;
+import org.jmisb.api.klv.st0102.ISecurityMetadataValue;
+import org.jmisb.api.klv.st0102.ObjectCountryCodeString;
+import org.jmisb.api.klv.st0102.ST0102Version;
+import org.jmisb.api.klv.st0102.SecurityMetadataKey;
+import org.jmisb.api.klv.st0102.SecurityMetadataString;
+import org.jmisb.api.klv.st0102.universalset.ClassificationUniversal;
+import org.jmisb.api.klv.st0102.universalset.SecurityMetadataUniversalSet;
+import org.jmisb.api.klv.st0601.CornerOffset;
+import org.jmisb.api.klv.st0601.DensityAltitude;
+import org.jmisb.api.klv.st0601.FrameCenterElevation;
+import org.jmisb.api.klv.st0601.FrameCenterHae;
+import org.jmisb.api.klv.st0601.FrameCenterLatitude;
+import org.jmisb.api.klv.st0601.FrameCenterLongitude;
+import org.jmisb.api.klv.st0601.GroundRange;
+import org.jmisb.api.klv.st0601.HorizontalFov;
+import org.jmisb.api.klv.st0601.IUasDatalinkValue;
+import org.jmisb.api.klv.st0601.NestedVmtiLocalSet;
+import org.jmisb.api.klv.st0601.PlatformFuelRemaining;
+import org.jmisb.api.klv.st0601.PlatformGroundSpeed;
+import org.jmisb.api.klv.st0601.PlatformHeadingAngle;
+import org.jmisb.api.klv.st0601.PlatformIndicatedAirspeed;
+import org.jmisb.api.klv.st0601.PlatformMagneticHeading;
+import org.jmisb.api.klv.st0601.PlatformPitchAngle;
+import org.jmisb.api.klv.st0601.PlatformPitchAngleFull;
+import org.jmisb.api.klv.st0601.PlatformRollAngle;
+import org.jmisb.api.klv.st0601.PlatformRollAngleFull;
+import org.jmisb.api.klv.st0601.PlatformTrueAirspeed;
+import org.jmisb.api.klv.st0601.PrecisionTimeStamp;
+import org.jmisb.api.klv.st0601.ST0601Version;
+import org.jmisb.api.klv.st0601.SensorEllipsoidHeight;
+import org.jmisb.api.klv.st0601.SensorLatitude;
+import org.jmisb.api.klv.st0601.SensorLongitude;
+import org.jmisb.api.klv.st0601.SensorRelativeAzimuth;
+import org.jmisb.api.klv.st0601.SensorRelativeElevation;
+import org.jmisb.api.klv.st0601.SensorRelativeRoll;
+import org.jmisb.api.klv.st0601.SensorTrueAltitude;
+import org.jmisb.api.klv.st0601.SlantRange;
+import org.jmisb.api.klv.st0601.StaticPressure;
+import org.jmisb.api.klv.st0601.TargetLocationElevation;
+import org.jmisb.api.klv.st0601.TargetLocationLatitude;
+import org.jmisb.api.klv.st0601.TargetLocationLongitude;
+import org.jmisb.api.klv.st0601.TargetWidth;
+import org.jmisb.api.klv.st0601.UasDatalinkMessage;
+import org.jmisb.api.klv.st0601.UasDatalinkString;
+import org.jmisb.api.klv.st0601.UasDatalinkTag;
+import org.jmisb.api.klv.st0601.VerticalFov;
+import org.jmisb.api.klv.st0601.WindSpeed;
+import org.jmisb.api.klv.st0601.ZoomPercentage;
+import org.jmisb.api.klv.st0903.FrameHeight;
+import org.jmisb.api.klv.st0903.FrameNumber;
+import org.jmisb.api.klv.st0903.FrameWidth;
+import org.jmisb.api.klv.st0903.IVmtiMetadataValue;
+import org.jmisb.api.klv.st0903.ST0903Version;
+import org.jmisb.api.klv.st0903.VTargetSeries;
+import org.jmisb.api.klv.st0903.VmtiLocalSet;
+import org.jmisb.api.klv.st0903.VmtiMetadataKey;
+import org.jmisb.api.klv.st0903.VmtiReportedTargetCount;
+import org.jmisb.api.klv.st0903.VmtiTotalTargetCount;
+import org.jmisb.api.klv.st0903.shared.LocationPack;
+import org.jmisb.api.klv.st0903.shared.VmtiTextString;
+import org.jmisb.api.klv.st0903.vtarget.BoundaryBottomRight;
+import org.jmisb.api.klv.st0903.vtarget.BoundaryTopLeft;
+import org.jmisb.api.klv.st0903.vtarget.CentroidPixelColumn;
+import org.jmisb.api.klv.st0903.vtarget.CentroidPixelRow;
+import org.jmisb.api.klv.st0903.vtarget.TargetCentroid;
+import org.jmisb.api.klv.st0903.vtarget.TargetConfidenceLevel;
+import org.jmisb.api.klv.st0903.vtarget.TargetLocation;
+import org.jmisb.api.klv.st0903.vtarget.TargetPriority;
+import org.jmisb.api.klv.st0903.vtarget.VTargetMetadataKey;
+import org.jmisb.api.klv.st0903.vtarget.VTargetPack;
+import org.jmisb.api.klv.st1902.MimdId;
+import org.jmisb.api.klv.st1902.MimdIdReference;
+import org.jmisb.api.klv.st1903.MIMD;
+import org.jmisb.api.klv.st1903.MIMD_Platforms;
+import org.jmisb.api.klv.st1903.MIMD_SecurityOptions;
+import org.jmisb.api.klv.st1903.MIMD_Timers;
+import org.jmisb.api.klv.st1903.MIMD_Version;
+import org.jmisb.api.klv.st1903.Security;
+import org.jmisb.api.klv.st1903.Security_Classification;
+import org.jmisb.api.klv.st1903.Security_ClassifyingMethod;
+import org.jmisb.api.klv.st1903.TimeTransferMethod;
+import org.jmisb.api.klv.st1903.Timer;
+import org.jmisb.api.klv.st1903.Timer_NanoPrecisionTimestamp;
+import org.jmisb.api.klv.st1903.Timer_UtcLeapSeconds;
+import org.jmisb.api.klv.st1905.Platform;
+import org.jmisb.api.klv.st1905.PlatformType;
+import org.jmisb.api.klv.st1905.Platform_Identity;
+import org.jmisb.api.klv.st1905.Platform_Name;
+import org.jmisb.api.klv.st1905.Platform_Stages;
+import org.jmisb.api.klv.st1906.AbsEnu;
+import org.jmisb.api.klv.st1906.AbsEnu_RotAboutEast;
+import org.jmisb.api.klv.st1906.AbsEnu_RotAboutNorth;
+import org.jmisb.api.klv.st1906.AbsEnu_RotAboutUp;
+import org.jmisb.api.klv.st1906.AbsGeodetic;
+import org.jmisb.api.klv.st1906.AbsGeodetic_Hae;
+import org.jmisb.api.klv.st1906.AbsGeodetic_Lat;
+import org.jmisb.api.klv.st1906.AbsGeodetic_Lon;
+import org.jmisb.api.klv.st1906.Orientation;
+import org.jmisb.api.klv.st1906.Position;
+import org.jmisb.api.klv.st1906.Stage;
+
+/**
+ * Sample messages for the benchmarks.
+ *
+ * <p>The content follows what a typical sensor platform sends every frame: a full ST 0601 message
+ * with around 40 tags, optionally carrying a VMTI local set with a number of targets, plus ST 0102
+ * and MIMD messages shaped like the examples/generator output.
+ */
+public final class Payloads {
+
+    private Payloads() {}
+
+    /**
+     * Build a typical ST 0601 message.
+     *
+     * @param timestamp Precision Time Stamp, in microseconds since the epoch
+     * @param vmtiTargets number of VMTI targets to nest, or 0 to omit the VMTI local set
+     * @return the message
+     */
+    public static UasDatalinkMessage uasDatalinkMessage(long timestamp, int vmtiTargets) {
+        SortedMap<UasDatalinkTag, IUasDatalinkValue> values = new TreeMap<>();
+        values.put(UasDatalinkTag.PrecisionTimeStamp, new PrecisionTimeStamp(timestamp));
+        values.put(
+                UasDatalinkTag.MissionId,
+                new UasDatalinkString(UasDatalinkString.MISSION_ID, "MISSION01"));
+        values.put(
+                UasDatalinkTag.PlatformTailNumber,
+                new UasDatalinkString(UasDatalinkString.PLATFORM_TAIL_NUMBER, "AF-101"));
+        values.put(UasDatalinkTag.PlatformHeadingAngle, new PlatformHeadingAngle(159.9744));
+        values.put(UasDatalinkTag.PlatformPitchAngle, new PlatformPitchAngle(-0.4315));
+        values.put(UasDatalinkTag.PlatformRollAngle, new PlatformRollAngle(3.4059));
+        values.put(UasDatalinkTag.PlatformTrueAirspeed, new PlatformTrueAirspeed(147));
+        values.put(UasDatalinkTag.PlatformIndicatedAirspeed, new PlatformIndicatedAirspeed(159));
+        values.put(
+                UasDatalinkTag.PlatformDesignation,
+                new UasDatalinkString(UasDatalinkString.PLATFORM_DESIGNATION, "MQ1-B"));
+        values.put(
+                UasDatalinkTag.ImageSourceSensor,
+                new UasDatalinkString(UasDatalinkString.IMAGE_SOURCE_SENSOR, "EO"));
+        values.put(
+                UasDatalinkTag.ImageCoordinateSystem,
+                new UasDatalinkString(UasDatalinkString.IMAGE_COORDINATE_SYSTEM, "WGS-84"));
+        values.put(UasDatalinkTag.SensorLatitude, new SensorLatitude(60.1768));
+        values.put(UasDatalinkTag.SensorLongitude, new SensorLongitude(128.4268));
+        values.put(UasDatalinkTag.SensorTrueAltitude, new SensorTrueAltitude(14190.72));
+        values.put(UasDatalinkTag.SensorHorizontalFov, new HorizontalFov(144.5713));
+        values.put(UasDatalinkTag.SensorVerticalFov, new VerticalFov(152.6436));
+        values.put(UasDatalinkTag.SensorRelativeAzimuthAngle, new SensorRelativeAzimuth(160.7192));
+        values.put(
+                UasDatalinkTag.SensorRelativeElevationAngle,
+                new SensorRelativeElevation(-168.7923));
+        values.put(UasDatalinkTag.SensorRelativeRollAngle, new SensorRelativeRoll(176.8654));
+        values.put(UasDatalinkTag.SlantRange, new SlantRange(68590.98));
+        values.put(UasDatalinkTag.TargetWidth, new TargetWidth(722.8199));
+        values.put(UasDatalinkTag.FrameCenterLatitude, new FrameCenterLatitude(-10.5423));
+        values.put(UasDatalinkTag.FrameCenterLongitude, new FrameCenterLongitude(29.157523));
+        values.put(UasDatalinkTag.FrameCenterElevation, new FrameCenterElevation(3216.037));
+        values.put(
+                UasDatalinkTag.OffsetCornerLatitudePoint1,
+                new CornerOffset(-0.0101, CornerOffset.CORNER_LAT_1));
+        values.put(
+                UasDatalinkTag.OffsetCornerLongitudePoint1,
+                new CornerOffset(0.0153, CornerOffset.CORNER_LON_1));
+        values.put(
+                UasDatalinkTag.OffsetCornerLatitudePoint2,
+                new CornerOffset(-0.0086, CornerOffset.CORNER_LAT_2));
+        values.put(
+                UasDatalinkTag.OffsetCornerLongitudePoint2,
+                new CornerOffset(0.0169, CornerOffset.CORNER_LON_2));
+        values.put(
+                UasDatalinkTag.OffsetCornerLatitudePoint3,
+                new CornerOffset(-0.0071, CornerOffset.CORNER_LAT_3));
+        values.put(
+                UasDatalinkTag.OffsetCornerLongitudePoint3,
+                new CornerOffset(0.0184, CornerOffset.CORNER_LON_3));
+        values.put(
+                UasDatalinkTag.OffsetCornerLatitudePoint4,
+                new CornerOffset(-0.0056, CornerOffset.CORNER_LAT_4));
+        values.put(
+                UasDatalinkTag.OffsetCornerLongitudePoint4,
+                new CornerOffset(0.0200, CornerOffset.CORNER_LON_4));
+        values.put(UasDatalinkTag.WindSpeed, new WindSpeed(69.80392));
+        values.put(UasDatalinkTag.StaticPressure, new StaticPressure(3725.185));
+        values.put(UasDatalinkTag.DensityAltitude, new DensityAltitude(14818.68));
+        values.put(UasDatalinkTag.TargetLocationLatitude, new TargetLocationLatitude(-79.16385));
+        values.put(UasDatalinkTag.TargetLocationLongitude, new TargetLocationLongitude(166.4007));
+        values.put(UasDatalinkTag.TargetLocationElevation, new TargetLocationElevation(18389.05));
+        values.put(UasDatalinkTag.PlatformGroundSpeed, new PlatformGroundSpeed(140));
+        values.put(UasDatalinkTag.GroundRange, new GroundRange(3506979.0));
+        values.put(UasDatalinkTag.PlatformFuelRemaining, new PlatformFuelRemaining(6420.539));
+        values.put(
+                UasDatalinkTag.PlatformCallSign,
+                new UasDatalinkString(UasDatalinkString.PLATFORM_CALL_SIGN, "TOP GUN"));
+        values.put(UasDatalinkTag.PlatformMagneticHeading, new PlatformMagneticHeading(311.8135));
+        values.put(UasDatalinkTag.UasLdsVersionNumber, new ST0601Version((short) 17));
+        values.put(UasDatalinkTag.SensorEllipsoidHeight, new SensorEllipsoidHeight(14190.72));
+        values.put(UasDatalinkTag.FrameCenterHae, new FrameCenterHae(9.0));
+        values.put(UasDatalinkTag.PlatformPitchAngleFull, new PlatformPitchAngleFull(-0.4315));
+        values.put(UasDatalinkTag.PlatformRollAngleFull, new PlatformRollAngleFull(3.4059));
+        values.put(UasDatalinkTag.ZoomPercentage, new ZoomPercentage(50.0));
+        if (vmtiTargets > 0) {
+            values.put(
+                    UasDatalinkTag.VmtiLocalDataSet,
+                    new NestedVmtiLocalSet(vmtiLocalSet(vmtiTargets)));
+        }
+        return new UasDatalinkMessage(values);
+    }
+
+    /**
+     * Build a VMTI local set.
+     *
+     * @param numTargets the number of targets to report
+     * @return the local set
+     */
+    public static VmtiLocalSet vmtiLocalSet(int numTargets) {
+        List<VTargetPack> targets = new ArrayList<>();
+        for (int i = 0; i < numTargets; i++) {
+            targets.add(vmtiTarget(i));
+        }
+        Map<VmtiMetadataKey, IVmtiMetadataValue> values = new TreeMap<>();
+        values.put(VmtiMetadataKey.VersionNumber, new ST0903Version(5));
+        values.put(
+                VmtiMetadataKey.SystemName,
+                new VmtiTextString(VmtiTextString.SYSTEM_NAME, "DSTO_ADSS_VMTI"));
+        values.put(VmtiMetadataKey.TotalTargetsInFrame, new VmtiTotalTargetCount(numTargets));
+        values.put(
+                VmtiMetadataKey.NumberOfReportedTargets, new VmtiReportedTargetCount(numTargets));
+        values.put(VmtiMetadataKey.FrameNumber, new FrameNumber(12345));
+        values.put(VmtiMetadataKey.FrameWidth, new FrameWidth(1920));
+        values.put(VmtiMetadataKey.FrameHeight, new FrameHeight(1080));
+        values.put(
+                VmtiMetadataKey.SourceSensor,
+                new VmtiTextString(VmtiTextString.SOURCE_SENSOR, "EO Nose"));
+        values.put(VmtiMetadataKey.VTargetSeries, new VTargetSeries(targets));
+        return new VmtiLocalSet(values);
+    }
+
+    private static VTargetPack vmtiTarget(int index) {
+        long row = 100 + (index * 7) % 880;
+        long col = 100 + (index * 13) % 1720;
+        Map<VTargetMetadataKey, IVmtiMetadataValue> values = new TreeMap<>();
+        values.put(VTargetMetadataKey.TargetCentroid, new TargetCentroid(row * 1920 + col));
+        values.put(
+                VTargetMetadataKey.BoundaryTopLeft,
+                new BoundaryTopLeft((row - 10) * 1920 + (col - 10)));
+        values.put(
+                VTargetMetadataKey.BoundaryBottomRight,
+                new BoundaryBottomRight((row + 10) * 1920 + (col + 10)));
+        values.put(VTargetMetadataKey.TargetPriority, new TargetPriority((short) 27));
+        values.put(VTargetMetadataKey.TargetConfidenceLevel, new TargetConfidenceLevel((short) 80));
+        values.put(
+                VTargetMetadataKey.TargetLocation,
+                new TargetLocation(
+                        new LocationPack(
+                                -10.5423 + index * 1.0e-4,
+                                29.157523 - index * 1.0e-4,
+                                3216.0,
+                                8.0,
+                                12.0,
+                                14.0)));
+        values.put(VTargetMetadataKey.CentroidPixRow, new CentroidPixelRow(row));
+        values.put(VTargetMetadataKey.CentroidPixColumn, new CentroidPixelColumn(col));
+        return new VTargetPack(index + 1, values);
+    }
+
+    /**
+     * Build a typical ST 0102 universal set.
+     *
+     * @return the universal set
+     */
+    public static SecurityMetadataUniversalSet securityUniversalSet() {
+        SortedMap<SecurityMetadataKey, ISecurityMetadataValue> values = new TreeMap<>();
+        values.put(
+                SecurityMetadataKey.SecurityClassification,
+                new ClassificationUniversal(Classification.UNCLASSIFIED));
+        values.put(
+                SecurityMetadataKey.CcCodingMethod,
+                new SecurityMetadataString(
+                        SecurityMetadataString.COUNTRY_CODING_METHOD, "ISO-3166 Two Letter"));
+        values.put(
+                SecurityMetadataKey.ClassifyingCountry,
+                new SecurityMetadataString(SecurityMetadataString.CLASSIFYING_COUNTRY, "//US"));
+        values.put(
+                SecurityMetadataKey.OcCodingMethod,
+                new SecurityMetadataString(
+                        SecurityMetadataString.OBJECT_COUNTRY_CODING_METHOD,
+                        "ISO-3166 Two Letter"));
+        values.put(SecurityMetadataKey.ObjectCountryCodes, new ObjectCountryCodeString("US;CA"));
+        values.put(SecurityMetadataKey.Version, new ST0102Version(12));
+        return new SecurityMetadataUniversalSet(values);
+    }
+
+    /**
+     * Build a typical MIMD message.
+     *
+     * @param nanos timer value, in nanoseconds since the epoch
+     * @return the message
+     * @throws KlvParseException if the message could not be built
+     */
+    public static MIMD mimd(long nanos) throws KlvParseException {
+        MIMD message = new MIMD();
+        message.setVersion(new MIMD_Version(1));
+
+        Timer timer = new Timer();
+        timer.setNanoPrecisionTimestamp(new Timer_NanoPrecisionTimestamp(nanos));
+        timer.setUtcLeapSeconds(new Timer_UtcLeapSeconds(37));
+        timer.setTimeTransferMethod(TimeTransferMethod.NTP_V3_3);
+        List<Timer> timers = new ArrayList<>();
+        timers.add(timer);
+        message.setTimers(new MIMD_Timers(timers));
+
+        Security security = new Security();
+        security.setMimdId(new MimdId(0, 1));
+        security.setClassifyingMethod(new Security_ClassifyingMethod("US-1"));
+        security.setClassification(
+                new Security_Classification("UNCLASSIFIED//REL TO USA, AUS, CAN, GBR"));
+        List<Security> securityOptions = new ArrayList<>();
+        securityOptions.add(security);
+        message.setSecurityOptions(new MIMD_SecurityOptions(securityOptions));
+        message.setSecurity(new MimdIdReference(0, 1, "Security", "Security"));
+
+        AbsGeodetic geodetic = new AbsGeodetic();
+        geodetic.setLat(new AbsGeodetic_Lat(-35.35349 * Math.PI / 180.0));
+        geodetic.setLon(new AbsGeodetic_Lon(149.08932 * Math.PI / 180.0));
+        geodetic.setHae(new AbsGeodetic_Hae(642.1));
+        Position position = new Position();
+        position.setAbsGeodetic(geodetic);
+        AbsEnu absEnu = new AbsEnu();
+        absEnu.setRotAboutEast(new AbsEnu_RotAboutEast(0.0));
+        absEnu.setRotAboutNorth(new AbsEnu_RotAboutNorth(0.0));
+        absEnu.setRotAboutUp(new AbsEnu_RotAboutUp(45.0 * Math.PI / 180.0));
+        Orientation orientation = new Orientation();
+        orientation.setAbsEnu(absEnu);
+        Stage stage = new Stage();
+        stage.setPosition(position);
+        stage.setOrientation(orientation);
+        List<Stage> stages = new ArrayList<>();
+        stages.add(stage);
+
+        Platform platform = new Platform();
+        platform.setName(new Platform_Name("Test System"));
+        platform.setIdentity(new Platform_Identity("jMISB Test 1"));
+        platform.setType(PlatformType.Pole);
+        platform.setStages(new Platform_Stages(stages));
+        List<Platform> platforms = new ArrayList<>();
+        platforms.add(platform);
+        message.setPlatforms(new MIMD_Platforms(platforms));
+        return message;
+    }
+}
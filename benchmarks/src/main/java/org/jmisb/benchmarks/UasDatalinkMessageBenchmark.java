@@ -0,0 +1,94 @@
+package org.jmisb.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.klv.st0601.IUasDatalinkValue;
+import org.jmisb.api.klv.st0601.SensorLatitude;
+import org.jmisb.api.klv.st0601.UasDatalinkMessage;
+import org.jmisb.api.klv.st0601.UasDatalinkTag;
+import org.jmisb.api.klv.st0601.UasDatalinkTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for parsing and framing ST 0601 messages. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UasDatalinkMessageBenchmark {
+    private static final Set<UasDatalinkTag> POSITION_TAGS =
+            EnumSet.of(
+                    UasDatalinkTag.PrecisionTimeStamp,
+                    UasDatalinkTag.SensorLatitude,
+                    UasDatalinkTag.SensorLongitude,
+                    UasDatalinkTag.SensorTrueAltitude);
+
+    /** Number of targets in the nested VMTI local set (0 for none). */
+    @Param({"0", "10"})
+    public int vmtiTargets;
+
+    private UasDatalinkMessage message;
+    private byte[] bytes;
+    private ByteBuffer buffer;
+    private UasDatalinkTemplate template;
+    private long timestamp;
+
+    @Setup
+    public void setup() {
+        message = Payloads.uasDatalinkMessage(1_600_000_000_000_000L, vmtiTargets);
+        bytes = message.frameMessage(false);
+        buffer = ByteBuffer.allocateDirect(bytes.length);
+        template = new UasDatalinkTemplate(Payloads.uasDatalinkMessage(0L, 0));
+        timestamp = 1_600_000_000_000_000L;
+    }
+
+    @Benchmark
+    public UasDatalinkMessage parse() throws KlvParseException {
+        return new UasDatalinkMessage(bytes, 0, bytes.length, false);
+    }
+
+    @Benchmark
+    public IUasDatalinkValue parseLazyOneValue() throws KlvParseException {
+        UasDatalinkMessage parsed = new UasDatalinkMessage(bytes, 0, bytes.length, true);
+        return parsed.getField(UasDatalinkTag.SensorLatitude);
+    }
+
+    @Benchmark
+    public UasDatalinkMessage parseProjected() throws KlvParseException {
+        return new UasDatalinkMessage(bytes, 0, bytes.length, false, POSITION_TAGS);
+    }
+
+    @Benchmark
+    public byte[] frameMessage() {
+        return message.frameMessage(false);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeTo() {
+        buffer.clear();
+        message.encodeTo(buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public byte[] templateEncode() {
+        timestamp += 33_333;
+        template.setUnsigned(UasDatalinkTag.PrecisionTimeStamp, timestamp);
+        template.setValue(UasDatalinkTag.SensorLatitude, new SensorLatitude(60.1768));
+        return template.encode();
+    }
+}
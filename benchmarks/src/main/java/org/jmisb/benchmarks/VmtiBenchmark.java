@@ -0,0 +1,53 @@
+package org.jmisb.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.klv.st0903.VmtiLocalSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for parsing and framing ST 0903 local sets. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VmtiBenchmark {
+    /** Number of targets in the local set. */
+    @Param({"1", "10", "100"})
+    public int targets;
+
+    private VmtiLocalSet localSet;
+    private byte[] nested;
+
+    @Setup
+    public void setup() {
+        localSet = Payloads.vmtiLocalSet(targets);
+        nested = localSet.frameMessage(true);
+    }
+
+    @Benchmark
+    public VmtiLocalSet parse() throws KlvParseException {
+        return new VmtiLocalSet(nested);
+    }
+
+    @Benchmark
+    public byte[] frameNested() {
+        return localSet.frameMessage(true);
+    }
+
+    @Benchmark
+    public byte[] frameMessage() {
+        return localSet.frameMessage(false);
+    }
+}
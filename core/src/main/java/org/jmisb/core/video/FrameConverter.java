@@ -17,17 +17,14 @@ public class FrameConverter {
     /**
      * Convert an AVFrame to a BufferedImage
      *
+     * <p>The returned image is cached and re-used by the next call, so callers that need to keep
+     * the image must copy it.
+     *
      * @param frame The AVFrame; must be 3-byte BGR format
      * @return The BufferedImage
      */
     public BufferedImage convert(AVFrame frame) {
-        if (frame == null) {
-            throw new IllegalArgumentException("Input frame cannot be null");
-        }
-
-        if (frame.format() != AV_PIX_FMT_BGR24) {
-            throw new IllegalArgumentException("Input format must be BGR24");
-        }
+        checkFrame(frame);
 
         // Allocate bufferedImage if needed
         if (bufferedImage == null
@@ -38,9 +35,38 @@ public class FrameConverter {
                     new BufferedImage(frame.width(), frame.height(), BufferedImage.TYPE_3BYTE_BGR);
         }
 
+        return convert(frame, bufferedImage);
+    }
+
+    /**
+     * Convert an AVFrame into an existing BufferedImage.
+     *
+     * <p>This allows callers to supply their own (e.g. pooled) image buffers rather than using the
+     * internally cached image.
+     *
+     * @param frame The AVFrame; must be 3-byte BGR format
+     * @param image The destination image; must be {@link BufferedImage#TYPE_3BYTE_BGR} with the
+     *     same dimensions as the frame
+     * @return The destination image
+     */
+    public BufferedImage convert(AVFrame frame, BufferedImage image) {
+        checkFrame(frame);
+
+        if (image == null) {
+            throw new IllegalArgumentException("Output image cannot be null");
+        }
+
+        if (image.getType() != BufferedImage.TYPE_3BYTE_BGR) {
+            throw new IllegalArgumentException("Output image type must be TYPE_3BYTE_BGR");
+        }
+
+        if (image.getWidth() != frame.width() || image.getHeight() != frame.height()) {
+            throw new IllegalArgumentException("Output image size must match the input frame");
+        }
+
         // Output buffer
-        SampleModel sm = bufferedImage.getSampleModel();
-        Raster r = bufferedImage.getRaster();
+        SampleModel sm = image.getSampleModel();
+        Raster r = image.getRaster();
         DataBuffer out = r.getDataBuffer();
 
         int x = -r.getSampleModelTranslateX();
@@ -56,7 +82,17 @@ public class FrameConverter {
                 frame.data(0).capacity((long) frame.width() * (long) frame.linesize(0)).asBuffer();
         copy(src, frame.linesize(0), ByteBuffer.wrap(a, start, a.length - start), step);
 
-        return bufferedImage;
+        return image;
+    }
+
+    private static void checkFrame(AVFrame frame) {
+        if (frame == null) {
+            throw new IllegalArgumentException("Input frame cannot be null");
+        }
+
+        if (frame.format() != AV_PIX_FMT_BGR24) {
+            throw new IllegalArgumentException("Input format must be BGR24");
+        }
     }
 
     private static void copy(ByteBuffer srcBuf, int srcStep, ByteBuffer dstBuf, int dstStep) {
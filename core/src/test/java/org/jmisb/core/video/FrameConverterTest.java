@@ -56,6 +56,46 @@ public class FrameConverterTest {
         }
     }
 
+    @Test
+    public void convertIntoImage() {
+        BufferedImage sourceImage = new BufferedImage(64, 48, TYPE_3BYTE_BGR);
+        Graphics2D graphics = sourceImage.createGraphics();
+        graphics.setPaint(Color.MAGENTA);
+        graphics.fillRect(0, 0, sourceImage.getWidth(), sourceImage.getHeight());
+        AVFrame avFrame = makeFrame(sourceImage);
+        FrameConverter frameConverter = new FrameConverter();
+        BufferedImage destination = new BufferedImage(64, 48, TYPE_3BYTE_BGR);
+        BufferedImage resultImage = frameConverter.convert(avFrame, destination);
+        Assert.assertSame(resultImage, destination);
+        Assert.assertNotSame(frameConverter.convert(avFrame), destination);
+        for (int y = 0; y < sourceImage.getHeight(); y++) {
+            for (int x = 0; x < sourceImage.getWidth(); x++) {
+                Assert.assertEquals(sourceImage.getRGB(x, y), resultImage.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void convertIntoWrongSizeImage() {
+        AVFrame avFrame = makeFrame(new BufferedImage(64, 48, TYPE_3BYTE_BGR));
+        FrameConverter frameConverter = new FrameConverter();
+        frameConverter.convert(avFrame, new BufferedImage(64, 32, TYPE_3BYTE_BGR));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void convertIntoWrongTypeImage() {
+        AVFrame avFrame = makeFrame(new BufferedImage(64, 48, TYPE_3BYTE_BGR));
+        FrameConverter frameConverter = new FrameConverter();
+        frameConverter.convert(avFrame, new BufferedImage(64, 48, BufferedImage.TYPE_INT_RGB));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void convertIntoNullImage() {
+        AVFrame avFrame = makeFrame(new BufferedImage(64, 48, TYPE_3BYTE_BGR));
+        FrameConverter frameConverter = new FrameConverter();
+        frameConverter.convert(avFrame, null);
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void convertNullFrame() {
         FrameConverter frameConverter = new FrameConverter();
@@ -69,4 +109,22 @@ public class FrameConverterTest {
         avFrame.format(AV_PIX_FMT_YUV420P);
         frameConverter.convert(avFrame);
     }
+
+    private static AVFrame makeFrame(BufferedImage sourceImage) {
+        DataBuffer dataBuffer = sourceImage.getRaster().getDataBuffer();
+        BytePointer pixelData = new BytePointer(((DataBufferByte) dataBuffer).getData());
+        AVFrame avFrame = av_frame_alloc();
+        avFrame.format(AV_PIX_FMT_BGR24);
+        avFrame.width(sourceImage.getWidth());
+        avFrame.height(sourceImage.getHeight());
+        av_image_fill_arrays(
+                new PointerPointer(avFrame),
+                avFrame.linesize(),
+                pixelData,
+                AV_PIX_FMT_BGR24,
+                sourceImage.getWidth(),
+                sourceImage.getHeight(),
+                1);
+        return avFrame;
+    }
 }
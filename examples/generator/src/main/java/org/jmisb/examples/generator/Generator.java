@@ -126,6 +126,7 @@ public class Generator {
     private byte version0903 = 5;
     private boolean includeSARMI = false;
     private String filename = "generator_output.mpeg";
+    private final UUID minorUUID = UUID.randomUUID();
 
     private static final Logger LOG = LoggerFactory.getLogger(Generator.class);
 
@@ -162,121 +163,155 @@ public class Generator {
     public void generate() {
 
         showConfiguration();
-        CoreIdentifier coreIdentifier = new CoreIdentifier();
-        coreIdentifier.setMinorUUID(UUID.randomUUID());
-        coreIdentifier.setVersion(1);
 
         // TODO: rework to make this a command line option
-        try (IVideoFileOutput output =
-                new VideoFileOutput(
-                        new VideoOutputOptions(
-                                width, height, bitRate, frameRate, gopSize, klvFormat, codec))) {
+        try (IVideoFileOutput output = new VideoFileOutput(getVideoOutputOptions())) {
             output.open(filename);
 
             // Write some frames
-            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
-            try {
-                image = ImageIO.read(new File("test1280.jpg"));
-            } catch (IOException e) {
-                // TODO: log
-            }
-
-            final long numFrames = duration * Math.round(frameRate);
-            final long switchingValue = numFrames / 6;
+            BufferedImage image = getImage();
+            final long numFrames = getNumFrames();
             double pts = 1000.0 * System.currentTimeMillis(); // Close enough for this.
             for (long i = 0; i < numFrames; ++i) {
-                SortedMap<UasDatalinkTag, IUasDatalinkValue> values = new TreeMap<>();
+                UasDatalinkMessage message = createMessage(i, pts);
+                output.addVideoFrame(new VideoFrame(image, pts * 1.0e-6));
+                output.addMetadataFrame(new MetadataFrame(message, pts));
+                pts += frameDuration * 1.0e6;
+            }
 
-                values.put(UasDatalinkTag.PrecisionTimeStamp, new PrecisionTimeStamp((long) pts));
-                values.put(UasDatalinkTag.UasLdsVersionNumber, new ST0601Version(version0601));
+        } catch (IOException e) {
+            LOG.error("Failed to write file", e);
+        }
+    }
 
-                values.put(
-                        UasDatalinkTag.MiisCoreIdentifier, new MiisCoreIdentifier(coreIdentifier));
-                values.put(
-                        UasDatalinkTag.MissionId,
-                        new UasDatalinkString(UasDatalinkString.MISSION_ID, missionId));
-                values.put(
-                        UasDatalinkTag.PlatformDesignation,
-                        new UasDatalinkString(UasDatalinkString.PLATFORM_DESIGNATION, "WideScope"));
-                values.put(
-                        UasDatalinkTag.ImageSourceSensor,
-                        new UasDatalinkString(UasDatalinkString.IMAGE_SOURCE_SENSOR, "DTV"));
-                values.put(
-                        UasDatalinkTag.ImageCoordinateSystem,
-                        new UasDatalinkString(
-                                UasDatalinkString.IMAGE_COORDINATE_SYSTEM, "Geodetic WGS84"));
+    /**
+     * Get the video output options used by this generator.
+     *
+     * @return the options for the configured frame size, rate, codec and KLV format
+     */
+    public VideoOutputOptions getVideoOutputOptions() {
+        return new VideoOutputOptions(width, height, bitRate, frameRate, gopSize, klvFormat, codec);
+    }
 
-                values.put(UasDatalinkTag.SensorLatitude, new SensorLatitude(sensorLatitude));
-                values.put(UasDatalinkTag.SensorLongitude, new SensorLongitude(sensorLongitude));
-                values.put(
-                        UasDatalinkTag.SensorTrueAltitude, new SensorTrueAltitude(sensorAltitude));
+    /**
+     * Get the image used for each video frame.
+     *
+     * @return the image read from {@code test1280.jpg}, or a blank image if that can't be read
+     */
+    public BufferedImage getImage() {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        try {
+            BufferedImage testImage = ImageIO.read(new File("test1280.jpg"));
+            if (testImage != null) {
+                image = testImage;
+            }
+        } catch (IOException e) {
+            // TODO: log
+        }
+        return image;
+    }
 
-                values.put(UasDatalinkTag.PlatformHeadingAngle, new PlatformHeadingAngle(10.0));
-                values.put(
-                        UasDatalinkTag.PlatformPitchAngle,
-                        new PlatformPitchAngle(1.0 * (i / switchingValue)));
-                values.put(
-                        UasDatalinkTag.PlatformRollAngle,
-                        new PlatformRollAngle(-1.0 * (i / switchingValue)));
+    /**
+     * Get the number of frames in the generated output.
+     *
+     * @return the number of frames
+     */
+    public long getNumFrames() {
+        return duration * Math.round(frameRate);
+    }
 
-                values.put(
-                        UasDatalinkTag.SensorRelativeAzimuthAngle,
-                        new SensorRelativeAzimuth(330.0));
-                values.put(
-                        UasDatalinkTag.SensorRelativeElevationAngle,
-                        new SensorRelativeElevation(-70.0));
-                values.put(UasDatalinkTag.SensorRelativeRollAngle, new SensorRelativeRoll(0.0));
+    /**
+     * Get the frame rate.
+     *
+     * @return the frame rate, in frames per second
+     */
+    public double getFrameRate() {
+        return frameRate;
+    }
+
+    /**
+     * Create the ST 0601 message for a frame.
+     *
+     * @param frameIndex the index of the frame, which drives the values that change over time
+     * @param pts the precision time stamp, in microseconds since the epoch
+     * @return the message
+     */
+    public UasDatalinkMessage createMessage(long frameIndex, double pts) {
+        final long switchingValue = getNumFrames() / 6;
+        final long i = frameIndex % getNumFrames();
+        SortedMap<UasDatalinkTag, IUasDatalinkValue> values = new TreeMap<>();
+
+        values.put(UasDatalinkTag.PrecisionTimeStamp, new PrecisionTimeStamp((long) pts));
+        values.put(UasDatalinkTag.UasLdsVersionNumber, new ST0601Version(version0601));
+
+        CoreIdentifier coreIdentifier = new CoreIdentifier();
+        coreIdentifier.setMinorUUID(minorUUID);
+        coreIdentifier.setVersion(1);
+        values.put(UasDatalinkTag.MiisCoreIdentifier, new MiisCoreIdentifier(coreIdentifier));
+        values.put(
+                UasDatalinkTag.MissionId,
+                new UasDatalinkString(UasDatalinkString.MISSION_ID, missionId));
+        values.put(
+                UasDatalinkTag.PlatformDesignation,
+                new UasDatalinkString(UasDatalinkString.PLATFORM_DESIGNATION, "WideScope"));
+        values.put(
+                UasDatalinkTag.ImageSourceSensor,
+                new UasDatalinkString(UasDatalinkString.IMAGE_SOURCE_SENSOR, "DTV"));
+        values.put(
+                UasDatalinkTag.ImageCoordinateSystem,
+                new UasDatalinkString(UasDatalinkString.IMAGE_COORDINATE_SYSTEM, "Geodetic WGS84"));
 
-                values.put(UasDatalinkTag.SensorHorizontalFov, new HorizontalFov(7.0));
-                values.put(UasDatalinkTag.SensorVerticalFov, new VerticalFov(5.0));
+        values.put(UasDatalinkTag.SensorLatitude, new SensorLatitude(sensorLatitude));
+        values.put(UasDatalinkTag.SensorLongitude, new SensorLongitude(sensorLongitude));
+        values.put(UasDatalinkTag.SensorTrueAltitude, new SensorTrueAltitude(sensorAltitude));
 
-                values.put(UasDatalinkTag.SlantRange, new SlantRange(slantRange));
-                values.put(UasDatalinkTag.TargetWidth, new TargetWidth(100.0));
+        values.put(UasDatalinkTag.PlatformHeadingAngle, new PlatformHeadingAngle(10.0));
+        values.put(
+                UasDatalinkTag.PlatformPitchAngle,
+                new PlatformPitchAngle(1.0 * (i / switchingValue)));
+        values.put(
+                UasDatalinkTag.PlatformRollAngle,
+                new PlatformRollAngle(-1.0 * (i / switchingValue)));
 
-                values.put(UasDatalinkTag.FrameCenterLatitude, new FrameCenterLatitude(-35.35305));
-                values.put(
-                        UasDatalinkTag.FrameCenterLongitude, new FrameCenterLongitude(149.08939));
-                values.put(UasDatalinkTag.FrameCenterElevation, new FrameCenterElevation(12.0));
+        values.put(UasDatalinkTag.SensorRelativeAzimuthAngle, new SensorRelativeAzimuth(330.0));
+        values.put(UasDatalinkTag.SensorRelativeElevationAngle, new SensorRelativeElevation(-70.0));
+        values.put(UasDatalinkTag.SensorRelativeRollAngle, new SensorRelativeRoll(0.0));
+
+        values.put(UasDatalinkTag.SensorHorizontalFov, new HorizontalFov(7.0));
+        values.put(UasDatalinkTag.SensorVerticalFov, new VerticalFov(5.0));
 
+        values.put(UasDatalinkTag.SlantRange, new SlantRange(slantRange));
+        values.put(UasDatalinkTag.TargetWidth, new TargetWidth(100.0));
+
+        values.put(UasDatalinkTag.FrameCenterLatitude, new FrameCenterLatitude(-35.35305));
+        values.put(UasDatalinkTag.FrameCenterLongitude, new FrameCenterLongitude(149.08939));
+        values.put(UasDatalinkTag.FrameCenterElevation, new FrameCenterElevation(12.0));
+
+        values.put(
+                UasDatalinkTag.SecurityLocalMetadataSet,
+                new NestedSecurityMetadata(getSecurityLs(i / switchingValue)));
+        if (this.version0601 > 12) {
+            if ((i / switchingValue) % 2 == 0) {
                 values.put(
-                        UasDatalinkTag.SecurityLocalMetadataSet,
-                        new NestedSecurityMetadata(getSecurityLs(i / switchingValue)));
-                if (this.version0601 > 12) {
-                    if ((i / switchingValue) % 2 == 0) {
-                        values.put(
-                                UasDatalinkTag.CountryCodes,
-                                new CountryCodes(
-                                        CountryCodingMethod.GENC_THREE_LETTER, "CAN", "", "FRA"));
-                    } else {
-                        values.put(
-                                UasDatalinkTag.CountryCodes,
-                                new CountryCodes(
-                                        CountryCodingMethod.GENC_THREE_LETTER,
-                                        "AUS",
-                                        "CAN",
-                                        "NZL"));
-                    }
-                }
+                        UasDatalinkTag.CountryCodes,
+                        new CountryCodes(CountryCodingMethod.GENC_THREE_LETTER, "CAN", "", "FRA"));
+            } else {
                 values.put(
-                        UasDatalinkTag.VmtiLocalDataSet, new NestedVmtiLocalSet(getVmtiLocalSet()));
-                if (this.version0601 > 12) {
-                    values.put(UasDatalinkTag.PayloadList, getPayloadList());
-                }
-                if (includeSARMI) {
-                    values.put(
-                            UasDatalinkTag.SarMotionImageryMetadata,
-                            new NestedSARMILocalSet(getSARMILocalSet()));
-                }
-                UasDatalinkMessage message = new UasDatalinkMessage(values);
-
-                output.addVideoFrame(new VideoFrame(image, pts * 1.0e-6));
-                output.addMetadataFrame(new MetadataFrame(message, pts));
-                pts += frameDuration * 1.0e6;
+                        UasDatalinkTag.CountryCodes,
+                        new CountryCodes(
+                                CountryCodingMethod.GENC_THREE_LETTER, "AUS", "CAN", "NZL"));
             }
-
-        } catch (IOException e) {
-            LOG.error("Failed to write file", e);
         }
+        values.put(UasDatalinkTag.VmtiLocalDataSet, new NestedVmtiLocalSet(getVmtiLocalSet()));
+        if (this.version0601 > 12) {
+            values.put(UasDatalinkTag.PayloadList, getPayloadList());
+        }
+        if (includeSARMI) {
+            values.put(
+                    UasDatalinkTag.SarMotionImageryMetadata,
+                    new NestedSARMILocalSet(getSARMILocalSet()));
+        }
+        return new UasDatalinkMessage(values);
     }
 
     private SecurityMetadataLocalSet getSecurityLs(long i) {
@@ -0,0 +1,305 @@
+package org.jmisb.examples.pipelinebenchmark;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.jmisb.api.klv.IMisbMessage;
+import org.jmisb.api.klv.st0601.PrecisionTimeStamp;
+import org.jmisb.api.klv.st0601.UasDatalinkMessage;
+import org.jmisb.api.klv.st0601.UasDatalinkTag;
+import org.jmisb.api.video.IVideoFileInput;
+import org.jmisb.api.video.IVideoFileOutput;
+import org.jmisb.api.video.IVideoInput;
+import org.jmisb.api.video.IVideoStreamInput;
+import org.jmisb.api.video.InputStatistics;
+import org.jmisb.api.video.MetadataFrame;
+import org.jmisb.api.video.OutputStatistics;
+import org.jmisb.api.video.VideoFileInput;
+import org.jmisb.api.video.VideoFileOutput;
+import org.jmisb.api.video.VideoFrame;
+import org.jmisb.api.video.VideoStreamInput;
+import org.jmisb.api.video.VideoStreamOutput;
+import org.jmisb.examples.generator.Generator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * End-to-end video pipeline benchmark.
+ *
+ * <p>Synthetic video frames and KLV metadata (from the generator example) are encoded to a file or
+ * a UDP stream, and read back through jMISB. The benchmark reports decode throughput, KLV message
+ * throughput, the intervals between deliveries to the listeners, output queue depths and (in stream
+ * mode) KLV latency percentiles.
+ *
+ * <p>In file mode, the file is written first and then read back as fast as possible (ripping mode),
+ * so there is no meaningful latency; only the delivery intervals are reported. In stream mode,
+ * frames are sent in real time, and the KLV latency is measured from the ST 0601 precision time
+ * stamp (set to the wall clock time when the frame was queued) to delivery. Video frames carry no
+ * send time, so video latency is not measured. Frames sent while the input is analysing the stream
+ * are delivered late, so they show up as a KLV latency tail.
+ */
+public class PipelineBenchmark {
+    private static final Logger LOG = LoggerFactory.getLogger(PipelineBenchmark.class);
+
+    /** Time to wait for the last frames after the stream output has finished sending. */
+    private static final long DRAIN_MILLISECONDS = 2000;
+
+    /** Time without any deliveries after end of file before the file is considered complete. */
+    private static final long QUIET_MILLISECONDS = 1000;
+
+    /** Interval between samples of the output queue depths. */
+    private static final long QUEUE_SAMPLE_MILLISECONDS = 100;
+
+    private final Generator generator;
+    private final long numFrames;
+
+    private final AtomicLong videoFramesReceived = new AtomicLong();
+    private final AtomicLong metadataFramesReceived = new AtomicLong();
+    private final AtomicLong lastVideoNanos = new AtomicLong();
+    private final AtomicLong lastMetadataNanos = new AtomicLong();
+    private SampleStatistics videoIntervals;
+    private SampleStatistics metadataIntervals;
+    private SampleStatistics metadataLatency;
+    private SampleStatistics encodeQueueDepth;
+    private SampleStatistics sendQueueDepth;
+
+    /**
+     * Constructor.
+     *
+     * @param generator the generator used to synthesize video frames and metadata
+     * @param numFrames the number of frames to encode
+     */
+    public PipelineBenchmark(Generator generator, long numFrames) {
+        this.generator = generator;
+        this.numFrames = numFrames;
+    }
+
+    /**
+     * Run the benchmark through a file.
+     *
+     * @param filename the file to write and then read back
+     * @throws IOException if the file could not be written or read
+     * @throws InterruptedException if interrupted while waiting for the file to be read
+     */
+    public void runFile(String filename) throws IOException, InterruptedException {
+        reset();
+        BufferedImage image = generator.getImage();
+        double frameDuration = 1.0 / generator.getFrameRate();
+        long wallClockMicros = System.currentTimeMillis() * 1000;
+
+        long encodeStart = System.nanoTime();
+        try (IVideoFileOutput output = new VideoFileOutput(generator.getVideoOutputOptions())) {
+            output.open(filename);
+            for (long i = 0; i < numFrames; ++i) {
+                double pts = i * frameDuration;
+                long timeStamp = wallClockMicros + Math.round(pts * 1.0e6);
+                output.addVideoFrame(new VideoFrame(image, pts));
+                output.addMetadataFrame(
+                        new MetadataFrame(generator.createMessage(i, timeStamp), pts));
+            }
+        }
+        long encodeNanos = System.nanoTime() - encodeStart;
+
+        CountDownLatch endOfFile = new CountDownLatch(1);
+        long decodeStart;
+        long decodeNanos;
+        InputStatistics inputStatistics;
+        try (IVideoFileInput input = new VideoFileInput()) {
+            addListeners(input, false);
+            input.addFileEventListener(endOfFile::countDown);
+            input.open(filename);
+            decodeStart = System.nanoTime();
+            input.setPlaybackSpeed(Double.MAX_VALUE);
+            input.play();
+            endOfFile.await();
+            // End of file is signalled by the demuxer, so frames can still be in the decoders
+            awaitQuiet();
+            decodeNanos = getDecodeNanos(decodeStart);
+            inputStatistics = input.getStatistics();
+        }
+
+        System.out.println("File pipeline: " + filename);
+        System.out.println(
+                String.format(
+                        "Encode: %d frames in %.2f s (%.1f fps)",
+                        numFrames, encodeNanos * 1.0e-9, numFrames / (encodeNanos * 1.0e-9)));
+        System.out.println("Input: " + inputStatistics);
+        report(decodeNanos);
+    }
+
+    /**
+     * Run the benchmark through a UDP stream.
+     *
+     * <p>The stream is sent in real time, at the frame rate of the generator.
+     *
+     * @param url the UDP URL to send to and receive from (e.g. {@code udp://127.0.0.1:15000})
+     * @throws IOException if the stream could not be opened
+     * @throws InterruptedException if interrupted while waiting for the stream to complete
+     */
+    public void runStream(String url) throws IOException, InterruptedException {
+        reset();
+        BufferedImage image = generator.getImage();
+        double frameDuration = 1.0 / generator.getFrameRate();
+        long frameNanos = Math.round(frameDuration * 1.0e9);
+
+        try (VideoStreamOutput output = new VideoStreamOutput(generator.getVideoOutputOptions())) {
+            output.open(url);
+            Thread sender =
+                    new Thread(
+                            () -> {
+                                long next = System.nanoTime();
+                                try {
+                                    for (long i = 0; i < numFrames; ++i) {
+                                        double pts = i * frameDuration;
+                                        long timeStamp = System.currentTimeMillis() * 1000;
+                                        output.queueVideoFrame(new VideoFrame(image, pts));
+                                        output.queueMetadataFrame(
+                                                new MetadataFrame(
+                                                        generator.createMessage(i, timeStamp),
+                                                        pts));
+                                        next += frameNanos;
+                                        long sleep = next - System.nanoTime();
+                                        if (sleep > 0) {
+                                            TimeUnit.NANOSECONDS.sleep(sleep);
+                                        }
+                                    }
+                                } catch (IOException e) {
+                                    LOG.error("Failed to send frame", e);
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+                            },
+                            "PipelineBenchmark sender");
+            sender.start();
+
+            long decodeStart;
+            long decodeNanos;
+            InputStatistics inputStatistics;
+            try (IVideoStreamInput input = new VideoStreamInput()) {
+                addListeners(input, true);
+                // This blocks until the stream has been analysed, so the first frames are missed
+                input.open(url);
+                decodeStart = System.nanoTime();
+                while (sender.isAlive()) {
+                    sampleQueues(output.getStatistics());
+                    sender.join(QUEUE_SAMPLE_MILLISECONDS);
+                }
+                long drainEnd = System.nanoTime() + DRAIN_MILLISECONDS * 1_000_000;
+                while (System.nanoTime() < drainEnd) {
+                    sampleQueues(output.getStatistics());
+                    Thread.sleep(QUEUE_SAMPLE_MILLISECONDS);
+                }
+                decodeNanos = getDecodeNanos(decodeStart);
+                inputStatistics = input.getStatistics();
+            }
+
+            System.out.println("Stream pipeline: " + url);
+            System.out.println("Output: " + output.getStatistics());
+            System.out.println("Input: " + inputStatistics);
+            report(decodeNanos);
+            System.out.println(encodeQueueDepth);
+            System.out.println(sendQueueDepth);
+        }
+    }
+
+    private void reset() {
+        videoFramesReceived.set(0);
+        metadataFramesReceived.set(0);
+        lastVideoNanos.set(0);
+        lastMetadataNanos.set(0);
+        videoIntervals = new SampleStatistics("Video frame delivery interval", "us");
+        metadataIntervals = new SampleStatistics("KLV message delivery interval", "us");
+        metadataLatency = new SampleStatistics("KLV end-to-end latency", "us");
+        encodeQueueDepth = new SampleStatistics("Output encode queue depth", "frames");
+        sendQueueDepth = new SampleStatistics("Output send queue depth", "frames");
+    }
+
+    /**
+     * Get the time from the start of decoding to the last delivery.
+     *
+     * @param decodeStart the {@link System#nanoTime()} value when decoding started
+     * @return the decode time in nanoseconds, or zero if nothing was delivered after the start
+     */
+    private long getDecodeNanos(long decodeStart) {
+        long last = Math.max(lastVideoNanos.get(), lastMetadataNanos.get());
+        return Math.max(0, last - decodeStart);
+    }
+
+    private void awaitQuiet() throws InterruptedException {
+        long received = -1;
+        while (received != videoFramesReceived.get() + metadataFramesReceived.get()) {
+            received = videoFramesReceived.get() + metadataFramesReceived.get();
+            Thread.sleep(QUIET_MILLISECONDS);
+        }
+    }
+
+    private void addListeners(IVideoInput input, boolean measureLatency) {
+        input.addFrameListener(
+                frame -> {
+                    videoFramesReceived.incrementAndGet();
+                    recordInterval(lastVideoNanos, videoIntervals);
+                });
+        input.addMetadataListener(
+                frame -> {
+                    metadataFramesReceived.incrementAndGet();
+                    recordInterval(lastMetadataNanos, metadataIntervals);
+                    if (measureLatency) {
+                        recordLatency(frame.getMisbMessage());
+                    }
+                });
+    }
+
+    private static void recordInterval(AtomicLong last, SampleStatistics intervals) {
+        long now = System.nanoTime();
+        long previous = last.getAndSet(now);
+        if (previous != 0) {
+            intervals.add((now - previous) / 1000);
+        }
+    }
+
+    private void recordLatency(IMisbMessage message) {
+        if (message instanceof UasDatalinkMessage) {
+            PrecisionTimeStamp timeStamp =
+                    (PrecisionTimeStamp)
+                            ((UasDatalinkMessage) message)
+                                    .getField(UasDatalinkTag.PrecisionTimeStamp);
+            if (timeStamp != null) {
+                metadataLatency.add(
+                        System.currentTimeMillis() * 1000 - timeStamp.getMicroseconds());
+            }
+        }
+    }
+
+    private void sampleQueues(OutputStatistics statistics) {
+        encodeQueueDepth.add(
+                statistics.getNumVideoFramesQueued() - statistics.getNumVideoFramesEncoded());
+        sendQueueDepth.add(
+                statistics.getNumVideoFramesEncoded() - statistics.getNumVideoFramesSent());
+    }
+
+    private void report(long decodeNanos) {
+        if (decodeNanos == 0) {
+            System.out.println("Decode: no frames received");
+            return;
+        }
+        double seconds = decodeNanos * 1.0e-9;
+        System.out.println(
+                String.format(
+                        "Decode: %d video frames in %.2f s (%.1f fps)",
+                        videoFramesReceived.get(), seconds, videoFramesReceived.get() / seconds));
+        System.out.println(
+                String.format(
+                        "KLV: %d messages in %.2f s (%.1f messages/s)",
+                        metadataFramesReceived.get(),
+                        seconds,
+                        metadataFramesReceived.get() / seconds));
+        System.out.println(videoIntervals);
+        System.out.println(metadataIntervals);
+        if (metadataLatency.getCount() > 0) {
+            System.out.println(metadataLatency);
+            System.out.println("Video latency: not measured");
+        }
+    }
+}
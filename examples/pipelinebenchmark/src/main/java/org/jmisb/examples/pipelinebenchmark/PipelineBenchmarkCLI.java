@@ -0,0 +1,76 @@
+package org.jmisb.examples.pipelinebenchmark;
+
+import java.io.IOException;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.jmisb.api.video.CodecIdentifier;
+import org.jmisb.api.video.KlvFormat;
+import org.jmisb.examples.generator.Generator;
+
+/** End-to-end video pipeline benchmark */
+public class PipelineBenchmarkCLI {
+
+    /** @param args the command line arguments */
+    public static void main(String[] args) {
+        final Options commandLineOptions = new Options();
+        commandLineOptions.addOption(
+                new Option(null, "file", true, "Run through a file (default pipeline_test.mpeg)"));
+        commandLineOptions.addOption(
+                new Option(null, "stream", true, "Run through a UDP stream (udp://host:port)"));
+        commandLineOptions.addOption(
+                new Option("n", "frames", true, "Number of frames to encode (default 300)"));
+        commandLineOptions.addOption(
+                new Option("s", "synchronousMultiplex", false, "Use synchronous multiplexing."));
+        commandLineOptions.addOption(
+                new Option(null, "coding", true, "The video coding to use (H.264 or H.265)"));
+        commandLineOptions.addOption(new Option("h", "help", false, "Show help message"));
+        CommandLineParser commandLineParser = new DefaultParser();
+        CommandLine commandLine;
+        try {
+            commandLine = commandLineParser.parse(commandLineOptions, args);
+            if (commandLine.hasOption("h")) {
+                showHelp(commandLineOptions);
+                return;
+            }
+            Generator generator = new Generator();
+            if (commandLine.hasOption("coding")) {
+                String codecName = commandLine.getOptionValue("coding");
+                if (codecName.equalsIgnoreCase("H.264") || codecName.equalsIgnoreCase("H264")) {
+                    generator.setCodec(CodecIdentifier.H264);
+                } else if (codecName.equalsIgnoreCase("H.265")
+                        || codecName.equalsIgnoreCase("H265")) {
+                    generator.setCodec(CodecIdentifier.H265);
+                }
+            }
+            if (commandLine.hasOption("s")) {
+                generator.setKlvFormat(KlvFormat.Synchronous);
+            }
+            long numFrames = Long.parseLong(commandLine.getOptionValue("frames", "300"));
+            PipelineBenchmark benchmark = new PipelineBenchmark(generator, numFrames);
+            if (commandLine.hasOption("stream")) {
+                benchmark.runStream(commandLine.getOptionValue("stream"));
+            } else {
+                benchmark.runFile(commandLine.getOptionValue("file", "pipeline_test.mpeg"));
+            }
+        } catch (ParseException | NumberFormatException ex) {
+            showHelp(commandLineOptions);
+        } catch (IOException ex) {
+            System.out.println("Benchmark failed: " + ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void showHelp(final Options commandLineOptions) {
+        String header = "Measure end-to-end video and KLV pipeline throughput and latency\n\n";
+        String footer =
+                "\nPlease report issues at https://github.com/WestRidgeSystems/jmisb/issues";
+        HelpFormatter formatter = new HelpFormatter();
+        formatter.printHelp("pipelinebenchmark", header, commandLineOptions, footer, true);
+    }
+}
@@ -0,0 +1,93 @@
+package org.jmisb.examples.pipelinebenchmark;
+
+import java.util.Arrays;
+
+/**
+ * Collection of measurement samples, with percentile reporting.
+ *
+ * <p>Samples are added from the listener threads, so access is synchronized.
+ */
+public class SampleStatistics {
+    private final String name;
+    private final String units;
+    private long[] samples = new long[1024];
+    private int count = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param name the name of the measurement, used in the report
+     * @param units the units of the samples, used in the report
+     */
+    public SampleStatistics(String name, String units) {
+        this.name = name;
+        this.units = units;
+    }
+
+    /**
+     * Add a sample.
+     *
+     * @param value the sample value
+     */
+    public synchronized void add(long value) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        samples[count++] = value;
+    }
+
+    /**
+     * Get the number of samples.
+     *
+     * @return the sample count
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Get a percentile value.
+     *
+     * @param percentile the percentile, in the range [0, 100]
+     * @return the sample value at that percentile, or zero if there are no samples
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    /**
+     * Get the mean value.
+     *
+     * @return the mean of the samples, or zero if there are no samples
+     */
+    public synchronized double getMean() {
+        if (count == 0) {
+            return 0.0;
+        }
+        double sum = 0.0;
+        for (int i = 0; i < count; i++) {
+            sum += samples[i];
+        }
+        return sum / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%s (%s): n=%d mean=%.1f p50=%d p90=%d p99=%d max=%d",
+                name,
+                units,
+                getCount(),
+                getMean(),
+                getPercentile(50),
+                getPercentile(90),
+                getPercentile(99),
+                getPercentile(100));
+    }
+}
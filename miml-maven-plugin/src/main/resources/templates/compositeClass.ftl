@@ -3,15 +3,14 @@
 // Template: ${.current_template_name}
 package ${packageName};
 
+import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import org.jmisb.api.common.Beta;
-import org.jmisb.api.common.InvalidDataHandler;
 import org.jmisb.api.common.KlvParseException;
+import org.jmisb.api.common.ParseContext;
 import org.jmisb.api.klv.ArrayBuilder;
 <#if topLevel>
 import org.jmisb.api.klv.CrcCcitt;
@@ -25,6 +24,7 @@ import org.jmisb.api.klv.KlvConstants;
 </#if>
 import org.jmisb.api.klv.LdsField;
 <#if topLevel>
+import org.jmisb.api.klv.TagFilter;
 import org.jmisb.api.klv.UniversalLabel;
 <#else>
 import org.jmisb.api.klv.LdsParser;
@@ -74,7 +74,7 @@ public class ${name} implements <#if topLevel>IMisbMessage, </#if>IMimdMetadataV
 </#list>
 
     /** Map containing all data elements in the message. */
-    private final SortedMap<${name}MetadataKey, IMimdMetadataValue> map = new TreeMap<>();
+    private final Map<${name}MetadataKey, IMimdMetadataValue> map = new EnumMap<>(${name}MetadataKey.class);
 
     /**
      * Create a new empty ${name} local set.
@@ -92,7 +92,7 @@ public class ${name} implements <#if topLevel>IMisbMessage, </#if>IMimdMetadataV
         propagateValueMap(map);
     }
 
-    private void propagateValueMap(SortedMap<${name}MetadataKey, IMimdMetadataValue> map) throws IllegalArgumentException {
+    private void propagateValueMap(Map<${name}MetadataKey, IMimdMetadataValue> map) throws IllegalArgumentException {
         map.forEach((${name}MetadataKey key, IMimdMetadataValue value) -> {
             switch (key) {
 <#list entries as entry>
@@ -266,7 +266,23 @@ public class ${name} implements <#if topLevel>IMisbMessage, </#if>IMimdMetadataV
      * @throws KlvParseException if parsing fails
      */
     public ${name}(byte[] bytes) throws KlvParseException {
-        List<LdsField> fields = MimdParser.parseFields(bytes, 0, bytes.length);
+        this(bytes, null);
+    }
+
+    /**
+     * Build a ${name} Local Set from encoded bytes, decoding only selected values.
+     *
+     * <p>Only the ${name}MetadataKey values in {@code wantedKeys} are decoded. If {@code wantedKeys}
+     * does not contain any ${name}MetadataKey values, all values are decoded. The check value is
+     * always verified.
+     *
+     * @param bytes the bytes to build from
+     * @param wantedKeys the keys to decode, or null to decode all keys
+     * @throws KlvParseException if parsing fails
+     */
+    public ${name}(byte[] bytes, Set<? extends IKlvKey> wantedKeys) throws KlvParseException {
+        TagFilter tagFilter = TagFilter.forKeys(wantedKeys, ${name}MetadataKey.class);
+        List<LdsField> fields = MimdParser.parseFields(bytes, 0, bytes.length, tagFilter);
         for (LdsField field : fields) {
             ${name}MetadataKey key = ${name}MetadataKey.getKey(field.getTag());
             try {
@@ -298,9 +314,7 @@ public class ${name} implements <#if topLevel>IMisbMessage, </#if>IMimdMetadataV
                         break;
                     }
             } catch (KlvParseException | IllegalArgumentException ex) {
-                        InvalidDataHandler idh = InvalidDataHandler.getInstance();
-                        String msg = ex.getMessage();
-                        idh.handleInvalidFieldEncoding(LOGGER, msg);
+                        ParseContext.current().handleInvalidFieldEncoding(LOGGER, ex.getMessage());
             }
         }
     }
@@ -316,7 +330,7 @@ public class ${name} implements <#if topLevel>IMisbMessage, </#if>IMimdMetadataV
      * @param data the bytes to build from.
      * @param offset the offset into {@code bytes} to start parsing from.
      * @param numBytes the number of bytes to parse.
-     * @throws KlvParseException if parsing fails (depending on InvalidDataHandler strategy)
+     * @throws KlvParseException if parsing fails (depending on the current ParseContext strategy)
      */
     public ${name}(byte[] data, int offset, int numBytes) throws KlvParseException {
         List<LdsField> fields = LdsParser.parseFields(data, offset, numBytes);
@@ -351,9 +365,7 @@ public class ${name} implements <#if topLevel>IMisbMessage, </#if>IMimdMetadataV
                         break;
                     }
             } catch (KlvParseException | IllegalArgumentException ex) {
-                InvalidDataHandler idh = InvalidDataHandler.getInstance();
-                String msg = ex.getMessage();
-                idh.handleInvalidFieldEncoding(LOGGER, msg);
+                ParseContext.current().handleInvalidFieldEncoding(LOGGER, ex.getMessage());
             }
         }
     }
@@ -18,6 +18,13 @@ import org.jmisb.api.klv.st1902.IMimdMetadataValue;
  * <p>See ${document} for more information on this data type.
  */
 public class ${namespacedName} implements IMimdMetadataValue {
+<#if typeName=="Real" && minValue?? && maxValue??>
+    <#if resolution??>
+    private static final org.jmisb.api.klv.st1201.FpEncoder ENCODER = org.jmisb.api.klv.st1201.FpEncoder.getInstance(${minValue}, ${maxValue}, (double)${resolution}, org.jmisb.api.klv.st1201.OutOfRangeBehaviour.Default);
+    <#else>
+    private static final org.jmisb.api.klv.st1201.FpEncoder ENCODER = org.jmisb.api.klv.st1201.FpEncoder.getInstance(${minValue}, ${maxValue}, Float.BYTES, org.jmisb.api.klv.st1201.OutOfRangeBehaviour.Default);
+    </#if>
+</#if>
     private final ${primitiveType} implementingValue;
 
     /**
@@ -70,7 +77,7 @@ public class ${namespacedName} implements IMimdMetadataValue {
         try {
 <#if typeName=="Real">
     <#if minValue?? && maxValue??>
-            org.jmisb.api.klv.st1201.FpEncoder decoder = new org.jmisb.api.klv.st1201.FpEncoder(${minValue}, ${maxValue}, bytes.length, org.jmisb.api.klv.st1201.OutOfRangeBehaviour.Default);
+            org.jmisb.api.klv.st1201.FpEncoder decoder = (bytes.length == ENCODER.getFieldLength()) ? ENCODER : org.jmisb.api.klv.st1201.FpEncoder.getInstance(${minValue}, ${maxValue}, bytes.length, org.jmisb.api.klv.st1201.OutOfRangeBehaviour.Default);
             this.implementingValue = decoder.decode(bytes);
     <#else>
             this.implementingValue = org.jmisb.core.klv.PrimitiveConverter.toFloat64(bytes);
@@ -112,7 +119,7 @@ public class ${namespacedName} implements IMimdMetadataValue {
         try {
 <#if typeName=="Real">
     <#if minValue?? && maxValue??>
-            org.jmisb.api.klv.st1201.FpEncoder decoder = new org.jmisb.api.klv.st1201.FpEncoder(${minValue}, ${maxValue}, length, org.jmisb.api.klv.st1201.OutOfRangeBehaviour.Default);
+            org.jmisb.api.klv.st1201.FpEncoder decoder = (length == ENCODER.getFieldLength()) ? ENCODER : org.jmisb.api.klv.st1201.FpEncoder.getInstance(${minValue}, ${maxValue}, length, org.jmisb.api.klv.st1201.OutOfRangeBehaviour.Default);
             this.implementingValue = decoder.decode(bytes, offset);
     <#else>
             this.implementingValue = org.jmisb.core.klv.PrimitiveConverter.toFloat64(bytes, offset, length);
@@ -138,12 +145,7 @@ public class ${namespacedName} implements IMimdMetadataValue {
     public byte[] getBytes() {
 <#if typeName=="Real">
     <#if minValue?? && maxValue??>
-        <#if resolution??>
-        org.jmisb.api.klv.st1201.FpEncoder encoder = new org.jmisb.api.klv.st1201.FpEncoder(${minValue}, ${maxValue}, (double)${resolution}, org.jmisb.api.klv.st1201.OutOfRangeBehaviour.Default);
-        <#else>
-        org.jmisb.api.klv.st1201.FpEncoder encoder = new org.jmisb.api.klv.st1201.FpEncoder(${minValue}, ${maxValue}, Float.BYTES, org.jmisb.api.klv.st1201.OutOfRangeBehaviour.Default);
-        </#if>
-        return encoder.encode(implementingValue);
+        return ENCODER.encode(implementingValue);
     <#else>
         // TODO: consider a version that allows selection of length 4 or 8 bytes.
         return org.jmisb.core.klv.PrimitiveConverter.float64ToBytes(implementingValue);